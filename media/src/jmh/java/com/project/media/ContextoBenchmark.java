@@ -0,0 +1,42 @@
+package com.project.media;
+
+import org.springframework.boot.SpringApplication;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Sobe a aplicação sem servidor web contra um H2 em memória exclusivo, semeado
+ * pelo {@code DataInitializerExpandido} (perfil default). Argumentos extras
+ * sobrescrevem os padrões abaixo.
+ */
+public final class ContextoBenchmark {
+
+    private ContextoBenchmark() {
+    }
+
+    public static ConfigurableApplicationContext iniciar(String... argumentosExtras) {
+        List<String> argumentos = new ArrayList<>(List.of(
+                "--spring.datasource.url=jdbc:h2:mem:bench-" + UUID.randomUUID() + ";DB_CLOSE_DELAY=-1",
+                "--spring.datasource.username=sa",
+                "--spring.datasource.password=",
+                "--spring.datasource.driver-class-name=org.h2.Driver",
+                "--spring.jpa.database-platform=org.hibernate.dialect.H2Dialect",
+                "--spring.jpa.hibernate.ddl-auto=create-drop",
+                "--spring.jpa.show-sql=false",
+                "--jwt.secret=chave-de-benchmark-com-pelo-menos-32-bytes",
+                "--jwt.expiration=86400000",
+                "--logging.level.root=WARN",
+                "--logging.level.com.project.media=WARN"
+        ));
+        argumentos.addAll(Arrays.asList(argumentosExtras));
+
+        SpringApplication app = new SpringApplication(MediaApplication.class);
+        app.setWebApplicationType(WebApplicationType.NONE);
+        return app.run(argumentos.toArray(new String[0]));
+    }
+}
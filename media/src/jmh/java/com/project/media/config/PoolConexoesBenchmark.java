@@ -0,0 +1,130 @@
+package com.project.media.config;
+
+import com.project.media.ContextoBenchmark;
+import com.project.media.dto.HistoricoConsultaDto;
+import com.project.media.dto.HistoricoCursorResponseDto;
+import com.project.media.dto.SugestaoRequestDto;
+import com.project.media.dto.SugestaoResponseDto;
+import com.project.media.entity.Sintoma;
+import com.project.media.repository.SintomaRepository;
+import com.project.media.service.SugestaoService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Vazão dos caminhos de /api/sugestoes com 16 threads concorrentes conforme o
+ * tamanho do pool de conexões (pool fixo: minimum-idle igual ao máximo).
+ *
+ * O H2 em memória não tem ida e volta pela rede, então a curva mostra só a
+ * contenção pelo pool; contra o Oracle a vantagem de pools maiores cresce com
+ * a latência de cada consulta.
+ *
+ * Execução: {@code mvn -Pbenchmark test-compile exec:exec@jmh -Djmh.args="PoolConexoesBenchmark"}
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 2, time = 3)
+@Measurement(iterations = 5, time = 3)
+@Fork(value = 1, jvmArgsAppend = "-Xmx2g")
+@Threads(16)
+@State(Scope.Benchmark)
+public class PoolConexoesBenchmark {
+
+    private static final int PACIENTES = 5000;
+
+    private static final LocalDateTime INICIO = LocalDateTime.of(2024, 1, 1, 0, 0);
+
+    @Param({"1", "2", "4", "8", "16"})
+    public int tamanhoPool;
+
+    @Param({"200000"})
+    public int linhas;
+
+    private ConfigurableApplicationContext contexto;
+    private SugestaoService sugestaoService;
+    private List<String> nomesSintomas;
+    private LocalDateTime fimDados;
+
+    @Setup(Level.Trial)
+    public void iniciar() {
+        contexto = ContextoBenchmark.iniciar(
+                "--spring.datasource.hikari.maximum-pool-size=" + tamanhoPool,
+                "--spring.datasource.hikari.minimum-idle=" + tamanhoPool,
+                "--spring.datasource.hikari.connection-timeout=30000",
+                "--media.sugestoes.cache.tamanho-maximo=0",
+                "--media.historico.sintomas.backfill-inicial=false",
+                "--logging.level.org.hibernate=ERROR",
+                "--logging.level.com.project.media.service.RegistradorHistorico=ERROR");
+        sugestaoService = contexto.getBean(SugestaoService.class);
+        JdbcTemplate jdbcTemplate = contexto.getBean(JdbcTemplate.class);
+
+        nomesSintomas = contexto.getBean(SintomaRepository.class).findAll().stream()
+                .map(Sintoma::getNome)
+                .toList();
+
+        Long sugestaoMinima = jdbcTemplate.queryForObject("SELECT MIN(id) FROM sugestoes", Long.class);
+        Long sugestoes = jdbcTemplate.queryForObject("SELECT COUNT(*) FROM sugestoes", Long.class);
+        jdbcTemplate.update(
+                "INSERT INTO historico_consultas (id, sintomas_informados, cpf_paciente, nome_paciente, sugestao_id, " +
+                "data_consulta, tempo_resposta_ms) " +
+                "SELECT NEXT VALUE FOR historico_consultas_seq, 'febre, tosse', " +
+                "LPAD(MOD(x * 7919, " + PACIENTES + "), 11, '0'), 'Paciente ' || MOD(x, " + PACIENTES + "), " +
+                sugestaoMinima + " + MOD(x, " + sugestoes + "), " +
+                "DATEADD('SECOND', x * 60, TIMESTAMP '2024-01-01 00:00:00'), MOD(x, 400) " +
+                "FROM SYSTEM_RANGE(1, " + linhas + ")");
+        jdbcTemplate.execute("ANALYZE");
+
+        fimDados = INICIO.plusSeconds(60L * linhas);
+    }
+
+    @TearDown(Level.Trial)
+    public void encerrar() {
+        contexto.close();
+    }
+
+    private static String cpfAleatorio() {
+        return String.format("%011d", ThreadLocalRandom.current().nextInt(PACIENTES));
+    }
+
+    @Benchmark
+    public List<SugestaoResponseDto> sugestoes() {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        List<String> sintomas = List.of(
+                nomesSintomas.get(random.nextInt(nomesSintomas.size())),
+                nomesSintomas.get(random.nextInt(nomesSintomas.size())));
+        return sugestaoService.buscarSugestoes(new SugestaoRequestDto(sintomas), null);
+    }
+
+    @Benchmark
+    public Page<HistoricoConsultaDto> historicoPorCpf() {
+        return sugestaoService.buscarHistorico(cpfAleatorio(), fimDados.minusDays(90), fimDados,
+                PageRequest.of(0, 10, Sort.by(Sort.Direction.DESC, "dataConsulta")));
+    }
+
+    @Benchmark
+    public HistoricoCursorResponseDto historicoPorCursor() {
+        return sugestaoService.buscarHistoricoPorCursor(null, fimDados.minusDays(7), fimDados, null, null, 20);
+    }
+}
@@ -0,0 +1,126 @@
+package com.project.media.repository;
+
+import com.project.media.ContextoBenchmark;
+import com.project.media.dto.HistoricoConsultaDto;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Latência das consultas de /history sobre {@code linhas} registros, com e sem
+ * os índices de {@code historico_consultas}.
+ *
+ * Execução: {@code mvn -Pbenchmark test-compile exec:exec@jmh -Djmh.args="HistoricoConsultaBenchmark"}
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "-Xmx3g")
+@State(Scope.Benchmark)
+public class HistoricoConsultaBenchmark {
+
+    private static final String[] INDICES = {
+        "idx_historico_cpf_data", "idx_historico_data", "idx_historico_sugestao_data"
+    };
+
+    private static final LocalDateTime INICIO = LocalDateTime.of(2024, 1, 1, 0, 0);
+
+    private static final int PACIENTES = 20000;
+
+    @Param({"1000000"})
+    public int linhas;
+
+    @Param({"true", "false"})
+    public boolean comIndices;
+
+    private ConfigurableApplicationContext contexto;
+    private HistoricoConsultaRepository repository;
+    private Random random;
+
+    private LocalDateTime fimDados;
+    private HistoricoConsultaDto meioDaTabela;
+
+    @Setup(Level.Trial)
+    public void iniciar() {
+        contexto = ContextoBenchmark.iniciar("--logging.level.org.hibernate=ERROR");
+        repository = contexto.getBean(HistoricoConsultaRepository.class);
+        JdbcTemplate jdbcTemplate = contexto.getBean(JdbcTemplate.class);
+
+        Long sugestaoMinima = jdbcTemplate.queryForObject("SELECT MIN(id) FROM sugestoes", Long.class);
+        Long sugestoes = jdbcTemplate.queryForObject("SELECT COUNT(*) FROM sugestoes", Long.class);
+        Long idMaximo = jdbcTemplate.queryForObject("SELECT COALESCE(MAX(id), 0) FROM historico_consultas", Long.class);
+
+        jdbcTemplate.update(
+                "INSERT INTO historico_consultas (id, sintomas_informados, cpf_paciente, nome_paciente, sugestao_id, " +
+                "data_consulta, tempo_resposta_ms) " +
+                "SELECT " + idMaximo + " + x, 'febre, tosse, dor de cabeça', LPAD(MOD(x * 7919, " + PACIENTES + "), 11, '0'), " +
+                "'Paciente ' || MOD(x, " + PACIENTES + "), " + sugestaoMinima + " + MOD(x, " + sugestoes + "), " +
+                "DATEADD('SECOND', x * 30, TIMESTAMP '2024-01-01 00:00:00'), MOD(x, 400) " +
+                "FROM SYSTEM_RANGE(1, " + linhas + ")");
+
+        if (!comIndices) {
+            for (String indice : INDICES) {
+                jdbcTemplate.execute("DROP INDEX IF EXISTS " + indice);
+            }
+        }
+        jdbcTemplate.execute("ANALYZE");
+
+        fimDados = INICIO.plusSeconds(30L * linhas);
+        meioDaTabela = repository.findDtoKeyset(null, null, INICIO.plusSeconds(15L * linhas), null, null, null, 1).get(0);
+        random = new Random(42);
+    }
+
+    @TearDown(Level.Trial)
+    public void encerrar() {
+        contexto.close();
+    }
+
+    private String cpfAleatorio() {
+        return String.format("%011d", random.nextInt(PACIENTES));
+    }
+
+    @Benchmark
+    public Page<HistoricoConsultaDto> paginaPorCpfEPeriodo() {
+        return repository.findDtoComFiltros(cpfAleatorio(), fimDados.minusDays(90), fimDados,
+                PageRequest.of(0, 10, Sort.by(Sort.Direction.DESC, "dataConsulta")));
+    }
+
+    @Benchmark
+    public Page<HistoricoConsultaDto> paginaPorPeriodoUltimos30Dias() {
+        return repository.findDtoComFiltros(null, fimDados.minusDays(30), fimDados,
+                PageRequest.of(0, 10, Sort.by(Sort.Direction.DESC, "dataConsulta")));
+    }
+
+    @Benchmark
+    public Page<HistoricoConsultaDto> paginaProfundaPorOffset() {
+        return repository.findDtoComFiltros(null, null, null,
+                PageRequest.of(linhas / 20, 10, Sort.by(Sort.Direction.DESC, "dataConsulta")));
+    }
+
+    @Benchmark
+    public List<HistoricoConsultaDto> paginaProfundaPorCursor() {
+        return repository.findDtoKeyset(null, null, null, null,
+                meioDaTabela.getDataConsulta(), meioDaTabela.getId(), 11);
+    }
+}
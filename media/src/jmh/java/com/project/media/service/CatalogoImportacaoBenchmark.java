@@ -0,0 +1,106 @@
+package com.project.media.service;
+
+import com.project.media.ContextoBenchmark;
+import com.project.media.dto.ImportacaoCatalogoDto;
+import com.project.media.service.ImportadorCatalogo.Formato;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Importação de um catálogo sintético com {@code associacoes} pares
+ * sugestão–sintoma (20 por sugestão). {@code vazio} mede a carga inicial;
+ * {@code carregado} mede a reimportação do mesmo arquivo, que não grava nada.
+ *
+ * Execução: {@code mvn -Pbenchmark test-compile exec:exec@jmh -Djmh.args="CatalogoImportacaoBenchmark"}
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class CatalogoImportacaoBenchmark {
+
+    private static final int SINTOMAS_POR_SUGESTAO = 20;
+
+    @Param({"100000"})
+    public int associacoes;
+
+    @Param({"vazio", "carregado"})
+    public String banco;
+
+    private ConfigurableApplicationContext contexto;
+    private ImportadorCatalogo importador;
+    private JdbcTemplate jdbcTemplate;
+    private byte[] arquivo;
+
+    @Setup(Level.Trial)
+    public void iniciar() {
+        contexto = ContextoBenchmark.iniciar();
+        importador = contexto.getBean(ImportadorCatalogo.class);
+        jdbcTemplate = contexto.getBean(JdbcTemplate.class);
+        arquivo = gerarCsv();
+        if ("carregado".equals(banco)) {
+            importar();
+        }
+    }
+
+    @Setup(Level.Invocation)
+    public void esvaziar() {
+        if ("vazio".equals(banco)) {
+            jdbcTemplate.update("DELETE FROM sugestao_sintoma");
+            jdbcTemplate.update("DELETE FROM sugestoes");
+            jdbcTemplate.update("DELETE FROM sintomas");
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void encerrar() {
+        contexto.close();
+    }
+
+    private byte[] gerarCsv() {
+        int sugestoes = associacoes / SINTOMAS_POR_SUGESTAO;
+        int sintomas = sugestoes;
+        Random random = new Random(42);
+        StringBuilder csv = new StringBuilder("formato,1\n");
+        for (int i = 0; i < sintomas; i++) {
+            csv.append("sintoma,sintoma sintetico ").append(i).append(",Sintoma gerado para benchmark,SINTETICO\n");
+        }
+        for (int i = 0; i < sugestoes; i++) {
+            csv.append("sugestao,Sugestão sintética ").append(i)
+                    .append(",\"Sugestão gerada para o benchmark, importada em lote\",CONSULTA,")
+                    .append(1 + random.nextInt(5)).append(",Repouso\n");
+        }
+        for (int i = 0; i < sugestoes; i++) {
+            for (int j = 0; j < SINTOMAS_POR_SUGESTAO; j++) {
+                csv.append("associacao,Sugestão sintética ").append(i)
+                        .append(",sintoma sintetico ").append((i + j * 97) % sintomas).append('\n');
+            }
+        }
+        return csv.toString().getBytes(StandardCharsets.UTF_8);
+    }
+
+    @Benchmark
+    public ImportacaoCatalogoDto importar() {
+        return importador.importar(new ByteArrayInputStream(arquivo), Formato.CSV);
+    }
+}
@@ -0,0 +1,167 @@
+package com.project.media.service;
+
+import com.project.media.ContextoBenchmark;
+import com.project.media.dto.SugestaoRequestDto;
+import com.project.media.dto.SugestaoResponseDto;
+import com.project.media.entity.Sintoma;
+import com.project.media.entity.Sugestao;
+import com.project.media.repository.SintomaRepository;
+import com.project.media.repository.SugestaoRepository;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+/**
+ * Etapas do caminho de sugestões medidas isoladamente e de ponta a ponta.
+ *
+ * Execução: {@code mvn -Pbenchmark test-compile exec:exec@jmh}
+ * (o perfil já passa {@code -prof gc}; use {@code -Djmh.args="..."} para filtrar).
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class SugestaoRankingBenchmark {
+
+    private static final int REQUISICOES = 256;
+
+    @Param({"15", "200", "1000"})
+    public int tamanhoCatalogo;
+
+    @Param({"1", "3", "6"})
+    public int sintomasPorRequisicao;
+
+    private ConfigurableApplicationContext contexto;
+    private SugestaoService sugestaoService;
+    private IndiceSugestoes indiceSugestoes;
+    private SintomaRepository sintomaRepository;
+    private SugestaoRepository sugestaoRepository;
+
+    private List<List<String>> brutos;
+    private List<List<String>> normalizados;
+    private List<IndiceSugestoes.Ranking> rankings;
+    private int proxima;
+
+    @Setup(Level.Trial)
+    public void iniciar() {
+        contexto = ContextoBenchmark.iniciar(
+                "--media.sugestoes.cache.tamanho-maximo=0",
+                "--logging.level.com.project.media.service.RegistradorHistorico=ERROR");
+        sugestaoService = contexto.getBean(SugestaoService.class);
+        indiceSugestoes = contexto.getBean(IndiceSugestoes.class);
+        sintomaRepository = contexto.getBean(SintomaRepository.class);
+        sugestaoRepository = contexto.getBean(SugestaoRepository.class);
+
+        ampliarCatalogo();
+
+        List<String> nomes = sintomaRepository.findAll().stream()
+                .map(Sintoma::getNome)
+                .collect(Collectors.toList());
+
+        Random random = new Random(42);
+        brutos = new ArrayList<>(REQUISICOES);
+        normalizados = new ArrayList<>(REQUISICOES);
+        rankings = new ArrayList<>(REQUISICOES);
+        for (int i = 0; i < REQUISICOES; i++) {
+            List<String> sintomas = new ArrayList<>(sintomasPorRequisicao);
+            for (int j = 0; j < sintomasPorRequisicao; j++) {
+                sintomas.add(" " + nomes.get(random.nextInt(nomes.size())).toUpperCase() + " ");
+            }
+            brutos.add(sintomas);
+            normalizados.add(SugestaoService.normalizarSintomas(sintomas));
+            rankings.add(indiceSugestoes.ranquear(normalizados.get(i), 5));
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void encerrar() {
+        contexto.close();
+    }
+
+    private void ampliarCatalogo() {
+        long existentes = sugestaoRepository.count();
+        if (existentes >= tamanhoCatalogo) {
+            return;
+        }
+
+        List<Sintoma> sintomas = new ArrayList<>(sintomaRepository.findAll());
+        List<Sintoma> novosSintomas = new ArrayList<>();
+        for (int i = 0; i < tamanhoCatalogo / 2; i++) {
+            novosSintomas.add(new Sintoma("sintoma sintetico " + i, "Sintoma gerado para benchmark", "sintetico"));
+        }
+        sintomas.addAll(sintomaRepository.saveAll(novosSintomas));
+
+        Random random = new Random(7);
+        List<Sugestao> novas = new ArrayList<>();
+        for (long i = existentes; i < tamanhoCatalogo; i++) {
+            Sugestao sugestao = new Sugestao("Sugestão sintética " + i,
+                    "Sugestão gerada para ampliar o catálogo do benchmark", "CONSULTA", 1 + random.nextInt(5));
+            Set<Sintoma> associados = new HashSet<>();
+            int quantidade = 3 + random.nextInt(6);
+            while (associados.size() < quantidade) {
+                associados.add(sintomas.get(random.nextInt(sintomas.size())));
+            }
+            sugestao.setSintomas(associados);
+            novas.add(sugestao);
+        }
+        sugestaoRepository.saveAll(novas);
+    }
+
+    private int proximo() {
+        proxima = (proxima + 1) % REQUISICOES;
+        return proxima;
+    }
+
+    @Benchmark
+    public List<String> normalizacao() {
+        return SugestaoService.normalizarSintomas(brutos.get(proximo()));
+    }
+
+    @Benchmark
+    public List<Sintoma> buscaSintomasNoBanco() {
+        return sintomaRepository.findByNomesContaining(normalizados.get(proximo()));
+    }
+
+    @Benchmark
+    public IndiceSugestoes.Ranking rankingIndice() {
+        return indiceSugestoes.ranquear(normalizados.get(proximo()), 5);
+    }
+
+    @Benchmark
+    public Object rankingConsulta() {
+        return sugestaoRepository.findMelhoresSugestoesPorSintomas(normalizados.get(proximo()), 5);
+    }
+
+    @Benchmark
+    public List<SugestaoResponseDto> mapeamentoDto() {
+        return rankings.get(proximo()).getSugestoes().stream()
+                .map(SugestaoResponseDto::new)
+                .collect(Collectors.toList());
+    }
+
+    @Benchmark
+    public List<SugestaoResponseDto> pontaAPonta() {
+        return sugestaoService.buscarSugestoes(new SugestaoRequestDto(brutos.get(proximo())), null);
+    }
+}
@@ -0,0 +1,70 @@
+package com.project.media.config;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Balde de tokens sem bloqueio, no formato GCRA: em vez de contar tokens,
+ * guarda o instante teórico em que o balde estaria cheio de novo. Cada
+ * requisição adianta esse instante em um intervalo ({@code 1 / taxa}) e é
+ * aceita enquanto ele não passar de {@code rajada} intervalos à frente do
+ * relógio. O estado é um único long atualizado por CAS.
+ */
+final class BaldeTokens {
+
+    private final AtomicLong cheioEm;
+
+    BaldeTokens(long agoraNanos) {
+        this.cheioEm = new AtomicLong(agoraNanos);
+    }
+
+    /**
+     * Consome um token. Devolve 0 se a requisição foi aceita, ou quantos
+     * nanossegundos faltam para haver um token livre.
+     */
+    long consumir(Limite limite, long agoraNanos) {
+        while (true) {
+            long atual = cheioEm.get();
+            long proximo = Math.max(atual, agoraNanos) + limite.intervaloNanos;
+            long excesso = proximo - agoraNanos - limite.toleranciaNanos;
+            if (excesso > 0) {
+                return excesso;
+            }
+            if (cheioEm.compareAndSet(atual, proximo)) {
+                return 0;
+            }
+        }
+    }
+
+    /**
+     * Quanto falta para haver um token livre, sem consumir: 0 se a próxima
+     * chamada a {@link #consumir} seria aceita agora.
+     */
+    long espera(Limite limite, long agoraNanos) {
+        long proximo = Math.max(cheioEm.get(), agoraNanos) + limite.intervaloNanos;
+        return Math.max(0, proximo - agoraNanos - limite.toleranciaNanos);
+    }
+
+    /** Devolve um token consumido por uma requisição que acabou recusada por outro limite. */
+    void devolver(Limite limite) {
+        cheioEm.getAndAdd(-limite.intervaloNanos);
+    }
+
+    /** Taxa e rajada de um papel; {@code porMinuto <= 0} significa sem limite. */
+    static final class Limite {
+        private final long intervaloNanos;
+        private final long toleranciaNanos;
+
+        private Limite(long intervaloNanos, long toleranciaNanos) {
+            this.intervaloNanos = intervaloNanos;
+            this.toleranciaNanos = toleranciaNanos;
+        }
+
+        static Limite porMinuto(int porMinuto, int rajada) {
+            if (porMinuto <= 0) {
+                return null;
+            }
+            long intervalo = 60_000_000_000L / porMinuto;
+            return new Limite(intervalo, intervalo * Math.max(1, rajada));
+        }
+    }
+}
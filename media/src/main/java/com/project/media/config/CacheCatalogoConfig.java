@@ -0,0 +1,108 @@
+package com.project.media.config;
+
+import com.github.benmanes.caffeine.jcache.configuration.CaffeineConfiguration;
+import com.github.benmanes.caffeine.jcache.spi.CaffeineCachingProvider;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.JCacheMetrics;
+import org.hibernate.cache.jcache.ConfigSettings;
+import org.hibernate.cfg.AvailableSettings;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import javax.cache.CacheManager;
+import javax.cache.Caching;
+import java.net.URI;
+import java.time.Duration;
+import java.util.OptionalLong;
+import java.util.UUID;
+
+/**
+ * Cache de segundo nível do Hibernate para o catálogo ({@code Sintoma},
+ * {@code Sugestao} e {@code Sugestao.sintomas}) e para as consultas marcadas
+ * como cacheáveis, em regiões Caffeine via JCache criadas aqui com tamanho e
+ * validade próprios. Cada contexto usa um {@link CacheManager} exclusivo, então
+ * contextos de teste que convivem na mesma JVM não compartilham entradas.
+ *
+ * Alterações feitas pelo Hibernate mantêm as regiões coerentes sozinhas; as
+ * feitas por JDBC (importação de catálogo) são despejadas pelo
+ * {@code CacheCatalogo} quando a versão do catálogo muda.
+ */
+@Configuration
+public class CacheCatalogoConfig {
+
+    private static final Logger logger = LoggerFactory.getLogger(CacheCatalogoConfig.class);
+
+    public static final String REGIAO_SINTOMAS = "catalogo.sintomas";
+    public static final String REGIAO_SUGESTOES = "catalogo.sugestoes";
+    public static final String REGIAO_SUGESTAO_SINTOMAS = "catalogo.sugestao-sintomas";
+    public static final String REGIAO_CONSULTAS = "catalogo.consultas";
+
+    /** Regiões padrão do cache de consultas, exigidas pelo Hibernate mesmo sem uso direto. */
+    private static final String REGIAO_CONSULTAS_PADRAO = "default-query-results-region";
+    private static final String REGIAO_TIMESTAMPS = "default-update-timestamps-region";
+
+    @Value("${media.catalogo.cache.sintomas:5000}")
+    private long tamanhoSintomas;
+
+    @Value("${media.catalogo.cache.sugestoes:2000}")
+    private long tamanhoSugestoes;
+
+    @Value("${media.catalogo.cache.sugestao-sintomas:2000}")
+    private long tamanhoSugestaoSintomas;
+
+    @Value("${media.catalogo.cache.consultas:1000}")
+    private long tamanhoConsultas;
+
+    @Value("${media.catalogo.cache.ttl:1h}")
+    private Duration ttl;
+
+    @Bean(destroyMethod = "close")
+    public CacheManager cacheManagerCatalogo(MeterRegistry meterRegistry) {
+        CacheManager cacheManager = Caching.getCachingProvider(CaffeineCachingProvider.class.getName())
+                .getCacheManager(URI.create("media-catalogo-" + UUID.randomUUID()), getClass().getClassLoader());
+
+        criarRegiao(cacheManager, meterRegistry, REGIAO_SINTOMAS, tamanhoSintomas, ttl);
+        criarRegiao(cacheManager, meterRegistry, REGIAO_SUGESTOES, tamanhoSugestoes, ttl);
+        criarRegiao(cacheManager, meterRegistry, REGIAO_SUGESTAO_SINTOMAS, tamanhoSugestaoSintomas, ttl);
+        criarRegiao(cacheManager, meterRegistry, REGIAO_CONSULTAS, tamanhoConsultas, ttl);
+        criarRegiao(cacheManager, meterRegistry, REGIAO_CONSULTAS_PADRAO, tamanhoConsultas, ttl);
+        // Os timestamps invalidam resultados de consultas; perder um deles serviria resultado antigo
+        criarRegiao(cacheManager, meterRegistry, REGIAO_TIMESTAMPS, 0, null);
+
+        logger.info("Cache de segundo nível do catálogo: sintomas={}, sugestoes={}, sugestaoSintomas={}, " +
+                "consultas={}, ttl={}", tamanhoSintomas, tamanhoSugestoes, tamanhoSugestaoSintomas, tamanhoConsultas, ttl);
+        return cacheManager;
+    }
+
+    private static void criarRegiao(CacheManager cacheManager, MeterRegistry meterRegistry, String nome,
+                                    long tamanhoMaximo, Duration validade) {
+        CaffeineConfiguration<Object, Object> configuracao = new CaffeineConfiguration<>();
+        if (tamanhoMaximo > 0) {
+            configuracao.setMaximumSize(OptionalLong.of(tamanhoMaximo));
+        }
+        if (validade != null) {
+            configuracao.setExpireAfterWrite(OptionalLong.of(validade.toNanos()));
+        }
+        configuracao.setStatisticsEnabled(true);
+        JCacheMetrics.monitor(meterRegistry, cacheManager.createCache(nome, configuracao));
+    }
+
+    /**
+     * Com {@code missing_cache_strategy=fail} uma região nova mapeada numa
+     * entidade sem ser criada acima falha na subida em vez de ficar sem limite.
+     */
+    @Bean
+    public HibernatePropertiesCustomizer cacheSegundoNivel(CacheManager cacheManagerCatalogo) {
+        return propriedades -> {
+            propriedades.put(AvailableSettings.USE_SECOND_LEVEL_CACHE, "true");
+            propriedades.put(AvailableSettings.USE_QUERY_CACHE, "true");
+            propriedades.put(AvailableSettings.CACHE_REGION_FACTORY, "jcache");
+            propriedades.put(ConfigSettings.CACHE_MANAGER, cacheManagerCatalogo);
+            propriedades.put(ConfigSettings.MISSING_CACHE_STRATEGY, "fail");
+        };
+    }
+}
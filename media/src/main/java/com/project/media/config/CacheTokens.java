@@ -0,0 +1,114 @@
+package com.project.media.config;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.stereotype.Component;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Base64;
+
+/**
+ * Cache de tokens já verificados, pela SHA-256 do token.
+ *
+ * Um token reutilizado durante o dia inteiro só tem a assinatura conferida na
+ * primeira requisição; as seguintes custam um hash e uma busca. Cada entrada
+ * vence no máximo na expiração do próprio token, e tokens inválidos nunca são
+ * guardados. A revogação ({@link RevogacaoTokens}) é conferida a cada uso,
+ * inclusive nos acertos. Só o {@link VerifiedToken}, imutável, fica no cache:
+ * cada requisição recebe um {@link Authentication} novo, que pode ganhar
+ * detalhes ou ser alterado sem afetar as outras.
+ */
+@Component
+public class CacheTokens {
+
+    private static final Logger logger = LoggerFactory.getLogger(CacheTokens.class);
+
+    @Autowired
+    private JwtUtil jwtUtil;
+
+    @Autowired
+    private RevogacaoTokens revogacaoTokens;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Value("${media.jwt.cache.tamanho-maximo:10000}")
+    private long tamanhoMaximo;
+
+    @Value("${media.jwt.cache.ttl:30m}")
+    private Duration ttl;
+
+    private Cache<String, VerifiedToken> cache;
+
+    @PostConstruct
+    public void inicializar() {
+        cache = Caffeine.newBuilder()
+                .maximumSize(tamanhoMaximo)
+                .expireAfter(new Expiry<String, VerifiedToken>() {
+                    @Override
+                    public long expireAfterCreate(String chave, VerifiedToken token, long agora) {
+                        Duration restante = Duration.between(Instant.now(), token.getExpiration());
+                        return Math.max(0, Math.min(ttl.toNanos(), restante.toNanos()));
+                    }
+
+                    @Override
+                    public long expireAfterUpdate(String chave, VerifiedToken token, long agora, long duracaoAtual) {
+                        return expireAfterCreate(chave, token, agora);
+                    }
+
+                    @Override
+                    public long expireAfterRead(String chave, VerifiedToken token, long agora, long duracaoAtual) {
+                        return duracaoAtual;
+                    }
+                })
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, cache, "tokens");
+        logger.info("Cache de tokens configurado: tamanhoMaximo={}, ttl={}", tamanhoMaximo, ttl);
+    }
+
+    /**
+     * Autenticação do token, verificada só na primeira vez que ele aparece;
+     * {@code null} se o token for inválido ou estiver revogado.
+     */
+    public Authentication autenticar(String token) {
+        String chave = digest(token);
+        VerifiedToken verificado = cache.getIfPresent(chave);
+        if (verificado == null) {
+            verificado = jwtUtil.verifyToken(token);
+            if (verificado == null) {
+                return null;
+            }
+            cache.put(chave, verificado);
+        }
+
+        if (revogacaoTokens.revogado(verificado)) {
+            logger.warn("Token revogado recusado para usuário: {}", verificado.getSubject());
+            return null;
+        }
+        return new UsernamePasswordAuthenticationToken(verificado.getSubject(), null, verificado.getAuthorities());
+    }
+
+    private static String digest(String token) {
+        try {
+            byte[] hash = MessageDigest.getInstance("SHA-256").digest(token.getBytes(StandardCharsets.UTF_8));
+            return Base64.getEncoder().withoutPadding().encodeToString(hash);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 indisponível", e);
+        }
+    }
+}
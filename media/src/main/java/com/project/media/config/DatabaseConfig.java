@@ -2,16 +2,37 @@ package com.project.media.config;
 
 import com.zaxxer.hikari.HikariConfig;
 import com.zaxxer.hikari.HikariDataSource;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.context.annotation.Primary;
 import org.springframework.context.annotation.Profile;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
 
 import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
 
+/**
+ * Pool de conexões dimensionado pelas propriedades {@code spring.datasource.hikari.*}
+ * de cada perfil, com cache de prepared statements no driver.
+ *
+ * Com {@code media.datasource.pre-preencher} a subida abre {@code minimum-idle}
+ * conexões antes de atender requisições, para que o primeiro pico não pague o
+ * custo de abrir conexões no Oracle.
+ *
+ * Com {@code media.datasource.replica.url} preenchida, as transações
+ * {@code readOnly} vão para um segundo pool na réplica
+ * ({@link RoteamentoLeituraDataSource}).
+ */
 @Configuration
 @Profile("!test")
 public class DatabaseConfig {
@@ -30,34 +51,163 @@ public class DatabaseConfig {
     @Value("${spring.datasource.driver-class-name}")
     private String driverClassName;
 
+    @Value("${spring.datasource.hikari.maximum-pool-size:10}")
+    private int maximumPoolSize;
+
+    @Value("${spring.datasource.hikari.minimum-idle:-1}")
+    private int minimumIdle;
+
+    @Value("${spring.datasource.hikari.connection-timeout:3000}")
+    private long connectionTimeout;
+
+    @Value("${spring.datasource.hikari.idle-timeout:600000}")
+    private long idleTimeout;
+
+    @Value("${spring.datasource.hikari.max-lifetime:1800000}")
+    private long maxLifetime;
+
+    @Value("${spring.datasource.hikari.keepalive-time:120000}")
+    private long keepaliveTime;
+
+    @Value("${spring.datasource.hikari.validation-timeout:2000}")
+    private long validationTimeout;
+
+    @Value("${spring.datasource.hikari.leak-detection-threshold:0}")
+    private long leakDetectionThreshold;
+
+    @Value("${spring.datasource.hikari.pool-name:MediaPool}")
+    private String poolName;
+
+    @Value("${media.datasource.cache-statements:256}")
+    private int cacheStatements;
+
+    @Value("${media.datasource.pre-preencher:true}")
+    private boolean prePreencher;
+
+    @Value("${media.datasource.replica.url:}")
+    private String replicaUrl;
+
+    @Value("${media.datasource.replica.username:${spring.datasource.username}}")
+    private String replicaUsername;
+
+    @Value("${media.datasource.replica.password:${spring.datasource.password}}")
+    private String replicaPassword;
+
+    @Value("${media.datasource.replica.maximum-pool-size:${spring.datasource.hikari.maximum-pool-size:10}}")
+    private int replicaMaximumPoolSize;
+
+    @Value("${media.datasource.replica.atraso-maximo:5s}")
+    private Duration replicaAtrasoMaximo;
+
+    @Value("${media.datasource.replica.verificacao:1s}")
+    private Duration replicaVerificacao;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    private RoteamentoLeituraDataSource roteamento;
+
     @Bean
     @Primary
     public DataSource dataSource() {
-        logger.info("Configurando DataSource otimizado para Oracle FIAP - FECHA CONEXÕES RAPIDAMENTE");
+        HikariDataSource principal = criarPool(poolName, jdbcUrl, username, password, maximumPoolSize);
+        if (replicaUrl.isBlank()) {
+            return principal;
+        }
+
+        if (replicaAtrasoMaximo.compareTo(replicaVerificacao) <= 0) {
+            throw new IllegalStateException("media.datasource.replica.atraso-maximo (" + replicaAtrasoMaximo +
+                    ") deve ser maior que media.datasource.replica.verificacao (" + replicaVerificacao + ")");
+        }
+        HikariDataSource replica = criarPool(poolName + "-replica", replicaUrl, replicaUsername, replicaPassword,
+                replicaMaximumPoolSize);
+        roteamento = new RoteamentoLeituraDataSource(principal, replica, replicaAtrasoMaximo, meterRegistry);
+        roteamento.iniciar(replicaVerificacao);
+        logger.info("Transações somente leitura roteadas para a réplica {} (atraso máximo {})",
+                replicaUrl, replicaAtrasoMaximo);
+        return new LazyConnectionDataSourceProxy(roteamento);
+    }
+
+    @PreDestroy
+    public void encerrar() {
+        if (roteamento != null) {
+            roteamento.close();
+        }
+    }
+
+    private HikariDataSource criarPool(String nome, String url, String usuario, String senha, int maximo) {
+        int minimoOcioso = minimumIdle < 0 ? maximo : Math.min(minimumIdle, maximo);
 
         HikariConfig config = new HikariConfig();
-        
-        config.setJdbcUrl(jdbcUrl);
-        config.setUsername(username);
-        config.setPassword(password);
+
+        config.setJdbcUrl(url);
+        config.setUsername(usuario);
+        config.setPassword(senha);
         config.setDriverClassName(driverClassName);
-        config.setMaximumPoolSize(1);
-        config.setMinimumIdle(0);
-        config.setConnectionTimeout(3000);
-        config.setIdleTimeout(5000);
-        config.setMaxLifetime(30000);
-        config.setValidationTimeout(2000);
-        config.setKeepaliveTime(0);
-        config.setLeakDetectionThreshold(10000);
+        config.setMaximumPoolSize(maximo);
+        config.setMinimumIdle(minimoOcioso);
+        config.setConnectionTimeout(connectionTimeout);
+        config.setIdleTimeout(idleTimeout);
+        config.setMaxLifetime(maxLifetime);
+        config.setValidationTimeout(validationTimeout);
+        config.setKeepaliveTime(keepaliveTime);
+        config.setLeakDetectionThreshold(leakDetectionThreshold);
         config.setInitializationFailTimeout(-1);
         config.setAutoCommit(true);
-        config.setConnectionTestQuery("SELECT 1 FROM DUAL");
-        config.setPoolName("OraclePoolFIAP");
+        config.setPoolName(nome);
         config.setRegisterMbeans(true);
+        config.setMetricRegistry(meterRegistry);
+        configurarCacheStatements(config);
+
+        logger.info("HikariCP {} configurado: max={}, idle={}, maxLifetime={}ms, idleTimeout={}ms, keepalive={}ms, cache de statements={}",
+                nome, maximo, minimoOcioso, maxLifetime, idleTimeout, keepaliveTime, cacheStatements);
 
-        logger.info("HikariCP configurado: max=1, idle=0, maxLifetime=30s, idleTimeout=5s");
-        
-        return new HikariDataSource(config);
+        HikariDataSource dataSource = new HikariDataSource(config);
+        if (prePreencher) {
+            prePreencher(dataSource, minimoOcioso);
+        }
+        return dataSource;
     }
-}
 
+    /**
+     * Oracle: cache implícito de statements por conexão. H2: cache de consultas
+     * já compiladas por sessão. Com 0 fica o padrão do driver.
+     */
+    private void configurarCacheStatements(HikariConfig config) {
+        if (cacheStatements <= 0) {
+            return;
+        }
+        if (driverClassName.startsWith("oracle.")) {
+            config.addDataSourceProperty("oracle.jdbc.implicitStatementCacheSize", String.valueOf(cacheStatements));
+        } else if (driverClassName.startsWith("org.h2.")) {
+            config.addDataSourceProperty("QUERY_CACHE_SIZE", String.valueOf(cacheStatements));
+        }
+    }
+
+    /**
+     * Abre {@code quantidade} conexões ao mesmo tempo e devolve todas ao pool.
+     * Se o banco não responder a subida continua e o pool se completa sozinho.
+     */
+    private void prePreencher(HikariDataSource dataSource, int quantidade) {
+        long inicio = System.currentTimeMillis();
+        List<Connection> conexoes = new ArrayList<>(quantidade);
+        try {
+            for (int i = 0; i < quantidade; i++) {
+                conexoes.add(dataSource.getConnection());
+            }
+            logger.info("Pool {} pré-preenchido com {} conexões em {} ms",
+                    dataSource.getPoolName(), conexoes.size(), System.currentTimeMillis() - inicio);
+        } catch (SQLException e) {
+            logger.warn("Pré-preenchimento do pool {} parou em {} conexões: {}",
+                    dataSource.getPoolName(), conexoes.size(), e.getMessage());
+        } finally {
+            for (Connection conexao : conexoes) {
+                try {
+                    conexao.close();
+                } catch (SQLException e) {
+                    logger.debug("Erro ao devolver conexão ao pool: {}", e.getMessage());
+                }
+            }
+        }
+    }
+}
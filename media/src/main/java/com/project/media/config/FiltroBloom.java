@@ -0,0 +1,74 @@
+package com.project.media.config;
+
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Filtro de Bloom para chaves de texto: {@link #talvezContenha(String)} nunca
+ * devolve {@code false} para uma chave adicionada, e devolve {@code true} para
+ * uma chave ausente com a probabilidade escolhida na criação (enquanto o
+ * número de chaves não passar da capacidade).
+ *
+ * Inclusões e consultas podem ocorrer em paralelo sem bloqueio. Não há
+ * remoção: para descartar chaves, monta-se um filtro novo.
+ */
+final class FiltroBloom {
+
+    private final AtomicLongArray bits;
+    private final long totalBits;
+    private final int funcoes;
+
+    FiltroBloom(long capacidade, double probabilidadeFalsoPositivo) {
+        long n = Math.max(1, capacidade);
+        long m = (long) Math.ceil(-n * Math.log(probabilidadeFalsoPositivo) / (Math.log(2) * Math.log(2)));
+        this.totalBits = Math.max(64, (m + 63) / 64 * 64);
+        this.funcoes = Math.max(1, (int) Math.round((double) totalBits / n * Math.log(2)));
+        this.bits = new AtomicLongArray((int) (totalBits / 64));
+    }
+
+    void adicionar(String chave) {
+        long h1 = hash(chave);
+        long h2 = misturar(h1) | 1;
+        for (int i = 0; i < funcoes; i++) {
+            long bit = Math.floorMod(h1 + i * h2, totalBits);
+            int palavra = (int) (bit >>> 6);
+            long mascara = 1L << bit;
+            long atual;
+            do {
+                atual = bits.get(palavra);
+                if ((atual & mascara) != 0) {
+                    break;
+                }
+            } while (!bits.compareAndSet(palavra, atual, atual | mascara));
+        }
+    }
+
+    boolean talvezContenha(String chave) {
+        long h1 = hash(chave);
+        long h2 = misturar(h1) | 1;
+        for (int i = 0; i < funcoes; i++) {
+            long bit = Math.floorMod(h1 + i * h2, totalBits);
+            if ((bits.get((int) (bit >>> 6)) & (1L << bit)) == 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /** FNV-1a de 64 bits sobre os bytes UTF-8, seguido de uma mistura final. */
+    private static long hash(String chave) {
+        long h = 0xcbf29ce484222325L;
+        for (byte b : chave.getBytes(StandardCharsets.UTF_8)) {
+            h ^= b & 0xff;
+            h *= 0x100000001b3L;
+        }
+        return misturar(h);
+    }
+
+    /** Finalizador do SplitMix64. */
+    private static long misturar(long z) {
+        z = (z ^ (z >>> 30)) * 0xbf58476d1ce4e5b9L;
+        z = (z ^ (z >>> 27)) * 0x94d049bb133111ebL;
+        return z ^ (z >>> 31);
+    }
+}
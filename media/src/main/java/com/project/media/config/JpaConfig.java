@@ -0,0 +1,36 @@
+package com.project.media.config;
+
+import org.hibernate.cfg.AvailableSettings;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+public class JpaConfig {
+
+    /** Tamanho do lote JDBC quando o perfil não define {@code hibernate.jdbc.batch_size}. */
+    static final int LOTE_PADRAO = 50;
+
+    /**
+     * Com pooled-lo o valor lido da sequência é o primeiro id do bloco, a mesma
+     * regra usada pelo {@code RegistradorHistorico} ao reservar ids por JDBC.
+     */
+    @Bean
+    public HibernatePropertiesCustomizer otimizadorSequencias() {
+        return propriedades -> propriedades.put(AvailableSettings.PREFERRED_POOLED_OPTIMIZER, "pooled-lo");
+    }
+
+    /**
+     * Inserts e updates em lote, ordenados por entidade para que cada lote
+     * tenha um único statement. Os perfis podem trocar qualquer um dos valores
+     * em {@code spring.jpa.properties.hibernate.*}.
+     */
+    @Bean
+    public HibernatePropertiesCustomizer loteJdbc() {
+        return propriedades -> {
+            propriedades.putIfAbsent(AvailableSettings.STATEMENT_BATCH_SIZE, String.valueOf(LOTE_PADRAO));
+            propriedades.putIfAbsent(AvailableSettings.ORDER_INSERTS, "true");
+            propriedades.putIfAbsent(AvailableSettings.ORDER_UPDATES, "true");
+        };
+    }
+}
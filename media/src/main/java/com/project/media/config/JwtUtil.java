@@ -2,17 +2,19 @@ package com.project.media.config;
 
 import io.jsonwebtoken.*;
 import io.jsonwebtoken.security.Keys;
+import jakarta.annotation.PostConstruct;
 import javax.crypto.SecretKey;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
 import org.springframework.stereotype.Component;
 
-import java.security.Key;
 import java.util.Date;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
-import java.util.function.Function;
+import java.util.UUID;
 
 @Component
 public class JwtUtil {
@@ -25,54 +27,83 @@ public class JwtUtil {
     @Value("${jwt.expiration}")
     private Long expiration;
 
-    private Key getSigningKey() {
-        return Keys.hmacShaKeyFor(secret.getBytes());
+    private SecretKey signingKey;
+    private JwtParser parser;
+
+    /**
+     * A chave e o parser são imutáveis e thread-safe, então são montados uma
+     * única vez em vez de a cada token.
+     */
+    @PostConstruct
+    public void iniciar() {
+        signingKey = Keys.hmacShaKeyFor(secret.getBytes());
+        parser = Jwts.parser().verifyWith(signingKey).build();
     }
 
-    public String getUsernameFromToken(String token) {
-        return getClaimFromToken(token, Claims::getSubject);
-    }
+    /**
+     * Confere assinatura e expiração com uma única verificação HMAC e devolve
+     * o usuário e os papéis do token, ou {@code null} se o token for inválido.
+     * Cada recusa gera uma linha de log: token vencido em DEBUG, que é o caso
+     * comum, e os demais em WARN com o tipo da falha.
+     */
+    public VerifiedToken verifyToken(String token) {
+        Claims claims;
+        try {
+            claims = parser.parseSignedClaims(token).getPayload();
+        } catch (ExpiredJwtException e) {
+            logger.debug("Token JWT expirado: {}", e.getMessage());
+            return null;
+        } catch (JwtException | IllegalArgumentException e) {
+            logger.warn("Token JWT recusado ({}): {}", e.getClass().getSimpleName(), e.getMessage());
+            return null;
+        }
 
-    private Date getExpirationDateFromToken(String token) {
-        return getClaimFromToken(token, Claims::getExpiration);
+        String subject = claims.getSubject();
+        if (subject == null) {
+            logger.warn("Token JWT recusado: sem subject");
+            return null;
+        }
+        // sem exp o parser aceitaria o token para sempre
+        Date expiraEm = claims.getExpiration();
+        if (expiraEm == null) {
+            logger.warn("Token JWT recusado: sem expiração");
+            return null;
+        }
+        Date issuedAt = claims.getIssuedAt();
+        return new VerifiedToken(claims.getId(), subject, issuedAt != null ? issuedAt.toInstant() : null,
+                expiraEm.toInstant(), authoritiesFor(subject));
     }
 
-    private <T> T getClaimFromToken(String token, Function<Claims, T> claimsResolver) {
-        final Claims claims = getAllClaimsFromToken(token);
-        return claimsResolver.apply(claims);
+    public String getUsernameFromToken(String token) {
+        return getAllClaimsFromToken(token).getSubject();
     }
 
+    /** Lança a exceção do parser; quem chama decide como registrar a falha. */
     private Claims getAllClaimsFromToken(String token) {
-        try {
-            return Jwts.parser()
-                    .verifyWith((SecretKey) getSigningKey())
-                    .build()
-                    .parseSignedClaims(token)
-                    .getPayload();
-        } catch (ExpiredJwtException e) {
-            logger.warn("Token JWT expirado: {}", e.getMessage());
-            throw e;
-        } catch (UnsupportedJwtException e) {
-            logger.warn("Token JWT não suportado: {}", e.getMessage());
-            throw e;
-        } catch (MalformedJwtException e) {
-            logger.warn("Token JWT malformado: {}", e.getMessage());
-            throw e;
-        } catch (IllegalArgumentException e) {
-            logger.warn("Token JWT vazio: {}", e.getMessage());
-            throw e;
-        } catch (Exception e) {
-            logger.error("Erro ao processar token JWT: {}", e.getMessage());
-            throw e;
-        }
+        return parser.parseSignedClaims(token).getPayload();
     }
 
-    private Boolean isTokenExpired(String token) {
-        try {
-            final Date expiration = getExpirationDateFromToken(token);
-            return expiration.before(new Date());
-        } catch (ExpiredJwtException e) {
-            return true;
+    /**
+     * Usuários comuns têm subject "nome|cpf" e só ROLE_USER; profissionais de
+     * saúde recebem o papel pelo nome de usuário.
+     */
+    private List<SimpleGrantedAuthority> authoritiesFor(String subject) {
+        if (subject.contains("|")) {
+            return List.of(new SimpleGrantedAuthority("ROLE_USER"));
+        }
+        switch (subject.toLowerCase()) {
+            case "admin":
+                return List.of(
+                    new SimpleGrantedAuthority("ROLE_ADMIN"),
+                    new SimpleGrantedAuthority("ROLE_USER")
+                );
+            case "medico":
+                return List.of(
+                    new SimpleGrantedAuthority("ROLE_MEDICO"),
+                    new SimpleGrantedAuthority("ROLE_USER")
+                );
+            default:
+                return List.of(new SimpleGrantedAuthority("ROLE_USER"));
         }
     }
 
@@ -87,21 +118,19 @@ public class JwtUtil {
 
         return Jwts.builder()
                 .claims(claims)
+                .id(UUID.randomUUID().toString())
                 .subject(subject)
                 .issuedAt(now)
                 .expiration(expiryDate)
-                .signWith(getSigningKey())
+                .signWith(signingKey)
                 .compact();
     }
 
+    /**
+     * O parser já rejeita tokens expirados, então basta uma verificação.
+     */
     public Boolean validateToken(String token) {
-        try {
-            getAllClaimsFromToken(token);
-            return !isTokenExpired(token);
-        } catch (Exception e) {
-            logger.warn("Token inválido: {}", e.getMessage());
-            return false;
-        }
+        return verifyToken(token) != null;
     }
 
     public String refreshToken(String token) {
@@ -0,0 +1,208 @@
+package com.project.media.config;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Limite de requisições por IP de origem e por usuário autenticado (CPF dos
+ * pacientes, nome de usuário dos profissionais), com taxa e rajada por papel.
+ *
+ * Roda depois da autenticação e antes de qualquer controller: uma requisição
+ * acima do limite recebe 429 com Retry-After sem tocar no banco. O IP é o
+ * endereço remoto da conexão; atrás de proxy ele é reescrito pelo servidor só
+ * para proxies confiáveis ({@code server.tomcat.remoteip.internal-proxies}),
+ * nunca lido direto de X-Forwarded-For. Os baldes
+ * ficam num cache limitado e são descartados após
+ * {@code media.limite.ociosidade} sem uso.
+ */
+@Component
+public class LimiteRequisicoesFilter extends OncePerRequestFilter {
+
+    private static final Logger logger = LoggerFactory.getLogger(LimiteRequisicoesFilter.class);
+
+    private static final byte[] CORPO_429 =
+            "{\"erro\":\"Muitas requisições, tente novamente em instantes\"}".getBytes(StandardCharsets.UTF_8);
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Value("${media.limite.habilitado:true}")
+    private boolean habilitado;
+
+    @Value("${media.limite.ip.por-minuto:300}")
+    private int ipPorMinuto;
+
+    @Value("${media.limite.ip.rajada:100}")
+    private int ipRajada;
+
+    @Value("${media.limite.usuario.por-minuto:30}")
+    private int usuarioPorMinuto;
+
+    @Value("${media.limite.usuario.rajada:10}")
+    private int usuarioRajada;
+
+    @Value("${media.limite.medico.por-minuto:300}")
+    private int medicoPorMinuto;
+
+    @Value("${media.limite.medico.rajada:100}")
+    private int medicoRajada;
+
+    @Value("${media.limite.admin.por-minuto:0}")
+    private int adminPorMinuto;
+
+    @Value("${media.limite.admin.rajada:0}")
+    private int adminRajada;
+
+    @Value("${media.limite.ociosidade:10m}")
+    private Duration ociosidade;
+
+    @Value("${media.limite.max-chaves:100000}")
+    private long maxChaves;
+
+    private BaldeTokens.Limite limiteIp;
+    private BaldeTokens.Limite limiteUsuario;
+    private BaldeTokens.Limite limiteMedico;
+    private BaldeTokens.Limite limiteAdmin;
+
+    private Cache<String, BaldeTokens> baldes;
+    private Counter recusadasIp;
+    private Counter recusadasUsuario;
+
+    @PostConstruct
+    public void iniciar() {
+        limiteIp = BaldeTokens.Limite.porMinuto(ipPorMinuto, ipRajada);
+        limiteUsuario = BaldeTokens.Limite.porMinuto(usuarioPorMinuto, usuarioRajada);
+        limiteMedico = BaldeTokens.Limite.porMinuto(medicoPorMinuto, medicoRajada);
+        limiteAdmin = BaldeTokens.Limite.porMinuto(adminPorMinuto, adminRajada);
+
+        baldes = Caffeine.newBuilder()
+                .maximumSize(maxChaves)
+                .expireAfterAccess(ociosidade)
+                .build();
+        recusadasIp = meterRegistry.counter("limite.requisicoes.recusadas", "chave", "ip");
+        recusadasUsuario = meterRegistry.counter("limite.requisicoes.recusadas", "chave", "usuario");
+        meterRegistry.gauge("limite.requisicoes.baldes", baldes, Cache::estimatedSize);
+
+        logger.info("Limite de requisições {}: ip={}/min, usuario={}/min, medico={}/min, admin={}/min",
+                habilitado ? "ativo" : "desligado", ipPorMinuto, usuarioPorMinuto, medicoPorMinuto, adminPorMinuto);
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response,
+                                    FilterChain chain) throws ServletException, IOException {
+        long agora = System.nanoTime();
+
+        BaldeTokens baldeIp = balde("ip:" + OrigemRequisicao.ip(request), limiteIp, agora);
+
+        String usuario = null;
+        BaldeTokens.Limite limiteDoUsuario = null;
+        BaldeTokens baldeUsuario = null;
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        if (authentication != null && authentication.isAuthenticated() && authentication.getName() != null) {
+            usuario = RevogacaoTokens.sujeito(authentication.getName());
+            limiteDoUsuario = limitePorPapel(authentication);
+            baldeUsuario = balde("usuario:" + usuario, limiteDoUsuario, agora);
+        }
+
+        // verifica os dois limites antes de consumir: uma requisição recusada não gasta token de nenhum balde
+        long espera = baldeIp != null ? baldeIp.espera(limiteIp, agora) : 0;
+        if (espera > 0) {
+            recusarIp(response, espera);
+            return;
+        }
+        espera = baldeUsuario != null ? baldeUsuario.espera(limiteDoUsuario, agora) : 0;
+        if (espera > 0) {
+            recusarUsuario(response, usuario, espera);
+            return;
+        }
+
+        // outra requisição pode ter levado o último token entre a verificação e o consumo
+        espera = baldeIp != null ? baldeIp.consumir(limiteIp, agora) : 0;
+        if (espera > 0) {
+            recusarIp(response, espera);
+            return;
+        }
+        espera = baldeUsuario != null ? baldeUsuario.consumir(limiteDoUsuario, agora) : 0;
+        if (espera > 0) {
+            if (baldeIp != null) {
+                baldeIp.devolver(limiteIp);
+            }
+            recusarUsuario(response, usuario, espera);
+            return;
+        }
+
+        chain.doFilter(request, response);
+    }
+
+    private BaldeTokens balde(String chave, BaldeTokens.Limite limite, long agora) {
+        if (limite == null) {
+            return null;
+        }
+        return baldes.get(chave, k -> new BaldeTokens(agora));
+    }
+
+    private void recusarIp(HttpServletResponse response, long espera) throws IOException {
+        recusadasIp.increment();
+        recusar(response, espera);
+    }
+
+    private void recusarUsuario(HttpServletResponse response, String usuario, long espera) throws IOException {
+        recusadasUsuario.increment();
+        logger.debug("Limite de requisições atingido para usuário: {}", usuario);
+        recusar(response, espera);
+    }
+
+    private BaldeTokens.Limite limitePorPapel(Authentication authentication) {
+        boolean medico = false;
+        for (GrantedAuthority authority : authentication.getAuthorities()) {
+            if ("ROLE_ADMIN".equals(authority.getAuthority())) {
+                return limiteAdmin;
+            }
+            medico |= "ROLE_MEDICO".equals(authority.getAuthority());
+        }
+        return medico ? limiteMedico : limiteUsuario;
+    }
+
+    private void recusar(HttpServletResponse response, long esperaNanos) throws IOException {
+        response.setStatus(HttpStatus.TOO_MANY_REQUESTS.value());
+        response.setHeader(HttpHeaders.RETRY_AFTER,
+                String.valueOf(Math.max(1, TimeUnit.NANOSECONDS.toSeconds(esperaNanos + 999_999_999L))));
+        response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+        response.setCharacterEncoding(StandardCharsets.UTF_8.name());
+        response.setContentLength(CORPO_429.length);
+        response.getOutputStream().write(CORPO_429);
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) throws ServletException {
+        String path = request.getRequestURI();
+
+        return !habilitado ||
+               !path.startsWith("/api/") ||
+               path.equals("/api/sugestoes/health");
+    }
+}
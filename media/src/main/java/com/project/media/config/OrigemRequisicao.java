@@ -0,0 +1,23 @@
+package com.project.media.config;
+
+import jakarta.servlet.http.HttpServletRequest;
+
+/**
+ * Regras de identificação de quem fez a requisição, compartilhadas entre o
+ * histórico de consultas e o limite de requisições.
+ */
+public final class OrigemRequisicao {
+
+    private OrigemRequisicao() {
+    }
+
+    /**
+     * Endereço do cliente. Atrás de proxy o servidor já o reescreve a partir
+     * de X-Forwarded-For, mas só quando a conexão vem de um proxy confiável
+     * ({@code server.tomcat.remoteip.internal-proxies}); o cabeçalho enviado
+     * direto pelo cliente é ignorado.
+     */
+    public static String ip(HttpServletRequest request) {
+        return request.getRemoteAddr();
+    }
+}
@@ -0,0 +1,252 @@
+package com.project.media.config;
+
+import com.project.media.entity.TokenRevogado;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.DependsOn;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Revogação de tokens JWT antes da expiração, consultada em memória a cada
+ * requisição.
+ *
+ * As revogações ficam em {@code tokens_revogados} e são copiadas para um
+ * filtro de Bloom e para mapas exatos (jti e corte por usuário). A consulta
+ * passa primeiro pelo filtro, que descarta quase todos os tokens válidos sem
+ * tocar nos mapas; só um possível acerto é confirmado no mapa. Revogações
+ * feitas em outra instância chegam pela sincronização periódica, e linhas
+ * cujo token já expirou são apagadas.
+ */
+@Component
+@DependsOn("entityManagerFactory")
+public class RevogacaoTokens {
+
+    private static final Logger logger = LoggerFactory.getLogger(RevogacaoTokens.class);
+
+    private static final String PREFIXO_JTI = "j:";
+    private static final String PREFIXO_SUJEITO = "s:";
+    private static final double PROBABILIDADE_FALSO_POSITIVO = 0.01;
+
+    /** Folga na leitura incremental para linhas gravadas por transações mais lentas. */
+    private static final long MARGEM_SINCRONIZACAO_SEGUNDOS = 60;
+
+    private static final String SQL_MERGE =
+            "MERGE INTO tokens_revogados t USING (" +
+            "SELECT CAST(? AS VARCHAR(10)) tipo, CAST(? AS VARCHAR(200)) valor, " +
+            "CAST(? AS TIMESTAMP) revogado_em, CAST(? AS TIMESTAMP) expira_em FROM dual) n " +
+            "ON (t.tipo = n.tipo AND t.valor = n.valor) " +
+            "WHEN MATCHED THEN UPDATE SET revogado_em = n.revogado_em, expira_em = n.expira_em " +
+            "WHEN NOT MATCHED THEN INSERT (tipo, valor, revogado_em, expira_em) " +
+            "VALUES (n.tipo, n.valor, n.revogado_em, n.expira_em)";
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Value("${jwt.expiration}")
+    private long expiracaoMs;
+
+    @Value("${media.jwt.revogacao.capacidade:100000}")
+    private long capacidade;
+
+    private TransactionTemplate transactionTemplate;
+    private Counter rejeitados;
+
+    private volatile Estado estado;
+    private Instant ultimaRevogacaoLida;
+
+    @PostConstruct
+    public void iniciar() {
+        transactionTemplate = new TransactionTemplate(transactionManager);
+        rejeitados = meterRegistry.counter("jwt.revogacao.rejeitados");
+        estado = new Estado(capacidade);
+        meterRegistry.gauge("jwt.revogacao.ativas", this, r -> r.estado.jtis.size() + r.estado.cortes.size());
+        sincronizar();
+        logger.info("Revogação de tokens carregada: {} jti, {} usuários",
+                estado.jtis.size(), estado.cortes.size());
+    }
+
+    /**
+     * Usuário afetado por uma revogação em lote: o CPF para usuários comuns
+     * (subject "nome|cpf"), o nome de usuário para profissionais.
+     */
+    public static String sujeito(String subject) {
+        int separador = subject.lastIndexOf('|');
+        return separador >= 0 ? subject.substring(separador + 1) : subject;
+    }
+
+    public boolean revogado(VerifiedToken token) {
+        Estado atual = estado;
+        boolean revogado = false;
+
+        String jti = token.getId();
+        if (jti != null && atual.filtro.talvezContenha(PREFIXO_JTI + jti)) {
+            revogado = atual.jtis.containsKey(jti);
+        }
+
+        String sujeito = sujeito(token.getSubject());
+        if (!revogado && atual.filtro.talvezContenha(PREFIXO_SUJEITO + sujeito)) {
+            Instant corte = atual.cortes.get(sujeito);
+            // iat tem precisão de segundos: um token emitido no mesmo segundo do corte também é recusado
+            revogado = corte != null && (token.getIssuedAt() == null
+                    || !token.getIssuedAt().isAfter(corte.truncatedTo(ChronoUnit.SECONDS)));
+        }
+
+        if (revogado) {
+            rejeitados.increment();
+        }
+        return revogado;
+    }
+
+    /** Revoga os tokens informados pelo jti. */
+    public int revogarJtis(Collection<String> jtis) {
+        Instant agora = Instant.now();
+        return gravar(TokenRevogado.Tipo.JTI, jtis, agora, agora.plusMillis(expiracaoMs));
+    }
+
+    /** Revoga todos os tokens emitidos até agora para cada usuário (CPF ou nome de usuário). */
+    public int revogarSujeitos(Collection<String> sujeitos) {
+        Instant agora = Instant.now();
+        return gravar(TokenRevogado.Tipo.SUJEITO, sujeitos, agora, agora.plusMillis(expiracaoMs));
+    }
+
+    @Scheduled(fixedDelayString = "${media.jwt.revogacao.sincronizacao:30s}",
+               initialDelayString = "${media.jwt.revogacao.sincronizacao:30s}")
+    public void sincronizarAgendado() {
+        try {
+            sincronizar();
+        } catch (Exception e) {
+            logger.error("Erro ao sincronizar revogações de tokens: {}", e.getMessage(), e);
+        }
+    }
+
+    /**
+     * Lê as revogações novas ou renovadas desde a última leitura e descarta,
+     * no banco e em memória, as que só afetam tokens já expirados.
+     */
+    public synchronized void sincronizar() {
+        Instant agora = Instant.now();
+        Instant desde = ultimaRevogacaoLida != null
+                ? ultimaRevogacaoLida.minusSeconds(MARGEM_SINCRONIZACAO_SEGUNDOS)
+                : Instant.EPOCH;
+
+        List<Map<String, Object>> linhas = jdbcTemplate.queryForList(
+                "SELECT tipo, valor, revogado_em, expira_em FROM tokens_revogados " +
+                "WHERE revogado_em >= ? AND expira_em > ?", Timestamp.from(desde), Timestamp.from(agora));
+        for (Map<String, Object> linha : linhas) {
+            Instant revogadoEm = ((Timestamp) linha.get("revogado_em")).toInstant();
+            aplicar(TokenRevogado.Tipo.valueOf(String.valueOf(linha.get("tipo"))), (String) linha.get("valor"),
+                    revogadoEm, ((Timestamp) linha.get("expira_em")).toInstant());
+            if (ultimaRevogacaoLida == null || revogadoEm.isAfter(ultimaRevogacaoLida)) {
+                ultimaRevogacaoLida = revogadoEm;
+            }
+        }
+
+        jdbcTemplate.update("DELETE FROM tokens_revogados WHERE expira_em <= ?", Timestamp.from(agora));
+        remontar(agora);
+    }
+
+    private synchronized int gravar(TokenRevogado.Tipo tipo, Collection<String> valores, Instant revogadoEm,
+                                    Instant expiraEm) {
+        Set<String> distintos = new LinkedHashSet<>();
+        for (String valor : valores) {
+            if (valor != null && !valor.isBlank()) {
+                distintos.add(valor.trim());
+            }
+        }
+        if (distintos.isEmpty()) {
+            return 0;
+        }
+
+        List<Object[]> parametros = new ArrayList<>(distintos.size());
+        for (String valor : distintos) {
+            parametros.add(new Object[] {tipo.name(), valor, Timestamp.from(revogadoEm), Timestamp.from(expiraEm)});
+        }
+        transactionTemplate.executeWithoutResult(status -> jdbcTemplate.batchUpdate(SQL_MERGE, parametros));
+
+        for (String valor : distintos) {
+            aplicar(tipo, valor, revogadoEm, expiraEm);
+        }
+        logger.info("Tokens revogados por {}: {}", tipo, distintos.size());
+        return distintos.size();
+    }
+
+    private void aplicar(TokenRevogado.Tipo tipo, String valor, Instant revogadoEm, Instant expiraEm) {
+        Estado atual = estado;
+        if (tipo == TokenRevogado.Tipo.JTI) {
+            atual.jtis.merge(valor, expiraEm, (a, b) -> a.isAfter(b) ? a : b);
+            atual.filtro.adicionar(PREFIXO_JTI + valor);
+        } else {
+            atual.cortes.merge(valor, revogadoEm, (a, b) -> a.isAfter(b) ? a : b);
+            atual.filtro.adicionar(PREFIXO_SUJEITO + valor);
+        }
+    }
+
+    /**
+     * O filtro de Bloom não remove chaves nem cresce, então o estado é
+     * remontado e trocado de uma vez quando há revogações vencidas ou quando
+     * o número de chaves passou da capacidade do filtro.
+     */
+    private void remontar(Instant agora) {
+        Estado atual = estado;
+        boolean jtisVencidos = atual.jtis.values().stream().anyMatch(expira -> !expira.isAfter(agora));
+        boolean cortesVencidos = atual.cortes.values().stream()
+                .anyMatch(corte -> !corte.plusMillis(expiracaoMs).isAfter(agora));
+        int chaves = atual.jtis.size() + atual.cortes.size();
+        if (!jtisVencidos && !cortesVencidos && chaves <= atual.capacidade) {
+            return;
+        }
+
+        Estado novo = new Estado(Math.max(capacidade, 2L * chaves));
+        atual.jtis.forEach((jti, expira) -> {
+            if (expira.isAfter(agora)) {
+                novo.jtis.put(jti, expira);
+                novo.filtro.adicionar(PREFIXO_JTI + jti);
+            }
+        });
+        atual.cortes.forEach((sujeito, corte) -> {
+            if (corte.plusMillis(expiracaoMs).isAfter(agora)) {
+                novo.cortes.put(sujeito, corte);
+                novo.filtro.adicionar(PREFIXO_SUJEITO + sujeito);
+            }
+        });
+        estado = novo;
+    }
+
+    private static final class Estado {
+        private final long capacidade;
+        private final FiltroBloom filtro;
+        private final Map<String, Instant> jtis = new ConcurrentHashMap<>();
+        private final Map<String, Instant> cortes = new ConcurrentHashMap<>();
+
+        Estado(long capacidade) {
+            this.capacidade = capacidade;
+            this.filtro = new FiltroBloom(capacidade, PROBABILIDADE_FALSO_POSITIVO);
+        }
+    }
+}
@@ -0,0 +1,158 @@
+package com.project.media.config;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.sql.DataSource;
+import java.io.Closeable;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Envia transações {@code readOnly} para a réplica e o resto para o banco
+ * principal.
+ *
+ * A cada verificação o último sinal gravado é lido na réplica e um novo é
+ * gravado no principal ({@code sinal_replicacao}). Enquanto o atraso passar de
+ * {@code atrasoMaximo}, ou a réplica não responder, as leituras voltam para o
+ * principal. Deve ficar atrás de um {@code LazyConnectionDataSourceProxy}: o
+ * gerenciador de transações pede a conexão antes de marcar a transação como
+ * somente leitura.
+ *
+ * Leituras que alimentam caches chaveados pela versão do catálogo abrem
+ * transação própria sem {@code readOnly} e ficam no principal: a réplica pode
+ * estar até {@code atrasoMaximo} atrás da alteração que gerou a versão.
+ */
+public class RoteamentoLeituraDataSource extends AbstractRoutingDataSource implements Closeable {
+
+    private static final Logger logger = LoggerFactory.getLogger(RoteamentoLeituraDataSource.class);
+
+    enum Destino {
+        PRINCIPAL, REPLICA
+    }
+
+    private static final String SQL_LER_SINAL = "SELECT gravado_em FROM sinal_replicacao WHERE id = 1";
+
+    private static final String SQL_GRAVAR_SINAL =
+            "MERGE INTO sinal_replicacao s USING (SELECT 1 id, CAST(? AS NUMERIC(19)) gravado_em FROM dual) n " +
+            "ON (s.id = n.id) " +
+            "WHEN MATCHED THEN UPDATE SET gravado_em = n.gravado_em " +
+            "WHEN NOT MATCHED THEN INSERT (id, gravado_em) VALUES (n.id, n.gravado_em)";
+
+    private final DataSource principal;
+    private final DataSource replica;
+    private final long atrasoMaximoMs;
+    private final Counter desviadas;
+    private final AtomicLong atrasoMs = new AtomicLong(-1);
+    private volatile boolean replicaDisponivel;
+    private ScheduledExecutorService verificador;
+
+    public RoteamentoLeituraDataSource(DataSource principal, DataSource replica, Duration atrasoMaximo,
+                                       MeterRegistry meterRegistry) {
+        this.principal = principal;
+        this.replica = replica;
+        this.atrasoMaximoMs = atrasoMaximo.toMillis();
+        this.desviadas = meterRegistry.counter("datasource.replica.desviadas");
+        meterRegistry.gauge("datasource.replica.atraso", atrasoMs);
+
+        setTargetDataSources(Map.of(Destino.PRINCIPAL, principal, Destino.REPLICA, replica));
+        setDefaultTargetDataSource(principal);
+        setLenientFallback(false);
+        afterPropertiesSet();
+    }
+
+    /**
+     * Mede o atraso a cada {@code intervalo}. O atraso medido inclui o
+     * intervalo entre gravações, então {@code atrasoMaximo} precisa ser maior.
+     */
+    public void iniciar(Duration intervalo) {
+        verificador = Executors.newSingleThreadScheduledExecutor(tarefa -> {
+            Thread thread = new Thread(tarefa, "replica-atraso");
+            thread.setDaemon(true);
+            return thread;
+        });
+        verificador.scheduleWithFixedDelay(this::verificarAtraso, 0, intervalo.toMillis(), TimeUnit.MILLISECONDS);
+    }
+
+    @Override
+    protected Object determineCurrentLookupKey() {
+        if (!TransactionSynchronizationManager.isCurrentTransactionReadOnly()) {
+            return Destino.PRINCIPAL;
+        }
+        if (!replicaDisponivel) {
+            desviadas.increment();
+            return Destino.PRINCIPAL;
+        }
+        return Destino.REPLICA;
+    }
+
+    void verificarAtraso() {
+        long agora = System.currentTimeMillis();
+        Long sinal = null;
+        try (Connection conexao = replica.getConnection();
+             PreparedStatement statement = conexao.prepareStatement(SQL_LER_SINAL);
+             ResultSet rs = statement.executeQuery()) {
+            if (rs.next()) {
+                sinal = rs.getLong(1);
+            }
+        } catch (SQLException e) {
+            logger.debug("Erro ao ler o sinal de replicação na réplica: {}", e.getMessage());
+        }
+
+        try (Connection conexao = principal.getConnection();
+             PreparedStatement statement = conexao.prepareStatement(SQL_GRAVAR_SINAL)) {
+            statement.setLong(1, agora);
+            statement.executeUpdate();
+            if (!conexao.getAutoCommit()) {
+                conexao.commit();
+            }
+        } catch (SQLException e) {
+            logger.debug("Erro ao gravar o sinal de replicação no principal: {}", e.getMessage());
+        }
+
+        long atraso = sinal != null ? Math.max(0, agora - sinal) : -1;
+        atrasoMs.set(atraso);
+        boolean disponivel = atraso >= 0 && atraso <= atrasoMaximoMs;
+        if (disponivel != replicaDisponivel) {
+            if (disponivel) {
+                logger.info("Réplica de leitura disponível (atraso de {} ms)", atraso);
+            } else {
+                logger.warn("Leituras voltando para o banco principal: atraso da réplica {}",
+                        atraso >= 0 ? atraso + " ms" : "desconhecido");
+            }
+            replicaDisponivel = disponivel;
+        }
+    }
+
+    boolean isReplicaDisponivel() {
+        return replicaDisponivel;
+    }
+
+    @Override
+    public void close() {
+        if (verificador != null) {
+            verificador.shutdownNow();
+        }
+        for (DataSource dataSource : new DataSource[] {replica, principal}) {
+            if (dataSource instanceof Closeable closeable) {
+                try {
+                    closeable.close();
+                } catch (Exception e) {
+                    logger.debug("Erro ao fechar pool de conexões: {}", e.getMessage());
+                }
+            }
+        }
+    }
+}
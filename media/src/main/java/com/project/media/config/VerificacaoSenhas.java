@@ -0,0 +1,113 @@
+package com.project.media.config;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.authentication.AuthenticationManager;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Autenticação por usuário e senha (BCrypt) fora das threads do Tomcat.
+ *
+ * As verificações rodam num pool próprio com fila limitada. Com a fila cheia,
+ * ou se uma verificação esperou mais que {@code media.auth.senhas.timeout}, a
+ * tentativa é recusada com {@link RejectedExecutionException} sem calcular o
+ * hash, e o controller responde 503. Assim uma rajada de logins ocupa no
+ * máximo {@code threads} núcleos e não atrasa as demais requisições.
+ */
+@Component
+public class VerificacaoSenhas {
+
+    private static final Logger logger = LoggerFactory.getLogger(VerificacaoSenhas.class);
+
+    @Autowired
+    private AuthenticationManager authenticationManager;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Value("${media.auth.senhas.threads:0}")
+    private int threads;
+
+    @Value("${media.auth.senhas.fila:50}")
+    private int capacidadeFila;
+
+    @Value("${media.auth.senhas.timeout:5s}")
+    private Duration timeout;
+
+    private ThreadPoolExecutor executor;
+    private Timer verificacao;
+    private Timer espera;
+    private Counter rejeitadas;
+
+    @PostConstruct
+    public void iniciar() {
+        int tamanho = threads > 0 ? threads : Math.max(1, Runtime.getRuntime().availableProcessors() / 2);
+        AtomicInteger contador = new AtomicInteger();
+        executor = new ThreadPoolExecutor(tamanho, tamanho, 0, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(capacidadeFila), tarefa -> {
+                    Thread thread = new Thread(tarefa, "auth-senhas-" + contador.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                }, new ThreadPoolExecutor.AbortPolicy());
+
+        verificacao = meterRegistry.timer("auth.senhas.verificacao");
+        espera = meterRegistry.timer("auth.senhas.espera");
+        rejeitadas = meterRegistry.counter("auth.senhas.rejeitadas");
+        meterRegistry.gauge("auth.senhas.fila", executor, e -> e.getQueue().size());
+        meterRegistry.gauge("auth.senhas.ativas", executor, ThreadPoolExecutor::getActiveCount);
+
+        logger.info("Verificação de senhas configurada: threads={}, fila={}, timeout={}",
+                tamanho, capacidadeFila, timeout);
+    }
+
+    @PreDestroy
+    public void encerrar() {
+        executor.shutdownNow();
+    }
+
+    /**
+     * Agenda a autenticação. Lança {@link RejectedExecutionException} se a
+     * fila estiver cheia; o futuro falha com a mesma exceção se a espera
+     * passar do timeout, ou com a exceção do {@link AuthenticationManager}.
+     */
+    public CompletableFuture<Authentication> autenticar(String usuario, String senha) {
+        long enfileirado = System.nanoTime();
+        try {
+            return CompletableFuture.supplyAsync(() -> {
+                long aguardado = System.nanoTime() - enfileirado;
+                espera.record(aguardado, TimeUnit.NANOSECONDS);
+                if (aguardado > timeout.toNanos()) {
+                    rejeitadas.increment();
+                    throw new RejectedExecutionException("Verificação de senha aguardou mais que " + timeout);
+                }
+                return verificacao.record(() -> authenticationManager.authenticate(
+                        new UsernamePasswordAuthenticationToken(usuario, senha)));
+            }, executor);
+        } catch (RejectedExecutionException e) {
+            rejeitadas.increment();
+            throw e;
+        }
+    }
+
+    /** Segundos sugeridos no Retry-After quando a verificação é recusada. */
+    public long getRetryAfterSegundos() {
+        return Math.max(1, timeout.toSeconds());
+    }
+}
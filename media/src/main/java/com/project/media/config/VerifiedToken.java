@@ -0,0 +1,53 @@
+package com.project.media.config;
+
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+
+import java.time.Instant;
+import java.util.List;
+
+/**
+ * Token JWT com assinatura e validade já conferidas por {@link JwtUtil#verifyToken(String)}.
+ * Imutável: pode ser guardado e reutilizado sem nova verificação até {@link #getExpiration()}.
+ */
+public final class VerifiedToken {
+
+    private final String id;
+    private final String subject;
+    private final Instant issuedAt;
+    private final Instant expiration;
+    private final List<SimpleGrantedAuthority> authorities;
+
+    VerifiedToken(String id, String subject, Instant issuedAt, Instant expiration,
+                  List<SimpleGrantedAuthority> authorities) {
+        this.id = id;
+        this.subject = subject;
+        this.issuedAt = issuedAt;
+        this.expiration = expiration;
+        this.authorities = List.copyOf(authorities);
+    }
+
+    /** Claim jti; {@code null} em tokens emitidos antes de ela existir. */
+    public String getId() {
+        return id;
+    }
+
+    public String getSubject() {
+        return subject;
+    }
+
+    public Instant getIssuedAt() {
+        return issuedAt;
+    }
+
+    public Instant getExpiration() {
+        return expiration;
+    }
+
+    public List<SimpleGrantedAuthority> getAuthorities() {
+        return authorities;
+    }
+
+    public List<String> getRoles() {
+        return authorities.stream().map(SimpleGrantedAuthority::getAuthority).toList();
+    }
+}
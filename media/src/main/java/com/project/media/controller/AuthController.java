@@ -1,6 +1,9 @@
 package com.project.media.controller;
 
 import com.project.media.config.JwtUtil;
+import com.project.media.config.RevogacaoTokens;
+import com.project.media.config.VerificacaoSenhas;
+import com.project.media.config.VerifiedToken;
 import com.project.media.dto.LoginUsuarioDto;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.media.Content;
@@ -12,16 +15,18 @@ import jakarta.validation.constraints.NotBlank;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
-import org.springframework.security.authentication.AuthenticationManager;
 import org.springframework.security.authentication.BadCredentialsException;
-import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.core.Authentication;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.web.bind.annotation.*;
 
 import java.time.LocalDateTime;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.RejectedExecutionException;
 
 @RestController
 @RequestMapping("/api/auth")
@@ -31,11 +36,14 @@ public class AuthController {
     private static final Logger logger = LoggerFactory.getLogger(AuthController.class);
 
     @Autowired
-    private AuthenticationManager authenticationManager;
+    private VerificacaoSenhas verificacaoSenhas;
 
     @Autowired
     private JwtUtil jwtUtil;
 
+    @Autowired
+    private RevogacaoTokens revogacaoTokens;
+
     @Operation(
         summary = "Login Médico/Admin",
         description = "Login para profissionais de saúde\n\n" +
@@ -49,44 +57,61 @@ public class AuthController {
         @ApiResponse(responseCode = "401", description = "Credenciais inválidas",
                 content = @Content),
         @ApiResponse(responseCode = "400", description = "Dados de entrada inválidos",
+                content = @Content),
+        @ApiResponse(responseCode = "503", description = "Muitos logins simultâneos; tente após Retry-After",
                 content = @Content)
     })
     @PostMapping("/login-profissional")
-    public ResponseEntity<?> loginProfissional(@RequestBody LoginRequest loginRequest) {
-        try {
-            logger.info("Tentativa de login para usuário: {}", loginRequest.getUsername());
+    public CompletableFuture<ResponseEntity<?>> loginProfissional(@RequestBody LoginRequest loginRequest) {
+        logger.info("Tentativa de login para usuário: {}", loginRequest.getUsername());
 
-            Authentication authentication = authenticationManager.authenticate(
-                new UsernamePasswordAuthenticationToken(
-                    loginRequest.getUsername(), 
-                    loginRequest.getPassword())
-            );
+        CompletableFuture<Authentication> autenticacao;
+        try {
+            autenticacao = verificacaoSenhas.autenticar(loginRequest.getUsername(), loginRequest.getPassword());
+        } catch (RejectedExecutionException e) {
+            logger.warn("Login recusado por sobrecarga para usuário: {}", loginRequest.getUsername());
+            return CompletableFuture.completedFuture(sobrecarga());
+        }
 
-            UserDetails userDetails = (UserDetails) authentication.getPrincipal();
-            
-            String token = jwtUtil.generateToken(userDetails.getUsername());
-            
-            logger.info("Login realizado com sucesso para usuário: {}", loginRequest.getUsername());
-            
-            return ResponseEntity.ok(new JwtResponse(
-                token, 
-                userDetails.getUsername(),
-                userDetails.getAuthorities().toString(),
-                LocalDateTime.now().plusDays(1)
-            ));
+        return autenticacao.handle((authentication, erro) -> {
+            if (erro == null) {
+                UserDetails userDetails = (UserDetails) authentication.getPrincipal();
+                
+                String token = jwtUtil.generateToken(userDetails.getUsername());
+                
+                logger.info("Login realizado com sucesso para usuário: {}", loginRequest.getUsername());
+                
+                return ResponseEntity.ok(new JwtResponse(
+                    token, 
+                    userDetails.getUsername(),
+                    userDetails.getAuthorities().toString(),
+                    LocalDateTime.now().plusDays(1)
+                ));
+            }
 
-        } catch (BadCredentialsException e) {
-            logger.warn("Tentativa de login falhada para usuário: {} - Credenciais inválidas", 
-                       loginRequest.getUsername());
-            return ResponseEntity.status(HttpStatus.UNAUTHORIZED)
-                    .body(new AuthError("Usuário ou senha inválidos"));
-                    
-        } catch (Exception e) {
+            Throwable causa = erro instanceof CompletionException && erro.getCause() != null ? erro.getCause() : erro;
+            if (causa instanceof BadCredentialsException) {
+                logger.warn("Tentativa de login falhada para usuário: {} - Credenciais inválidas", 
+                           loginRequest.getUsername());
+                return ResponseEntity.status(HttpStatus.UNAUTHORIZED)
+                        .body(new AuthError("Usuário ou senha inválidos"));
+            }
+            if (causa instanceof RejectedExecutionException) {
+                logger.warn("Login recusado por sobrecarga para usuário: {} - {}",
+                           loginRequest.getUsername(), causa.getMessage());
+                return sobrecarga();
+            }
             logger.error("Erro interno durante login para usuário: {} - {}", 
-                        loginRequest.getUsername(), e.getMessage());
+                        loginRequest.getUsername(), causa.getMessage());
             return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
                     .body(new AuthError("Erro interno do servidor"));
-        }
+        });
+    }
+
+    private ResponseEntity<?> sobrecarga() {
+        return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                .header(HttpHeaders.RETRY_AFTER, String.valueOf(verificacaoSenhas.getRetryAfterSegundos()))
+                .body(new AuthError("Muitas tentativas de login no momento, tente novamente em instantes"));
     }
 
     @Operation(
@@ -159,8 +184,9 @@ public class AuthController {
 
             String token = authHeader.substring(7);
             
-            if (jwtUtil.validateToken(token)) {
-                String username = jwtUtil.getUsernameFromToken(token);
+            VerifiedToken verificado = jwtUtil.verifyToken(token);
+            if (verificado != null && !revogacaoTokens.revogado(verificado)) {
+                String username = verificado.getSubject();
                 String newToken = jwtUtil.generateToken(username);
                 
                 logger.info("Token renovado com sucesso para usuário: {}", username);
@@ -196,11 +222,10 @@ public class AuthController {
             }
 
             String token = authHeader.substring(7);
-            boolean isValid = jwtUtil.validateToken(token);
+            VerifiedToken verificado = jwtUtil.verifyToken(token);
             
-            if (isValid) {
-                String username = jwtUtil.getUsernameFromToken(token);
-                return ResponseEntity.ok(new ValidationResponse(true, "Token válido", username));
+            if (verificado != null && !revogacaoTokens.revogado(verificado)) {
+                return ResponseEntity.ok(new ValidationResponse(true, "Token válido", verificado.getSubject()));
             } else {
                 return ResponseEntity.ok(new ValidationResponse(false, "Token inválido"));
             }
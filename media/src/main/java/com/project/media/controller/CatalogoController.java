@@ -0,0 +1,83 @@
+package com.project.media.controller;
+
+import com.project.media.dto.ImportacaoCatalogoDto;
+import com.project.media.service.CatalogoVersao;
+import com.project.media.service.ImportadorCatalogo;
+import com.project.media.service.ImportadorCatalogo.Formato;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.responses.ApiResponses;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.servlet.http.HttpServletRequest;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.io.InputStream;
+import java.util.Map;
+
+@RestController
+@RequestMapping("/api/catalogo")
+@Tag(name = "Catálogo", description = "Administração do catálogo de sintomas e sugestões")
+public class CatalogoController {
+
+    private static final Logger logger = LoggerFactory.getLogger(CatalogoController.class);
+
+    @Autowired
+    private ImportadorCatalogo importadorCatalogo;
+
+    @Autowired
+    private CatalogoVersao catalogoVersao;
+
+    @Operation(
+        summary = "Importar Catálogo",
+        description = "Importa sintomas, sugestões e associações (Apenas Administradores)\n\n" +
+                     "O corpo é o próprio arquivo de catálogo, lido em fluxo: Content-Type application/json " +
+                     "ou text/csv. Sintomas são identificados pelo nome e sugestões pelo título; o que existe " +
+                     "é atualizado, o que falta é inserido e associações existentes são mantidas. " +
+                     "Reenviar o mesmo arquivo não altera nada. Qualquer erro desfaz a importação inteira.\n\n" +
+                     "Exemplo: {\"formato\": 1, \"sintomas\": [{\"nome\": \"febre\", \"categoria\": \"respiratorio\"}], " +
+                     "\"sugestoes\": [], \"associacoes\": []}"
+    )
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "200", description = "Catálogo importado"),
+        @ApiResponse(responseCode = "400", description = "Arquivo inválido ou referência a sintoma/sugestão inexistente"),
+        @ApiResponse(responseCode = "500", description = "Erro interno do servidor")
+    })
+    @PostMapping(value = "/importacao", consumes = {"application/json", "text/csv"})
+    public ResponseEntity<?> importar(HttpServletRequest request) {
+        Formato formato = request.getContentType().startsWith("text/csv") ? Formato.CSV : Formato.JSON;
+
+        try (InputStream entrada = request.getInputStream()) {
+            ImportacaoCatalogoDto resultado = importadorCatalogo.importar(entrada, formato);
+            return ResponseEntity.ok(resultado);
+
+        } catch (IllegalArgumentException e) {
+            logger.warn("Catálogo rejeitado: {}", e.getMessage());
+            return ResponseEntity.badRequest().body(Map.of("erro", e.getMessage()));
+
+        } catch (Exception e) {
+            logger.error("Erro ao importar catálogo: {}", e.getMessage(), e);
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).build();
+        }
+    }
+
+    @Operation(
+        summary = "Invalidar Caches do Catálogo",
+        description = "Gera uma nova versão do catálogo, descartando o índice de sugestões, o cache de rankings " +
+                     "e o cache de segundo nível de sintomas e sugestões (Apenas Administradores)\n\n" +
+                     "Necessário só depois de alterar o catálogo direto no banco; importações e alterações " +
+                     "feitas pela aplicação já invalidam os caches."
+    )
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "200", description = "Caches invalidados, com a nova versão do catálogo")
+    })
+    @PostMapping("/invalidacao")
+    public ResponseEntity<Map<String, Long>> invalidar() {
+        catalogoVersao.incrementar();
+        return ResponseEntity.ok(Map.of("versao", catalogoVersao.atual()));
+    }
+}
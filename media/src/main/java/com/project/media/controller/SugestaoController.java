@@ -1,8 +1,18 @@
 package com.project.media.controller;
 
+import com.project.media.dto.EstatisticaConsultaDto;
+import com.project.media.dto.FrequenciaSintomaDto;
 import com.project.media.dto.HistoricoConsultaDto;
+import com.project.media.dto.HistoricoCursorResponseDto;
+import com.project.media.dto.HistoricoSliceResponseDto;
+import com.project.media.dto.LatenciaConsultaDto;
+import com.project.media.dto.SugestaoLoteResponseDto;
 import com.project.media.dto.SugestaoRequestDto;
 import com.project.media.dto.SugestaoResponseDto;
+import com.project.media.entity.EstatisticaConsulta;
+import com.project.media.service.EstatisticaService;
+import com.project.media.service.ExportadorHistorico;
+import com.project.media.service.SintomasHistoricoService;
 import com.project.media.service.SugestaoService;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
@@ -12,21 +22,31 @@ import io.swagger.v3.oas.annotations.responses.ApiResponse;
 import io.swagger.v3.oas.annotations.responses.ApiResponses;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
 import jakarta.validation.Valid;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.domain.Sort;
 import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.async.WebAsyncTask;
 
+import java.time.Duration;
+import java.time.LocalDate;
 import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
 import java.util.List;
+import java.util.Locale;
+import java.util.Map;
 
 @RestController
 @RequestMapping("/api/sugestoes")
@@ -38,6 +58,21 @@ public class SugestaoController {
     @Autowired
     private SugestaoService sugestaoService;
 
+    @Autowired
+    private ExportadorHistorico exportadorHistorico;
+
+    @Autowired
+    private EstatisticaService estatisticaService;
+
+    @Autowired
+    private SintomasHistoricoService sintomasHistoricoService;
+
+    @Value("${media.sugestoes.lote.tamanho-maximo:100}")
+    private int tamanhoMaximoLote;
+
+    @Value("${media.historico.exportacao.timeout:30m}")
+    private Duration timeoutExportacao;
+
     @Operation(
         summary = "Obter Sugestões Médicas",
         description = "Sistema de Pré-Triagem Digital MedIA\n\n" +
@@ -85,6 +120,47 @@ public class SugestaoController {
         }
     }
 
+    @Operation(
+        summary = "Obter Sugestões em Lote",
+        description = "Avaliação de várias requisições de pré-triagem em uma única chamada\n\n" +
+                     "Indicado para totens e clínicas parceiras que agregam atendimentos.\n\n" +
+                     "Como funciona:\n" +
+                     "- Envie uma lista de requisições no mesmo formato de /api/sugestoes\n" +
+                     "- Conjuntos de sintomas repetidos são resolvidos uma única vez\n" +
+                     "- O resultado mantém a ordem da requisição (campo indice)\n" +
+                     "- Itens inválidos retornam o campo erro sem afetar os demais"
+    )
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "200", description = "Lote processado (verifique o campo erro de cada item)",
+                content = @Content(mediaType = "application/json",
+                schema = @Schema(implementation = SugestaoLoteResponseDto.class))),
+        @ApiResponse(responseCode = "400", description = "Lote vazio ou acima do tamanho máximo",
+                content = @Content),
+        @ApiResponse(responseCode = "500", description = "Erro interno do servidor",
+                content = @Content)
+    })
+    @PostMapping("/batch")
+    public ResponseEntity<List<SugestaoLoteResponseDto>> obterSugestoesEmLote(
+            @RequestBody List<SugestaoRequestDto> requests,
+            HttpServletRequest httpRequest) {
+
+        try {
+            if (requests == null || requests.isEmpty() || requests.size() > tamanhoMaximoLote) {
+                logger.warn("Tamanho de lote inválido: {}", requests == null ? null : requests.size());
+                return ResponseEntity.badRequest().build();
+            }
+
+            List<SugestaoLoteResponseDto> resultados = sugestaoService.buscarSugestoesEmLote(requests, httpRequest);
+
+            logger.info("Retornando lote com {} resultados", resultados.size());
+            return ResponseEntity.ok(resultados);
+
+        } catch (Exception e) {
+            logger.error("Erro ao processar lote: {}", e.getMessage(), e);
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).build();
+        }
+    }
+
     @Operation(
         summary = "Histórico de Consultas",
         description = "Acesso ao histórico de consultas realizadas (Apenas Médicos e Administradores)\n\n" +
@@ -98,6 +174,11 @@ public class SugestaoController {
                      "- cpfPaciente: CPF do paciente para buscar histórico específico (opcional)\n" +
                      "- dataInicio: Data de início do período (formato: yyyy-MM-ddTHH:mm:ss)\n" +
                      "- dataFim: Data de fim do período (formato: yyyy-MM-ddTHH:mm:ss)\n\n" +
+                     "Contagem do total (parâmetro contagem):\n" +
+                     "- exata (padrão): resposta paginada com totalElements e totalPages\n" +
+                     "- aproximada: sem contagem na requisição; retorna temProximo e totalAproximado " +
+                     "(calculado em segundo plano, pode vir nulo na primeira chamada)\n" +
+                     "- nenhuma: apenas temProximo, a opção mais rápida\n\n" +
                      "Exemplo: /api/sugestoes/history?cpfPaciente=12345678901&dataInicio=2025-11-01T00:00:00&dataFim=2025-11-30T23:59:59"
     )
     @ApiResponses(value = {
@@ -106,7 +187,7 @@ public class SugestaoController {
         @ApiResponse(responseCode = "500", description = "Erro interno do servidor")
     })
     @GetMapping("/history")
-    public ResponseEntity<Page<HistoricoConsultaDto>> obterHistorico(
+    public ResponseEntity<?> obterHistorico(
             @Parameter(description = "Número da página (começando em 0)")
             @RequestParam(defaultValue = "0") int page,
             
@@ -128,7 +209,10 @@ public class SugestaoController {
             
             @Parameter(description = "Data de fim do período (formato: yyyy-MM-dd'T'HH:mm:ss)")
             @RequestParam(required = false) 
-            @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime dataFim) {
+            @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime dataFim,
+
+            @Parameter(description = "Contagem do total: exata, aproximada ou nenhuma")
+            @RequestParam(defaultValue = "exata") String contagem) {
         
         try {
             logger.info("Buscando histórico - Página: {}, Tamanho: {}, CPF: {}, Período: {} a {}", 
@@ -149,6 +233,20 @@ public class SugestaoController {
             
             Pageable pageable = PageRequest.of(page, size, Sort.by(sortDirection, sort));
 
+            if (!contagem.equalsIgnoreCase("exata")) {
+                if (!contagem.equalsIgnoreCase("aproximada") && !contagem.equalsIgnoreCase("nenhuma")) {
+                    logger.warn("Modo de contagem inválido: {}", contagem);
+                    return ResponseEntity.badRequest().build();
+                }
+
+                HistoricoSliceResponseDto fatia = sugestaoService.buscarHistoricoSemContagem(
+                        cpfPaciente, dataInicio, dataFim, pageable, contagem.equalsIgnoreCase("aproximada"));
+
+                logger.info("Histórico recuperado sem contagem - Elementos: {}, Tem próxima: {}, Total aproximado: {}",
+                           fatia.getTamanho(), fatia.isTemProximo(), fatia.getTotalAproximado());
+                return ResponseEntity.ok(fatia);
+            }
+
             Page<HistoricoConsultaDto> historico = sugestaoService.buscarHistorico(
                     cpfPaciente, dataInicio, dataFim, pageable);
 
@@ -164,6 +262,343 @@ public class SugestaoController {
     }
 
 
+    @Operation(
+        summary = "Histórico de Consultas por Cursor",
+        description = "Paginação por cursor (keyset) do histórico de consultas (Apenas Médicos e Administradores)\n\n" +
+                     "Indicada para percorrer períodos longos: cada página custa o mesmo que a primeira e não há contagem total.\n\n" +
+                     "Como usar:\n" +
+                     "- Primeira página: não informe o cursor\n" +
+                     "- Próximas páginas: envie o valor de proximoCursor da resposta anterior\n" +
+                     "- Ordenação fixa: data da consulta mais recente primeiro\n\n" +
+                     "Aceita os mesmos filtros de /history (cpfPaciente, dataInicio, dataFim) e também sintoma, " +
+                     "que retorna só as consultas em que o sintoma foi informado."
+    )
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "200", description = "Página recuperada com sucesso"),
+        @ApiResponse(responseCode = "400", description = "Cursor ou tamanho de página inválido"),
+        @ApiResponse(responseCode = "500", description = "Erro interno do servidor")
+    })
+    @GetMapping("/history/cursor")
+    public ResponseEntity<HistoricoCursorResponseDto> obterHistoricoPorCursor(
+            @Parameter(description = "Cursor retornado pela página anterior (vazio na primeira página)")
+            @RequestParam(required = false) String cursor,
+
+            @Parameter(description = "Tamanho da página (máximo 50)")
+            @RequestParam(defaultValue = "10") int size,
+
+            @Parameter(description = "CPF do paciente para filtrar (11 dígitos, sem formatação)")
+            @RequestParam(required = false) String cpfPaciente,
+
+            @Parameter(description = "Data de início do período (formato: yyyy-MM-dd'T'HH:mm:ss)")
+            @RequestParam(required = false)
+            @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime dataInicio,
+
+            @Parameter(description = "Data de fim do período (formato: yyyy-MM-dd'T'HH:mm:ss)")
+            @RequestParam(required = false)
+            @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime dataFim,
+
+            @Parameter(description = "Sintoma informado na consulta (ex: falta de ar)")
+            @RequestParam(required = false) String sintoma) {
+
+        try {
+            if (size <= 0 || size > 50) {
+                logger.warn("Tamanho da página inválido: {}", size);
+                return ResponseEntity.badRequest().build();
+            }
+
+            HistoricoCursorResponseDto historico = sugestaoService.buscarHistoricoPorCursor(
+                    cpfPaciente, dataInicio, dataFim, sintoma, cursor, size);
+
+            logger.info("Histórico por cursor recuperado - Elementos: {}, Tem próxima: {}",
+                       historico.getTamanho(), historico.isTemProximo());
+
+            return ResponseEntity.ok(historico);
+
+        } catch (IllegalArgumentException e) {
+            logger.warn("Cursor inválido: {}", e.getMessage());
+            return ResponseEntity.badRequest().build();
+
+        } catch (Exception e) {
+            logger.error("Erro ao buscar histórico por cursor: {}", e.getMessage(), e);
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).build();
+        }
+    }
+
+    @Operation(
+        summary = "Frequência de Sintomas no Histórico",
+        description = "Quantas consultas informaram cada sintoma no período (Apenas Médicos e Administradores)\n\n" +
+                     "Lê a tabela de sintomas por consulta pelo índice, sem varrer o texto do histórico.\n\n" +
+                     "Parâmetros:\n" +
+                     "- dataInicio / dataFim: período (padrão: últimos 7 dias, máximo de 366 dias)\n" +
+                     "- sintoma: conta apenas esse sintoma (opcional)\n" +
+                     "- limite: quantidade máxima de sintomas, dos mais frequentes (padrão 20, máximo 200)\n\n" +
+                     "Exemplo: /api/sugestoes/history/sintomas?sintoma=falta de ar&dataInicio=2025-11-01T00:00:00"
+    )
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "200", description = "Frequências recuperadas com sucesso"),
+        @ApiResponse(responseCode = "400", description = "Período ou limite inválido"),
+        @ApiResponse(responseCode = "500", description = "Erro interno do servidor")
+    })
+    @GetMapping("/history/sintomas")
+    public ResponseEntity<List<FrequenciaSintomaDto>> obterFrequenciaSintomas(
+            @Parameter(description = "Sintoma a contar (opcional)")
+            @RequestParam(required = false) String sintoma,
+
+            @Parameter(description = "Quantidade máxima de sintomas (máximo 200)")
+            @RequestParam(defaultValue = "20") int limite,
+
+            @Parameter(description = "Data de início do período (formato: yyyy-MM-dd'T'HH:mm:ss)")
+            @RequestParam(required = false)
+            @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime dataInicio,
+
+            @Parameter(description = "Data de fim do período (formato: yyyy-MM-dd'T'HH:mm:ss)")
+            @RequestParam(required = false)
+            @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime dataFim) {
+
+        try {
+            LocalDateTime fim = dataFim != null ? dataFim : LocalDateTime.now();
+            LocalDateTime inicio = dataInicio != null ? dataInicio : fim.minusDays(7);
+
+            if (limite <= 0 || limite > 200 || inicio.isAfter(fim) || ChronoUnit.DAYS.between(inicio, fim) > 366) {
+                logger.warn("Parâmetros de frequência de sintomas inválidos: {} a {}, limite {}", inicio, fim, limite);
+                return ResponseEntity.badRequest().build();
+            }
+
+            String termo = null;
+            if (sintoma != null && !sintoma.isBlank()) {
+                termo = SintomasHistoricoService.termos(List.of(sintoma)).get(0);
+            }
+
+            List<FrequenciaSintomaDto> frequencias = sintomasHistoricoService.buscarFrequencias(
+                    inicio, fim, termo, limite);
+
+            logger.info("Frequência de sintomas recuperada - {} termos ({} a {})", frequencias.size(), inicio, fim);
+            return ResponseEntity.ok(frequencias);
+
+        } catch (Exception e) {
+            logger.error("Erro ao buscar frequência de sintomas: {}", e.getMessage(), e);
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).build();
+        }
+    }
+
+    @Operation(
+        summary = "Exportar Histórico de Consultas",
+        description = "Exportação completa do histórico de consultas (Apenas Médicos e Administradores)\n\n" +
+                     "Indicada para auditorias: todas as consultas do filtro são enviadas em uma única resposta, " +
+                     "lidas do banco à medida que são transmitidas.\n\n" +
+                     "Formatos disponíveis:\n" +
+                     "- ndjson: um objeto JSON por linha (padrão)\n" +
+                     "- csv: separado por vírgulas, com cabeçalho\n\n" +
+                     "Aceita os mesmos filtros de /history (cpfPaciente, dataInicio, dataFim). " +
+                     "Ordenação fixa: data da consulta mais recente primeiro.\n\n" +
+                     "Exemplo: /api/sugestoes/history/export?formato=csv&dataInicio=2025-11-01T00:00:00&dataFim=2025-11-30T23:59:59"
+    )
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "200", description = "Exportação iniciada"),
+        @ApiResponse(responseCode = "400", description = "Formato inválido")
+    })
+    @GetMapping("/history/export")
+    public WebAsyncTask<Void> exportarHistorico(
+            @Parameter(description = "Formato do arquivo (ndjson ou csv)")
+            @RequestParam(defaultValue = "ndjson") String formato,
+
+            @Parameter(description = "CPF do paciente para filtrar (11 dígitos, sem formatação)")
+            @RequestParam(required = false) String cpfPaciente,
+
+            @Parameter(description = "Data de início do período (formato: yyyy-MM-dd'T'HH:mm:ss)")
+            @RequestParam(required = false)
+            @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime dataInicio,
+
+            @Parameter(description = "Data de fim do período (formato: yyyy-MM-dd'T'HH:mm:ss)")
+            @RequestParam(required = false)
+            @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime dataFim,
+
+            HttpServletResponse response) {
+
+        ExportadorHistorico.Formato formatoExportacao;
+        try {
+            formatoExportacao = ExportadorHistorico.Formato.de(formato);
+        } catch (IllegalArgumentException e) {
+            logger.warn(e.getMessage());
+            response.setStatus(HttpStatus.BAD_REQUEST.value());
+            return null;
+        }
+
+        logger.info("Exportando histórico - Formato: {}, CPF: {}, Período: {} a {}",
+                   formatoExportacao, cpfPaciente, dataInicio, dataFim);
+
+        response.setContentType(formatoExportacao.getContentType() + ";charset=UTF-8");
+        response.setHeader(HttpHeaders.CONTENT_DISPOSITION,
+                "attachment; filename=\"historico-consultas." + formatoExportacao.getExtensao() + "\"");
+
+        // tempo máximo só desta resposta; as demais requisições assíncronas seguem o padrão do servidor
+        return new WebAsyncTask<>(timeoutExportacao.toMillis(), () -> {
+            exportadorHistorico.exportar(cpfPaciente, dataInicio, dataFim, formatoExportacao,
+                    response.getOutputStream());
+            return null;
+        });
+    }
+
+    @Operation(
+        summary = "Estatísticas de Consultas",
+        description = "Indicadores agregados do histórico de consultas (Apenas Médicos e Administradores)\n\n" +
+                     "Lê a tabela de agregados por hora/dia, atualizada à medida que as consultas são registradas.\n\n" +
+                     "Parâmetros:\n" +
+                     "- granularidade: HORA (período máximo de 31 dias) ou DIA (padrão, máximo de 366 dias)\n" +
+                     "- agruparPor: SUGESTAO (padrão), TIPO_ATENDIMENTO ou PERIODO\n" +
+                     "- dataInicio / dataFim: período (padrão: últimos 30 dias)\n\n" +
+                     "Cada item traz o início do período, o total de consultas e o tempo médio de resposta."
+    )
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "200", description = "Estatísticas recuperadas com sucesso"),
+        @ApiResponse(responseCode = "400", description = "Parâmetros inválidos ou período acima do limite"),
+        @ApiResponse(responseCode = "500", description = "Erro interno do servidor")
+    })
+    @GetMapping("/stats")
+    public ResponseEntity<List<EstatisticaConsultaDto>> obterEstatisticas(
+            @Parameter(description = "Granularidade dos períodos (HORA ou DIA)")
+            @RequestParam(defaultValue = "DIA") String granularidade,
+
+            @Parameter(description = "Agrupamento (SUGESTAO, TIPO_ATENDIMENTO ou PERIODO)")
+            @RequestParam(defaultValue = "SUGESTAO") String agruparPor,
+
+            @Parameter(description = "Data de início do período (formato: yyyy-MM-dd'T'HH:mm:ss)")
+            @RequestParam(required = false)
+            @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime dataInicio,
+
+            @Parameter(description = "Data de fim do período (formato: yyyy-MM-dd'T'HH:mm:ss)")
+            @RequestParam(required = false)
+            @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime dataFim) {
+
+        try {
+            EstatisticaConsulta.Granularidade granularidadeConsulta =
+                    EstatisticaConsulta.Granularidade.valueOf(granularidade.toUpperCase(Locale.ROOT));
+            EstatisticaService.Agrupamento agrupamento =
+                    EstatisticaService.Agrupamento.valueOf(agruparPor.toUpperCase(Locale.ROOT));
+
+            LocalDateTime fim = dataFim != null ? dataFim : LocalDateTime.now();
+            LocalDateTime inicio = dataInicio != null ? dataInicio : fim.minusDays(30);
+            long limiteDias = granularidadeConsulta == EstatisticaConsulta.Granularidade.HORA ? 31 : 366;
+
+            if (inicio.isAfter(fim) || ChronoUnit.DAYS.between(inicio, fim) > limiteDias) {
+                logger.warn("Período de estatísticas inválido: {} a {} ({})", inicio, fim, granularidadeConsulta);
+                return ResponseEntity.badRequest().build();
+            }
+
+            List<EstatisticaConsultaDto> estatisticas = estatisticaService.buscarEstatisticas(
+                    inicio, fim, granularidadeConsulta, agrupamento);
+
+            logger.info("Estatísticas recuperadas - {} linhas ({}, {})",
+                       estatisticas.size(), granularidadeConsulta, agrupamento);
+            return ResponseEntity.ok(estatisticas);
+
+        } catch (IllegalArgumentException e) {
+            logger.warn("Parâmetros de estatísticas inválidos: {}", e.getMessage());
+            return ResponseEntity.badRequest().build();
+
+        } catch (Exception e) {
+            logger.error("Erro ao buscar estatísticas: {}", e.getMessage(), e);
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).build();
+        }
+    }
+
+    @Operation(
+        summary = "Latência das Consultas",
+        description = "Percentis do tempo de resposta registrado no histórico (Apenas Médicos e Administradores)\n\n" +
+                     "Lê os histogramas agregados por hora/dia, sem varrer o histórico.\n\n" +
+                     "Parâmetros:\n" +
+                     "- granularidade: HORA (período máximo de 31 dias) ou DIA (padrão, máximo de 366 dias)\n" +
+                     "- agruparPor: SUGESTAO (padrão), TIPO_ATENDIMENTO ou PERIODO\n" +
+                     "- dataInicio / dataFim: período (padrão: últimos 30 dias)\n\n" +
+                     "Cada item traz p50, p95, p99 e máximo em milissegundos (erro relativo de até 6,25%)."
+    )
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "200", description = "Latências recuperadas com sucesso"),
+        @ApiResponse(responseCode = "400", description = "Parâmetros inválidos ou período acima do limite"),
+        @ApiResponse(responseCode = "500", description = "Erro interno do servidor")
+    })
+    @GetMapping("/stats/latencia")
+    public ResponseEntity<List<LatenciaConsultaDto>> obterLatencias(
+            @Parameter(description = "Granularidade dos períodos (HORA ou DIA)")
+            @RequestParam(defaultValue = "DIA") String granularidade,
+
+            @Parameter(description = "Agrupamento (SUGESTAO, TIPO_ATENDIMENTO ou PERIODO)")
+            @RequestParam(defaultValue = "SUGESTAO") String agruparPor,
+
+            @Parameter(description = "Data de início do período (formato: yyyy-MM-dd'T'HH:mm:ss)")
+            @RequestParam(required = false)
+            @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime dataInicio,
+
+            @Parameter(description = "Data de fim do período (formato: yyyy-MM-dd'T'HH:mm:ss)")
+            @RequestParam(required = false)
+            @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime dataFim) {
+
+        try {
+            EstatisticaConsulta.Granularidade granularidadeConsulta =
+                    EstatisticaConsulta.Granularidade.valueOf(granularidade.toUpperCase(Locale.ROOT));
+            EstatisticaService.Agrupamento agrupamento =
+                    EstatisticaService.Agrupamento.valueOf(agruparPor.toUpperCase(Locale.ROOT));
+
+            LocalDateTime fim = dataFim != null ? dataFim : LocalDateTime.now();
+            LocalDateTime inicio = dataInicio != null ? dataInicio : fim.minusDays(30);
+            long limiteDias = granularidadeConsulta == EstatisticaConsulta.Granularidade.HORA ? 31 : 366;
+
+            if (inicio.isAfter(fim) || ChronoUnit.DAYS.between(inicio, fim) > limiteDias) {
+                logger.warn("Período de latências inválido: {} a {} ({})", inicio, fim, granularidadeConsulta);
+                return ResponseEntity.badRequest().build();
+            }
+
+            List<LatenciaConsultaDto> latencias = estatisticaService.buscarLatencias(
+                    inicio, fim, granularidadeConsulta, agrupamento);
+
+            logger.info("Latências recuperadas - {} linhas ({}, {})",
+                       latencias.size(), granularidadeConsulta, agrupamento);
+            return ResponseEntity.ok(latencias);
+
+        } catch (IllegalArgumentException e) {
+            logger.warn("Parâmetros de latências inválidos: {}", e.getMessage());
+            return ResponseEntity.badRequest().build();
+
+        } catch (Exception e) {
+            logger.error("Erro ao buscar latências: {}", e.getMessage(), e);
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).build();
+        }
+    }
+
+    @Operation(
+        summary = "Reconstruir Estatísticas",
+        description = "Recalcula os agregados de estatísticas a partir do histórico (Apenas Administradores)\n\n" +
+                     "Os dias informados (inclusive) são refeitos um a um. Use após importar histórico " +
+                     "ou para corrigir divergências."
+    )
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "200", description = "Estatísticas reconstruídas"),
+        @ApiResponse(responseCode = "400", description = "Período inválido"),
+        @ApiResponse(responseCode = "500", description = "Erro interno do servidor")
+    })
+    @PostMapping("/stats/backfill")
+    public ResponseEntity<Map<String, Object>> reconstruirEstatisticas(
+            @Parameter(description = "Primeiro dia (formato: yyyy-MM-dd)")
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate dataInicio,
+
+            @Parameter(description = "Último dia (formato: yyyy-MM-dd)")
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate dataFim) {
+
+        if (dataInicio.isAfter(dataFim)) {
+            logger.warn("Período de reconstrução inválido: {} a {}", dataInicio, dataFim);
+            return ResponseEntity.badRequest().build();
+        }
+
+        try {
+            int dias = estatisticaService.reconstruir(dataInicio, dataFim);
+            return ResponseEntity.ok(Map.of("diasReconstruidos", dias));
+
+        } catch (Exception e) {
+            logger.error("Erro ao reconstruir estatísticas: {}", e.getMessage(), e);
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).build();
+        }
+    }
+
     @Operation(
         summary = "Health Check",
         description = "Verificação de status da API\n\n" +
@@ -0,0 +1,62 @@
+package com.project.media.controller;
+
+import com.project.media.config.RevogacaoTokens;
+import com.project.media.dto.RevogacaoTokensDto;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.responses.ApiResponses;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.validation.Valid;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.Map;
+
+@RestController
+@RequestMapping("/api/tokens")
+@Tag(name = "Tokens", description = "Administração de tokens JWT emitidos")
+public class TokenController {
+
+    private static final Logger logger = LoggerFactory.getLogger(TokenController.class);
+
+    @Autowired
+    private RevogacaoTokens revogacaoTokens;
+
+    @Operation(
+        summary = "Revogar Tokens",
+        description = "Revoga tokens JWT antes da expiração (Apenas Administradores)\n\n" +
+                     "- sujeitos: CPFs (usuários comuns) ou nomes de usuário (profissionais); " +
+                     "todos os tokens emitidos até agora para eles deixam de ser aceitos\n" +
+                     "- jtis: identificadores (claim jti) de tokens específicos\n\n" +
+                     "Até 1000 itens de cada tipo por requisição. Outras instâncias aplicam a revogação " +
+                     "na próxima sincronização (media.jwt.revogacao.sincronizacao).\n\n" +
+                     "Exemplo: {\"sujeitos\": [\"12345678901\"], \"jtis\": []}"
+    )
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "200", description = "Tokens revogados"),
+        @ApiResponse(responseCode = "400", description = "Nenhum sujeito ou jti informado"),
+        @ApiResponse(responseCode = "500", description = "Erro interno do servidor")
+    })
+    @PostMapping("/revogacoes")
+    public ResponseEntity<Map<String, Object>> revogar(@Valid @RequestBody RevogacaoTokensDto revogacao) {
+        if (revogacao.getSujeitos().isEmpty() && revogacao.getJtis().isEmpty()) {
+            logger.warn("Revogação de tokens sem sujeitos nem jtis");
+            return ResponseEntity.badRequest().build();
+        }
+
+        try {
+            int sujeitos = revogacaoTokens.revogarSujeitos(revogacao.getSujeitos());
+            int jtis = revogacaoTokens.revogarJtis(revogacao.getJtis());
+            logger.info("Revogação de tokens registrada - {} usuários, {} jtis", sujeitos, jtis);
+            return ResponseEntity.ok(Map.of("sujeitosRevogados", sujeitos, "jtisRevogados", jtis));
+
+        } catch (Exception e) {
+            logger.error("Erro ao revogar tokens: {}", e.getMessage(), e);
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).build();
+        }
+    }
+}
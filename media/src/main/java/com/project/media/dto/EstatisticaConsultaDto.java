@@ -0,0 +1,64 @@
+package com.project.media.dto;
+
+import java.time.LocalDateTime;
+
+public class EstatisticaConsultaDto {
+
+    private LocalDateTime inicioPeriodo;
+    private Long sugestaoId;
+    private String tituloSugestao;
+    private String tipoAtendimento;
+    private long totalConsultas;
+    private Double tempoMedioRespostaMs;
+
+    public EstatisticaConsultaDto() {
+    }
+
+    public LocalDateTime getInicioPeriodo() {
+        return inicioPeriodo;
+    }
+
+    public void setInicioPeriodo(LocalDateTime inicioPeriodo) {
+        this.inicioPeriodo = inicioPeriodo;
+    }
+
+    public Long getSugestaoId() {
+        return sugestaoId;
+    }
+
+    public void setSugestaoId(Long sugestaoId) {
+        this.sugestaoId = sugestaoId;
+    }
+
+    public String getTituloSugestao() {
+        return tituloSugestao;
+    }
+
+    public void setTituloSugestao(String tituloSugestao) {
+        this.tituloSugestao = tituloSugestao;
+    }
+
+    public String getTipoAtendimento() {
+        return tipoAtendimento;
+    }
+
+    public void setTipoAtendimento(String tipoAtendimento) {
+        this.tipoAtendimento = tipoAtendimento;
+    }
+
+    public long getTotalConsultas() {
+        return totalConsultas;
+    }
+
+    public void setTotalConsultas(long totalConsultas) {
+        this.totalConsultas = totalConsultas;
+    }
+
+    public Double getTempoMedioRespostaMs() {
+        return tempoMedioRespostaMs;
+    }
+
+    public void setTempoMedioRespostaMs(Double tempoMedioRespostaMs) {
+        this.tempoMedioRespostaMs = tempoMedioRespostaMs;
+    }
+}
@@ -0,0 +1,35 @@
+package com.project.media.dto;
+
+public class FrequenciaSintomaDto {
+
+    private String termo;
+    private Long sintomaId;
+    private long totalConsultas;
+
+    public FrequenciaSintomaDto() {
+    }
+
+    public String getTermo() {
+        return termo;
+    }
+
+    public void setTermo(String termo) {
+        this.termo = termo;
+    }
+
+    public Long getSintomaId() {
+        return sintomaId;
+    }
+
+    public void setSintomaId(Long sintomaId) {
+        this.sintomaId = sintomaId;
+    }
+
+    public long getTotalConsultas() {
+        return totalConsultas;
+    }
+
+    public void setTotalConsultas(long totalConsultas) {
+        this.totalConsultas = totalConsultas;
+    }
+}
@@ -19,6 +19,17 @@ public class HistoricoConsultaDto {
     public HistoricoConsultaDto() {
     }
 
+    public HistoricoConsultaDto(Long id, String sintomasInformados, String cpfPaciente, String nomePaciente,
+                               String tituloSugestao, String tipoAtendimento, Integer prioridade,
+                               String ipOrigem, LocalDateTime dataConsulta, Long tempoRespostaMs,
+                               String observacoes) {
+        this(id, sintomasInformados, tituloSugestao, tipoAtendimento, prioridade, ipOrigem,
+                dataConsulta, tempoRespostaMs);
+        this.cpfPaciente = cpfPaciente;
+        this.nomePaciente = nomePaciente;
+        this.observacoes = observacoes;
+    }
+
     public HistoricoConsultaDto(Long id, String sintomasInformados, String tituloSugestao, 
                                String tipoAtendimento, Integer prioridade, String ipOrigem,
                                LocalDateTime dataConsulta, Long tempoRespostaMs) {
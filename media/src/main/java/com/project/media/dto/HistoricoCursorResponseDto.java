@@ -0,0 +1,61 @@
+package com.project.media.dto;
+
+import java.util.List;
+
+public class HistoricoCursorResponseDto {
+
+    private List<HistoricoConsultaDto> conteudo;
+    private String proximoCursor;
+    private boolean temProximo;
+    private int tamanho;
+
+    public HistoricoCursorResponseDto() {
+    }
+
+    public HistoricoCursorResponseDto(List<HistoricoConsultaDto> conteudo, String proximoCursor) {
+        this.conteudo = conteudo;
+        this.proximoCursor = proximoCursor;
+        this.temProximo = proximoCursor != null;
+        this.tamanho = conteudo.size();
+    }
+
+    public List<HistoricoConsultaDto> getConteudo() {
+        return conteudo;
+    }
+
+    public void setConteudo(List<HistoricoConsultaDto> conteudo) {
+        this.conteudo = conteudo;
+    }
+
+    public String getProximoCursor() {
+        return proximoCursor;
+    }
+
+    public void setProximoCursor(String proximoCursor) {
+        this.proximoCursor = proximoCursor;
+    }
+
+    public boolean isTemProximo() {
+        return temProximo;
+    }
+
+    public void setTemProximo(boolean temProximo) {
+        this.temProximo = temProximo;
+    }
+
+    public int getTamanho() {
+        return tamanho;
+    }
+
+    public void setTamanho(int tamanho) {
+        this.tamanho = tamanho;
+    }
+
+    @Override
+    public String toString() {
+        return "HistoricoCursorResponseDto{" +
+                "tamanho=" + tamanho +
+                ", temProximo=" + temProximo +
+                '}';
+    }
+}
@@ -0,0 +1,64 @@
+package com.project.media.dto;
+
+import java.util.List;
+
+public class HistoricoSliceResponseDto {
+
+    private List<HistoricoConsultaDto> conteudo;
+    private int pagina;
+    private int tamanho;
+    private boolean temProximo;
+    private Long totalAproximado;
+
+    public HistoricoSliceResponseDto() {
+    }
+
+    public HistoricoSliceResponseDto(List<HistoricoConsultaDto> conteudo, int pagina, boolean temProximo,
+                                     Long totalAproximado) {
+        this.conteudo = conteudo;
+        this.pagina = pagina;
+        this.tamanho = conteudo.size();
+        this.temProximo = temProximo;
+        this.totalAproximado = totalAproximado;
+    }
+
+    public List<HistoricoConsultaDto> getConteudo() {
+        return conteudo;
+    }
+
+    public void setConteudo(List<HistoricoConsultaDto> conteudo) {
+        this.conteudo = conteudo;
+    }
+
+    public int getPagina() {
+        return pagina;
+    }
+
+    public void setPagina(int pagina) {
+        this.pagina = pagina;
+    }
+
+    public int getTamanho() {
+        return tamanho;
+    }
+
+    public void setTamanho(int tamanho) {
+        this.tamanho = tamanho;
+    }
+
+    public boolean isTemProximo() {
+        return temProximo;
+    }
+
+    public void setTemProximo(boolean temProximo) {
+        this.temProximo = temProximo;
+    }
+
+    public Long getTotalAproximado() {
+        return totalAproximado;
+    }
+
+    public void setTotalAproximado(Long totalAproximado) {
+        this.totalAproximado = totalAproximado;
+    }
+}
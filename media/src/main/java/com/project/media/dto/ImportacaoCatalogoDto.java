@@ -0,0 +1,71 @@
+package com.project.media.dto;
+
+public class ImportacaoCatalogoDto {
+
+    private int formato;
+    private long sintomasInseridos;
+    private long sintomasAtualizados;
+    private long sugestoesInseridas;
+    private long sugestoesAtualizadas;
+    private long associacoesInseridas;
+    private long duracaoMs;
+
+    public ImportacaoCatalogoDto() {
+    }
+
+    public int getFormato() {
+        return formato;
+    }
+
+    public void setFormato(int formato) {
+        this.formato = formato;
+    }
+
+    public long getSintomasInseridos() {
+        return sintomasInseridos;
+    }
+
+    public void setSintomasInseridos(long sintomasInseridos) {
+        this.sintomasInseridos = sintomasInseridos;
+    }
+
+    public long getSintomasAtualizados() {
+        return sintomasAtualizados;
+    }
+
+    public void setSintomasAtualizados(long sintomasAtualizados) {
+        this.sintomasAtualizados = sintomasAtualizados;
+    }
+
+    public long getSugestoesInseridas() {
+        return sugestoesInseridas;
+    }
+
+    public void setSugestoesInseridas(long sugestoesInseridas) {
+        this.sugestoesInseridas = sugestoesInseridas;
+    }
+
+    public long getSugestoesAtualizadas() {
+        return sugestoesAtualizadas;
+    }
+
+    public void setSugestoesAtualizadas(long sugestoesAtualizadas) {
+        this.sugestoesAtualizadas = sugestoesAtualizadas;
+    }
+
+    public long getAssociacoesInseridas() {
+        return associacoesInseridas;
+    }
+
+    public void setAssociacoesInseridas(long associacoesInseridas) {
+        this.associacoesInseridas = associacoesInseridas;
+    }
+
+    public long getDuracaoMs() {
+        return duracaoMs;
+    }
+
+    public void setDuracaoMs(long duracaoMs) {
+        this.duracaoMs = duracaoMs;
+    }
+}
@@ -0,0 +1,91 @@
+package com.project.media.dto;
+
+import java.time.LocalDateTime;
+
+public class LatenciaConsultaDto {
+
+    private LocalDateTime inicioPeriodo;
+    private Long sugestaoId;
+    private String tituloSugestao;
+    private String tipoAtendimento;
+    private long totalConsultas;
+    private Long percentil50Ms;
+    private Long percentil95Ms;
+    private Long percentil99Ms;
+    private Long maximoMs;
+
+    public LatenciaConsultaDto() {
+    }
+
+    public LocalDateTime getInicioPeriodo() {
+        return inicioPeriodo;
+    }
+
+    public void setInicioPeriodo(LocalDateTime inicioPeriodo) {
+        this.inicioPeriodo = inicioPeriodo;
+    }
+
+    public Long getSugestaoId() {
+        return sugestaoId;
+    }
+
+    public void setSugestaoId(Long sugestaoId) {
+        this.sugestaoId = sugestaoId;
+    }
+
+    public String getTituloSugestao() {
+        return tituloSugestao;
+    }
+
+    public void setTituloSugestao(String tituloSugestao) {
+        this.tituloSugestao = tituloSugestao;
+    }
+
+    public String getTipoAtendimento() {
+        return tipoAtendimento;
+    }
+
+    public void setTipoAtendimento(String tipoAtendimento) {
+        this.tipoAtendimento = tipoAtendimento;
+    }
+
+    public long getTotalConsultas() {
+        return totalConsultas;
+    }
+
+    public void setTotalConsultas(long totalConsultas) {
+        this.totalConsultas = totalConsultas;
+    }
+
+    public Long getPercentil50Ms() {
+        return percentil50Ms;
+    }
+
+    public void setPercentil50Ms(Long percentil50Ms) {
+        this.percentil50Ms = percentil50Ms;
+    }
+
+    public Long getPercentil95Ms() {
+        return percentil95Ms;
+    }
+
+    public void setPercentil95Ms(Long percentil95Ms) {
+        this.percentil95Ms = percentil95Ms;
+    }
+
+    public Long getPercentil99Ms() {
+        return percentil99Ms;
+    }
+
+    public void setPercentil99Ms(Long percentil99Ms) {
+        this.percentil99Ms = percentil99Ms;
+    }
+
+    public Long getMaximoMs() {
+        return maximoMs;
+    }
+
+    public void setMaximoMs(Long maximoMs) {
+        this.maximoMs = maximoMs;
+    }
+}
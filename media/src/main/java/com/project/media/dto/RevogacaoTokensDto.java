@@ -0,0 +1,34 @@
+package com.project.media.dto;
+
+import jakarta.validation.constraints.Size;
+
+import java.util.ArrayList;
+import java.util.List;
+
+public class RevogacaoTokensDto {
+
+    @Size(max = 1000, message = "Máximo de 1000 usuários por requisição")
+    private List<String> sujeitos = new ArrayList<>();
+
+    @Size(max = 1000, message = "Máximo de 1000 tokens por requisição")
+    private List<String> jtis = new ArrayList<>();
+
+    public RevogacaoTokensDto() {
+    }
+
+    public List<String> getSujeitos() {
+        return sujeitos;
+    }
+
+    public void setSujeitos(List<String> sujeitos) {
+        this.sujeitos = sujeitos != null ? sujeitos : new ArrayList<>();
+    }
+
+    public List<String> getJtis() {
+        return jtis;
+    }
+
+    public void setJtis(List<String> jtis) {
+        this.jtis = jtis != null ? jtis : new ArrayList<>();
+    }
+}
@@ -0,0 +1,16 @@
+package com.project.media.dto;
+
+/**
+ * Uma linha do ranking por consulta: a sugestão e um sintoma informado que
+ * ela cobre, agrupados em memória, para que nenhum caractere do nome precise
+ * servir de separador. Sem sugestão correspondente só
+ * {@link #getSintomasEncontrados()} vem preenchido.
+ */
+public interface SugestaoCorrespondenciaProjecao extends SugestaoProjecao {
+
+    Integer getSintomasEncontrados();
+
+    Integer getPosicao();
+
+    String getSintoma();
+}
@@ -0,0 +1,64 @@
+package com.project.media.dto;
+
+import java.util.List;
+
+public class SugestaoLoteResponseDto {
+
+    private int indice;
+    private List<SugestaoResponseDto> sugestoes;
+    private String erro;
+
+    public SugestaoLoteResponseDto() {
+    }
+
+    public SugestaoLoteResponseDto(int indice, List<SugestaoResponseDto> sugestoes, String erro) {
+        this.indice = indice;
+        this.sugestoes = sugestoes;
+        this.erro = erro;
+    }
+
+    public static SugestaoLoteResponseDto sucesso(int indice, List<SugestaoResponseDto> sugestoes) {
+        return new SugestaoLoteResponseDto(indice, sugestoes, null);
+    }
+
+    public static SugestaoLoteResponseDto falha(int indice, String erro) {
+        return new SugestaoLoteResponseDto(indice, List.of(), erro);
+    }
+
+    public int getIndice() {
+        return indice;
+    }
+
+    public void setIndice(int indice) {
+        this.indice = indice;
+    }
+
+    public List<SugestaoResponseDto> getSugestoes() {
+        return sugestoes;
+    }
+
+    public void setSugestoes(List<SugestaoResponseDto> sugestoes) {
+        this.sugestoes = sugestoes;
+    }
+
+    public String getErro() {
+        return erro;
+    }
+
+    public void setErro(String erro) {
+        this.erro = erro;
+    }
+
+    public boolean isSucesso() {
+        return erro == null;
+    }
+
+    @Override
+    public String toString() {
+        return "SugestaoLoteResponseDto{" +
+                "indice=" + indice +
+                ", sugestoes=" + (sugestoes != null ? sugestoes.size() : 0) +
+                ", erro='" + erro + '\'' +
+                '}';
+    }
+}
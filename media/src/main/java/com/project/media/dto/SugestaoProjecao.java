@@ -0,0 +1,16 @@
+package com.project.media.dto;
+
+public interface SugestaoProjecao {
+
+    Long getId();
+
+    String getTitulo();
+
+    String getDescricao();
+
+    String getTipoAtendimento();
+
+    Integer getPrioridade();
+
+    String getRecomendacoes();
+}
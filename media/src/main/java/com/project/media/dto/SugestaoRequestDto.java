@@ -1,5 +1,7 @@
 package com.project.media.dto;
 
+import jakarta.validation.constraints.Max;
+import jakarta.validation.constraints.Min;
 import jakarta.validation.constraints.NotEmpty;
 import jakarta.validation.constraints.Size;
 
@@ -11,6 +13,10 @@ public class SugestaoRequestDto {
     @Size(min = 1, max = 10, message = "Deve informar entre 1 e 10 sintomas")
     private List<String> sintomas;
 
+    @Min(value = 1, message = "topK deve ser no mínimo 1")
+    @Max(value = 20, message = "topK deve ser no máximo 20")
+    private Integer topK;
+
     public SugestaoRequestDto() {
     }
 
@@ -26,10 +32,19 @@ public class SugestaoRequestDto {
         this.sintomas = sintomas;
     }
 
+    public Integer getTopK() {
+        return topK;
+    }
+
+    public void setTopK(Integer topK) {
+        this.topK = topK;
+    }
+
     @Override
     public String toString() {
         return "SugestaoRequestDto{" +
                 "sintomas=" + sintomas +
+                ", topK=" + topK +
                 '}';
     }
 }
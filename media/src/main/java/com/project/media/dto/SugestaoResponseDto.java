@@ -1,6 +1,7 @@
 package com.project.media.dto;
 
 import java.time.LocalDateTime;
+import java.util.ArrayList;
 import java.util.List;
 
 public class SugestaoResponseDto {
@@ -29,6 +30,12 @@ public class SugestaoResponseDto {
         this.dataConsulta = LocalDateTime.now();
     }
 
+    public SugestaoResponseDto(SugestaoResponseDto origem) {
+        this(origem.id, origem.titulo, origem.descricao, origem.tipoAtendimento, origem.prioridade,
+                origem.recomendacoes,
+                origem.sintomasCorrespondentes != null ? new ArrayList<>(origem.sintomasCorrespondentes) : null);
+    }
+
     public Long getId() {
         return id;
     }
@@ -0,0 +1,76 @@
+package com.project.media.entity;
+
+import jakarta.persistence.*;
+
+/**
+ * Agregado do histórico de consultas por hora ou dia e por sugestão.
+ *
+ * Mantido incrementalmente pelo {@code RegistradorHistorico} a cada lote
+ * gravado; o tempo médio de resposta é {@code somaTempoRespostaMs / consultasComTempo}.
+ */
+@Entity
+@Table(name = "estatisticas_consultas")
+public class EstatisticaConsulta {
+
+    public enum Granularidade {
+        HORA, DIA
+    }
+
+    @EmbeddedId
+    private EstatisticaConsultaId id;
+
+    @Column(name = "tipo_atendimento", length = 50)
+    private String tipoAtendimento;
+
+    @Column(name = "total_consultas", nullable = false)
+    private Long totalConsultas;
+
+    @Column(name = "soma_tempo_resposta_ms", nullable = false)
+    private Long somaTempoRespostaMs;
+
+    @Column(name = "consultas_com_tempo", nullable = false)
+    private Long consultasComTempo;
+
+    public EstatisticaConsulta() {
+    }
+
+    public EstatisticaConsultaId getId() {
+        return id;
+    }
+
+    public void setId(EstatisticaConsultaId id) {
+        this.id = id;
+    }
+
+    public String getTipoAtendimento() {
+        return tipoAtendimento;
+    }
+
+    public void setTipoAtendimento(String tipoAtendimento) {
+        this.tipoAtendimento = tipoAtendimento;
+    }
+
+    public Long getTotalConsultas() {
+        return totalConsultas;
+    }
+
+    public void setTotalConsultas(Long totalConsultas) {
+        this.totalConsultas = totalConsultas;
+    }
+
+    public Long getSomaTempoRespostaMs() {
+        return somaTempoRespostaMs;
+    }
+
+    public void setSomaTempoRespostaMs(Long somaTempoRespostaMs) {
+        this.somaTempoRespostaMs = somaTempoRespostaMs;
+    }
+
+    public Long getConsultasComTempo() {
+        return consultasComTempo;
+    }
+
+    public void setConsultasComTempo(Long consultasComTempo) {
+        this.consultasComTempo = consultasComTempo;
+    }
+}
@@ -0,0 +1,58 @@
+package com.project.media.entity;
+
+import jakarta.persistence.*;
+
+import java.io.Serializable;
+import java.time.LocalDateTime;
+import java.util.Objects;
+
+@Embeddable
+public class EstatisticaConsultaId implements Serializable {
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "granularidade", nullable = false, length = 4)
+    private EstatisticaConsulta.Granularidade granularidade;
+
+    @Column(name = "inicio_periodo", nullable = false)
+    private LocalDateTime inicioPeriodo;
+
+    @Column(name = "sugestao_id", nullable = false)
+    private Long sugestaoId;
+
+    public EstatisticaConsultaId() {
+    }
+
+    public EstatisticaConsultaId(EstatisticaConsulta.Granularidade granularidade, LocalDateTime inicioPeriodo,
+                                 Long sugestaoId) {
+        this.granularidade = granularidade;
+        this.inicioPeriodo = inicioPeriodo;
+        this.sugestaoId = sugestaoId;
+    }
+
+    public EstatisticaConsulta.Granularidade getGranularidade() {
+        return granularidade;
+    }
+
+    public LocalDateTime getInicioPeriodo() {
+        return inicioPeriodo;
+    }
+
+    public Long getSugestaoId() {
+        return sugestaoId;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (!(o instanceof EstatisticaConsultaId)) return false;
+        EstatisticaConsultaId that = (EstatisticaConsultaId) o;
+        return granularidade == that.granularidade
+                && Objects.equals(inicioPeriodo, that.inicioPeriodo)
+                && Objects.equals(sugestaoId, that.sugestaoId);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(granularidade, inicioPeriodo, sugestaoId);
+    }
+}
@@ -8,11 +8,23 @@ import jakarta.validation.constraints.Size;
 import java.time.LocalDateTime;
 
 @Entity
-@Table(name = "historico_consultas")
+@Table(name = "historico_consultas", indexes = {
+    @Index(name = "idx_historico_cpf_data", columnList = "cpf_paciente, data_consulta"),
+    @Index(name = "idx_historico_data", columnList = "data_consulta"),
+    @Index(name = "idx_historico_sugestao_data", columnList = "sugestao_id, data_consulta")
+})
 public class HistoricoConsulta {
 
+    /**
+     * Ids reservados por chamada à sequência (otimizador pooled-lo). O gravador
+     * de histórico usa os mesmos blocos para saber o id antes do INSERT em lote.
+     */
+    public static final int BLOCO_IDS = 50;
+
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "historico_consultas_seq")
+    @SequenceGenerator(name = "historico_consultas_seq", sequenceName = "historico_consultas_seq",
+            allocationSize = BLOCO_IDS)
     @Column(name = "id")
     private Long id;
 
@@ -0,0 +1,22 @@
+package com.project.media.entity;
+
+import jakarta.persistence.Entity;
+import jakarta.persistence.Index;
+import jakarta.persistence.Table;
+
+/**
+ * Consultas de meses fechados movidas de {@code historico_consultas} pelo
+ * arquivamento. Somente leitura para a aplicação; as linhas chegam por
+ * INSERT ... SELECT em lotes.
+ */
+@Entity
+@Table(name = "historico_consultas_arquivo", indexes = {
+    @Index(name = "idx_historico_arq_cpf_data", columnList = "cpf_paciente, data_consulta"),
+    @Index(name = "idx_historico_arq_data", columnList = "data_consulta")
+})
+public class HistoricoConsultaArquivo extends HistoricoConsultaBase {
+
+    public static final String COLUNAS =
+            "id, sintomas_informados, cpf_paciente, nome_paciente, sugestao_id, ip_origem, " +
+            "user_agent, data_consulta, tempo_resposta_ms, observacoes";
+}
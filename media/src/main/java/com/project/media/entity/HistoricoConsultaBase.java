@@ -0,0 +1,87 @@
+package com.project.media.entity;
+
+import jakarta.persistence.*;
+
+import java.time.LocalDateTime;
+
+/**
+ * Colunas comuns às leituras do histórico arquivado e do histórico completo.
+ *
+ * O id é o mesmo da linha original em {@code historico_consultas}, e a sugestão
+ * não tem chave estrangeira para que o arquivo não prenda alterações do catálogo.
+ */
+@MappedSuperclass
+public abstract class HistoricoConsultaBase {
+
+    @Id
+    @Column(name = "id")
+    private Long id;
+
+    @Column(name = "sintomas_informados", nullable = false, length = 1000)
+    private String sintomasInformados;
+
+    @Column(name = "cpf_paciente", length = 11)
+    private String cpfPaciente;
+
+    @Column(name = "nome_paciente", length = 200)
+    private String nomePaciente;
+
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "sugestao_id", nullable = false, foreignKey = @ForeignKey(ConstraintMode.NO_CONSTRAINT))
+    private Sugestao sugestao;
+
+    @Column(name = "ip_origem", length = 45)
+    private String ipOrigem;
+
+    @Column(name = "user_agent", length = 500)
+    private String userAgent;
+
+    @Column(name = "data_consulta", nullable = false)
+    private LocalDateTime dataConsulta;
+
+    @Column(name = "tempo_resposta_ms")
+    private Long tempoRespostaMs;
+
+    @Column(name = "observacoes", length = 500)
+    private String observacoes;
+
+    public Long getId() {
+        return id;
+    }
+
+    public String getSintomasInformados() {
+        return sintomasInformados;
+    }
+
+    public String getCpfPaciente() {
+        return cpfPaciente;
+    }
+
+    public String getNomePaciente() {
+        return nomePaciente;
+    }
+
+    public Sugestao getSugestao() {
+        return sugestao;
+    }
+
+    public String getIpOrigem() {
+        return ipOrigem;
+    }
+
+    public String getUserAgent() {
+        return userAgent;
+    }
+
+    public LocalDateTime getDataConsulta() {
+        return dataConsulta;
+    }
+
+    public Long getTempoRespostaMs() {
+        return tempoRespostaMs;
+    }
+
+    public String getObservacoes() {
+        return observacoes;
+    }
+}
@@ -0,0 +1,22 @@
+package com.project.media.entity;
+
+import jakarta.persistence.Entity;
+import org.hibernate.annotations.Immutable;
+import org.hibernate.annotations.Subselect;
+import org.hibernate.annotations.Synchronize;
+
+/**
+ * Histórico recente e arquivado juntos, para filtros cujo período cruza o
+ * limite do arquivamento.
+ */
+@Entity
+@Immutable
+@Subselect(HistoricoConsultaCompleta.SQL)
+@Synchronize({"historico_consultas", "historico_consultas_arquivo"})
+public class HistoricoConsultaCompleta extends HistoricoConsultaBase {
+
+    public static final String SQL =
+            "SELECT " + HistoricoConsultaArquivo.COLUNAS + " FROM historico_consultas " +
+            "UNION ALL " +
+            "SELECT " + HistoricoConsultaArquivo.COLUNAS + " FROM historico_consultas_arquivo";
+}
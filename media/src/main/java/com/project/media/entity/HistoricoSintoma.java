@@ -0,0 +1,58 @@
+package com.project.media.entity;
+
+import jakarta.persistence.*;
+
+import java.time.LocalDateTime;
+
+/**
+ * Um sintoma informado numa consulta do histórico: o termo normalizado
+ * (minúsculo, sem espaços nas pontas) e, se houver, o sintoma do catálogo com
+ * o mesmo nome.
+ *
+ * Sem chave estrangeira para o histórico, porque a consulta pode estar em
+ * {@code historico_consultas} ou no arquivo. A data da consulta é repetida aqui
+ * para que contagens por termo e período sejam lidas só dos índices.
+ */
+@Entity
+@Table(name = "historico_sintomas", indexes = {
+    @Index(name = "idx_historico_sintomas_termo", columnList = "termo, data_consulta"),
+    @Index(name = "idx_historico_sintomas_data", columnList = "data_consulta, termo, sintoma_id")
+})
+public class HistoricoSintoma {
+
+    @EmbeddedId
+    private HistoricoSintomaId id;
+
+    @Column(name = "sintoma_id")
+    private Long sintomaId;
+
+    @Column(name = "data_consulta", nullable = false)
+    private LocalDateTime dataConsulta;
+
+    public HistoricoSintoma() {
+    }
+
+    public HistoricoSintomaId getId() {
+        return id;
+    }
+
+    public void setId(HistoricoSintomaId id) {
+        this.id = id;
+    }
+
+    public Long getSintomaId() {
+        return sintomaId;
+    }
+
+    public void setSintomaId(Long sintomaId) {
+        this.sintomaId = sintomaId;
+    }
+
+    public LocalDateTime getDataConsulta() {
+        return dataConsulta;
+    }
+
+    public void setDataConsulta(LocalDateTime dataConsulta) {
+        this.dataConsulta = dataConsulta;
+    }
+}
@@ -0,0 +1,46 @@
+package com.project.media.entity;
+
+import jakarta.persistence.*;
+
+import java.io.Serializable;
+import java.util.Objects;
+
+@Embeddable
+public class HistoricoSintomaId implements Serializable {
+
+    @Column(name = "historico_id", nullable = false)
+    private Long historicoId;
+
+    @Column(name = "termo", nullable = false, length = 100)
+    private String termo;
+
+    public HistoricoSintomaId() {
+    }
+
+    public HistoricoSintomaId(Long historicoId, String termo) {
+        this.historicoId = historicoId;
+        this.termo = termo;
+    }
+
+    public Long getHistoricoId() {
+        return historicoId;
+    }
+
+    public String getTermo() {
+        return termo;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (!(o instanceof HistoricoSintomaId)) return false;
+        HistoricoSintomaId that = (HistoricoSintomaId) o;
+        return Objects.equals(historicoId, that.historicoId)
+                && Objects.equals(termo, that.termo);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(historicoId, termo);
+    }
+}
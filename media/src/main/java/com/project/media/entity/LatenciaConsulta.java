@@ -0,0 +1,62 @@
+package com.project.media.entity;
+
+import jakarta.persistence.*;
+
+/**
+ * Histograma do tempo de resposta por hora ou dia e por sugestão: uma linha
+ * por faixa de latência com consultas no período.
+ *
+ * As faixas são fixas (ver {@code HistogramaLatencia}), então histogramas de
+ * períodos ou sugestões diferentes se combinam somando {@code quantidade}.
+ */
+@Entity
+@Table(name = "latencias_consultas")
+public class LatenciaConsulta {
+
+    @EmbeddedId
+    private LatenciaConsultaId id;
+
+    @Column(name = "tipo_atendimento", length = 50)
+    private String tipoAtendimento;
+
+    @Column(name = "quantidade", nullable = false)
+    private Long quantidade;
+
+    @Column(name = "maximo_ms", nullable = false)
+    private Long maximoMs;
+
+    public LatenciaConsulta() {
+    }
+
+    public LatenciaConsultaId getId() {
+        return id;
+    }
+
+    public void setId(LatenciaConsultaId id) {
+        this.id = id;
+    }
+
+    public String getTipoAtendimento() {
+        return tipoAtendimento;
+    }
+
+    public void setTipoAtendimento(String tipoAtendimento) {
+        this.tipoAtendimento = tipoAtendimento;
+    }
+
+    public Long getQuantidade() {
+        return quantidade;
+    }
+
+    public void setQuantidade(Long quantidade) {
+        this.quantidade = quantidade;
+    }
+
+    public Long getMaximoMs() {
+        return maximoMs;
+    }
+
+    public void setMaximoMs(Long maximoMs) {
+        this.maximoMs = maximoMs;
+    }
+}
@@ -0,0 +1,67 @@
+package com.project.media.entity;
+
+import jakarta.persistence.*;
+
+import java.io.Serializable;
+import java.time.LocalDateTime;
+import java.util.Objects;
+
+@Embeddable
+public class LatenciaConsultaId implements Serializable {
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "granularidade", nullable = false, length = 4)
+    private EstatisticaConsulta.Granularidade granularidade;
+
+    @Column(name = "inicio_periodo", nullable = false)
+    private LocalDateTime inicioPeriodo;
+
+    @Column(name = "sugestao_id", nullable = false)
+    private Long sugestaoId;
+
+    @Column(name = "faixa", nullable = false)
+    private Integer faixa;
+
+    public LatenciaConsultaId() {
+    }
+
+    public LatenciaConsultaId(EstatisticaConsulta.Granularidade granularidade, LocalDateTime inicioPeriodo,
+                              Long sugestaoId, Integer faixa) {
+        this.granularidade = granularidade;
+        this.inicioPeriodo = inicioPeriodo;
+        this.sugestaoId = sugestaoId;
+        this.faixa = faixa;
+    }
+
+    public EstatisticaConsulta.Granularidade getGranularidade() {
+        return granularidade;
+    }
+
+    public LocalDateTime getInicioPeriodo() {
+        return inicioPeriodo;
+    }
+
+    public Long getSugestaoId() {
+        return sugestaoId;
+    }
+
+    public Integer getFaixa() {
+        return faixa;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (!(o instanceof LatenciaConsultaId)) return false;
+        LatenciaConsultaId that = (LatenciaConsultaId) o;
+        return granularidade == that.granularidade
+                && Objects.equals(inicioPeriodo, that.inicioPeriodo)
+                && Objects.equals(sugestaoId, that.sugestaoId)
+                && Objects.equals(faixa, that.faixa);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(granularidade, inicioPeriodo, sugestaoId, faixa);
+    }
+}
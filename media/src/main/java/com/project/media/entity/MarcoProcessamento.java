@@ -0,0 +1,52 @@
+package com.project.media.entity;
+
+import jakarta.persistence.*;
+
+import java.time.LocalDateTime;
+
+/**
+ * Até onde um processamento de longa duração (por exemplo, um preenchimento
+ * feito na inicialização) já foi concluído. O significado de {@code valor}
+ * depende do processamento: último id lido ou horário em epoch milissegundos.
+ */
+@Entity
+@Table(name = "marcos_processamento")
+public class MarcoProcessamento {
+
+    @Id
+    @Column(name = "nome", length = 100)
+    private String nome;
+
+    @Column(name = "valor", nullable = false)
+    private Long valor;
+
+    @Column(name = "atualizado_em", nullable = false)
+    private LocalDateTime atualizadoEm;
+
+    public MarcoProcessamento() {
+    }
+
+    public String getNome() {
+        return nome;
+    }
+
+    public void setNome(String nome) {
+        this.nome = nome;
+    }
+
+    public Long getValor() {
+        return valor;
+    }
+
+    public void setValor(Long valor) {
+        this.valor = valor;
+    }
+
+    public LocalDateTime getAtualizadoEm() {
+        return atualizadoEm;
+    }
+
+    public void setAtualizadoEm(LocalDateTime atualizadoEm) {
+        this.atualizadoEm = atualizadoEm;
+    }
+}
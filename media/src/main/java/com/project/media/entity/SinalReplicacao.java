@@ -0,0 +1,39 @@
+package com.project.media.entity;
+
+import jakarta.persistence.*;
+
+/**
+ * Linha única gravada periodicamente no banco principal para medir o atraso
+ * da réplica de leitura: a diferença entre o horário atual e o
+ * {@code gravadoEm} lido na réplica.
+ */
+@Entity
+@Table(name = "sinal_replicacao")
+public class SinalReplicacao {
+
+    @Id
+    private Integer id;
+
+    /** Epoch em milissegundos. */
+    @Column(name = "gravado_em", nullable = false)
+    private Long gravadoEm;
+
+    public SinalReplicacao() {
+    }
+
+    public Integer getId() {
+        return id;
+    }
+
+    public void setId(Integer id) {
+        this.id = id;
+    }
+
+    public Long getGravadoEm() {
+        return gravadoEm;
+    }
+
+    public void setGravadoEm(Long gravadoEm) {
+        this.gravadoEm = gravadoEm;
+    }
+}
@@ -1,19 +1,25 @@
 package com.project.media.entity;
 
+import com.project.media.config.CacheCatalogoConfig;
 import jakarta.persistence.*;
 import jakarta.validation.constraints.NotBlank;
 import jakarta.validation.constraints.Size;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 
 import java.time.LocalDateTime;
 import java.util.HashSet;
 import java.util.Set;
 
 @Entity
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = CacheCatalogoConfig.REGIAO_SINTOMAS)
 @Table(name = "sintomas")
 public class Sintoma {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "sintomas_seq")
+    @SequenceGenerator(name = "sintomas_seq", sequenceName = "sintomas_seq", allocationSize = 50)
     @Column(name = "id")
     private Long id;
 
@@ -1,20 +1,26 @@
 package com.project.media.entity;
 
+import com.project.media.config.CacheCatalogoConfig;
 import jakarta.persistence.*;
 import jakarta.validation.constraints.NotBlank;
 import jakarta.validation.constraints.NotNull;
 import jakarta.validation.constraints.Size;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 
 import java.time.LocalDateTime;
 import java.util.HashSet;
 import java.util.Set;
 
 @Entity
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = CacheCatalogoConfig.REGIAO_SUGESTOES)
 @Table(name = "sugestoes")
 public class Sugestao {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "sugestoes_seq")
+    @SequenceGenerator(name = "sugestoes_seq", sequenceName = "sugestoes_seq", allocationSize = 50)
     @Column(name = "id")
     private Long id;
 
@@ -51,6 +57,7 @@ public class Sugestao {
     private LocalDateTime dataAtualizacao;
 
     @ManyToMany(fetch = FetchType.LAZY)
+    @Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = CacheCatalogoConfig.REGIAO_SUGESTAO_SINTOMAS)
     @JoinTable(
         name = "sugestao_sintoma",
         joinColumns = @JoinColumn(name = "sugestao_id"),
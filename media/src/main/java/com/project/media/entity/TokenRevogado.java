@@ -0,0 +1,59 @@
+package com.project.media.entity;
+
+import jakarta.persistence.*;
+
+import java.time.LocalDateTime;
+
+/**
+ * Revogação de token JWT: um token pelo seu jti, ou todos os tokens de um
+ * usuário (CPF ou nome de usuário) emitidos até {@code revogadoEm}. A linha
+ * pode ser apagada depois de {@code expiraEm}, quando nenhum token afetado
+ * ainda seria aceito.
+ */
+@Entity
+@Table(name = "tokens_revogados", indexes = {
+    @Index(name = "idx_tokens_revogados_revogado", columnList = "revogado_em"),
+    @Index(name = "idx_tokens_revogados_expira", columnList = "expira_em")
+})
+public class TokenRevogado {
+
+    public enum Tipo {
+        JTI, SUJEITO
+    }
+
+    @EmbeddedId
+    private TokenRevogadoId id;
+
+    @Column(name = "revogado_em", nullable = false)
+    private LocalDateTime revogadoEm;
+
+    @Column(name = "expira_em", nullable = false)
+    private LocalDateTime expiraEm;
+
+    public TokenRevogado() {
+    }
+
+    public TokenRevogadoId getId() {
+        return id;
+    }
+
+    public void setId(TokenRevogadoId id) {
+        this.id = id;
+    }
+
+    public LocalDateTime getRevogadoEm() {
+        return revogadoEm;
+    }
+
+    public void setRevogadoEm(LocalDateTime revogadoEm) {
+        this.revogadoEm = revogadoEm;
+    }
+
+    public LocalDateTime getExpiraEm() {
+        return expiraEm;
+    }
+
+    public void setExpiraEm(LocalDateTime expiraEm) {
+        this.expiraEm = expiraEm;
+    }
+}
@@ -0,0 +1,46 @@
+package com.project.media.entity;
+
+import jakarta.persistence.*;
+
+import java.io.Serializable;
+import java.util.Objects;
+
+@Embeddable
+public class TokenRevogadoId implements Serializable {
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "tipo", nullable = false, length = 10)
+    private TokenRevogado.Tipo tipo;
+
+    @Column(name = "valor", nullable = false, length = 200)
+    private String valor;
+
+    public TokenRevogadoId() {
+    }
+
+    public TokenRevogadoId(TokenRevogado.Tipo tipo, String valor) {
+        this.tipo = tipo;
+        this.valor = valor;
+    }
+
+    public TokenRevogado.Tipo getTipo() {
+        return tipo;
+    }
+
+    public String getValor() {
+        return valor;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (!(o instanceof TokenRevogadoId)) return false;
+        TokenRevogadoId that = (TokenRevogadoId) o;
+        return tipo == that.tipo && Objects.equals(valor, that.valor);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(tipo, valor);
+    }
+}
@@ -0,0 +1,39 @@
+package com.project.media.repository;
+
+import com.project.media.dto.HistoricoConsultaDto;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+public interface HistoricoConsultaRepositoryCustom {
+
+    Page<HistoricoConsultaDto> findDtoComFiltros(String cpfPaciente,
+                                                 LocalDateTime dataInicio,
+                                                 LocalDateTime dataFim,
+                                                 Pageable pageable);
+
+    /**
+     * Mesma página de {@link #findDtoComFiltros} sem a contagem total: busca um
+     * registro a mais apenas para saber se existe próxima página.
+     */
+    Slice<HistoricoConsultaDto> findDtoSliceComFiltros(String cpfPaciente,
+                                                       LocalDateTime dataInicio,
+                                                       LocalDateTime dataFim,
+                                                       Pageable pageable);
+
+    /**
+     * Página por cursor em ordem (dataConsulta, id) decrescente. Sem cursor
+     * ({@code cursorData == null}) retorna a primeira página. {@code sintoma},
+     * se informado, é um termo já normalizado de {@code historico_sintomas}.
+     */
+    List<HistoricoConsultaDto> findDtoKeyset(String cpfPaciente,
+                                             LocalDateTime dataInicio,
+                                             LocalDateTime dataFim,
+                                             String sintoma,
+                                             LocalDateTime cursorData,
+                                             Long cursorId,
+                                             int limite);
+}
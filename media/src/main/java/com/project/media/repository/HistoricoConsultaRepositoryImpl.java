@@ -0,0 +1,172 @@
+package com.project.media.repository;
+
+import com.project.media.dto.HistoricoConsultaDto;
+import com.project.media.entity.Sugestao;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.TypedQuery;
+import jakarta.persistence.criteria.CompoundSelection;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.Join;
+import jakarta.persistence.criteria.JoinType;
+import jakarta.persistence.criteria.Order;
+import jakarta.persistence.criteria.Path;
+import jakarta.persistence.criteria.Root;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.SliceImpl;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.data.support.PageableExecutionUtils;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Leitura do histórico projetada direto em {@link HistoricoConsultaDto}.
+ *
+ * A sugestão entra por join na mesma consulta, então uma página custa um
+ * SELECT (mais o COUNT quando o total não pode ser deduzido da página). A
+ * entidade lida depende do período: {@link RoteamentoHistorico} manda filtros
+ * recentes só para {@code historico_consultas}, sem tocar no arquivo.
+ */
+public class HistoricoConsultaRepositoryImpl implements HistoricoConsultaRepositoryCustom {
+
+    /** Campos do DTO que vêm da sugestão, para ordenação. */
+    private static final Map<String, String> CAMPOS_SUGESTAO = Map.of(
+            "tituloSugestao", "titulo",
+            "tipoAtendimento", "tipoAtendimento",
+            "prioridade", "prioridade");
+
+    private static final Sort ORDEM_KEYSET = Sort.by(Sort.Order.desc("dataConsulta"), Sort.Order.desc("id"));
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Autowired
+    private RoteamentoHistorico roteamento;
+
+    @Override
+    public Page<HistoricoConsultaDto> findDtoComFiltros(String cpfPaciente,
+                                                        LocalDateTime dataInicio,
+                                                        LocalDateTime dataFim,
+                                                        Pageable pageable) {
+        Class<Object> entidade = entidade(dataInicio, dataFim);
+        Specification<Object> filtros = HistoricoConsultaSpecs.comFiltros(cpfPaciente, dataInicio, dataFim);
+
+        TypedQuery<HistoricoConsultaDto> query = criarConsulta(entidade, filtros, pageable.getSort());
+        if (pageable.isPaged()) {
+            query.setFirstResult((int) pageable.getOffset());
+            query.setMaxResults(pageable.getPageSize());
+        }
+
+        return PageableExecutionUtils.getPage(query.getResultList(), pageable, () -> contar(entidade, filtros));
+    }
+
+    @Override
+    public Slice<HistoricoConsultaDto> findDtoSliceComFiltros(String cpfPaciente,
+                                                              LocalDateTime dataInicio,
+                                                              LocalDateTime dataFim,
+                                                              Pageable pageable) {
+        Specification<Object> filtros = HistoricoConsultaSpecs.comFiltros(cpfPaciente, dataInicio, dataFim);
+
+        List<HistoricoConsultaDto> conteudo = criarConsulta(entidade(dataInicio, dataFim), filtros, pageable.getSort())
+                .setFirstResult((int) pageable.getOffset())
+                .setMaxResults(pageable.getPageSize() + 1)
+                .getResultList();
+
+        boolean temProximo = conteudo.size() > pageable.getPageSize();
+        if (temProximo) {
+            conteudo = conteudo.subList(0, pageable.getPageSize());
+        }
+        return new SliceImpl<>(conteudo, pageable, temProximo);
+    }
+
+    @Override
+    public List<HistoricoConsultaDto> findDtoKeyset(String cpfPaciente,
+                                                    LocalDateTime dataInicio,
+                                                    LocalDateTime dataFim,
+                                                    String sintoma,
+                                                    LocalDateTime cursorData,
+                                                    Long cursorId,
+                                                    int limite) {
+        Specification<Object> filtros = HistoricoConsultaSpecs.comFiltros(cpfPaciente, dataInicio, dataFim);
+        if (sintoma != null) {
+            filtros = filtros.and(HistoricoConsultaSpecs.comSintoma(sintoma, dataInicio, dataFim));
+        }
+        if (cursorData != null) {
+            filtros = filtros.and(HistoricoConsultaSpecs.antesDe(cursorData, cursorId));
+        }
+
+        return criarConsulta(entidade(dataInicio, dataFim), filtros, ORDEM_KEYSET)
+                .setMaxResults(limite)
+                .getResultList();
+    }
+
+    /**
+     * A tabela recente, o arquivo e a visão completa têm os mesmos atributos,
+     * então as consultas abaixo valem para qualquer uma delas.
+     */
+    @SuppressWarnings("unchecked")
+    private Class<Object> entidade(LocalDateTime dataInicio, LocalDateTime dataFim) {
+        return (Class<Object>) roteamento.destino(dataInicio, dataFim).getEntidade();
+    }
+
+    private TypedQuery<HistoricoConsultaDto> criarConsulta(Class<Object> entidade,
+                                                           Specification<Object> filtros,
+                                                           Sort sort) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<HistoricoConsultaDto> cq = cb.createQuery(HistoricoConsultaDto.class);
+        Root<Object> root = cq.from(entidade);
+        Join<Object, Sugestao> sugestao = root.join("sugestao", JoinType.LEFT);
+
+        cq.select(projecao(cb, root, sugestao))
+                .where(filtros.toPredicate(root, cq, cb))
+                .orderBy(ordenacao(cb, root, sugestao, sort));
+
+        return entityManager.createQuery(cq);
+    }
+
+    private CompoundSelection<HistoricoConsultaDto> projecao(CriteriaBuilder cb,
+                                                             Root<Object> root,
+                                                             Join<Object, Sugestao> sugestao) {
+        return cb.construct(HistoricoConsultaDto.class,
+                root.get("id"),
+                root.get("sintomasInformados"),
+                root.get("cpfPaciente"),
+                root.get("nomePaciente"),
+                sugestao.get("titulo"),
+                sugestao.get("tipoAtendimento"),
+                sugestao.get("prioridade"),
+                root.get("ipOrigem"),
+                root.get("dataConsulta"),
+                root.get("tempoRespostaMs"),
+                root.get("observacoes"));
+    }
+
+    private List<Order> ordenacao(CriteriaBuilder cb,
+                                  Root<Object> root,
+                                  Join<Object, Sugestao> sugestao,
+                                  Sort sort) {
+        List<Order> ordens = new ArrayList<>();
+        for (Sort.Order ordem : sort) {
+            String campoSugestao = CAMPOS_SUGESTAO.get(ordem.getProperty());
+            Path<?> caminho = campoSugestao != null ? sugestao.get(campoSugestao) : root.get(ordem.getProperty());
+            ordens.add(ordem.isAscending() ? cb.asc(caminho) : cb.desc(caminho));
+        }
+        return ordens;
+    }
+
+    private long contar(Class<Object> entidade, Specification<Object> filtros) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<Long> cq = cb.createQuery(Long.class);
+        Root<Object> root = cq.from(entidade);
+        cq.select(cb.count(root)).where(filtros.toPredicate(root, cq, cb));
+        return entityManager.createQuery(cq).getSingleResult();
+    }
+}
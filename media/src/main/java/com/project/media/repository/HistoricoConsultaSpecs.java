@@ -0,0 +1,70 @@
+package com.project.media.repository;
+
+import com.project.media.entity.HistoricoSintoma;
+import jakarta.persistence.criteria.Predicate;
+import jakarta.persistence.criteria.Root;
+import jakarta.persistence.criteria.Subquery;
+import org.springframework.data.jpa.domain.Specification;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Filtros do histórico montados apenas com os critérios informados, para que o
+ * banco receba predicados indexáveis em vez de {@code (:x IS NULL OR coluna = :x)}.
+ * Servem para a tabela recente, o arquivo e a visão completa, que têm os mesmos atributos.
+ */
+public final class HistoricoConsultaSpecs {
+
+    private HistoricoConsultaSpecs() {
+    }
+
+    public static <T> Specification<T> comFiltros(String cpfPaciente,
+                                                 LocalDateTime dataInicio,
+                                                 LocalDateTime dataFim) {
+        return (root, query, cb) -> {
+            List<Predicate> predicados = new ArrayList<>();
+            if (cpfPaciente != null) {
+                predicados.add(cb.equal(root.get("cpfPaciente"), cpfPaciente));
+            }
+            if (dataInicio != null) {
+                predicados.add(cb.greaterThanOrEqualTo(root.get("dataConsulta"), dataInicio));
+            }
+            if (dataFim != null) {
+                predicados.add(cb.lessThanOrEqualTo(root.get("dataConsulta"), dataFim));
+            }
+            return cb.and(predicados.toArray(new Predicate[0]));
+        };
+    }
+
+    /**
+     * Consultas que informaram {@code termo}, lidas de {@code historico_sintomas}
+     * pelo índice (termo, data_consulta); o período é repetido na subconsulta
+     * para limitar a faixa lida do índice.
+     */
+    public static <T> Specification<T> comSintoma(String termo, LocalDateTime dataInicio, LocalDateTime dataFim) {
+        return (root, query, cb) -> {
+            Subquery<Long> ids = query.subquery(Long.class);
+            Root<HistoricoSintoma> sintoma = ids.from(HistoricoSintoma.class);
+            List<Predicate> predicados = new ArrayList<>();
+            predicados.add(cb.equal(sintoma.get("id").get("termo"), termo));
+            if (dataInicio != null) {
+                predicados.add(cb.greaterThanOrEqualTo(sintoma.get("dataConsulta"), dataInicio));
+            }
+            if (dataFim != null) {
+                predicados.add(cb.lessThanOrEqualTo(sintoma.get("dataConsulta"), dataFim));
+            }
+            ids.select(sintoma.get("id").get("historicoId")).where(predicados.toArray(new Predicate[0]));
+            return root.get("id").in(ids);
+        };
+    }
+
+    public static <T> Specification<T> antesDe(LocalDateTime cursorData, Long cursorId) {
+        return (root, query, cb) -> cb.or(
+                cb.lessThan(root.get("dataConsulta"), cursorData),
+                cb.and(
+                        cb.equal(root.get("dataConsulta"), cursorData),
+                        cb.lessThan(root.get("id"), cursorId)));
+    }
+}
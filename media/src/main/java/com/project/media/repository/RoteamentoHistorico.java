@@ -0,0 +1,118 @@
+package com.project.media.repository;
+
+import com.project.media.entity.HistoricoConsulta;
+import com.project.media.entity.HistoricoConsultaArquivo;
+import com.project.media.entity.HistoricoConsultaCompleta;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+
+/**
+ * Escolhe onde um filtro de período do histórico precisa ler: só a tabela
+ * recente, só o arquivo, ou as duas.
+ *
+ * Os limites vêm do próprio banco: a tabela recente tem todas as consultas
+ * posteriores à mais nova do arquivo, e o arquivo tem todas as anteriores à
+ * mais antiga da tabela recente. Enquanto os limites não foram lidos, ou se o
+ * período cruza algum deles, a leitura vai para as duas tabelas.
+ */
+@Component
+public class RoteamentoHistorico {
+
+    private static final Logger logger = LoggerFactory.getLogger(RoteamentoHistorico.class);
+
+    public enum Destino {
+        RECENTE(HistoricoConsulta.class, "historico_consultas"),
+        ARQUIVO(HistoricoConsultaArquivo.class, "historico_consultas_arquivo"),
+        COMPLETO(HistoricoConsultaCompleta.class, "(" + HistoricoConsultaCompleta.SQL + ")");
+
+        private final Class<?> entidade;
+        private final String tabela;
+
+        Destino(Class<?> entidade, String tabela) {
+            this.entidade = entidade;
+            this.tabela = tabela;
+        }
+
+        public Class<?> getEntidade() { return entidade; }
+
+        /** Tabela ou subconsulta para uso em SQL nativo, seguida de um alias. */
+        public String getTabela() { return tabela; }
+    }
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private volatile Limites limites;
+
+    /** Corte do arquivamento em andamento; linhas a partir dele não saem da tabela recente. */
+    private LocalDateTime corteEmAndamento;
+
+    public Destino destino(LocalDateTime dataInicio, LocalDateTime dataFim) {
+        Limites atual = limites;
+        if (atual == null) {
+            return Destino.COMPLETO;
+        }
+        if (atual.inicioRecente == null || (dataInicio != null && !dataInicio.isBefore(atual.inicioRecente))) {
+            return Destino.RECENTE;
+        }
+        if (atual.fimArquivo != null && dataFim != null && dataFim.isBefore(atual.fimArquivo)) {
+            return Destino.ARQUIVO;
+        }
+        return Destino.COMPLETO;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public synchronized void recalcular() {
+        Timestamp maisNovaArquivo = jdbcTemplate.queryForObject(
+                "SELECT MAX(data_consulta) FROM historico_consultas_arquivo", Timestamp.class);
+        Timestamp maisAntigaRecente = jdbcTemplate.queryForObject(
+                "SELECT MIN(data_consulta) FROM historico_consultas", Timestamp.class);
+
+        LocalDateTime inicioRecente = maisNovaArquivo != null ? maisNovaArquivo.toLocalDateTime().plusNanos(1) : null;
+        if (corteEmAndamento != null && (inicioRecente == null || inicioRecente.isBefore(corteEmAndamento))) {
+            inicioRecente = corteEmAndamento;
+        }
+        LocalDateTime fimArquivo = maisNovaArquivo != null && maisAntigaRecente != null
+                ? maisAntigaRecente.toLocalDateTime()
+                : null;
+
+        limites = new Limites(inicioRecente, fimArquivo);
+        logger.info("Roteamento do histórico: recente a partir de {}, arquivo antes de {}", inicioRecente, fimArquivo);
+    }
+
+    /**
+     * Chamado antes de mover linhas anteriores a {@code corte}: até o fim do
+     * arquivamento, só filtros a partir do corte leem apenas a tabela recente.
+     */
+    public synchronized void iniciarArquivamento(LocalDateTime corte) {
+        corteEmAndamento = corte;
+        Limites atual = limites;
+        LocalDateTime inicioRecente = atual != null && atual.inicioRecente != null && atual.inicioRecente.isAfter(corte)
+                ? atual.inicioRecente
+                : corte;
+        limites = new Limites(inicioRecente, atual != null ? atual.fimArquivo : null);
+    }
+
+    public synchronized void concluirArquivamento() {
+        corteEmAndamento = null;
+        recalcular();
+    }
+
+    private static final class Limites {
+        private final LocalDateTime inicioRecente;
+        private final LocalDateTime fimArquivo;
+
+        Limites(LocalDateTime inicioRecente, LocalDateTime fimArquivo) {
+            this.inicioRecente = inicioRecente;
+            this.fimArquivo = fimArquivo;
+        }
+    }
+}
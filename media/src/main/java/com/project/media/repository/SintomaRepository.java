@@ -1,8 +1,12 @@
 package com.project.media.repository;
 
+import com.project.media.config.CacheCatalogoConfig;
 import com.project.media.entity.Sintoma;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
@@ -11,6 +15,13 @@ import java.util.List;
 @Repository
 public interface SintomaRepository extends JpaRepository<Sintoma, Long> {
 
+    /** Resultado guardado no cache de consultas; os sintomas vêm da região de entidades. */
+    @QueryHints({
+        @QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"),
+        @QueryHint(name = HibernateHints.HINT_CACHE_REGION, value = CacheCatalogoConfig.REGIAO_CONSULTAS)
+    })
     @Query("SELECT DISTINCT s FROM Sintoma s WHERE s.ativo = true AND LOWER(s.nome) IN (:sintomas)")
     List<Sintoma> findByNomesContaining(@Param("sintomas") List<String> sintomas);
+
+    List<Sintoma> findByAtivoTrue();
 }
@@ -1,5 +1,6 @@
 package com.project.media.repository;
 
+import com.project.media.dto.SugestaoCorrespondenciaProjecao;
 import com.project.media.entity.Sugestao;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
@@ -11,11 +12,42 @@ import java.util.List;
 @Repository
 public interface SugestaoRepository extends JpaRepository<Sugestao, Long> {
 
-    @Query("SELECT s, COUNT(DISTINCT sin.id) as matchCount FROM Sugestao s " +
-           "JOIN s.sintomas sin WHERE s.ativo = true AND " +
-           "LOWER(sin.nome) IN (:sintomasNomes) " +
-           "GROUP BY s " +
-           "ORDER BY COUNT(DISTINCT sin.id) DESC, s.prioridade DESC, s.dataCriacao DESC")
-    List<Object[]> findMelhoresSugestoesPorSintomas(@Param("sintomasNomes") List<String> sintomasNomes);
-}
+    /**
+     * Ranking do motor de consulta num único comando: uma linha por par
+     * (sugestão entre as {@code topK} primeiras, sintoma informado que ela
+     * cobre), ordenada pela posição. A posição é o {@code DENSE_RANK} sobre
+     * correspondências, prioridade, data de criação e id, o mesmo critério do
+     * {@link com.project.media.service.IndiceSugestoes}. Todas as linhas trazem
+     * quantos sintomas ativos do catálogo foram reconhecidos; sem sugestão
+     * ativa volta uma única linha só com essa contagem.
+     */
+    @Query("WITH encontrados AS (" +
+           "  SELECT sin.id AS id, sin.nome AS nome FROM Sintoma sin " +
+           "  WHERE sin.ativo = true AND LOWER(sin.nome) IN (:sintomasNomes)" +
+           "), ranqueadas AS (" +
+           "  SELECT s.id AS id, DENSE_RANK() OVER (ORDER BY COUNT(DISTINCT e.id) DESC, s.prioridade DESC, " +
+           "         s.dataCriacao DESC, s.id) AS posicao " +
+           "  FROM Sugestao s JOIN s.sintomas sin JOIN encontrados e ON e.id = sin.id " +
+           "  WHERE s.ativo = true " +
+           "  GROUP BY s.id, s.prioridade, s.dataCriacao" +
+           "), melhores AS (" +
+           "  SELECT r.posicao AS posicao, s.id AS id, s.titulo AS titulo, s.descricao AS descricao, " +
+           "         s.tipoAtendimento AS tipoAtendimento, s.prioridade AS prioridade, " +
+           "         s.recomendacoes AS recomendacoes, e.nome AS sintoma " +
+           "  FROM ranqueadas r JOIN Sugestao s ON s.id = r.id JOIN s.sintomas sin " +
+           "  JOIN encontrados e ON e.id = sin.id " +
+           "  WHERE r.posicao <= :topK" +
+           "), contagem AS (" +
+           "  SELECT COUNT(*) AS total FROM encontrados" +
+           ") " +
+           "SELECT c.total AS sintomasEncontrados, x.posicao AS posicao, x.id AS id, x.titulo AS titulo, " +
+           "       x.descricao AS descricao, x.tipoAtendimento AS tipoAtendimento, x.prioridade AS prioridade, " +
+           "       x.recomendacoes AS recomendacoes, x.sintoma AS sintoma " +
+           "FROM contagem c LEFT JOIN melhores x ON 1 = 1 " +
+           "ORDER BY x.posicao, x.sintoma")
+    List<SugestaoCorrespondenciaProjecao> findMelhoresSugestoesPorSintomas(
+            @Param("sintomasNomes") List<String> sintomasNomes, @Param("topK") int topK);
 
+    @Query("SELECT DISTINCT s FROM Sugestao s LEFT JOIN FETCH s.sintomas WHERE s.ativo = true")
+    List<Sugestao> findAtivasComSintomas();
+}
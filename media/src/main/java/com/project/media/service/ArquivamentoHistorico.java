@@ -0,0 +1,140 @@
+package com.project.media.service;
+
+import com.project.media.entity.HistoricoConsultaArquivo;
+import com.project.media.repository.RoteamentoHistorico;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.time.YearMonth;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Move os meses fechados de {@code historico_consultas} para
+ * {@code historico_consultas_arquivo}.
+ *
+ * Cada lote copia e apaga até {@code media.historico.arquivamento.lote} linhas
+ * na mesma transação, então uma consulta vê cada linha em exatamente uma das
+ * tabelas. As estatísticas agregadas não mudam: as consultas só trocam de tabela.
+ */
+@Component
+public class ArquivamentoHistorico {
+
+    private static final Logger logger = LoggerFactory.getLogger(ArquivamentoHistorico.class);
+
+    private static final String SQL_LOTE =
+            "SELECT id FROM historico_consultas WHERE data_consulta < ? " +
+            "ORDER BY data_consulta, id FETCH FIRST %d ROWS ONLY";
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private RoteamentoHistorico roteamento;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Value("${media.historico.arquivamento.habilitado:true}")
+    private boolean habilitado;
+
+    @Value("${media.historico.arquivamento.meses-retidos:2}")
+    private int mesesRetidos;
+
+    @Value("${media.historico.arquivamento.lote:1000}")
+    private int tamanhoLote;
+
+    private final AtomicBoolean emExecucao = new AtomicBoolean();
+    private TransactionTemplate transactionTemplate;
+    private Counter arquivados;
+    private Timer duracao;
+
+    @PostConstruct
+    public void iniciar() {
+        if (mesesRetidos < 0 || tamanhoLote < 1 || tamanhoLote > 1000) {
+            throw new IllegalStateException("Configuração de arquivamento inválida: meses-retidos=" +
+                    mesesRetidos + ", lote=" + tamanhoLote + " (lote deve estar entre 1 e 1000)");
+        }
+        transactionTemplate = new TransactionTemplate(transactionManager);
+        arquivados = meterRegistry.counter("historico.arquivamento.registros");
+        duracao = meterRegistry.timer("historico.arquivamento.duracao");
+    }
+
+    @Scheduled(cron = "${media.historico.arquivamento.cron:0 30 3 * * *}")
+    public void arquivarAgendado() {
+        if (!habilitado) {
+            return;
+        }
+        try {
+            arquivar();
+        } catch (Exception e) {
+            logger.error("Erro no arquivamento do histórico: {}", e.getMessage(), e);
+        }
+    }
+
+    /**
+     * Arquiva os meses anteriores ao mês corrente e aos {@code meses-retidos} meses fechados mais recentes.
+     */
+    public long arquivar() {
+        return arquivarAntesDe(YearMonth.now().minusMonths(mesesRetidos).atDay(1).atStartOfDay());
+    }
+
+    public long arquivarAntesDe(LocalDateTime corte) {
+        if (!emExecucao.compareAndSet(false, true)) {
+            logger.warn("Arquivamento do histórico já em execução, ignorando corte {}", corte);
+            return 0;
+        }
+        long inicio = System.nanoTime();
+        long total = 0;
+        int lotes = 0;
+        try {
+            roteamento.iniciarArquivamento(corte);
+            Timestamp limite = Timestamp.valueOf(corte);
+            int movidas;
+            do {
+                movidas = transactionTemplate.execute(status -> moverLote(limite));
+                total += movidas;
+                arquivados.increment(movidas);
+                lotes++;
+            } while (movidas == tamanhoLote);
+        } finally {
+            roteamento.concluirArquivamento();
+            emExecucao.set(false);
+            duracao.record(System.nanoTime() - inicio, TimeUnit.NANOSECONDS);
+        }
+        logger.info("Histórico arquivado antes de {}: {} consultas em {} lotes", corte, total, lotes);
+        return total;
+    }
+
+    private int moverLote(Timestamp limite) {
+        List<Long> ids = jdbcTemplate.queryForList(String.format(SQL_LOTE, tamanhoLote), Long.class, limite);
+        if (ids.isEmpty()) {
+            return 0;
+        }
+        String marcadores = String.join(", ", Collections.nCopies(ids.size(), "?"));
+        Object[] parametros = ids.toArray();
+        jdbcTemplate.update("INSERT INTO historico_consultas_arquivo (" + HistoricoConsultaArquivo.COLUNAS + ") " +
+                "SELECT " + HistoricoConsultaArquivo.COLUNAS + " FROM historico_consultas " +
+                "WHERE id IN (" + marcadores + ")", parametros);
+        jdbcTemplate.update("DELETE FROM historico_consultas WHERE id IN (" + marcadores + ")", parametros);
+        return ids.size();
+    }
+}
@@ -0,0 +1,117 @@
+package com.project.media.service;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Avaliação em paralelo dos conjuntos distintos de sintomas de um lote.
+ *
+ * Roda num pool próprio com fila limitada, não no pool comum do ForkJoin:
+ * com {@code motor-ranking=consulta} cada tarefa fica bloqueada esperando o
+ * banco. Com a fila cheia a tarefa roda na própria thread da requisição, o
+ * que segura novos lotes em vez de recusá-los. O lote inteiro espera no
+ * máximo {@code media.sugestoes.lote.timeout}; o que não terminou até lá é
+ * cancelado e volta como {@code null}.
+ */
+@Component
+public class AvaliacaoLote {
+
+    private static final Logger logger = LoggerFactory.getLogger(AvaliacaoLote.class);
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Value("${media.sugestoes.lote.threads:0}")
+    private int threads;
+
+    @Value("${media.sugestoes.lote.fila:200}")
+    private int capacidadeFila;
+
+    @Value("${media.sugestoes.lote.timeout:5s}")
+    private Duration timeout;
+
+    private ThreadPoolExecutor executor;
+    private Counter expiradas;
+
+    @PostConstruct
+    public void iniciar() {
+        int tamanho = threads > 0 ? threads : Runtime.getRuntime().availableProcessors();
+        AtomicInteger contador = new AtomicInteger();
+        executor = new ThreadPoolExecutor(tamanho, tamanho, 0, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(capacidadeFila), tarefa -> {
+                    Thread thread = new Thread(tarefa, "sugestoes-lote-" + contador.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                }, new ThreadPoolExecutor.CallerRunsPolicy());
+
+        expiradas = meterRegistry.counter("sugestoes.lote.expiradas");
+        meterRegistry.gauge("sugestoes.lote.fila", executor, e -> e.getQueue().size());
+        meterRegistry.gauge("sugestoes.lote.ativas", executor, ThreadPoolExecutor::getActiveCount);
+
+        logger.info("Avaliação de lotes configurada: threads={}, fila={}, timeout={}",
+                tamanho, capacidadeFila, timeout);
+    }
+
+    @PreDestroy
+    public void encerrar() {
+        executor.shutdownNow();
+    }
+
+    /**
+     * Executa as tarefas e devolve os resultados na mesma ordem. Tarefa que
+     * falhou ou não terminou dentro do timeout fica com {@code null}; as
+     * falhas devem ser registradas pela própria tarefa.
+     */
+    public <T> List<T> avaliar(List<Callable<T>> tarefas) {
+        long limite = System.nanoTime() + timeout.toNanos();
+        List<Future<T>> futuros = new ArrayList<>(tarefas.size());
+        for (Callable<T> tarefa : tarefas) {
+            futuros.add(executor.submit(tarefa));
+        }
+
+        List<T> resultados = new ArrayList<>(tarefas.size());
+        int canceladas = 0;
+        for (Future<T> futuro : futuros) {
+            T resultado = null;
+            try {
+                resultado = futuro.get(Math.max(0, limite - System.nanoTime()), TimeUnit.NANOSECONDS);
+            } catch (TimeoutException e) {
+                futuro.cancel(true);
+                canceladas++;
+            } catch (ExecutionException e) {
+                logger.debug("Tarefa do lote falhou: {}", e.getCause().toString());
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                futuro.cancel(true);
+                canceladas++;
+            }
+            resultados.add(resultado);
+        }
+
+        if (canceladas > 0) {
+            expiradas.increment(canceladas);
+            logger.warn("{} de {} avaliações do lote não terminaram em {} e foram canceladas",
+                    canceladas, tarefas.size(), timeout);
+        }
+        return resultados;
+    }
+}
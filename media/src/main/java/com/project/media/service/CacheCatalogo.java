@@ -0,0 +1,44 @@
+package com.project.media.service;
+
+import com.project.media.config.CacheCatalogoConfig;
+import com.project.media.entity.Sintoma;
+import com.project.media.entity.Sugestao;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.Cache;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+/**
+ * Despeja do cache de segundo nível as regiões do catálogo a cada nova versão.
+ * O {@link ImportadorCatalogo} grava por JDBC, sem passar pelo Hibernate, e
+ * alterações feitas direto no banco só chegam aqui por
+ * {@link CatalogoVersao#incrementar()}.
+ */
+@Component
+public class CacheCatalogo {
+
+    private static final Logger logger = LoggerFactory.getLogger(CacheCatalogo.class);
+
+    private static final String COLECAO_SINTOMAS = Sugestao.class.getName() + ".sintomas";
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @EventListener
+    public void onCatalogoAlterado(CatalogoAlteradoEvent event) {
+        despejar();
+        logger.info("Cache de segundo nível do catálogo despejado pela versão {}", event.getVersao());
+    }
+
+    public void despejar() {
+        Cache cache = entityManagerFactory.getCache().unwrap(Cache.class);
+        cache.evictEntityData(Sintoma.class);
+        cache.evictEntityData(Sugestao.class);
+        cache.evictCollectionData(COLECAO_SINTOMAS);
+        cache.evictQueryRegion(CacheCatalogoConfig.REGIAO_CONSULTAS);
+        cache.evictDefaultQueryRegion();
+    }
+}
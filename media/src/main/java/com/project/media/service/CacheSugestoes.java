@@ -0,0 +1,76 @@
+package com.project.media.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.Collection;
+import java.util.TreeSet;
+import java.util.function.Supplier;
+
+/**
+ * Cache de rankings por conjunto canônico (ordenado, sem repetição) de sintomas
+ * normalizados. A versão do catálogo faz parte da chave, então um resultado
+ * calculado antes de uma alteração nunca é servido depois dela.
+ */
+@Component
+public class CacheSugestoes {
+
+    private static final Logger logger = LoggerFactory.getLogger(CacheSugestoes.class);
+
+    @Autowired
+    private CatalogoVersao catalogoVersao;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Value("${media.sugestoes.cache.tamanho-maximo:1000}")
+    private long tamanhoMaximo;
+
+    @Value("${media.sugestoes.cache.ttl:10m}")
+    private Duration ttl;
+
+    private Cache<String, IndiceSugestoes.Ranking> cache;
+
+    @PostConstruct
+    public void inicializar() {
+        cache = Caffeine.newBuilder()
+                .maximumSize(tamanhoMaximo)
+                .expireAfterWrite(ttl)
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, cache, "sugestoes");
+        logger.info("Cache de sugestões configurado: tamanhoMaximo={}, ttl={}", tamanhoMaximo, ttl);
+    }
+
+    public IndiceSugestoes.Ranking obter(Collection<String> sintomasNormalizados, int topK,
+                                        Supplier<IndiceSugestoes.Ranking> calcular) {
+        String chave = criarChave(sintomasNormalizados, topK);
+        return cache.get(chave, k -> calcular.get());
+    }
+
+    @EventListener
+    public void onCatalogoAlterado(CatalogoAlteradoEvent event) {
+        cache.invalidateAll();
+        logger.info("Cache de sugestões invalidado pela versão {} do catálogo", event.getVersao());
+    }
+
+    private String criarChave(Collection<String> sintomasNormalizados, int topK) {
+        StringBuilder chave = new StringBuilder()
+                .append(catalogoVersao.atual()).append('#')
+                .append(topK);
+        for (String sintoma : new TreeSet<>(sintomasNormalizados)) {
+            chave.append('\u0000').append(sintoma);
+        }
+        return chave.toString();
+    }
+}
@@ -0,0 +1,14 @@
+package com.project.media.service;
+
+public class CatalogoAlteradoEvent {
+
+    private final long versao;
+
+    public CatalogoAlteradoEvent(long versao) {
+        this.versao = versao;
+    }
+
+    public long getVersao() {
+        return versao;
+    }
+}
@@ -0,0 +1,57 @@
+package com.project.media.service;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Versão do catálogo de sintomas/sugestões. É incrementada depois do commit de
+ * qualquer transação que altere {@code Sintoma}, {@code Sugestao} ou a tabela
+ * {@code sugestao_sintoma}, e serve de chave para índice e cache de resultados.
+ */
+@Component
+public class CatalogoVersao {
+
+    private static final Logger logger = LoggerFactory.getLogger(CatalogoVersao.class);
+
+    private final AtomicLong versao = new AtomicLong();
+
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
+    public long atual() {
+        return versao.get();
+    }
+
+    public void registrarAlteracao() {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            incrementar();
+            return;
+        }
+        if (TransactionSynchronizationManager.hasResource(this)) {
+            return;
+        }
+        TransactionSynchronizationManager.bindResource(this, Boolean.TRUE);
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCompletion(int status) {
+                TransactionSynchronizationManager.unbindResourceIfPossible(CatalogoVersao.this);
+                if (status == STATUS_COMMITTED) {
+                    incrementar();
+                }
+            }
+        });
+    }
+
+    public void incrementar() {
+        long nova = versao.incrementAndGet();
+        logger.info("Catálogo alterado, nova versão: {}", nova);
+        eventPublisher.publishEvent(new CatalogoAlteradoEvent(nova));
+    }
+}
@@ -0,0 +1,169 @@
+package com.project.media.service;
+
+import com.github.benmanes.caffeine.cache.AsyncLoadingCache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.project.media.entity.EstatisticaConsulta.Granularidade;
+import com.project.media.repository.RoteamentoHistorico;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Total aproximado do histórico para o "cerca de N resultados" da interface.
+ *
+ * Nenhuma contagem roda na requisição: o valor vem de um cache carregado e
+ * renovado por uma thread em segundo plano. Sem filtro de CPF a soma sai das
+ * linhas de {@code estatisticas_consultas} (precisão de hora); com CPF é um
+ * COUNT pelo índice de CPF e data da tabela indicada por
+ * {@link RoteamentoHistorico}. Enquanto a primeira carga
+ * de um filtro não termina, o total é desconhecido ({@code null}).
+ */
+@Component
+public class ContagemAproximadaHistorico {
+
+    private static final Logger logger = LoggerFactory.getLogger(ContagemAproximadaHistorico.class);
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Autowired
+    private RoteamentoHistorico roteamento;
+
+    @Value("${media.historico.contagem.tamanho-maximo:1000}")
+    private long tamanhoMaximo;
+
+    @Value("${media.historico.contagem.atualizacao:1m}")
+    private Duration atualizacao;
+
+    @Value("${media.historico.contagem.expiracao:30m}")
+    private Duration expiracao;
+
+    private ExecutorService executor;
+    private AsyncLoadingCache<List<Object>, Long> cache;
+
+    @PostConstruct
+    public void inicializar() {
+        executor = Executors.newSingleThreadExecutor(tarefa -> {
+            Thread thread = new Thread(tarefa, "historico-contagem");
+            thread.setDaemon(true);
+            return thread;
+        });
+        cache = Caffeine.newBuilder()
+                .maximumSize(tamanhoMaximo)
+                .refreshAfterWrite(atualizacao)
+                .expireAfterAccess(expiracao)
+                .executor(executor)
+                .recordStats()
+                .buildAsync(this::contar);
+        CaffeineCacheMetrics.monitor(meterRegistry, cache, "historico.contagem");
+        logger.info("Contagem aproximada do histórico configurada: atualizacao={}, expiracao={}",
+                atualizacao, expiracao);
+    }
+
+    @PreDestroy
+    public void encerrar() {
+        executor.shutdownNow();
+    }
+
+    public Long estimar(String cpfPaciente, LocalDateTime dataInicio, LocalDateTime dataFim) {
+        List<Object> chave = Arrays.asList(cpfPaciente,
+                dataInicio != null ? dataInicio.truncatedTo(ChronoUnit.MINUTES) : null,
+                dataFim != null ? dataFim.truncatedTo(ChronoUnit.MINUTES) : null);
+        try {
+            return cache.get(chave).getNow(null);
+        } catch (CompletionException e) {
+            logger.warn("Falha ao estimar total do histórico: {}", e.getMessage());
+            return null;
+        }
+    }
+
+    private Long contar(List<Object> chave) {
+        String cpfPaciente = (String) chave.get(0);
+        LocalDateTime dataInicio = (LocalDateTime) chave.get(1);
+        LocalDateTime dataFim = (LocalDateTime) chave.get(2);
+
+        if (cpfPaciente == null) {
+            return somarAgregados(dataInicio, dataFim);
+        }
+
+        StringBuilder sql = new StringBuilder("SELECT COUNT(*) FROM ")
+                .append(roteamento.destino(dataInicio, dataFim).getTabela())
+                .append(" h WHERE cpf_paciente = ?");
+        List<Object> parametros = new ArrayList<>();
+        parametros.add(cpfPaciente);
+        if (dataInicio != null) {
+            sql.append(" AND data_consulta >= ?");
+            parametros.add(Timestamp.valueOf(dataInicio));
+        }
+        if (dataFim != null) {
+            sql.append(" AND data_consulta <= ?");
+            parametros.add(Timestamp.valueOf(dataFim));
+        }
+        return jdbcTemplate.queryForObject(sql.toString(), Long.class, parametros.toArray());
+    }
+
+    /**
+     * Dias inteiros do período vêm das linhas DIA; as pontas, das linhas HORA.
+     */
+    private Long somarAgregados(LocalDateTime dataInicio, LocalDateTime dataFim) {
+        LocalDateTime primeiroDia = null;
+        if (dataInicio != null) {
+            primeiroDia = dataInicio.toLocalDate().atStartOfDay();
+            if (primeiroDia.isBefore(dataInicio)) {
+                primeiroDia = primeiroDia.plusDays(1);
+            }
+        }
+        LocalDateTime fimDias = dataFim != null ? dataFim.toLocalDate().atStartOfDay() : null;
+
+        if (primeiroDia != null && fimDias != null && !primeiroDia.isBefore(fimDias)) {
+            return somar(Granularidade.HORA, dataInicio.truncatedTo(ChronoUnit.HOURS), dataFim, true);
+        }
+
+        long total = somar(Granularidade.DIA, primeiroDia, fimDias, false);
+        if (dataInicio != null) {
+            total += somar(Granularidade.HORA, dataInicio.truncatedTo(ChronoUnit.HOURS), primeiroDia, false);
+        }
+        if (dataFim != null) {
+            total += somar(Granularidade.HORA, fimDias, dataFim, true);
+        }
+        return total;
+    }
+
+    private long somar(Granularidade granularidade, LocalDateTime de, LocalDateTime ate, boolean ateInclusive) {
+        StringBuilder sql = new StringBuilder(
+                "SELECT COALESCE(SUM(total_consultas), 0) FROM estatisticas_consultas WHERE granularidade = ?");
+        List<Object> parametros = new ArrayList<>();
+        parametros.add(granularidade.name());
+        if (de != null) {
+            sql.append(" AND inicio_periodo >= ?");
+            parametros.add(Timestamp.valueOf(de));
+        }
+        if (ate != null) {
+            sql.append(ateInclusive ? " AND inicio_periodo <= ?" : " AND inicio_periodo < ?");
+            parametros.add(Timestamp.valueOf(ate));
+        }
+        Long total = jdbcTemplate.queryForObject(sql.toString(), Long.class, parametros.toArray());
+        return total != null ? total : 0;
+    }
+}
@@ -0,0 +1,385 @@
+package com.project.media.service;
+
+import com.project.media.dto.EstatisticaConsultaDto;
+import com.project.media.dto.LatenciaConsultaDto;
+import com.project.media.entity.EstatisticaConsulta.Granularidade;
+import com.project.media.repository.RoteamentoHistorico;
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Estatísticas de consultas a partir das tabelas agregadas {@code estatisticas_consultas}
+ * e {@code latencias_consultas} (histograma do tempo de resposta, ver {@link HistogramaLatencia}).
+ *
+ * Cada lote gravado pelo {@link RegistradorHistorico} soma suas consultas às
+ * linhas de hora e de dia na mesma transação. A reconstrução refaz dias
+ * inteiros a partir do histórico, recente ou arquivado; as duas operações são
+ * serializadas para que um lote não seja somado a um dia em reconstrução.
+ *
+ * Na primeira subida os dias anteriores às tabelas agregadas são
+ * reconstruídos uma única vez; a conclusão fica registrada em
+ * {@link MarcosProcessamento}, já que os lotes começam a preencher as tabelas
+ * antes de o preenchimento terminar.
+ */
+@Service
+public class EstatisticaService {
+
+    private static final Logger logger = LoggerFactory.getLogger(EstatisticaService.class);
+
+    private static final String SQL_MERGE =
+            "MERGE INTO estatisticas_consultas e USING (" +
+            "SELECT CAST(? AS VARCHAR(4)) granularidade, CAST(? AS TIMESTAMP) inicio_periodo, " +
+            "CAST(? AS NUMBER(19)) sugestao_id, CAST(? AS VARCHAR(50)) tipo_atendimento, " +
+            "CAST(? AS NUMBER(19)) total_consultas, CAST(? AS NUMBER(19)) soma_tempo_resposta_ms, " +
+            "CAST(? AS NUMBER(19)) consultas_com_tempo FROM dual) n " +
+            "ON (e.granularidade = n.granularidade AND e.inicio_periodo = n.inicio_periodo " +
+            "AND e.sugestao_id = n.sugestao_id) " +
+            "WHEN MATCHED THEN UPDATE SET tipo_atendimento = n.tipo_atendimento, " +
+            "total_consultas = e.total_consultas + n.total_consultas, " +
+            "soma_tempo_resposta_ms = e.soma_tempo_resposta_ms + n.soma_tempo_resposta_ms, " +
+            "consultas_com_tempo = e.consultas_com_tempo + n.consultas_com_tempo " +
+            "WHEN NOT MATCHED THEN INSERT (granularidade, inicio_periodo, sugestao_id, tipo_atendimento, " +
+            "total_consultas, soma_tempo_resposta_ms, consultas_com_tempo) VALUES (n.granularidade, " +
+            "n.inicio_periodo, n.sugestao_id, n.tipo_atendimento, n.total_consultas, " +
+            "n.soma_tempo_resposta_ms, n.consultas_com_tempo)";
+
+    private static final String SQL_MERGE_LATENCIA =
+            "MERGE INTO latencias_consultas l USING (" +
+            "SELECT CAST(? AS VARCHAR(4)) granularidade, CAST(? AS TIMESTAMP) inicio_periodo, " +
+            "CAST(? AS NUMBER(19)) sugestao_id, CAST(? AS NUMBER(5)) faixa, CAST(? AS VARCHAR(50)) tipo_atendimento, " +
+            "CAST(? AS NUMBER(19)) quantidade, CAST(? AS NUMBER(19)) maximo_ms FROM dual) n " +
+            "ON (l.granularidade = n.granularidade AND l.inicio_periodo = n.inicio_periodo " +
+            "AND l.sugestao_id = n.sugestao_id AND l.faixa = n.faixa) " +
+            "WHEN MATCHED THEN UPDATE SET tipo_atendimento = n.tipo_atendimento, " +
+            "quantidade = l.quantidade + n.quantidade, " +
+            "maximo_ms = CASE WHEN n.maximo_ms > l.maximo_ms THEN n.maximo_ms ELSE l.maximo_ms END " +
+            "WHEN NOT MATCHED THEN INSERT (granularidade, inicio_periodo, sugestao_id, faixa, tipo_atendimento, " +
+            "quantidade, maximo_ms) VALUES (n.granularidade, n.inicio_periodo, n.sugestao_id, n.faixa, " +
+            "n.tipo_atendimento, n.quantidade, n.maximo_ms)";
+
+    private static final String SQL_REMOVER_PERIODO =
+            "DELETE FROM estatisticas_consultas WHERE inicio_periodo >= ? AND inicio_periodo < ?";
+
+    private static final String SQL_REMOVER_LATENCIAS_PERIODO =
+            "DELETE FROM latencias_consultas WHERE inicio_periodo >= ? AND inicio_periodo < ?";
+
+    private static final String SQL_HISTORICO_PERIODO =
+            "SELECT h.data_consulta, h.sugestao_id, h.tempo_resposta_ms, s.tipo_atendimento " +
+            "FROM %s h LEFT JOIN sugestoes s ON s.id = h.sugestao_id " +
+            "WHERE h.data_consulta >= ? AND h.data_consulta < ?";
+
+    static final String MARCO_BACKFILL = "estatisticas.backfill";
+
+    public enum Agrupamento {
+        SUGESTAO, TIPO_ATENDIMENTO, PERIODO
+    }
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private RoteamentoHistorico roteamento;
+
+    @Autowired
+    private MarcosProcessamento marcos;
+
+    @Value("${media.estatisticas.backfill-inicial:true}")
+    private boolean backfillInicial;
+
+    private final ReentrantLock bloqueio = new ReentrantLock();
+    private TransactionTemplate transactionTemplate;
+
+    @PostConstruct
+    public void iniciar() {
+        transactionTemplate = new TransactionTemplate(transactionManager);
+    }
+
+    /**
+     * Executa a gravação de um lote de histórico sem concorrer com uma reconstrução.
+     */
+    public void executarSincronizado(Runnable acao) {
+        bloqueio.lock();
+        try {
+            acao.run();
+        } finally {
+            bloqueio.unlock();
+        }
+    }
+
+    /**
+     * Soma o lote às linhas agregadas. Deve rodar na transação que grava o histórico.
+     */
+    public void acumular(List<EventoHistorico> lote) {
+        Agregados agregados = new Agregados();
+        for (EventoHistorico evento : lote) {
+            agregados.somar(evento.getDataConsulta(), evento.getSugestaoId(),
+                    evento.getTempoRespostaMs(), evento.getTipoAtendimento());
+        }
+        agregados.gravar();
+    }
+
+    /**
+     * Refaz as linhas agregadas dos dias {@code inicio} a {@code fim} (inclusive)
+     * a partir do histórico, um dia por transação.
+     */
+    public int reconstruir(LocalDate inicio, LocalDate fim) {
+        long inicioExecucao = System.currentTimeMillis();
+        int dias = 0;
+        for (LocalDate dia = inicio; !dia.isAfter(fim); dia = dia.plusDays(1)) {
+            Timestamp de = Timestamp.valueOf(dia.atStartOfDay());
+            Timestamp ate = Timestamp.valueOf(dia.plusDays(1).atStartOfDay());
+            String sqlHistorico = String.format(SQL_HISTORICO_PERIODO,
+                    roteamento.destino(dia.atStartOfDay(), dia.atTime(LocalTime.MAX)).getTabela());
+            executarSincronizado(() -> transactionTemplate.executeWithoutResult(status -> {
+                Agregados agregados = new Agregados();
+                jdbcTemplate.query(sqlHistorico, rs -> {
+                    agregados.somar(rs.getTimestamp("data_consulta").toLocalDateTime(),
+                            rs.getLong("sugestao_id"),
+                            rs.getObject("tempo_resposta_ms", Long.class),
+                            rs.getString("tipo_atendimento"));
+                }, de, ate);
+                jdbcTemplate.update(SQL_REMOVER_PERIODO, de, ate);
+                jdbcTemplate.update(SQL_REMOVER_LATENCIAS_PERIODO, de, ate);
+                agregados.gravar();
+            }));
+            dias++;
+        }
+        logger.info("Estatísticas reconstruídas de {} a {}: {} dias em {} ms",
+                inicio, fim, dias, System.currentTimeMillis() - inicioExecucao);
+        return dias;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void reconstruirSePendente() {
+        if (!backfillInicial) {
+            return;
+        }
+        Thread thread = new Thread(() -> {
+            try {
+                preencherHistoricoAnterior();
+            } catch (Exception e) {
+                logger.error("Erro na reconstrução inicial das estatísticas: {}", e.getMessage(), e);
+            }
+        }, "estatisticas-backfill");
+        thread.setDaemon(true);
+        thread.start();
+    }
+
+    /**
+     * Reconstrói todos os dias do histórico se o preenchimento inicial ainda não
+     * foi concluído, e registra a conclusão. Linhas já existentes nas tabelas
+     * agregadas não bastam para pular: podem ter vindo só dos lotes gravados
+     * desde a subida, ou de um preenchimento interrompido.
+     *
+     * @return dias reconstruídos; zero se o preenchimento já tinha sido feito
+     */
+    public int preencherHistoricoAnterior() {
+        if (marcos.ler(MARCO_BACKFILL) != null) {
+            return 0;
+        }
+        Map<String, Object> limites = jdbcTemplate.queryForMap(
+                "SELECT MIN(data_consulta) inicio, MAX(data_consulta) fim FROM " +
+                RoteamentoHistorico.Destino.COMPLETO.getTabela() + " h");
+        Timestamp primeira = (Timestamp) limites.get("inicio");
+        Timestamp ultima = (Timestamp) limites.get("fim");
+        int dias = 0;
+        if (primeira != null && ultima != null) {
+            logger.info("Preenchimento inicial das estatísticas pendente, reconstruindo a partir do histórico");
+            dias = reconstruir(primeira.toLocalDateTime().toLocalDate(), ultima.toLocalDateTime().toLocalDate());
+        }
+        marcos.gravar(MARCO_BACKFILL, ultima != null ? ultima.getTime() : 0);
+        return dias;
+    }
+
+    public List<EstatisticaConsultaDto> buscarEstatisticas(LocalDateTime dataInicio, LocalDateTime dataFim,
+                                                           Granularidade granularidade, Agrupamento agrupamento) {
+        Objects.requireNonNull(dataInicio, "dataInicio");
+        Objects.requireNonNull(dataFim, "dataFim");
+
+        LocalDateTime inicioPeriodo = granularidade == Granularidade.HORA
+                ? dataInicio.truncatedTo(ChronoUnit.HOURS)
+                : dataInicio.toLocalDate().atStartOfDay();
+
+        String colunas = colunasAgrupamento(agrupamento);
+        String grupo = grupoAgrupamento(agrupamento);
+
+        String sql = "SELECT e.inicio_periodo, " + colunas + ", SUM(e.total_consultas) total_consultas, " +
+                "SUM(e.soma_tempo_resposta_ms) soma_tempo_resposta_ms, SUM(e.consultas_com_tempo) consultas_com_tempo " +
+                "FROM estatisticas_consultas e " +
+                (agrupamento == Agrupamento.SUGESTAO ? "LEFT JOIN sugestoes s ON s.id = e.sugestao_id " : "") +
+                "WHERE e.granularidade = ? AND e.inicio_periodo >= ? AND e.inicio_periodo <= ? " +
+                "GROUP BY e.inicio_periodo" + grupo + " ORDER BY e.inicio_periodo" + grupo;
+
+        return jdbcTemplate.query(sql, (rs, rowNum) -> {
+            EstatisticaConsultaDto dto = new EstatisticaConsultaDto();
+            dto.setInicioPeriodo(rs.getTimestamp("inicio_periodo").toLocalDateTime());
+            dto.setSugestaoId(rs.getObject("sugestao_id") != null ? rs.getLong("sugestao_id") : null);
+            dto.setTituloSugestao(rs.getString("titulo"));
+            dto.setTipoAtendimento(rs.getString("tipo_atendimento"));
+            dto.setTotalConsultas(rs.getLong("total_consultas"));
+            long comTempo = rs.getLong("consultas_com_tempo");
+            dto.setTempoMedioRespostaMs(comTempo > 0 ? rs.getLong("soma_tempo_resposta_ms") / (double) comTempo : null);
+            return dto;
+        }, granularidade.name(), Timestamp.valueOf(inicioPeriodo), Timestamp.valueOf(dataFim));
+    }
+
+    /**
+     * Percentis do tempo de resposta por período (e sugestão ou tipo de
+     * atendimento). Os histogramas das linhas agregadas são somados faixa a
+     * faixa no banco; aqui só se percorre as faixas de cada grupo.
+     */
+    public List<LatenciaConsultaDto> buscarLatencias(LocalDateTime dataInicio, LocalDateTime dataFim,
+                                                     Granularidade granularidade, Agrupamento agrupamento) {
+        Objects.requireNonNull(dataInicio, "dataInicio");
+        Objects.requireNonNull(dataFim, "dataFim");
+
+        LocalDateTime inicioPeriodo = granularidade == Granularidade.HORA
+                ? dataInicio.truncatedTo(ChronoUnit.HOURS)
+                : dataInicio.toLocalDate().atStartOfDay();
+
+        String grupo = grupoAgrupamento(agrupamento);
+        String sql = "SELECT e.inicio_periodo, " + colunasAgrupamento(agrupamento) + ", e.faixa, " +
+                "SUM(e.quantidade) quantidade, MAX(e.maximo_ms) maximo_ms " +
+                "FROM latencias_consultas e " +
+                (agrupamento == Agrupamento.SUGESTAO ? "LEFT JOIN sugestoes s ON s.id = e.sugestao_id " : "") +
+                "WHERE e.granularidade = ? AND e.inicio_periodo >= ? AND e.inicio_periodo <= ? " +
+                "GROUP BY e.inicio_periodo" + grupo + ", e.faixa ORDER BY e.inicio_periodo" + grupo + ", e.faixa";
+
+        List<LatenciaConsultaDto> latencias = new ArrayList<>();
+        HistogramaLatencia[] atual = new HistogramaLatencia[1];
+        List<Object> chaveAtual = new ArrayList<>();
+        jdbcTemplate.query(sql, rs -> {
+            LocalDateTime periodo = rs.getTimestamp("inicio_periodo").toLocalDateTime();
+            Long sugestaoId = rs.getObject("sugestao_id") != null ? rs.getLong("sugestao_id") : null;
+            String tipoAtendimento = rs.getString("tipo_atendimento");
+            List<Object> chave = Arrays.asList(periodo, sugestaoId,
+                    agrupamento == Agrupamento.TIPO_ATENDIMENTO ? tipoAtendimento : null);
+            if (!chave.equals(chaveAtual)) {
+                fecharLatencia(latencias, atual[0]);
+                LatenciaConsultaDto dto = new LatenciaConsultaDto();
+                dto.setInicioPeriodo(periodo);
+                dto.setSugestaoId(sugestaoId);
+                dto.setTituloSugestao(rs.getString("titulo"));
+                dto.setTipoAtendimento(tipoAtendimento);
+                latencias.add(dto);
+                atual[0] = new HistogramaLatencia();
+                chaveAtual.clear();
+                chaveAtual.addAll(chave);
+            }
+            atual[0].somar(rs.getInt("faixa"), rs.getLong("quantidade"), rs.getLong("maximo_ms"));
+        }, granularidade.name(), Timestamp.valueOf(inicioPeriodo), Timestamp.valueOf(dataFim));
+        fecharLatencia(latencias, atual[0]);
+        return latencias;
+    }
+
+    private static void fecharLatencia(List<LatenciaConsultaDto> latencias, HistogramaLatencia histograma) {
+        if (histograma == null) {
+            return;
+        }
+        LatenciaConsultaDto dto = latencias.get(latencias.size() - 1);
+        dto.setTotalConsultas(histograma.getTotal());
+        dto.setPercentil50Ms(histograma.percentil(50));
+        dto.setPercentil95Ms(histograma.percentil(95));
+        dto.setPercentil99Ms(histograma.percentil(99));
+        dto.setMaximoMs(histograma.getMaximo());
+    }
+
+    private static String colunasAgrupamento(Agrupamento agrupamento) {
+        switch (agrupamento) {
+            case SUGESTAO:
+                return "e.sugestao_id, MAX(s.titulo) titulo, MAX(e.tipo_atendimento) tipo_atendimento";
+            case TIPO_ATENDIMENTO:
+                return "NULL sugestao_id, NULL titulo, e.tipo_atendimento";
+            default:
+                return "NULL sugestao_id, NULL titulo, NULL tipo_atendimento";
+        }
+    }
+
+    private static String grupoAgrupamento(Agrupamento agrupamento) {
+        switch (agrupamento) {
+            case SUGESTAO:
+                return ", e.sugestao_id";
+            case TIPO_ATENDIMENTO:
+                return ", e.tipo_atendimento";
+            default:
+                return "";
+        }
+    }
+
+    private final class Agregados {
+        private final Map<List<Object>, long[]> valores = new LinkedHashMap<>();
+        private final Map<List<Object>, long[]> faixas = new LinkedHashMap<>();
+        private final Map<List<Object>, String> tipos = new LinkedHashMap<>();
+
+        void somar(LocalDateTime dataConsulta, Long sugestaoId, Long tempoRespostaMs, String tipoAtendimento) {
+            LocalDateTime hora = dataConsulta.truncatedTo(ChronoUnit.HOURS);
+            LocalDateTime dia = dataConsulta.toLocalDate().atStartOfDay();
+            somar(List.of(Granularidade.HORA.name(), hora, sugestaoId), tempoRespostaMs, tipoAtendimento);
+            somar(List.of(Granularidade.DIA.name(), dia, sugestaoId), tempoRespostaMs, tipoAtendimento);
+        }
+
+        private void somar(List<Object> chave, Long tempoRespostaMs, String tipoAtendimento) {
+            long[] linha = valores.computeIfAbsent(chave, k -> new long[3]);
+            linha[0]++;
+            if (tempoRespostaMs != null) {
+                linha[1] += tempoRespostaMs;
+                linha[2]++;
+                List<Object> chaveFaixa = List.of(chave.get(0), chave.get(1), chave.get(2),
+                        HistogramaLatencia.faixa(tempoRespostaMs));
+                long[] faixa = faixas.computeIfAbsent(chaveFaixa, k -> new long[2]);
+                faixa[0]++;
+                faixa[1] = Math.max(faixa[1], tempoRespostaMs);
+            }
+            if (tipoAtendimento != null) {
+                tipos.put(chave, tipoAtendimento);
+            }
+        }
+
+        void gravar() {
+            if (valores.isEmpty()) {
+                return;
+            }
+            List<Object[]> linhas = new ArrayList<>(valores.size());
+            valores.forEach((chave, linha) -> linhas.add(new Object[] {
+                chave.get(0), Timestamp.valueOf((LocalDateTime) chave.get(1)), chave.get(2), tipos.get(chave),
+                linha[0], linha[1], linha[2]
+            }));
+            jdbcTemplate.batchUpdate(SQL_MERGE, linhas);
+
+            if (faixas.isEmpty()) {
+                return;
+            }
+            List<Object[]> linhasFaixas = new ArrayList<>(faixas.size());
+            faixas.forEach((chave, faixa) -> linhasFaixas.add(new Object[] {
+                chave.get(0), Timestamp.valueOf((LocalDateTime) chave.get(1)), chave.get(2), chave.get(3),
+                tipos.get(chave.subList(0, 3)), faixa[0], faixa[1]
+            }));
+            jdbcTemplate.batchUpdate(SQL_MERGE_LATENCIA, linhasFaixas);
+        }
+    }
+}
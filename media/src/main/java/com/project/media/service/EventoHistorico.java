@@ -0,0 +1,55 @@
+package com.project.media.service;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+public class EventoHistorico {
+
+    private final String sintomasInformados;
+    private final List<String> sintomas;
+    private final String cpfPaciente;
+    private final String nomePaciente;
+    private final Long sugestaoId;
+    private final String ipOrigem;
+    private final String userAgent;
+    private final LocalDateTime dataConsulta;
+    private final Long tempoRespostaMs;
+    private final String tipoAtendimento;
+
+    public EventoHistorico(String sintomasInformados, List<String> sintomas, String cpfPaciente, String nomePaciente,
+                           Long sugestaoId, String ipOrigem, String userAgent, LocalDateTime dataConsulta,
+                           Long tempoRespostaMs, String tipoAtendimento) {
+        this.sintomasInformados = sintomasInformados;
+        this.sintomas = Collections.unmodifiableList(new ArrayList<>(sintomas));
+        this.cpfPaciente = cpfPaciente;
+        this.nomePaciente = nomePaciente;
+        this.sugestaoId = sugestaoId;
+        this.ipOrigem = ipOrigem;
+        this.userAgent = userAgent;
+        this.dataConsulta = dataConsulta;
+        this.tempoRespostaMs = tempoRespostaMs;
+        this.tipoAtendimento = tipoAtendimento;
+    }
+
+    public String getSintomasInformados() { return sintomasInformados; }
+    public List<String> getSintomas() { return sintomas; }
+    public String getCpfPaciente() { return cpfPaciente; }
+    public String getNomePaciente() { return nomePaciente; }
+    public Long getSugestaoId() { return sugestaoId; }
+    public String getIpOrigem() { return ipOrigem; }
+    public String getUserAgent() { return userAgent; }
+    public LocalDateTime getDataConsulta() { return dataConsulta; }
+    public Long getTempoRespostaMs() { return tempoRespostaMs; }
+    public String getTipoAtendimento() { return tipoAtendimento; }
+
+    @Override
+    public String toString() {
+        return "EventoHistorico{" +
+                "sugestaoId=" + sugestaoId +
+                ", dataConsulta=" + dataConsulta +
+                ", tempoRespostaMs=" + tempoRespostaMs +
+                '}';
+    }
+}
@@ -0,0 +1,279 @@
+package com.project.media.service;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.project.media.dto.HistoricoConsultaDto;
+import com.project.media.repository.RoteamentoHistorico;
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.stereotype.Component;
+
+import javax.sql.DataSource;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * Exportação do histórico de consultas em NDJSON ou CSV.
+ *
+ * As linhas são lidas de um cursor JDBC somente-avanço e escritas direto na
+ * saída, uma a uma, sem montar a lista em memória.
+ */
+@Component
+public class ExportadorHistorico {
+
+    private static final Logger logger = LoggerFactory.getLogger(ExportadorHistorico.class);
+
+    private static final String SQL_SELECT =
+            "SELECT h.id, h.sintomas_informados, h.cpf_paciente, h.nome_paciente, h.ip_origem, " +
+            "h.data_consulta, h.tempo_resposta_ms, h.observacoes, s.titulo, s.tipo_atendimento, s.prioridade FROM ";
+
+    private static final String SQL_JOIN = " h LEFT JOIN sugestoes s ON s.id = h.sugestao_id";
+
+    private static final String SQL_ORDEM = " ORDER BY h.data_consulta DESC, h.id DESC";
+
+    private static final String[] CABECALHO_CSV = {
+        "id", "dataConsulta", "cpfPaciente", "nomePaciente", "sintomasInformados", "tituloSugestao",
+        "tipoAtendimento", "prioridade", "ipOrigem", "tempoRespostaMs", "observacoes"
+    };
+
+    public enum Formato {
+        NDJSON("application/x-ndjson", "ndjson"),
+        CSV("text/csv", "csv");
+
+        private final String contentType;
+        private final String extensao;
+
+        Formato(String contentType, String extensao) {
+            this.contentType = contentType;
+            this.extensao = extensao;
+        }
+
+        public String getContentType() { return contentType; }
+        public String getExtensao() { return extensao; }
+
+        public static Formato de(String valor) {
+            try {
+                return valueOf(valor.trim().toUpperCase(Locale.ROOT));
+            } catch (RuntimeException e) {
+                throw new IllegalArgumentException("Formato de exportação inválido: " + valor);
+            }
+        }
+    }
+
+    @Autowired
+    private DataSource dataSource;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private RoteamentoHistorico roteamento;
+
+    @Value("${media.historico.exportacao.fetch-size:500}")
+    private int fetchSize;
+
+    private JdbcTemplate jdbcTemplate;
+    private ObjectWriter jsonWriter;
+
+    @PostConstruct
+    public void iniciar() {
+        jdbcTemplate = new JdbcTemplate(dataSource);
+        jdbcTemplate.setFetchSize(fetchSize);
+
+        jsonWriter = objectMapper.writerFor(HistoricoConsultaDto.class)
+                .withRootValueSeparator("")
+                .without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE);
+    }
+
+    public long exportar(String cpfPaciente, LocalDateTime dataInicio, LocalDateTime dataFim,
+                         Formato formato, OutputStream saida) throws IOException {
+        long inicio = System.currentTimeMillis();
+
+        StringBuilder sql = new StringBuilder(SQL_SELECT)
+                .append(roteamento.destino(dataInicio, dataFim).getTabela())
+                .append(SQL_JOIN);
+        List<Object> parametros = new ArrayList<>();
+        String conector = " WHERE ";
+        if (cpfPaciente != null) {
+            sql.append(conector).append("h.cpf_paciente = ?");
+            parametros.add(cpfPaciente);
+            conector = " AND ";
+        }
+        if (dataInicio != null) {
+            sql.append(conector).append("h.data_consulta >= ?");
+            parametros.add(Timestamp.valueOf(dataInicio));
+            conector = " AND ";
+        }
+        if (dataFim != null) {
+            sql.append(conector).append("h.data_consulta <= ?");
+            parametros.add(Timestamp.valueOf(dataFim));
+        }
+        sql.append(SQL_ORDEM);
+
+        EscritorLinhas escritor = formato == Formato.CSV
+                ? new EscritorCsv(saida)
+                : new EscritorNdjson(saida);
+
+        try {
+            jdbcTemplate.query(sql.toString(), escritor, parametros.toArray());
+            escritor.concluir();
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+
+        logger.info("Histórico exportado em {}: {} linhas em {} ms",
+                formato, escritor.linhas, System.currentTimeMillis() - inicio);
+        return escritor.linhas;
+    }
+
+    private static HistoricoConsultaDto mapearLinha(ResultSet rs) throws SQLException {
+        HistoricoConsultaDto dto = new HistoricoConsultaDto();
+        dto.setId(rs.getLong("id"));
+        dto.setSintomasInformados(rs.getString("sintomas_informados"));
+        dto.setCpfPaciente(rs.getString("cpf_paciente"));
+        dto.setNomePaciente(rs.getString("nome_paciente"));
+        dto.setIpOrigem(rs.getString("ip_origem"));
+        Timestamp dataConsulta = rs.getTimestamp("data_consulta");
+        dto.setDataConsulta(dataConsulta != null ? dataConsulta.toLocalDateTime() : null);
+        dto.setTempoRespostaMs(rs.getObject("tempo_resposta_ms", Long.class));
+        dto.setObservacoes(rs.getString("observacoes"));
+        dto.setTituloSugestao(rs.getString("titulo"));
+        dto.setTipoAtendimento(rs.getString("tipo_atendimento"));
+        dto.setPrioridade(rs.getObject("prioridade", Integer.class));
+        return dto;
+    }
+
+    private abstract static class EscritorLinhas implements RowCallbackHandler {
+        long linhas;
+
+        @Override
+        public void processRow(ResultSet rs) throws SQLException {
+            try {
+                escrever(mapearLinha(rs));
+            } catch (IOException e) {
+                // cliente desconectou: interrompe a leitura e libera o cursor
+                throw new UncheckedIOException(e);
+            }
+            linhas++;
+        }
+
+        abstract void escrever(HistoricoConsultaDto dto) throws IOException;
+
+        abstract void concluir() throws IOException;
+    }
+
+    private final class EscritorNdjson extends EscritorLinhas {
+        private final JsonGenerator gerador;
+
+        EscritorNdjson(OutputStream saida) throws IOException {
+            gerador = objectMapper.getFactory().createGenerator(saida);
+            gerador.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+        }
+
+        @Override
+        void escrever(HistoricoConsultaDto dto) throws IOException {
+            jsonWriter.writeValue(gerador, dto);
+            gerador.writeRaw('\n');
+        }
+
+        @Override
+        void concluir() throws IOException {
+            gerador.close();
+        }
+    }
+
+    private static final class EscritorCsv extends EscritorLinhas {
+        private final Writer writer;
+
+        EscritorCsv(OutputStream saida) throws IOException {
+            writer = new BufferedWriter(new OutputStreamWriter(saida, StandardCharsets.UTF_8));
+            escreverLinha((Object[]) CABECALHO_CSV);
+        }
+
+        @Override
+        void escrever(HistoricoConsultaDto dto) throws IOException {
+            escreverLinha(
+                    dto.getId(),
+                    dto.getDataConsulta() != null ? DateTimeFormatter.ISO_LOCAL_DATE_TIME.format(dto.getDataConsulta()) : null,
+                    dto.getCpfPaciente(),
+                    dto.getNomePaciente(),
+                    dto.getSintomasInformados(),
+                    dto.getTituloSugestao(),
+                    dto.getTipoAtendimento(),
+                    dto.getPrioridade(),
+                    dto.getIpOrigem(),
+                    dto.getTempoRespostaMs(),
+                    dto.getObservacoes());
+        }
+
+        private void escreverLinha(Object... campos) throws IOException {
+            for (int i = 0; i < campos.length; i++) {
+                if (i > 0) {
+                    writer.write(',');
+                }
+                if (campos[i] instanceof String texto) {
+                    escreverCampo(neutralizarFormula(texto));
+                } else if (campos[i] != null) {
+                    escreverCampo(campos[i].toString());
+                }
+            }
+            writer.write("\r\n");
+        }
+
+        /**
+         * Planilhas executam como fórmula a célula que começa com = + - @ (ou
+         * tabulação/CR antes deles); o apóstrofo faz o valor ser lido como texto.
+         */
+        private static String neutralizarFormula(String valor) {
+            if (valor.isEmpty()) {
+                return valor;
+            }
+            char primeiro = valor.charAt(0);
+            if (primeiro == '=' || primeiro == '+' || primeiro == '-' || primeiro == '@'
+                    || primeiro == '\t' || primeiro == '\r') {
+                return "'" + valor;
+            }
+            return valor;
+        }
+
+        private void escreverCampo(String valor) throws IOException {
+            boolean aspas = false;
+            for (int i = 0; i < valor.length() && !aspas; i++) {
+                char c = valor.charAt(i);
+                aspas = c == ',' || c == '"' || c == '\n' || c == '\r';
+            }
+            if (!aspas) {
+                writer.write(valor);
+                return;
+            }
+            writer.write('"');
+            writer.write(valor.replace("\"", "\"\""));
+            writer.write('"');
+        }
+
+        @Override
+        void concluir() throws IOException {
+            writer.flush();
+        }
+    }
+}
@@ -0,0 +1,89 @@
+package com.project.media.service;
+
+/**
+ * Histograma de tempo de resposta com faixas fixas no estilo do HdrHistogram.
+ *
+ * Abaixo de 16 ms cada valor tem a sua faixa; acima, cada potência de 2 é
+ * dividida em 16 faixas, o que limita o erro relativo de um percentil a 1/16
+ * (6,25%). Valores acima de {@link #LIMITE_MS} caem na última faixa. O número
+ * de faixas não depende da quantidade de consultas, e dois histogramas se
+ * combinam somando faixa a faixa.
+ */
+public final class HistogramaLatencia {
+
+    private static final int BITS_SUBFAIXA = 4;
+    private static final int SUBFAIXAS = 1 << BITS_SUBFAIXA;
+
+    public static final long LIMITE_MS = (1L << 24) - 1;
+    public static final int TOTAL_FAIXAS = faixa(LIMITE_MS) + 1;
+
+    private final long[] quantidades = new long[TOTAL_FAIXAS];
+    private final long[] maximos = new long[TOTAL_FAIXAS];
+    private long total;
+
+    public static int faixa(long valorMs) {
+        long valor = Math.max(0, Math.min(valorMs, LIMITE_MS));
+        if (valor < SUBFAIXAS) {
+            return (int) valor;
+        }
+        int deslocamento = 63 - Long.numberOfLeadingZeros(valor) - BITS_SUBFAIXA;
+        return SUBFAIXAS + deslocamento * SUBFAIXAS + (int) ((valor >> deslocamento) - SUBFAIXAS);
+    }
+
+    /** Maior valor em milissegundos que cai na faixa. */
+    public static long limiteSuperior(int faixa) {
+        if (faixa < SUBFAIXAS) {
+            return faixa;
+        }
+        int deslocamento = (faixa - SUBFAIXAS) / SUBFAIXAS;
+        long subfaixa = (faixa - SUBFAIXAS) % SUBFAIXAS;
+        return ((SUBFAIXAS + subfaixa + 1) << deslocamento) - 1;
+    }
+
+    public void registrar(long valorMs) {
+        somar(faixa(valorMs), 1, valorMs);
+    }
+
+    /**
+     * Soma {@code quantidade} consultas à faixa; {@code maximoMs} é o maior
+     * tempo já visto nela.
+     */
+    public void somar(int faixa, long quantidade, long maximoMs) {
+        quantidades[faixa] += quantidade;
+        maximos[faixa] = Math.max(maximos[faixa], maximoMs);
+        total += quantidade;
+    }
+
+    public long getTotal() {
+        return total;
+    }
+
+    /**
+     * Percentil {@code p} (0 a 100) pela regra do menor valor com pelo menos
+     * p% das consultas. Devolve o limite da faixa, sem passar do maior tempo
+     * observado nela; {@code null} se o histograma estiver vazio.
+     */
+    public Long percentil(double p) {
+        if (total == 0) {
+            return null;
+        }
+        long posicao = Math.max(1, (long) Math.ceil(p * total / 100.0));
+        long acumulado = 0;
+        for (int faixa = 0; faixa < TOTAL_FAIXAS; faixa++) {
+            acumulado += quantidades[faixa];
+            if (acumulado >= posicao) {
+                return Math.min(limiteSuperior(faixa), maximos[faixa]);
+            }
+        }
+        return getMaximo();
+    }
+
+    public Long getMaximo() {
+        for (int faixa = TOTAL_FAIXAS - 1; faixa >= 0; faixa--) {
+            if (quantidades[faixa] > 0) {
+                return maximos[faixa];
+            }
+        }
+        return null;
+    }
+}
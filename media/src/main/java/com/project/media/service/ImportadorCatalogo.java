@@ -0,0 +1,445 @@
+package com.project.media.service;
+
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.project.media.dto.ImportacaoCatalogoDto;
+import jakarta.annotation.PostConstruct;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.dialect.sequence.SequenceSupport;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.io.Resource;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+
+/**
+ * Importa sintomas, sugestões e associações de um arquivo de catálogo (JSON ou
+ * CSV) lido em fluxo, sem carregar o arquivo inteiro.
+ *
+ * Sintomas são identificados pelo nome (sem diferenciar maiúsculas) e
+ * sugestões pelo título: o que já existe é atualizado só se algum campo
+ * mudou, o que falta é inserido com ids reservados em blocos das sequências,
+ * e associações existentes são mantidas. Reimportar o mesmo arquivo não altera
+ * nada. Os nomes são resolvidos por índices em memória carregados no início, e
+ * as gravações saem em lotes JDBC de {@code media.catalogo.lote} linhas, tudo
+ * numa única transação.
+ *
+ * Um sintoma ou sugestão precisa aparecer no arquivo (ou já existir no banco)
+ * antes das associações que o usam.
+ */
+@Service
+public class ImportadorCatalogo {
+
+    private static final Logger logger = LoggerFactory.getLogger(ImportadorCatalogo.class);
+
+    public static final int FORMATO = 1;
+
+    private static final int BLOCO_IDS = 50;
+
+    private static final String SQL_INSERT_SINTOMA =
+            "INSERT INTO sintomas (id, nome, descricao, categoria, ativo, data_criacao, data_atualizacao) " +
+            "VALUES (?, ?, ?, ?, ?, ?, ?)";
+
+    private static final String SQL_UPDATE_SINTOMA =
+            "UPDATE sintomas SET descricao = ?, categoria = ?, data_atualizacao = ? WHERE id = ?";
+
+    private static final String SQL_INSERT_SUGESTAO =
+            "INSERT INTO sugestoes (id, titulo, descricao, tipo_atendimento, prioridade, recomendacoes, ativo, " +
+            "data_criacao, data_atualizacao) VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?)";
+
+    private static final String SQL_UPDATE_SUGESTAO =
+            "UPDATE sugestoes SET descricao = ?, tipo_atendimento = ?, prioridade = ?, recomendacoes = ?, " +
+            "data_atualizacao = ? WHERE id = ?";
+
+    private static final String SQL_INSERT_ASSOCIACAO =
+            "INSERT INTO sugestao_sintoma (sugestao_id, sintoma_id) VALUES (?, ?)";
+
+    public enum Formato {
+        JSON, CSV;
+
+        public static Formato doArquivo(String nome) {
+            String minusculo = nome != null ? nome.toLowerCase(Locale.ROOT) : "";
+            if (minusculo.endsWith(".json")) {
+                return JSON;
+            }
+            if (minusculo.endsWith(".csv")) {
+                return CSV;
+            }
+            throw new IllegalArgumentException("Formato de catálogo não reconhecido: " + nome + " (use .json ou .csv)");
+        }
+    }
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private CatalogoVersao catalogoVersao;
+
+    @Value("${media.catalogo.lote:500}")
+    private int tamanhoLote;
+
+    private TransactionTemplate transactionTemplate;
+    private String sqlBlocoSintomas;
+    private String sqlBlocoSugestoes;
+
+    @PostConstruct
+    public void iniciar() {
+        transactionTemplate = new TransactionTemplate(transactionManager);
+        SequenceSupport sequencias = entityManagerFactory.unwrap(SessionFactoryImplementor.class).getJdbcServices()
+                .getDialect().getSequenceSupport();
+        sqlBlocoSintomas = sequencias.getSequenceNextValString("sintomas_seq");
+        sqlBlocoSugestoes = sequencias.getSequenceNextValString("sugestoes_seq");
+    }
+
+    public ImportacaoCatalogoDto importar(Resource arquivo) throws IOException {
+        try (InputStream entrada = arquivo.getInputStream()) {
+            return importar(entrada, Formato.doArquivo(arquivo.getFilename()));
+        }
+    }
+
+    public ImportacaoCatalogoDto importar(InputStream entrada, Formato formato) {
+        long inicio = System.currentTimeMillis();
+        BufferedReader leitor = new BufferedReader(new InputStreamReader(entrada, StandardCharsets.UTF_8));
+
+        ImportacaoCatalogoDto resultado = transactionTemplate.execute(status -> {
+            Carga carga = new Carga();
+            try {
+                if (formato == Formato.JSON) {
+                    lerJson(leitor, carga);
+                } else {
+                    lerCsv(leitor, carga);
+                }
+            } catch (JsonProcessingException e) {
+                throw new IllegalArgumentException("Catálogo JSON inválido: " + e.getOriginalMessage(), e);
+            } catch (IOException e) {
+                throw new UncheckedIOException("Erro ao ler arquivo de catálogo: " + e.getMessage(), e);
+            }
+            return carga.concluir();
+        });
+
+        resultado.setDuracaoMs(System.currentTimeMillis() - inicio);
+        logger.info("Catálogo importado em {} ms: sintomas {} novos/{} atualizados, sugestões {} novas/{} atualizadas, " +
+                        "{} associações novas", resultado.getDuracaoMs(),
+                resultado.getSintomasInseridos(), resultado.getSintomasAtualizados(),
+                resultado.getSugestoesInseridas(), resultado.getSugestoesAtualizadas(),
+                resultado.getAssociacoesInseridas());
+        return resultado;
+    }
+
+    /**
+     * {@code {"formato": 1, "sintomas": [{nome, descricao, categoria}],
+     * "sugestoes": [{titulo, descricao, tipoAtendimento, prioridade, recomendacoes, sintomas: [nome]}],
+     * "associacoes": [{sugestao, sintoma}]}}. Cada item é lido e entra no lote antes do próximo.
+     */
+    private void lerJson(BufferedReader leitor, Carga carga) throws IOException {
+        try (JsonParser parser = objectMapper.getFactory().createParser(leitor)) {
+            if (parser.nextToken() != JsonToken.START_OBJECT) {
+                throw new IllegalArgumentException("Catálogo JSON deve ser um objeto");
+            }
+            while (parser.nextToken() == JsonToken.FIELD_NAME) {
+                String campo = parser.currentName();
+                JsonToken valor = parser.nextToken();
+                if (campo.equals("formato")) {
+                    carga.formato(parser.getIntValue());
+                    continue;
+                }
+                if (valor != JsonToken.START_ARRAY) {
+                    parser.skipChildren();
+                    continue;
+                }
+                while (parser.nextToken() == JsonToken.START_OBJECT) {
+                    JsonNode item = objectMapper.readTree(parser);
+                    switch (campo) {
+                        case "sintomas" -> carga.sintoma(texto(item, "nome"), texto(item, "descricao"),
+                                texto(item, "categoria"));
+                        case "sugestoes" -> {
+                            JsonNode prioridade = item.get("prioridade");
+                            carga.sugestao(texto(item, "titulo"), texto(item, "descricao"),
+                                    texto(item, "tipoAtendimento"),
+                                    prioridade != null && prioridade.canConvertToInt() ? prioridade.intValue() : null,
+                                    texto(item, "recomendacoes"));
+                            for (JsonNode sintoma : item.path("sintomas")) {
+                                carga.associacao(texto(item, "titulo"), sintoma.asText());
+                            }
+                        }
+                        case "associacoes" -> carga.associacao(texto(item, "sugestao"), texto(item, "sintoma"));
+                        default -> {
+                        }
+                    }
+                }
+            }
+        }
+    }
+
+    private static String texto(JsonNode item, String campo) {
+        JsonNode valor = item.get(campo);
+        return valor == null || valor.isNull() ? null : valor.asText();
+    }
+
+    /**
+     * Um registro por linha, identificado pela primeira coluna:
+     * {@code formato,1}, {@code sintoma,nome,descricao,categoria},
+     * {@code sugestao,titulo,descricao,tipo_atendimento,prioridade,recomendacoes}
+     * e {@code associacao,titulo da sugestão,nome do sintoma}.
+     */
+    private void lerCsv(BufferedReader leitor, Carga carga) throws IOException {
+        LeitorCsv csv = new LeitorCsv(leitor);
+        List<String> registro;
+        while ((registro = csv.proximo()) != null) {
+            try {
+                switch (registro.get(0).trim().toLowerCase(Locale.ROOT)) {
+                    case "formato" -> carga.formato(Integer.parseInt(coluna(registro, 1)));
+                    case "sintoma" -> carga.sintoma(coluna(registro, 1), coluna(registro, 2), coluna(registro, 3));
+                    case "sugestao" -> {
+                        String prioridade = coluna(registro, 4);
+                        carga.sugestao(coluna(registro, 1), coluna(registro, 2), coluna(registro, 3),
+                                prioridade != null ? Integer.valueOf(prioridade) : null, coluna(registro, 5));
+                    }
+                    case "associacao" -> carga.associacao(coluna(registro, 1), coluna(registro, 2));
+                    default -> throw new IllegalArgumentException("tipo de registro desconhecido: " + registro.get(0));
+                }
+            } catch (IllegalArgumentException e) {
+                throw new IllegalArgumentException("Linha " + csv.getLinha() + " do catálogo: " + e.getMessage(), e);
+            }
+        }
+    }
+
+    private static String coluna(List<String> registro, int indice) {
+        if (indice >= registro.size()) {
+            return null;
+        }
+        String valor = registro.get(indice).trim();
+        return valor.isEmpty() ? null : valor;
+    }
+
+    private static String chaveSintoma(String nome) {
+        return nome.trim().toLowerCase(Locale.ROOT);
+    }
+
+    private static String assinatura(Object... campos) {
+        StringBuilder assinatura = new StringBuilder();
+        for (Object campo : campos) {
+            assinatura.append(Objects.toString(campo, "")).append('\u0000');
+        }
+        return assinatura.toString();
+    }
+
+    private static String obrigatorio(String valor, String campo) {
+        if (valor == null || valor.isBlank()) {
+            throw new IllegalArgumentException(campo + " é obrigatório");
+        }
+        return valor.trim();
+    }
+
+    private static final class Registro {
+        final long id;
+        String assinatura;
+
+        Registro(long id, String assinatura) {
+            this.id = id;
+            this.assinatura = assinatura;
+        }
+    }
+
+    /** Estado de uma importação: índices por nome e lotes pendentes. */
+    private final class Carga {
+
+        private final Map<String, Registro> sintomas = new HashMap<>();
+        private final Map<String, Registro> sugestoes = new HashMap<>();
+        private final Map<Long, Set<Long>> associacoes = new HashMap<>();
+
+        private final List<Object[]> sintomasNovos = new ArrayList<>();
+        private final List<Object[]> sintomasAlterados = new ArrayList<>();
+        private final List<Object[]> sugestoesNovas = new ArrayList<>();
+        private final List<Object[]> sugestoesAlteradas = new ArrayList<>();
+        private final List<Object[]> associacoesNovas = new ArrayList<>();
+
+        private final Timestamp agora = Timestamp.valueOf(LocalDateTime.now());
+        private long sintomasInseridos;
+        private long sintomasAtualizados;
+        private long sugestoesInseridas;
+        private long sugestoesAtualizadas;
+        private long associacoesInseridas;
+
+        private long proximoSintoma;
+        private long limiteSintoma;
+        private long proximaSugestao;
+        private long limiteSugestao;
+        private Integer formato;
+
+        Carga() {
+            jdbcTemplate.query("SELECT id, nome, descricao, categoria FROM sintomas", rs -> {
+                sintomas.put(chaveSintoma(rs.getString(2)),
+                        new Registro(rs.getLong(1), assinatura(rs.getString(3), rs.getString(4))));
+            });
+            jdbcTemplate.query("SELECT id, titulo, descricao, tipo_atendimento, prioridade, recomendacoes FROM sugestoes",
+                    rs -> {
+                        sugestoes.put(rs.getString(2).trim(), new Registro(rs.getLong(1), assinatura(
+                                rs.getString(3), rs.getString(4), rs.getInt(5), rs.getString(6))));
+                    });
+            jdbcTemplate.query("SELECT sugestao_id, sintoma_id FROM sugestao_sintoma", rs -> {
+                associacoes.computeIfAbsent(rs.getLong(1), id -> new HashSet<>()).add(rs.getLong(2));
+            });
+        }
+
+        void formato(int valor) {
+            if (valor != FORMATO) {
+                throw new IllegalArgumentException("Formato de catálogo " + valor + " não suportado (esperado " +
+                        FORMATO + ")");
+            }
+            formato = valor;
+        }
+
+        void sintoma(String nome, String descricao, String categoria) {
+            nome = obrigatorio(nome, "nome do sintoma");
+            categoria = obrigatorio(categoria, "categoria do sintoma " + nome);
+            String nova = assinatura(descricao, categoria);
+            Registro existente = sintomas.get(chaveSintoma(nome));
+            if (existente == null) {
+                long id = proximoIdSintoma();
+                sintomas.put(chaveSintoma(nome), new Registro(id, nova));
+                sintomasNovos.add(new Object[] {id, nome, descricao, categoria, Boolean.TRUE, agora, agora});
+                sintomasInseridos++;
+            } else if (!existente.assinatura.equals(nova)) {
+                existente.assinatura = nova;
+                sintomasAlterados.add(new Object[] {descricao, categoria, agora, existente.id});
+                sintomasAtualizados++;
+            }
+            descarregarSeCheio();
+        }
+
+        void sugestao(String titulo, String descricao, String tipoAtendimento, Integer prioridade,
+                      String recomendacoes) {
+            titulo = obrigatorio(titulo, "título da sugestão");
+            descricao = obrigatorio(descricao, "descrição da sugestão " + titulo);
+            tipoAtendimento = obrigatorio(tipoAtendimento, "tipo de atendimento da sugestão " + titulo);
+            if (prioridade == null) {
+                throw new IllegalArgumentException("prioridade da sugestão " + titulo + " é obrigatória");
+            }
+            String nova = assinatura(descricao, tipoAtendimento, prioridade, recomendacoes);
+            Registro existente = sugestoes.get(titulo);
+            if (existente == null) {
+                long id = proximoIdSugestao();
+                sugestoes.put(titulo, new Registro(id, nova));
+                sugestoesNovas.add(new Object[] {id, titulo, descricao, tipoAtendimento, prioridade, recomendacoes,
+                        Boolean.TRUE, agora, agora});
+                sugestoesInseridas++;
+            } else if (!existente.assinatura.equals(nova)) {
+                existente.assinatura = nova;
+                sugestoesAlteradas.add(new Object[] {descricao, tipoAtendimento, prioridade, recomendacoes, agora,
+                        existente.id});
+                sugestoesAtualizadas++;
+            }
+            descarregarSeCheio();
+        }
+
+        void associacao(String titulo, String nomeSintoma) {
+            Registro sugestao = sugestoes.get(obrigatorio(titulo, "sugestão da associação"));
+            if (sugestao == null) {
+                throw new IllegalArgumentException("Sugestão não encontrada: " + titulo);
+            }
+            Registro sintoma = sintomas.get(chaveSintoma(obrigatorio(nomeSintoma, "sintoma da associação")));
+            if (sintoma == null) {
+                throw new IllegalArgumentException("Sintoma não encontrado: " + nomeSintoma);
+            }
+            if (associacoes.computeIfAbsent(sugestao.id, id -> new HashSet<>()).add(sintoma.id)) {
+                associacoesNovas.add(new Object[] {sugestao.id, sintoma.id});
+                associacoesInseridas++;
+            }
+            descarregarSeCheio();
+        }
+
+        ImportacaoCatalogoDto concluir() {
+            if (formato == null) {
+                throw new IllegalArgumentException("Arquivo de catálogo sem formato (esperado " + FORMATO + ")");
+            }
+            descarregar();
+            if (sintomasInseridos + sintomasAtualizados + sugestoesInseridas + sugestoesAtualizadas +
+                    associacoesInseridas > 0) {
+                catalogoVersao.registrarAlteracao();
+            }
+
+            ImportacaoCatalogoDto resultado = new ImportacaoCatalogoDto();
+            resultado.setFormato(formato);
+            resultado.setSintomasInseridos(sintomasInseridos);
+            resultado.setSintomasAtualizados(sintomasAtualizados);
+            resultado.setSugestoesInseridas(sugestoesInseridas);
+            resultado.setSugestoesAtualizadas(sugestoesAtualizadas);
+            resultado.setAssociacoesInseridas(associacoesInseridas);
+            return resultado;
+        }
+
+        private void descarregarSeCheio() {
+            if (sintomasNovos.size() + sintomasAlterados.size() + sugestoesNovas.size() +
+                    sugestoesAlteradas.size() + associacoesNovas.size() >= tamanhoLote) {
+                descarregar();
+            }
+        }
+
+        /** Grava os lotes pendentes na ordem exigida pelas chaves estrangeiras. */
+        private void descarregar() {
+            gravar(SQL_INSERT_SINTOMA, sintomasNovos);
+            gravar(SQL_UPDATE_SINTOMA, sintomasAlterados);
+            gravar(SQL_INSERT_SUGESTAO, sugestoesNovas);
+            gravar(SQL_UPDATE_SUGESTAO, sugestoesAlteradas);
+            gravar(SQL_INSERT_ASSOCIACAO, associacoesNovas);
+        }
+
+        private void gravar(String sql, List<Object[]> linhas) {
+            if (!linhas.isEmpty()) {
+                jdbcTemplate.batchUpdate(sql, linhas);
+                linhas.clear();
+            }
+        }
+
+        private long proximoIdSintoma() {
+            if (proximoSintoma >= limiteSintoma) {
+                proximoSintoma = jdbcTemplate.queryForObject(sqlBlocoSintomas, Long.class);
+                limiteSintoma = proximoSintoma + BLOCO_IDS;
+            }
+            return proximoSintoma++;
+        }
+
+        private long proximoIdSugestao() {
+            if (proximaSugestao >= limiteSugestao) {
+                proximaSugestao = jdbcTemplate.queryForObject(sqlBlocoSugestoes, Long.class);
+                limiteSugestao = proximaSugestao + BLOCO_IDS;
+            }
+            return proximaSugestao++;
+        }
+    }
+}
@@ -0,0 +1,325 @@
+package com.project.media.service;
+
+import com.project.media.dto.SugestaoResponseDto;
+import com.project.media.entity.Sintoma;
+import com.project.media.entity.Sugestao;
+import com.project.media.repository.SintomaRepository;
+import com.project.media.repository.SugestaoRepository;
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Índice invertido em memória do catálogo de sintomas/sugestões.
+ *
+ * Cada nome de sintoma (minúsculo) aponta para listas ordenadas de posições de
+ * sugestões em arrays primitivos. O ranking reproduz a ordenação de
+ * {@link SugestaoRepository#findMelhoresSugestoesPorSintomas}: quantidade de
+ * sintomas correspondentes, depois prioridade, data de criação e por fim id.
+ *
+ * Todo sintoma ativo do catálogo entra no índice, mesmo sem sugestão ativa
+ * ligada a ele: como na consulta original, um sintoma conhecido sem sugestões
+ * devolve lista vazia, e só sintomas desconhecidos levam à sugestão genérica.
+ *
+ * A reconstrução roda numa transação própria, sem {@code readOnly}, para ler
+ * do banco principal mesmo quando chamada de uma busca roteada para a réplica:
+ * a versão muda logo após o commit, e um snapshot lido de uma réplica atrasada
+ * ficaria guardado sob a versão nova até a próxima alteração do catálogo.
+ */
+@Component
+public class IndiceSugestoes {
+
+    private static final Logger logger = LoggerFactory.getLogger(IndiceSugestoes.class);
+
+    @Autowired
+    private SugestaoRepository sugestaoRepository;
+
+    @Autowired
+    private SintomaRepository sintomaRepository;
+
+    @Autowired
+    private CatalogoVersao catalogoVersao;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    private TransactionTemplate transacaoPrincipal;
+
+    private volatile Snapshot snapshot;
+
+    @PostConstruct
+    public void iniciar() {
+        transacaoPrincipal = new TransactionTemplate(transactionManager);
+        transacaoPrincipal.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+    }
+
+    public Ranking ranquear(Collection<String> sintomasNormalizados, int topK) {
+        return obterSnapshot().ranquear(sintomasNormalizados, topK);
+    }
+
+    @EventListener
+    public void onCatalogoAlterado(CatalogoAlteradoEvent event) {
+        invalidar();
+    }
+
+    public void invalidar() {
+        snapshot = null;
+        logger.info("Índice de sugestões invalidado");
+    }
+
+    private Snapshot obterSnapshot() {
+        long versao = catalogoVersao.atual();
+        Snapshot atual = snapshot;
+        if (atual != null && atual.versao == versao) {
+            return atual;
+        }
+        synchronized (this) {
+            long versaoAtual = catalogoVersao.atual();
+            if (snapshot == null || snapshot.versao != versaoAtual) {
+                snapshot = transacaoPrincipal.execute(status -> construir(versaoAtual));
+            }
+            return snapshot;
+        }
+    }
+
+    private Snapshot construir(long versao) {
+        long inicio = System.currentTimeMillis();
+
+        List<Sugestao> sugestoes = new ArrayList<>(sugestaoRepository.findAtivasComSintomas());
+        sugestoes.sort(Comparator.comparing(Sugestao::getId));
+
+        List<Sintoma> sintomas = new ArrayList<>(sintomaRepository.findByAtivoTrue());
+        sintomas.removeIf(sintoma -> sintoma.getNome() == null);
+        sintomas.sort(Comparator.comparing(Sintoma::getId));
+
+        Map<Long, Integer> posicaoSintoma = new HashMap<>();
+        List<List<Integer>> postagens = new ArrayList<>();
+        for (Sintoma sintoma : sintomas) {
+            posicaoSintoma.put(sintoma.getId(), postagens.size());
+            postagens.add(new ArrayList<>());
+        }
+
+        for (int i = 0; i < sugestoes.size(); i++) {
+            for (Sintoma sintoma : sugestoes.get(i).getSintomas()) {
+                Integer posicao = posicaoSintoma.get(sintoma.getId());
+                if (posicao != null) {
+                    postagens.get(posicao).add(i);
+                }
+            }
+        }
+
+        Snapshot novo = new Snapshot(versao, sugestoes, sintomas, postagens);
+        logger.info("Índice de sugestões construído: {} sugestões, {} sintomas em {} ms",
+                sugestoes.size(), sintomas.size(), System.currentTimeMillis() - inicio);
+        return novo;
+    }
+
+    public static class Ranking {
+        private final int sintomasEncontrados;
+        private final List<SugestaoResponseDto> sugestoes;
+
+        Ranking(int sintomasEncontrados, List<SugestaoResponseDto> sugestoes) {
+            this.sintomasEncontrados = sintomasEncontrados;
+            this.sugestoes = sugestoes;
+        }
+
+        public int getSintomasEncontrados() { return sintomasEncontrados; }
+        public List<SugestaoResponseDto> getSugestoes() { return sugestoes; }
+    }
+
+    private static final class Snapshot {
+
+        private final long versao;
+
+        private final long[] ids;
+        private final int[] prioridades;
+        private final long[] datasCriacao;
+        private final String[] titulos;
+        private final String[] descricoes;
+        private final String[] tiposAtendimento;
+        private final String[] recomendacoes;
+
+        private final String[] nomesSintomas;
+        private final int[][] postagens;
+        private final Map<String, int[]> sintomasPorNome;
+
+        Snapshot(long versao, List<Sugestao> sugestoes, List<Sintoma> sintomas, List<List<Integer>> listas) {
+            this.versao = versao;
+            int n = sugestoes.size();
+            ids = new long[n];
+            prioridades = new int[n];
+            datasCriacao = new long[n];
+            titulos = new String[n];
+            descricoes = new String[n];
+            tiposAtendimento = new String[n];
+            recomendacoes = new String[n];
+
+            for (int i = 0; i < n; i++) {
+                Sugestao sugestao = sugestoes.get(i);
+                ids[i] = sugestao.getId();
+                prioridades[i] = sugestao.getPrioridade() != null ? sugestao.getPrioridade() : Integer.MIN_VALUE;
+                datasCriacao[i] = sugestao.getDataCriacao() != null
+                        ? sugestao.getDataCriacao().toInstant(ZoneOffset.UTC).toEpochMilli()
+                        : Long.MIN_VALUE;
+                titulos[i] = sugestao.getTitulo();
+                descricoes[i] = sugestao.getDescricao();
+                tiposAtendimento[i] = sugestao.getTipoAtendimento();
+                recomendacoes[i] = sugestao.getRecomendacoes();
+            }
+
+            int m = sintomas.size();
+            nomesSintomas = new String[m];
+            postagens = new int[m][];
+            Map<String, List<Integer>> porNome = new HashMap<>();
+
+            for (int j = 0; j < m; j++) {
+                nomesSintomas[j] = sintomas.get(j).getNome();
+                int[] postagem = listas.get(j).stream().mapToInt(Integer::intValue).distinct().toArray();
+                Arrays.sort(postagem);
+                postagens[j] = postagem;
+                porNome.computeIfAbsent(nomesSintomas[j].toLowerCase(), k -> new ArrayList<>()).add(j);
+            }
+
+            sintomasPorNome = new HashMap<>(porNome.size() * 2);
+            porNome.forEach((nome, posicoes) ->
+                    sintomasPorNome.put(nome, posicoes.stream().mapToInt(Integer::intValue).toArray()));
+        }
+
+        Ranking ranquear(Collection<String> sintomasNormalizados, int topK) {
+            Set<String> nomes = new LinkedHashSet<>(sintomasNormalizados);
+
+            int[] encontrados = new int[nomesSintomas.length];
+            int totalEncontrados = 0;
+            for (String nome : nomes) {
+                int[] posicoes = sintomasPorNome.get(nome);
+                if (posicoes != null) {
+                    for (int posicao : posicoes) {
+                        encontrados[totalEncontrados++] = posicao;
+                    }
+                }
+            }
+
+            if (totalEncontrados == 0 || topK <= 0) {
+                return new Ranking(totalEncontrados, List.of());
+            }
+
+            int[] contagens = new int[ids.length];
+            for (int i = 0; i < totalEncontrados; i++) {
+                for (int sugestao : postagens[encontrados[i]]) {
+                    contagens[sugestao]++;
+                }
+            }
+
+            int[] heap = new int[Math.min(topK, ids.length)];
+            int tamanho = 0;
+            for (int sugestao = 0; sugestao < contagens.length; sugestao++) {
+                if (contagens[sugestao] == 0) {
+                    continue;
+                }
+                if (tamanho < heap.length) {
+                    heap[tamanho] = sugestao;
+                    subir(heap, tamanho++, contagens);
+                } else if (melhor(sugestao, heap[0], contagens)) {
+                    heap[0] = sugestao;
+                    descer(heap, tamanho, contagens);
+                }
+            }
+
+            SugestaoResponseDto[] ordenadas = new SugestaoResponseDto[tamanho];
+            while (tamanho > 0) {
+                int pior = heap[0];
+                heap[0] = heap[--tamanho];
+                descer(heap, tamanho, contagens);
+                ordenadas[tamanho] = criarDto(pior, encontrados, totalEncontrados);
+            }
+
+            return new Ranking(totalEncontrados, Arrays.asList(ordenadas));
+        }
+
+        private SugestaoResponseDto criarDto(int sugestao, int[] encontrados, int totalEncontrados) {
+            List<String> correspondentes = new ArrayList<>();
+            for (int i = 0; i < totalEncontrados; i++) {
+                if (Arrays.binarySearch(postagens[encontrados[i]], sugestao) >= 0) {
+                    correspondentes.add(nomesSintomas[encontrados[i]]);
+                }
+            }
+
+            return new SugestaoResponseDto(
+                    ids[sugestao],
+                    titulos[sugestao],
+                    descricoes[sugestao],
+                    tiposAtendimento[sugestao],
+                    prioridades[sugestao] == Integer.MIN_VALUE ? null : prioridades[sugestao],
+                    recomendacoes[sugestao],
+                    correspondentes
+            );
+        }
+
+        private boolean melhor(int a, int b, int[] contagens) {
+            if (contagens[a] != contagens[b]) {
+                return contagens[a] > contagens[b];
+            }
+            if (prioridades[a] != prioridades[b]) {
+                return prioridades[a] > prioridades[b];
+            }
+            if (datasCriacao[a] != datasCriacao[b]) {
+                return datasCriacao[a] > datasCriacao[b];
+            }
+            return a < b;
+        }
+
+        private void subir(int[] heap, int i, int[] contagens) {
+            while (i > 0) {
+                int pai = (i - 1) / 2;
+                if (!melhor(heap[pai], heap[i], contagens)) {
+                    break;
+                }
+                trocar(heap, pai, i);
+                i = pai;
+            }
+        }
+
+        private void descer(int[] heap, int tamanho, int[] contagens) {
+            int i = 0;
+            while (true) {
+                int esquerdo = 2 * i + 1;
+                if (esquerdo >= tamanho) {
+                    break;
+                }
+                int pior = esquerdo;
+                int direito = esquerdo + 1;
+                if (direito < tamanho && melhor(heap[esquerdo], heap[direito], contagens)) {
+                    pior = direito;
+                }
+                if (!melhor(heap[i], heap[pior], contagens)) {
+                    break;
+                }
+                trocar(heap, i, pior);
+                i = pior;
+            }
+        }
+
+        private static void trocar(int[] heap, int a, int b) {
+            int tmp = heap[a];
+            heap[a] = heap[b];
+            heap[b] = tmp;
+        }
+    }
+}
@@ -0,0 +1,90 @@
+package com.project.media.service;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Lê CSV separado por vírgula, um registro por vez, com campos entre aspas
+ * duplas quando contêm vírgula, aspas ({@code ""}) ou quebra de linha.
+ * Linhas vazias e linhas iniciadas por {@code #} são ignoradas.
+ */
+final class LeitorCsv {
+
+    private final BufferedReader entrada;
+    private final StringBuilder campo = new StringBuilder();
+    private int linhasLidas;
+    private int linhaDoRegistro;
+
+    LeitorCsv(BufferedReader entrada) {
+        this.entrada = entrada;
+    }
+
+    /** Linha do arquivo onde começa o último registro lido. */
+    int getLinha() {
+        return linhaDoRegistro;
+    }
+
+    /** Próximo registro ou {@code null} no fim do arquivo. */
+    List<String> proximo() throws IOException {
+        int c = entrada.read();
+        while (true) {
+            if (c == -1) {
+                return null;
+            }
+            if (c == '\n') {
+                linhasLidas++;
+            } else if (c == '#') {
+                while (c != -1 && c != '\n') {
+                    c = entrada.read();
+                }
+                continue;
+            } else if (c != '\r') {
+                linhaDoRegistro = linhasLidas + 1;
+                return registro(c);
+            }
+            c = entrada.read();
+        }
+    }
+
+    private List<String> registro(int primeiro) throws IOException {
+        List<String> campos = new ArrayList<>();
+        campo.setLength(0);
+        boolean entreAspas = false;
+        for (int c = primeiro; ; c = entrada.read()) {
+            if (entreAspas) {
+                if (c == -1) {
+                    throw new IllegalArgumentException("Aspas não fechadas no registro da linha " + linhaDoRegistro);
+                }
+                if (c == '"') {
+                    entrada.mark(1);
+                    if (entrada.read() == '"') {
+                        campo.append('"');
+                    } else {
+                        entrada.reset();
+                        entreAspas = false;
+                    }
+                } else {
+                    if (c == '\n') {
+                        linhasLidas++;
+                    }
+                    campo.append((char) c);
+                }
+            } else if (c == '"' && campo.length() == 0) {
+                entreAspas = true;
+            } else if (c == ',') {
+                campos.add(campo.toString());
+                campo.setLength(0);
+            } else if (c == '\n' || c == '\r' || c == -1) {
+                if (c == '\n') {
+                    linhasLidas++;
+                }
+                campos.add(campo.toString());
+                return campos;
+            } else {
+                campo.append((char) c);
+            }
+        }
+    }
+}
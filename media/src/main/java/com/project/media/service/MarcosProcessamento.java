@@ -0,0 +1,41 @@
+package com.project.media.service;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Leitura e gravação de {@code marcos_processamento}: até onde cada
+ * processamento de longa duração já foi concluído. Um processamento sem
+ * marco ainda não terminou, mesmo que as tabelas de destino já tenham linhas.
+ */
+@Component
+public class MarcosProcessamento {
+
+    private static final String SQL_LER = "SELECT valor FROM marcos_processamento WHERE nome = ?";
+
+    private static final String SQL_GRAVAR =
+            "MERGE INTO marcos_processamento m USING (" +
+            "SELECT CAST(? AS VARCHAR(100)) nome, CAST(? AS NUMERIC(19)) valor, " +
+            "CAST(? AS TIMESTAMP) atualizado_em FROM dual) n " +
+            "ON (m.nome = n.nome) " +
+            "WHEN MATCHED THEN UPDATE SET valor = n.valor, atualizado_em = n.atualizado_em " +
+            "WHEN NOT MATCHED THEN INSERT (nome, valor, atualizado_em) VALUES (n.nome, n.valor, n.atualizado_em)";
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    /** Valor gravado para o processamento, ou {@code null} se ele ainda não tem marco. */
+    public Long ler(String nome) {
+        List<Long> valores = jdbcTemplate.queryForList(SQL_LER, Long.class, nome);
+        return valores.isEmpty() ? null : valores.get(0);
+    }
+
+    public void gravar(String nome, long valor) {
+        jdbcTemplate.update(SQL_GRAVAR, nome, valor, Timestamp.valueOf(LocalDateTime.now()));
+    }
+}
@@ -0,0 +1,336 @@
+package com.project.media.service;
+
+import com.project.media.entity.HistoricoConsulta;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.BatchPreparedStatementSetter;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Gravação assíncrona (write-behind) do histórico de consultas.
+ *
+ * Os eventos entram numa fila limitada e uma thread dedicada os grava em lotes
+ * JDBC, por tamanho ou intervalo, junto com as linhas agregadas de
+ * {@link EstatisticaService} e os termos de {@link SintomasHistoricoService}.
+ * Os ids saem da mesma sequência da entidade, reservados em blocos de
+ * {@link HistoricoConsulta#BLOCO_IDS}, para que os termos possam ser gravados
+ * no mesmo lote. Com a fila cheia o evento é descartado e
+ * contabilizado; no desligamento a fila é esvaziada antes de liberar o pool.
+ * Um lote que falha é dividido ao meio e regravado, até isolar os registros
+ * que o banco recusa: só eles são descartados.
+ */
+@Component
+public class RegistradorHistorico {
+
+    private static final Logger logger = LoggerFactory.getLogger(RegistradorHistorico.class);
+
+    private static final String SQL_INSERT =
+            "INSERT INTO historico_consultas (id, sintomas_informados, cpf_paciente, nome_paciente, sugestao_id, " +
+            "ip_origem, user_agent, data_consulta, tempo_resposta_ms) VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?)";
+
+    /** Teto de cada espera na fila, para o desligamento não aguardar um intervalo longo inteiro. */
+    private static final long ESPERA_MAXIMA_NANOS = TimeUnit.MILLISECONDS.toNanos(100);
+
+    /** Com a fila cheia, no máximo um aviso de descarte no log a cada intervalo; o contador tem o resto. */
+    private static final long INTERVALO_AVISO_DESCARTE_NANOS = TimeUnit.SECONDS.toNanos(10);
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Autowired
+    private EstatisticaService estatisticaService;
+
+    @Autowired
+    private SintomasHistoricoService sintomasHistoricoService;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Value("${media.historico.fila.capacidade:10000}")
+    private int capacidadeFila;
+
+    @Value("${media.historico.lote.tamanho:100}")
+    private int tamanhoLote;
+
+    @Value("${media.historico.lote.intervalo:500ms}")
+    private Duration intervaloLote;
+
+    @Value("${media.historico.lote.timeout:5s}")
+    private Duration timeoutLote;
+
+    @Value("${media.historico.desligamento.timeout:10s}")
+    private Duration timeoutDesligamento;
+
+    private BlockingQueue<EventoHistorico> fila;
+    private TransactionTemplate transactionTemplate;
+    private Thread worker;
+    private volatile boolean ativo;
+    /**
+     * Quem enfileira segura a leitura entre conferir {@link #ativo} e o offer;
+     * o desligamento troca o sinal com a escrita. Assim nenhum evento entra na
+     * fila depois que a thread de gravação faz a drenagem final.
+     */
+    private final ReadWriteLock portao = new ReentrantReadWriteLock();
+
+    private String sqlProximoBloco;
+    /** Próximo id livre e fim (exclusivo) do bloco reservado; usados só pela thread de gravação. */
+    private long proximoId;
+    private long limiteId;
+
+    private Counter enfileirados;
+    private Counter descartados;
+    private Counter gravados;
+    private Counter falhas;
+
+    private final AtomicLong ultimoAvisoDescarte = new AtomicLong(System.nanoTime() - INTERVALO_AVISO_DESCARTE_NANOS);
+    private final AtomicLong descartesSemAviso = new AtomicLong();
+
+    @PostConstruct
+    public void iniciar() {
+        fila = new ArrayBlockingQueue<>(capacidadeFila);
+        transactionTemplate = new TransactionTemplate(transactionManager);
+        transactionTemplate.setTimeout((int) Math.max(1, timeoutLote.toSeconds()));
+        sqlProximoBloco = entityManagerFactory.unwrap(SessionFactoryImplementor.class).getJdbcServices()
+                .getDialect().getSequenceSupport().getSequenceNextValString("historico_consultas_seq");
+
+        enfileirados = meterRegistry.counter("historico.eventos", "resultado", "enfileirado");
+        descartados = meterRegistry.counter("historico.eventos", "resultado", "descartado");
+        gravados = meterRegistry.counter("historico.eventos", "resultado", "gravado");
+        falhas = meterRegistry.counter("historico.eventos", "resultado", "falha");
+        meterRegistry.gauge("historico.fila.tamanho", fila, BlockingQueue::size);
+
+        ativo = true;
+        worker = new Thread(this::executar, "historico-writer");
+        worker.setDaemon(true);
+        worker.start();
+
+        logger.info("Registrador de histórico iniciado: capacidade={}, lote={}, intervalo={}, timeout do lote={}",
+                capacidadeFila, tamanhoLote, intervaloLote, timeoutLote);
+    }
+
+    public boolean registrar(EventoHistorico evento) {
+        return registrarTodos(List.of(evento)) == 1;
+    }
+
+    private void avisarDescarte(int quantidade) {
+        descartesSemAviso.addAndGet(quantidade);
+        long agora = System.nanoTime();
+        long ultimo = ultimoAvisoDescarte.get();
+        if (agora - ultimo >= INTERVALO_AVISO_DESCARTE_NANOS && ultimoAvisoDescarte.compareAndSet(ultimo, agora)) {
+            logger.warn("Fila de histórico cheia ou encerrada: {} eventos descartados desde o último aviso",
+                    descartesSemAviso.getAndSet(0));
+        }
+    }
+
+    /**
+     * Enfileira os eventos de uma vez, sob uma única aquisição do portão, e
+     * contabiliza aceitos e descartados uma vez só. A fila não tem inserção
+     * em bloco: com ela quase cheia só os primeiros entram, e a thread de
+     * gravação pode dividi-los entre lotes JDBC diferentes.
+     */
+    public int registrarTodos(List<EventoHistorico> eventos) {
+        if (eventos.isEmpty()) {
+            return 0;
+        }
+        int aceitos = 0;
+        portao.readLock().lock();
+        try {
+            if (ativo) {
+                for (EventoHistorico evento : eventos) {
+                    if (!fila.offer(evento)) {
+                        break;
+                    }
+                    aceitos++;
+                }
+            }
+        } finally {
+            portao.readLock().unlock();
+        }
+        if (aceitos > 0) {
+            enfileirados.increment(aceitos);
+        }
+        int descartadosNoLote = eventos.size() - aceitos;
+        if (descartadosNoLote > 0) {
+            descartados.increment(descartadosNoLote);
+            avisarDescarte(descartadosNoLote);
+        }
+        return aceitos;
+    }
+
+    @PreDestroy
+    public void encerrar() throws InterruptedException {
+        logger.info("Encerrando registrador de histórico, {} eventos pendentes", fila.size());
+        portao.writeLock().lock();
+        try {
+            ativo = false;
+        } finally {
+            portao.writeLock().unlock();
+        }
+        worker.join(timeoutDesligamento.toMillis());
+        if (worker.isAlive()) {
+            logger.error("Registrador de histórico não terminou em {}, {} eventos perdidos",
+                    timeoutDesligamento, fila.size());
+        }
+    }
+
+    private void executar() {
+        List<EventoHistorico> lote = new ArrayList<>(tamanhoLote);
+        while (ativo) {
+            try {
+                coletarLote(lote);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                break;
+            }
+            gravar(lote);
+        }
+
+        fila.drainTo(lote);
+        while (!lote.isEmpty()) {
+            List<EventoHistorico> parte = new ArrayList<>(lote.subList(0, Math.min(tamanhoLote, lote.size())));
+            lote.subList(0, parte.size()).clear();
+            gravar(parte);
+        }
+        logger.info("Registrador de histórico encerrado");
+    }
+
+    private void coletarLote(List<EventoHistorico> lote) throws InterruptedException {
+        EventoHistorico primeiro = fila.poll(Math.min(intervaloLote.toNanos(), ESPERA_MAXIMA_NANOS),
+                TimeUnit.NANOSECONDS);
+        if (primeiro == null) {
+            return;
+        }
+        lote.add(primeiro);
+
+        long limite = System.nanoTime() + intervaloLote.toNanos();
+        while (lote.size() < tamanhoLote && ativo) {
+            fila.drainTo(lote, tamanhoLote - lote.size());
+            long restante = limite - System.nanoTime();
+            if (lote.size() >= tamanhoLote || restante <= 0) {
+                break;
+            }
+            EventoHistorico proximo = fila.poll(Math.min(restante, ESPERA_MAXIMA_NANOS), TimeUnit.NANOSECONDS);
+            if (proximo != null) {
+                lote.add(proximo);
+            }
+        }
+    }
+
+    private void gravar(List<EventoHistorico> lote) {
+        if (lote.isEmpty()) {
+            return;
+        }
+        long inicio = System.currentTimeMillis();
+        try {
+            long[] ids = new long[lote.size()];
+            for (int i = 0; i < ids.length; i++) {
+                ids[i] = alocarId();
+            }
+            gravarOuDividir(lote, ids);
+            logger.debug("Lote de {} registros de histórico processado em {} ms",
+                    lote.size(), System.currentTimeMillis() - inicio);
+        } catch (Exception e) {
+            falhas.increment(lote.size());
+            logger.error("Erro ao gravar lote de {} registros de histórico: {}", lote.size(), e.getMessage(), e);
+        } finally {
+            lote.clear();
+        }
+    }
+
+    /**
+     * Grava o lote numa transação; se ela falhar, regrava cada metade em
+     * separado. Os ids do lote desfeito não foram usados e são reaproveitados.
+     */
+    private void gravarOuDividir(List<EventoHistorico> lote, long[] ids) {
+        try {
+            gravarEmTransacao(lote, ids);
+            gravados.increment(lote.size());
+        } catch (Exception e) {
+            if (lote.size() == 1) {
+                falhas.increment();
+                logger.error("Registro de histórico descartado pelo banco: {} - {}", lote.get(0), e.getMessage());
+                return;
+            }
+            logger.warn("Lote de {} registros de histórico falhou, regravando em partes: {}",
+                    lote.size(), e.getMessage());
+            int meio = lote.size() / 2;
+            gravarOuDividir(lote.subList(0, meio), Arrays.copyOfRange(ids, 0, meio));
+            gravarOuDividir(lote.subList(meio, lote.size()), Arrays.copyOfRange(ids, meio, ids.length));
+        }
+    }
+
+    private void gravarEmTransacao(List<EventoHistorico> lote, long[] ids) {
+        estatisticaService.executarSincronizado(() -> transactionTemplate.executeWithoutResult(status -> {
+            jdbcTemplate.batchUpdate(SQL_INSERT, new BatchPreparedStatementSetter() {
+                @Override
+                public void setValues(PreparedStatement ps, int i) throws SQLException {
+                    EventoHistorico evento = lote.get(i);
+                    ps.setLong(1, ids[i]);
+                    ps.setString(2, limitar(evento.getSintomasInformados(), 1000));
+                    ps.setString(3, evento.getCpfPaciente());
+                    ps.setString(4, limitar(evento.getNomePaciente(), 200));
+                    ps.setLong(5, evento.getSugestaoId());
+                    ps.setString(6, limitar(evento.getIpOrigem(), 45));
+                    ps.setString(7, limitar(evento.getUserAgent(), 500));
+                    ps.setTimestamp(8, Timestamp.valueOf(evento.getDataConsulta()));
+                    ps.setObject(9, evento.getTempoRespostaMs());
+                }
+
+                @Override
+                public int getBatchSize() {
+                    return ids.length;
+                }
+            });
+            sintomasHistoricoService.gravar(lote, ids);
+            estatisticaService.acumular(lote);
+        }));
+    }
+
+    /**
+     * Mesma regra do otimizador pooled-lo do Hibernate: o valor lido da
+     * sequência é o primeiro id de um bloco de {@link HistoricoConsulta#BLOCO_IDS}.
+     */
+    private long alocarId() {
+        if (proximoId >= limiteId) {
+            proximoId = jdbcTemplate.queryForObject(sqlProximoBloco, Long.class);
+            limiteId = proximoId + HistoricoConsulta.BLOCO_IDS;
+        }
+        return proximoId++;
+    }
+
+    /** As colunas de texto no Oracle contam bytes, não caracteres. */
+    private String limitar(String valor, int tamanho) {
+        return SintomasHistoricoService.limitarUtf8(valor, tamanho);
+    }
+}
@@ -0,0 +1,279 @@
+package com.project.media.service;
+
+import com.project.media.dto.FrequenciaSintomaDto;
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.Timestamp;
+import java.sql.Types;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Mantém {@code historico_sintomas}, uma linha por (consulta, termo), para que
+ * filtros e contagens por sintoma usem índice em vez de LIKE sobre
+ * {@code sintomas_informados}.
+ *
+ * As consultas novas ganham suas linhas no mesmo lote que grava o histórico;
+ * as anteriores são preenchidas na subida a partir do texto gravado.
+ *
+ * O sintoma de cada termo sai de um mapa em memória dos nomes do catálogo,
+ * refeito quando a versão do catálogo muda; {@code sintomas.nome} não tem
+ * índice em {@code LOWER(nome)}, e uma subconsulta por linha varreria a
+ * tabela a cada termo gravado.
+ */
+@Service
+public class SintomasHistoricoService {
+
+    private static final Logger logger = LoggerFactory.getLogger(SintomasHistoricoService.class);
+
+    static final int TAMANHO_TERMO = 100;
+
+    /** Prefixo do marco de cada tabela: o maior id do histórico já examinado pelo preenchimento. */
+    static final String MARCO_BACKFILL = "historico.sintomas.backfill.";
+
+    private static final String SQL_INSERT =
+            "INSERT INTO historico_sintomas (historico_id, termo, sintoma_id, data_consulta) VALUES (?, ?, ?, ?)";
+
+    private static final int[] TIPOS_INSERT = {Types.BIGINT, Types.VARCHAR, Types.BIGINT, Types.TIMESTAMP};
+
+    private static final String SQL_PENDENTES =
+            "SELECT h.id, h.sintomas_informados, h.data_consulta FROM %s h WHERE h.id > ? AND h.id <= ? " +
+            "AND NOT EXISTS (SELECT 1 FROM historico_sintomas hs WHERE hs.historico_id = h.id) " +
+            "ORDER BY h.id FETCH FIRST %d ROWS ONLY";
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private CatalogoVersao catalogoVersao;
+
+    @Autowired
+    private MarcosProcessamento marcos;
+
+    @Value("${media.historico.sintomas.backfill-inicial:true}")
+    private boolean backfillInicial;
+
+    @Value("${media.historico.sintomas.backfill-lote:1000}")
+    private int tamanhoLote;
+
+    private TransactionTemplate transactionTemplate;
+
+    private volatile SintomasPorNome sintomasPorNome;
+
+    @PostConstruct
+    public void iniciar() {
+        transactionTemplate = new TransactionTemplate(transactionManager);
+    }
+
+    /**
+     * Termos normalizados como na busca de sugestões, sem repetição e na ordem
+     * informada. Cada termo é cortado em {@link #TAMANHO_TERMO} bytes UTF-8:
+     * a coluna no Oracle é {@code VARCHAR2(100)} em bytes, e um termo acentuado
+     * cortado por caracteres passaria do limite e desfaria o lote inteiro.
+     */
+    public static List<String> termos(List<String> sintomas) {
+        Set<String> termos = new LinkedHashSet<>();
+        for (String sintoma : SugestaoService.normalizarSintomas(sintomas)) {
+            termos.add(limitarUtf8(sintoma, TAMANHO_TERMO));
+        }
+        return new ArrayList<>(termos);
+    }
+
+    /**
+     * Maior prefixo de {@code valor} que cabe em {@code maximoBytes} bytes
+     * UTF-8, sem separar um par substituto.
+     */
+    static String limitarUtf8(String valor, int maximoBytes) {
+        if (valor == null) {
+            return null;
+        }
+        int bytes = 0;
+        for (int i = 0; i < valor.length(); ) {
+            int codigo = valor.codePointAt(i);
+            int tamanho = codigo < 0x80 ? 1 : codigo < 0x800 ? 2 : codigo < 0x10000 ? 3 : 4;
+            if (bytes + tamanho > maximoBytes) {
+                return valor.substring(0, i);
+            }
+            bytes += tamanho;
+            i += Character.charCount(codigo);
+        }
+        return valor;
+    }
+
+    /**
+     * Grava os termos de cada evento com o id da consulta na mesma posição de
+     * {@code ids}. Deve rodar na transação que insere o histórico.
+     */
+    public void gravar(List<EventoHistorico> lote, long[] ids) {
+        Map<String, Long> sintomas = sintomasPorNome();
+        List<Object[]> linhas = new ArrayList<>();
+        for (int i = 0; i < lote.size(); i++) {
+            EventoHistorico evento = lote.get(i);
+            adicionarLinhas(linhas, sintomas, ids[i], termos(evento.getSintomas()),
+                    Timestamp.valueOf(evento.getDataConsulta()));
+        }
+        if (!linhas.isEmpty()) {
+            jdbcTemplate.batchUpdate(SQL_INSERT, linhas, TIPOS_INSERT);
+        }
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void reconstruirSePendente() {
+        if (!backfillInicial) {
+            return;
+        }
+        Thread thread = new Thread(() -> {
+            try {
+                reconstruir();
+            } catch (Exception e) {
+                logger.error("Erro no preenchimento inicial dos sintomas do histórico: {}", e.getMessage(), e);
+            }
+        }, "historico-sintomas-backfill");
+        thread.setDaemon(true);
+        thread.start();
+    }
+
+    /**
+     * Preenche os termos das consultas que ainda não têm nenhum, na tabela
+     * recente e no arquivo, lendo {@code sintomas_informados}.
+     *
+     * Cada tabela tem um marco com o maior id já examinado, gravado na mesma
+     * transação de cada lote: consultas sem termo nenhum não voltam a ser
+     * lidas, e a subida seguinte só olha os ids acima do marco, que o gravador
+     * em lote já preencheu.
+     */
+    public long reconstruir() {
+        long inicio = System.currentTimeMillis();
+        long total = 0;
+        for (String tabela : List.of("historico_consultas", "historico_consultas_arquivo")) {
+            String marco = MARCO_BACKFILL + tabela;
+            Long lido = marcos.ler(marco);
+            long ultimoId = lido != null ? lido : 0;
+            Long maiorId = jdbcTemplate.queryForObject("SELECT MAX(id) FROM " + tabela, Long.class);
+            if (maiorId == null || maiorId <= ultimoId) {
+                continue;
+            }
+
+            while (true) {
+                List<Object[]> pendentes = jdbcTemplate.query(String.format(SQL_PENDENTES, tabela, tamanhoLote),
+                        (rs, i) -> new Object[] {rs.getLong(1), rs.getString(2), rs.getTimestamp(3)},
+                        ultimoId, maiorId);
+                if (pendentes.isEmpty()) {
+                    break;
+                }
+                Map<String, Long> sintomas = sintomasPorNome();
+                List<Object[]> linhas = new ArrayList<>();
+                for (Object[] consulta : pendentes) {
+                    String informados = (String) consulta[1];
+                    List<String> termosInformados = informados != null
+                            ? Arrays.asList(informados.split(",")) : List.of();
+                    adicionarLinhas(linhas, sintomas, (Long) consulta[0], termos(termosInformados),
+                            (Timestamp) consulta[2]);
+                }
+                long ateId = (Long) pendentes.get(pendentes.size() - 1)[0];
+                transactionTemplate.executeWithoutResult(status -> {
+                    if (!linhas.isEmpty()) {
+                        jdbcTemplate.batchUpdate(SQL_INSERT, linhas, TIPOS_INSERT);
+                    }
+                    marcos.gravar(marco, ateId);
+                });
+                ultimoId = ateId;
+                total += pendentes.size();
+            }
+            marcos.gravar(marco, maiorId);
+        }
+        if (total > 0) {
+            logger.info("Sintomas do histórico preenchidos para {} consultas em {} ms",
+                    total, System.currentTimeMillis() - inicio);
+        }
+        return total;
+    }
+
+    /**
+     * Consultas por termo no período, das mais frequentes para as menos. Com
+     * {@code termo} informado, conta só esse termo.
+     */
+    public List<FrequenciaSintomaDto> buscarFrequencias(LocalDateTime dataInicio, LocalDateTime dataFim,
+                                                        String termo, int limite) {
+        List<Object> parametros = new ArrayList<>();
+        parametros.add(Timestamp.valueOf(dataInicio));
+        parametros.add(Timestamp.valueOf(dataFim));
+        String filtroTermo = "";
+        if (termo != null) {
+            filtroTermo = "AND hs.termo = ? ";
+            parametros.add(termo);
+        }
+
+        return jdbcTemplate.query(
+                "SELECT hs.termo, MAX(hs.sintoma_id) sintoma_id, COUNT(*) total FROM historico_sintomas hs " +
+                "WHERE hs.data_consulta >= ? AND hs.data_consulta <= ? " + filtroTermo +
+                "GROUP BY hs.termo ORDER BY total DESC, hs.termo FETCH FIRST " + limite + " ROWS ONLY",
+                (rs, i) -> {
+                    FrequenciaSintomaDto dto = new FrequenciaSintomaDto();
+                    dto.setTermo(rs.getString("termo"));
+                    long sintomaId = rs.getLong("sintoma_id");
+                    dto.setSintomaId(rs.wasNull() ? null : sintomaId);
+                    dto.setTotalConsultas(rs.getLong("total"));
+                    return dto;
+                },
+                parametros.toArray());
+    }
+
+    private void adicionarLinhas(List<Object[]> linhas, Map<String, Long> sintomas, long historicoId,
+                                 List<String> termos, Timestamp dataConsulta) {
+        for (String termo : termos) {
+            linhas.add(new Object[] {historicoId, termo, sintomas.get(termo), dataConsulta});
+        }
+    }
+
+    /**
+     * Menor id do catálogo para cada nome em minúsculas, inclusive de sintomas
+     * inativos. A versão é lida antes da carga: uma alteração durante a
+     * leitura faz o próximo uso carregar de novo.
+     */
+    private Map<String, Long> sintomasPorNome() {
+        long versao = catalogoVersao.atual();
+        SintomasPorNome atual = sintomasPorNome;
+        if (atual == null || atual.versao != versao) {
+            Map<String, Long> ids = new HashMap<>();
+            jdbcTemplate.query("SELECT id, nome FROM sintomas", rs -> {
+                String nome = rs.getString(2);
+                if (nome != null) {
+                    ids.merge(nome.toLowerCase(), rs.getLong(1), Math::min);
+                }
+            });
+            atual = new SintomasPorNome(versao, ids);
+            sintomasPorNome = atual;
+        }
+        return atual.ids;
+    }
+
+    private static final class SintomasPorNome {
+        private final long versao;
+        private final Map<String, Long> ids;
+
+        SintomasPorNome(long versao, Map<String, Long> ids) {
+            this.versao = versao;
+            this.ids = ids;
+        }
+    }
+}
@@ -1,27 +1,47 @@
 package com.project.media.service;
 
+import com.project.media.config.OrigemRequisicao;
 import com.project.media.dto.HistoricoConsultaDto;
+import com.project.media.dto.HistoricoCursorResponseDto;
+import com.project.media.dto.HistoricoSliceResponseDto;
+import com.project.media.dto.SugestaoCorrespondenciaProjecao;
+import com.project.media.dto.SugestaoLoteResponseDto;
 import com.project.media.dto.SugestaoRequestDto;
 import com.project.media.dto.SugestaoResponseDto;
-import com.project.media.entity.HistoricoConsulta;
-import com.project.media.entity.Sintoma;
-import com.project.media.entity.Sugestao;
 import com.project.media.repository.HistoricoConsultaRepository;
-import com.project.media.repository.SintomaRepository;
 import com.project.media.repository.SugestaoRepository;
+import jakarta.annotation.PostConstruct;
 import jakarta.servlet.http.HttpServletRequest;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.security.core.Authentication;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 
+import java.nio.charset.StandardCharsets;
 import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.concurrent.Callable;
+import java.util.regex.Pattern;
 import java.util.stream.Collectors;
 
 @Service
@@ -29,14 +49,49 @@ public class SugestaoService {
 
     private static final Logger logger = LoggerFactory.getLogger(SugestaoService.class);
 
+    private static final int TOP_SUGESTOES = 5;
+
+    private static final String MOTOR_CONSULTA = "consulta";
+
+    private static final String SEPARADOR_CURSOR = "|";
+
     @Autowired
     private SugestaoRepository sugestaoRepository;
 
     @Autowired
-    private SintomaRepository sintomaRepository;
+    private HistoricoConsultaRepository historicoRepository;
 
     @Autowired
-    private HistoricoConsultaRepository historicoRepository;
+    private IndiceSugestoes indiceSugestoes;
+
+    @Autowired
+    private CacheSugestoes cacheSugestoes;
+
+    @Autowired
+    private RegistradorHistorico registradorHistorico;
+
+    @Autowired
+    private AvaliacaoLote avaliacaoLote;
+
+    @Autowired
+    private ContagemAproximadaHistorico contagemAproximada;
+
+    @Autowired
+    private Validator validator;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Value("${media.sugestoes.motor-ranking:indice}")
+    private String motorRanking;
+
+    private TransactionTemplate transacaoPrincipal;
+
+    @PostConstruct
+    public void iniciar() {
+        transacaoPrincipal = new TransactionTemplate(transactionManager);
+        transacaoPrincipal.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+    }
 
     @Transactional(timeout = 5, readOnly = true)
     public List<SugestaoResponseDto> buscarSugestoes(SugestaoRequestDto request, HttpServletRequest httpRequest) {
@@ -45,51 +100,19 @@ public class SugestaoService {
         try {
             logger.info("Iniciando busca de sugestões para sintomas: {}", request.getSintomas());
 
-            List<String> sintomasNormalizados = request.getSintomas().stream()
-                    .map(s -> s.toLowerCase().trim())
-                    .filter(s -> !s.isEmpty())
-                    .collect(Collectors.toList());
+            List<String> sintomasNormalizados = normalizarSintomas(request.getSintomas());
 
             if (sintomasNormalizados.isEmpty()) {
                 throw new IllegalArgumentException("Lista de sintomas não pode estar vazia");
             }
 
-            List<Sintoma> sintomasEncontrados = sintomaRepository.findByNomesContaining(sintomasNormalizados);
-            logger.info("Encontrados {} sintomas no banco de dados", sintomasEncontrados.size());
+            int topK = request.getTopK() != null ? request.getTopK() : TOP_SUGESTOES;
 
-            List<SugestaoResponseDto> sugestoes;
-            
-            if (sintomasEncontrados.isEmpty()) {
-                sugestoes = criarSugestaoGenerica(request.getSintomas());
-            } else {
-                List<String> nomesSintomasEncontrados = sintomasEncontrados.stream()
-                        .map(s -> s.getNome().toLowerCase())
-                        .collect(Collectors.toList());
-
-                List<Object[]> resultados = sugestaoRepository.findMelhoresSugestoesPorSintomas(nomesSintomasEncontrados);
-                
-                sugestoes = resultados.stream()
-                        .map(resultado -> {
-                            Sugestao sugestao = (Sugestao) resultado[0];
-                            
-                            List<String> sintomasCorrespondentes = sugestao.getSintomas().stream()
-                                    .filter(s -> nomesSintomasEncontrados.contains(s.getNome().toLowerCase()))
-                                    .map(Sintoma::getNome)
-                                    .collect(Collectors.toList());
-
-                            return new SugestaoResponseDto(
-                                    sugestao.getId(),
-                                    sugestao.getTitulo(),
-                                    sugestao.getDescricao(),
-                                    sugestao.getTipoAtendimento(),
-                                    sugestao.getPrioridade(),
-                                    sugestao.getRecomendacoes(),
-                                    sintomasCorrespondentes
-                            );
-                        })
-                        .limit(5)
-                        .collect(Collectors.toList());
-            }
+            IndiceSugestoes.Ranking ranking = cacheSugestoes.obter(sintomasNormalizados, topK,
+                    () -> ranquear(sintomasNormalizados, topK));
+            logger.info("Encontrados {} sintomas no catálogo", ranking.getSintomasEncontrados());
+
+            List<SugestaoResponseDto> sugestoes = montarSugestoes(ranking, request.getSintomas());
 
             if (!sugestoes.isEmpty()) {
                 registrarHistorico(request.getSintomas(), sugestoes.get(0), httpRequest, startTime);
@@ -104,6 +127,151 @@ public class SugestaoService {
         }
     }
 
+    public List<SugestaoLoteResponseDto> buscarSugestoesEmLote(List<SugestaoRequestDto> requests,
+                                                             HttpServletRequest httpRequest) {
+        long startTime = System.currentTimeMillis();
+        logger.info("Iniciando busca de sugestões em lote: {} requisições", requests.size());
+
+        String[] erros = new String[requests.size()];
+        Map<String, ItemLote> itensPorChave = new HashMap<>();
+        List<ItemLote> itens = new ArrayList<>(requests.size());
+
+        for (int i = 0; i < requests.size(); i++) {
+            SugestaoRequestDto request = requests.get(i);
+            erros[i] = validarItemLote(request);
+            if (erros[i] != null) {
+                itens.add(null);
+                continue;
+            }
+            List<String> sintomasNormalizados = normalizarSintomas(request.getSintomas());
+            int topK = request.getTopK() != null ? request.getTopK() : TOP_SUGESTOES;
+            String chave = topK + "#" + String.join("\u0000", new TreeSet<>(sintomasNormalizados));
+            itens.add(itensPorChave.computeIfAbsent(chave, k -> new ItemLote(sintomasNormalizados, topK)));
+        }
+
+        List<ItemLote> distintos = new ArrayList<>(itensPorChave.values());
+        List<Callable<IndiceSugestoes.Ranking>> tarefas = new ArrayList<>(distintos.size());
+        for (ItemLote item : distintos) {
+            tarefas.add(() -> {
+                try {
+                    return cacheSugestoes.obter(item.sintomasNormalizados, item.topK,
+                            () -> ranquear(item.sintomasNormalizados, item.topK));
+                } catch (Exception e) {
+                    logger.error("Erro ao ranquear sintomas {} no lote: {}",
+                            item.sintomasNormalizados, e.getMessage(), e);
+                    throw e;
+                }
+            });
+        }
+        List<IndiceSugestoes.Ranking> rankings = avaliacaoLote.avaliar(tarefas);
+        for (int i = 0; i < distintos.size(); i++) {
+            distintos.get(i).ranking = rankings.get(i);
+        }
+        logger.info("Lote resolvido com {} conjuntos distintos de sintomas", itensPorChave.size());
+
+        IdentificacaoPaciente paciente = identificarPaciente(httpRequest);
+        List<SugestaoLoteResponseDto> resultados = new ArrayList<>(requests.size());
+        List<EventoHistorico> eventos = new ArrayList<>();
+
+        for (int i = 0; i < requests.size(); i++) {
+            ItemLote item = itens.get(i);
+            if (item == null) {
+                resultados.add(SugestaoLoteResponseDto.falha(i, erros[i]));
+            } else if (item.ranking == null) {
+                resultados.add(SugestaoLoteResponseDto.falha(i, "Erro interno ao processar item"));
+            } else {
+                List<SugestaoResponseDto> sugestoes = montarSugestoes(item.ranking, requests.get(i).getSintomas());
+                resultados.add(SugestaoLoteResponseDto.sucesso(i, sugestoes));
+                if (!sugestoes.isEmpty()) {
+                    EventoHistorico evento = criarEventoHistorico(requests.get(i).getSintomas(), sugestoes.get(0),
+                            paciente, startTime);
+                    if (evento != null) {
+                        eventos.add(evento);
+                    }
+                }
+            }
+        }
+
+        int aceitos = registradorHistorico.registrarTodos(eventos);
+        logger.info("Lote concluído: {} itens, {} registros de histórico enfileirados", resultados.size(), aceitos);
+        return resultados;
+    }
+
+    private String validarItemLote(SugestaoRequestDto request) {
+        if (request == null) {
+            return "Requisição vazia";
+        }
+        Set<ConstraintViolation<SugestaoRequestDto>> violacoes = validator.validate(request);
+        if (!violacoes.isEmpty()) {
+            return violacoes.stream()
+                    .map(ConstraintViolation::getMessage)
+                    .sorted()
+                    .collect(Collectors.joining("; "));
+        }
+        if (normalizarSintomas(request.getSintomas()).isEmpty()) {
+            return "Lista de sintomas não pode estar vazia";
+        }
+        return null;
+    }
+
+    static List<String> normalizarSintomas(List<String> sintomas) {
+        return sintomas.stream()
+                .filter(Objects::nonNull)
+                .map(s -> s.toLowerCase().trim())
+                .filter(s -> !s.isEmpty())
+                .collect(Collectors.toList());
+    }
+
+    private List<SugestaoResponseDto> montarSugestoes(IndiceSugestoes.Ranking ranking, List<String> sintomas) {
+        if (ranking.getSintomasEncontrados() == 0) {
+            return criarSugestaoGenerica(sintomas);
+        }
+        return ranking.getSugestoes().stream()
+                .map(SugestaoResponseDto::new)
+                .collect(Collectors.toList());
+    }
+
+    private IndiceSugestoes.Ranking ranquear(List<String> sintomasNormalizados, int topK) {
+        if (MOTOR_CONSULTA.equalsIgnoreCase(motorRanking)) {
+            // o resultado fica no cache sob a versão atual do catálogo: lê do principal, nunca da réplica
+            return transacaoPrincipal.execute(status -> ranquearPorConsulta(sintomasNormalizados, topK));
+        }
+        return indiceSugestoes.ranquear(sintomasNormalizados, topK);
+    }
+
+    private IndiceSugestoes.Ranking ranquearPorConsulta(List<String> sintomasNormalizados, int topK) {
+        List<SugestaoCorrespondenciaProjecao> linhas = sugestaoRepository.findMelhoresSugestoesPorSintomas(
+                sintomasNormalizados, topK);
+        int sintomasEncontrados = linhas.isEmpty() ? 0 : linhas.get(0).getSintomasEncontrados();
+
+        // linhas ordenadas por posição: uma por sintoma correspondente, agrupadas aqui por sugestão
+        Map<Long, SugestaoCorrespondenciaProjecao> porSugestao = new LinkedHashMap<>();
+        Map<Long, List<String>> sintomasPorSugestao = new HashMap<>();
+        for (SugestaoCorrespondenciaProjecao linha : linhas) {
+            if (linha.getId() == null) {
+                // sintoma do catálogo sem sugestão ativa: lista vazia, não a sugestão genérica
+                continue;
+            }
+            porSugestao.putIfAbsent(linha.getId(), linha);
+            sintomasPorSugestao.computeIfAbsent(linha.getId(), id -> new ArrayList<>()).add(linha.getSintoma());
+        }
+        logger.info("Consulta de ranking retornou {} sugestões", porSugestao.size());
+
+        List<SugestaoResponseDto> sugestoes = porSugestao.values().stream()
+                .map(projecao -> new SugestaoResponseDto(
+                        projecao.getId(),
+                        projecao.getTitulo(),
+                        projecao.getDescricao(),
+                        projecao.getTipoAtendimento(),
+                        projecao.getPrioridade(),
+                        projecao.getRecomendacoes(),
+                        sintomasPorSugestao.get(projecao.getId())
+                ))
+                .collect(Collectors.toList());
+
+        return new IndiceSugestoes.Ranking(sintomasEncontrados, sugestoes);
+    }
+
     private List<SugestaoResponseDto> criarSugestaoGenerica(List<String> sintomas) {
         logger.info("Criando sugestão genérica para sintomas não encontrados: {}", sintomas);
         
@@ -125,62 +293,56 @@ public class SugestaoService {
         return List.of(sugestaoGenerica);
     }
 
-    @Transactional(timeout = 2)
     private void registrarHistorico(List<String> sintomas, SugestaoResponseDto sugestaoDto, 
                                    HttpServletRequest httpRequest, long startTime) {
         try {
-            String sintomasString = String.join(", ", sintomas);
-            long tempoResposta = System.currentTimeMillis() - startTime;
-
-            HistoricoConsulta historico = new HistoricoConsulta();
-            historico.setSintomasInformados(sintomasString);
-            historico.setTempoRespostaMs(tempoResposta);
-            historico.setDataConsulta(LocalDateTime.now());
-
-            Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
-            if (authentication != null && authentication.getName() != null) {
-                String username = authentication.getName();
-                if (username.contains("|")) {
-                    String[] partes = username.split("\\|");
-                    if (partes.length == 2) {
-                        historico.setNomePaciente(partes[0]);
-                        historico.setCpfPaciente(partes[1]);
-                    }
-                } else {
-                    historico.setNomePaciente(username);
-                }
-            }
-
-            if (httpRequest != null) {
-                historico.setIpOrigem(obterIpOrigem(httpRequest));
-                historico.setUserAgent(httpRequest.getHeader("User-Agent"));
+            EventoHistorico evento = criarEventoHistorico(sintomas, sugestaoDto,
+                    identificarPaciente(httpRequest), startTime);
+            if (evento != null) {
+                registradorHistorico.registrar(evento);
             }
-
-            if (sugestaoDto.getId() != null && sugestaoDto.getId() > 0) {
-                sugestaoRepository.findById(sugestaoDto.getId())
-                        .ifPresent(historico::setSugestao);
-            }
-
-            historicoRepository.save(historico);
-            logger.info("Histórico registrado com sucesso. ID: {}, CPF: {}", historico.getId(), historico.getCpfPaciente());
-
         } catch (Exception e) {
             logger.error("Erro ao registrar histórico: {}", e.getMessage(), e);
         }
     }
 
-    private String obterIpOrigem(HttpServletRequest request) {
-        String xForwardedFor = request.getHeader("X-Forwarded-For");
-        if (xForwardedFor != null && !xForwardedFor.isEmpty()) {
-            return xForwardedFor.split(",")[0].trim();
+    private EventoHistorico criarEventoHistorico(List<String> sintomas, SugestaoResponseDto sugestaoDto,
+                                                 IdentificacaoPaciente paciente, long startTime) {
+        if (sugestaoDto.getId() == null || sugestaoDto.getId() <= 0) {
+            logger.debug("Sugestão genérica não é registrada no histórico");
+            return null;
         }
-        
-        String xRealIp = request.getHeader("X-Real-IP");
-        if (xRealIp != null && !xRealIp.isEmpty()) {
-            return xRealIp;
+
+        String sintomasString = String.join(", ", sintomas);
+        long tempoResposta = System.currentTimeMillis() - startTime;
+
+        return new EventoHistorico(sintomasString, sintomas, paciente.cpf, paciente.nome, sugestaoDto.getId(),
+                paciente.ipOrigem, paciente.userAgent, LocalDateTime.now(), tempoResposta,
+                sugestaoDto.getTipoAtendimento());
+    }
+
+    private IdentificacaoPaciente identificarPaciente(HttpServletRequest httpRequest) {
+        IdentificacaoPaciente paciente = new IdentificacaoPaciente();
+
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        if (authentication != null && authentication.getName() != null) {
+            String username = authentication.getName();
+            if (username.contains("|")) {
+                String[] partes = username.split("\\|");
+                if (partes.length == 2) {
+                    paciente.nome = partes[0];
+                    paciente.cpf = partes[1];
+                }
+            } else {
+                paciente.nome = username;
+            }
         }
-        
-        return request.getRemoteAddr();
+
+        if (httpRequest != null) {
+            paciente.ipOrigem = OrigemRequisicao.ip(httpRequest);
+            paciente.userAgent = httpRequest.getHeader("User-Agent");
+        }
+        return paciente;
     }
 
     @Transactional(timeout = 3, readOnly = true)
@@ -190,30 +352,94 @@ public class SugestaoService {
         logger.info("Buscando histórico com filtros - CPF: {}, Período: {} a {}", 
                    cpfPaciente, dataInicio, dataFim);
 
-        Page<HistoricoConsulta> historicos = historicoRepository.findComFiltros(
+        return historicoRepository.findDtoComFiltros(cpfPaciente, dataInicio, dataFim, pageable);
+    }
+
+    @Transactional(timeout = 3, readOnly = true)
+    public HistoricoSliceResponseDto buscarHistoricoSemContagem(String cpfPaciente,
+                                                               LocalDateTime dataInicio, LocalDateTime dataFim,
+                                                               Pageable pageable, boolean estimarTotal) {
+        logger.info("Buscando histórico sem contagem - CPF: {}, Período: {} a {}, estimativa: {}",
+                   cpfPaciente, dataInicio, dataFim, estimarTotal);
+
+        Slice<HistoricoConsultaDto> historico = historicoRepository.findDtoSliceComFiltros(
                 cpfPaciente, dataInicio, dataFim, pageable);
+        Long totalAproximado = estimarTotal
+                ? contagemAproximada.estimar(cpfPaciente, dataInicio, dataFim)
+                : null;
+
+        return new HistoricoSliceResponseDto(historico.getContent(), pageable.getPageNumber(),
+                historico.hasNext(), totalAproximado);
+    }
+
+    @Transactional(timeout = 3, readOnly = true)
+    public HistoricoCursorResponseDto buscarHistoricoPorCursor(String cpfPaciente,
+                                                              LocalDateTime dataInicio, LocalDateTime dataFim,
+                                                              String sintoma, String cursor, int tamanho) {
+        logger.info("Buscando histórico por cursor - CPF: {}, Período: {} a {}, sintoma: {}, cursor: {}",
+                   cpfPaciente, dataInicio, dataFim, sintoma, cursor != null);
+
+        String termo = null;
+        if (sintoma != null && !sintoma.isBlank()) {
+            termo = SintomasHistoricoService.termos(List.of(sintoma)).get(0);
+        }
 
-        return historicos.map(this::converterParaDto);
+        int limite = tamanho + 1;
+        List<HistoricoConsultaDto> conteudo;
+
+        if (cursor == null || cursor.isBlank()) {
+            conteudo = historicoRepository.findDtoKeyset(cpfPaciente, dataInicio, dataFim, termo, null, null, limite);
+        } else {
+            String[] posicao = decodificarCursor(cursor);
+            conteudo = historicoRepository.findDtoKeyset(cpfPaciente, dataInicio, dataFim, termo,
+                    LocalDateTime.parse(posicao[0]), Long.parseLong(posicao[1]), limite);
+        }
+
+        String proximoCursor = null;
+        if (conteudo.size() > tamanho) {
+            conteudo = conteudo.subList(0, tamanho);
+            HistoricoConsultaDto ultimo = conteudo.get(tamanho - 1);
+            proximoCursor = codificarCursor(ultimo.getDataConsulta(), ultimo.getId());
+        }
+
+        return new HistoricoCursorResponseDto(conteudo, proximoCursor);
     }
 
-    private HistoricoConsultaDto converterParaDto(HistoricoConsulta historico) {
-        HistoricoConsultaDto dto = new HistoricoConsultaDto();
-        dto.setId(historico.getId());
-        dto.setSintomasInformados(historico.getSintomasInformados());
-        dto.setCpfPaciente(historico.getCpfPaciente());
-        dto.setNomePaciente(historico.getNomePaciente());
-        dto.setIpOrigem(historico.getIpOrigem());
-        dto.setDataConsulta(historico.getDataConsulta());
-        dto.setTempoRespostaMs(historico.getTempoRespostaMs());
-        dto.setObservacoes(historico.getObservacoes());
+    private String codificarCursor(LocalDateTime dataConsulta, Long id) {
+        String posicao = dataConsulta + SEPARADOR_CURSOR + id;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(posicao.getBytes(StandardCharsets.UTF_8));
+    }
 
-        if (historico.getSugestao() != null) {
-            dto.setTituloSugestao(historico.getSugestao().getTitulo());
-            dto.setTipoAtendimento(historico.getSugestao().getTipoAtendimento());
-            dto.setPrioridade(historico.getSugestao().getPrioridade());
+    private String[] decodificarCursor(String cursor) {
+        try {
+            String posicao = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            String[] partes = posicao.split(Pattern.quote(SEPARADOR_CURSOR));
+            if (partes.length != 2) {
+                throw new IllegalArgumentException("Cursor inválido");
+            }
+            LocalDateTime.parse(partes[0]);
+            Long.parseLong(partes[1]);
+            return partes;
+        } catch (RuntimeException e) {
+            throw new IllegalArgumentException("Cursor inválido", e);
         }
+    }
 
-        return dto;
+    private static class ItemLote {
+        private final List<String> sintomasNormalizados;
+        private final int topK;
+        private IndiceSugestoes.Ranking ranking;
+
+        ItemLote(List<String> sintomasNormalizados, int topK) {
+            this.sintomasNormalizados = sintomasNormalizados;
+            this.topK = topK;
+        }
     }
 
+    private static class IdentificacaoPaciente {
+        private String nome;
+        private String cpf;
+        private String ipOrigem;
+        private String userAgent;
+    }
 }
@@ -0,0 +1,40 @@
+-- =====================================================================
+-- V001 - Índices de historico_consultas
+--
+-- Cobrem os filtros e a ordenação de /api/sugestoes/history:
+--   * CPF + período, ordenado por data         -> idx_historico_cpf_data
+--   * apenas período / paginação por cursor    -> idx_historico_data
+--   * consultas por sugestão ao longo do tempo -> idx_historico_sugestao_data
+--
+-- Executar depois do oracle-setup.sql. Os blocos ignoram o ORA-00955
+-- (objeto já existe), então o script pode ser reaplicado.
+-- =====================================================================
+
+BEGIN
+    EXECUTE IMMEDIATE 'CREATE INDEX idx_historico_cpf_data ON historico_consultas (cpf_paciente, data_consulta)';
+EXCEPTION
+    WHEN OTHERS THEN
+        IF SQLCODE != -955 THEN RAISE; END IF;
+END;
+/
+
+BEGIN
+    EXECUTE IMMEDIATE 'CREATE INDEX idx_historico_data ON historico_consultas (data_consulta)';
+EXCEPTION
+    WHEN OTHERS THEN
+        IF SQLCODE != -955 THEN RAISE; END IF;
+END;
+/
+
+BEGIN
+    EXECUTE IMMEDIATE 'CREATE INDEX idx_historico_sugestao_data ON historico_consultas (sugestao_id, data_consulta)';
+EXCEPTION
+    WHEN OTHERS THEN
+        IF SQLCODE != -955 THEN RAISE; END IF;
+END;
+/
+
+BEGIN
+    DBMS_STATS.GATHER_TABLE_STATS(ownname => USER, tabname => 'HISTORICO_CONSULTAS', cascade => TRUE);
+END;
+/
@@ -0,0 +1,30 @@
+-- =====================================================================
+-- V002 - Tabela agregada de estatísticas de consultas
+--
+-- Uma linha por (granularidade HORA/DIA, início do período, sugestão),
+-- mantida pelo gravador de histórico. Organizada por índice (IOT): as
+-- consultas de /api/sugestoes/stats leem apenas faixas da chave primária.
+--
+-- Na primeira inicialização com a tabela vazia a aplicação a preenche a
+-- partir de historico_consultas (media.estatisticas.backfill-inicial).
+-- =====================================================================
+
+BEGIN
+    EXECUTE IMMEDIATE q'[
+        CREATE TABLE estatisticas_consultas (
+            granularidade           VARCHAR2(4)  NOT NULL,
+            inicio_periodo          TIMESTAMP    NOT NULL,
+            sugestao_id             NUMBER(19)   NOT NULL,
+            tipo_atendimento        VARCHAR2(50),
+            total_consultas         NUMBER(19)   NOT NULL,
+            soma_tempo_resposta_ms  NUMBER(19)   NOT NULL,
+            consultas_com_tempo     NUMBER(19)   NOT NULL,
+            CONSTRAINT pk_estatisticas_consultas
+                PRIMARY KEY (granularidade, inicio_periodo, sugestao_id)
+        ) ORGANIZATION INDEX
+    ]';
+EXCEPTION
+    WHEN OTHERS THEN
+        IF SQLCODE != -955 THEN RAISE; END IF;
+END;
+/
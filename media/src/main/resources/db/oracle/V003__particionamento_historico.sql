@@ -0,0 +1,81 @@
+-- =====================================================================
+-- V003 - Particionamento mensal e arquivo de historico_consultas
+--
+-- historico_consultas passa a ser particionada por intervalo mensal de
+-- data_consulta. Filtros de período (a maior parte nos últimos 30 dias)
+-- leem só as partições do intervalo, e os índices de V001 passam a ser
+-- locais, um segmento por mês. A conversão é online (Oracle 12.2+ com a
+-- opção Partitioning) e é pulada se a tabela já estiver particionada.
+--
+-- historico_consultas_arquivo recebe os meses fechados quando o job de
+-- arquivamento está ligado (media.historico.arquivamento.habilitado). No
+-- Oracle o particionamento já isola os meses antigos, então o job vem
+-- desligado no perfil oracle; a tabela é criada mesmo assim porque as
+-- leituras que cruzam o limite do arquivo fazem UNION ALL com ela.
+-- =====================================================================
+
+DECLARE
+    v_particionada NUMBER;
+BEGIN
+    SELECT COUNT(*) INTO v_particionada FROM user_part_tables WHERE table_name = 'HISTORICO_CONSULTAS';
+    IF v_particionada = 0 THEN
+        EXECUTE IMMEDIATE q'[
+            ALTER TABLE historico_consultas MODIFY
+                PARTITION BY RANGE (data_consulta) INTERVAL (NUMTOYMINTERVAL(1, 'MONTH'))
+                (PARTITION p_historico_inicial VALUES LESS THAN (TIMESTAMP '2024-01-01 00:00:00'))
+                ONLINE
+                UPDATE INDEXES (
+                    idx_historico_cpf_data LOCAL,
+                    idx_historico_data LOCAL,
+                    idx_historico_sugestao_data LOCAL
+                )
+        ]';
+    END IF;
+END;
+/
+
+BEGIN
+    EXECUTE IMMEDIATE q'[
+        CREATE TABLE historico_consultas_arquivo (
+            id                   NUMBER(19)     NOT NULL,
+            sintomas_informados  VARCHAR2(1000) NOT NULL,
+            cpf_paciente         VARCHAR2(11),
+            nome_paciente        VARCHAR2(200),
+            sugestao_id          NUMBER(19)     NOT NULL,
+            ip_origem            VARCHAR2(45),
+            user_agent           VARCHAR2(500),
+            data_consulta        TIMESTAMP      NOT NULL,
+            tempo_resposta_ms    NUMBER(19),
+            observacoes          VARCHAR2(500),
+            CONSTRAINT pk_historico_consultas_arquivo PRIMARY KEY (id)
+        )
+        PARTITION BY RANGE (data_consulta) INTERVAL (NUMTOYMINTERVAL(1, 'MONTH'))
+        (PARTITION p_arquivo_inicial VALUES LESS THAN (TIMESTAMP '2024-01-01 00:00:00'))
+        COMPRESS
+    ]';
+EXCEPTION
+    WHEN OTHERS THEN
+        IF SQLCODE != -955 THEN RAISE; END IF;
+END;
+/
+
+BEGIN
+    EXECUTE IMMEDIATE 'CREATE INDEX idx_historico_arq_cpf_data ON historico_consultas_arquivo (cpf_paciente, data_consulta) LOCAL';
+EXCEPTION
+    WHEN OTHERS THEN
+        IF SQLCODE != -955 THEN RAISE; END IF;
+END;
+/
+
+BEGIN
+    EXECUTE IMMEDIATE 'CREATE INDEX idx_historico_arq_data ON historico_consultas_arquivo (data_consulta) LOCAL';
+EXCEPTION
+    WHEN OTHERS THEN
+        IF SQLCODE != -955 THEN RAISE; END IF;
+END;
+/
+
+BEGIN
+    DBMS_STATS.GATHER_TABLE_STATS(ownname => USER, tabname => 'HISTORICO_CONSULTAS', cascade => TRUE);
+END;
+/
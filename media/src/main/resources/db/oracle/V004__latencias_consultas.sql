@@ -0,0 +1,31 @@
+-- =====================================================================
+-- V004 - Histogramas de tempo de resposta
+--
+-- Uma linha por (granularidade HORA/DIA, início do período, sugestão,
+-- faixa de latência) com a quantidade de consultas e o maior tempo da
+-- faixa. As faixas são fixas (16 por potência de 2), então os percentis
+-- de /api/sugestoes/stats/latencia saem da soma das linhas do período.
+--
+-- Se estatisticas_consultas já estiver preenchida e esta tabela vazia, a
+-- aplicação reconstrói as duas a partir do histórico na inicialização.
+-- =====================================================================
+
+BEGIN
+    EXECUTE IMMEDIATE q'[
+        CREATE TABLE latencias_consultas (
+            granularidade     VARCHAR2(4)  NOT NULL,
+            inicio_periodo    TIMESTAMP    NOT NULL,
+            sugestao_id       NUMBER(19)   NOT NULL,
+            faixa             NUMBER(5)    NOT NULL,
+            tipo_atendimento  VARCHAR2(50),
+            quantidade        NUMBER(19)   NOT NULL,
+            maximo_ms         NUMBER(19)   NOT NULL,
+            CONSTRAINT pk_latencias_consultas
+                PRIMARY KEY (granularidade, inicio_periodo, sugestao_id, faixa)
+        ) ORGANIZATION INDEX COMPRESS 3
+    ]';
+EXCEPTION
+    WHEN OTHERS THEN
+        IF SQLCODE != -955 THEN RAISE; END IF;
+END;
+/
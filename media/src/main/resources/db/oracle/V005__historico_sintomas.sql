@@ -0,0 +1,78 @@
+-- =====================================================================
+-- V005 - Sintomas por consulta do histórico
+--
+-- historico_sintomas guarda um termo normalizado por consulta, com o
+-- sintoma do catálogo de mesmo nome quando existir e a data da consulta
+-- repetida, para que filtros e contagens por sintoma leiam só índices.
+-- O termo tem até 100 bytes: a aplicação corta em bytes UTF-8, então
+-- termos acentuados cabem sem depender da semântica de tamanho da base.
+-- Não há chave estrangeira: a consulta pode estar em historico_consultas
+-- ou em historico_consultas_arquivo. As consultas anteriores a este
+-- script são preenchidas pela aplicação na inicialização
+-- (media.historico.sintomas.backfill-inicial).
+--
+-- Os ids do histórico passam a vir de historico_consultas_seq, em blocos
+-- de 50 (o gravador precisa conhecer o id antes do INSERT em lote). A
+-- sequência começa depois do maior id existente e a identidade da coluna,
+-- se houver, é removida. Um trigger que preencha o id também precisa ser
+-- removido antes de subir esta versão.
+-- =====================================================================
+
+DECLARE
+    v_inicio NUMBER;
+BEGIN
+    SELECT GREATEST(
+               NVL((SELECT MAX(id) FROM historico_consultas), 0),
+               NVL((SELECT MAX(id) FROM historico_consultas_arquivo), 0)) + 1
+      INTO v_inicio
+      FROM dual;
+    EXECUTE IMMEDIATE 'CREATE SEQUENCE historico_consultas_seq START WITH ' || v_inicio ||
+                      ' INCREMENT BY 50 CACHE 20';
+EXCEPTION
+    WHEN OTHERS THEN
+        IF SQLCODE != -955 THEN RAISE; END IF;
+END;
+/
+
+DECLARE
+    v_identidade NUMBER;
+BEGIN
+    SELECT COUNT(*) INTO v_identidade FROM user_tab_identity_cols
+     WHERE table_name = 'HISTORICO_CONSULTAS' AND column_name = 'ID';
+    IF v_identidade > 0 THEN
+        EXECUTE IMMEDIATE 'ALTER TABLE historico_consultas MODIFY (id DROP IDENTITY)';
+    END IF;
+END;
+/
+
+BEGIN
+    EXECUTE IMMEDIATE q'[
+        CREATE TABLE historico_sintomas (
+            historico_id   NUMBER(19)     NOT NULL,
+            termo          VARCHAR2(100)  NOT NULL,
+            sintoma_id     NUMBER(19),
+            data_consulta  TIMESTAMP      NOT NULL,
+            CONSTRAINT pk_historico_sintomas PRIMARY KEY (historico_id, termo)
+        )
+    ]';
+EXCEPTION
+    WHEN OTHERS THEN
+        IF SQLCODE != -955 THEN RAISE; END IF;
+END;
+/
+
+BEGIN
+    EXECUTE IMMEDIATE 'CREATE INDEX idx_historico_sintomas_termo ON historico_sintomas (termo, data_consulta) COMPRESS 1';
+EXCEPTION
+    WHEN OTHERS THEN
+        IF SQLCODE != -955 THEN RAISE; END IF;
+END;
+/
+
+BEGIN
+    EXECUTE IMMEDIATE 'CREATE INDEX idx_historico_sintomas_data ON historico_sintomas (data_consulta, termo, sintoma_id)';
+EXCEPTION
+    WHEN OTHERS THEN
+        IF SQLCODE != -955 THEN RAISE; END IF;
+END;
+/
@@ -0,0 +1,43 @@
+-- =====================================================================
+-- V006 - Revogação de tokens JWT
+--
+-- Uma linha por token revogado (tipo JTI, valor = claim jti) ou por
+-- usuário com todos os tokens revogados (tipo SUJEITO, valor = CPF ou
+-- nome de usuário; revogado_em é o corte). Cada instância carrega a
+-- tabela na inicialização e relê as linhas novas por revogado_em a cada
+-- media.jwt.revogacao.sincronizacao; linhas com expira_em vencido são
+-- apagadas pela própria aplicação.
+-- =====================================================================
+
+BEGIN
+    EXECUTE IMMEDIATE q'[
+        CREATE TABLE tokens_revogados (
+            tipo         VARCHAR2(10)   NOT NULL,
+            valor        VARCHAR2(200)  NOT NULL,
+            revogado_em  TIMESTAMP      NOT NULL,
+            expira_em    TIMESTAMP      NOT NULL,
+            CONSTRAINT pk_tokens_revogados PRIMARY KEY (tipo, valor),
+            CONSTRAINT ck_tokens_revogados_tipo CHECK (tipo IN ('JTI', 'SUJEITO'))
+        )
+    ]';
+EXCEPTION
+    WHEN OTHERS THEN
+        IF SQLCODE != -955 THEN RAISE; END IF;
+END;
+/
+
+BEGIN
+    EXECUTE IMMEDIATE 'CREATE INDEX idx_tokens_revogados_revogado ON tokens_revogados (revogado_em)';
+EXCEPTION
+    WHEN OTHERS THEN
+        IF SQLCODE != -955 THEN RAISE; END IF;
+END;
+/
+
+BEGIN
+    EXECUTE IMMEDIATE 'CREATE INDEX idx_tokens_revogados_expira ON tokens_revogados (expira_em)';
+EXCEPTION
+    WHEN OTHERS THEN
+        IF SQLCODE != -955 THEN RAISE; END IF;
+END;
+/
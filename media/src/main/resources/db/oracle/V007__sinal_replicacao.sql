@@ -0,0 +1,25 @@
+-- =====================================================================
+-- V007 - Sinal de replicação para a réplica de leitura
+--
+-- Linha única (id = 1) com o horário, em epoch milissegundos, gravado
+-- pela aplicação no banco principal a cada
+-- media.datasource.replica.verificacao. Lido na réplica (Active Data
+-- Guard ou outra réplica somente leitura), mede o atraso da replicação;
+-- acima de media.datasource.replica.atraso-maximo as transações
+-- somente leitura voltam para o principal. A tabela precisa existir
+-- no principal e ser replicada; sem réplica configurada não é usada.
+-- =====================================================================
+
+BEGIN
+    EXECUTE IMMEDIATE q'[
+        CREATE TABLE sinal_replicacao (
+            id          NUMBER(10)  NOT NULL,
+            gravado_em  NUMBER(19)  NOT NULL,
+            CONSTRAINT pk_sinal_replicacao PRIMARY KEY (id)
+        )
+    ]';
+EXCEPTION
+    WHEN OTHERS THEN
+        IF SQLCODE != -955 THEN RAISE; END IF;
+END;
+/
@@ -0,0 +1,43 @@
+-- =====================================================================
+-- V008 - Ids do catálogo por sequência
+--
+-- sugestoes e sintomas passam a receber ids de sugestoes_seq e
+-- sintomas_seq, reservados em blocos de 50 (otimizador pooled-lo do
+-- Hibernate), o que permite gravar o catálogo em lotes JDBC; com
+-- IDENTITY o Hibernate precisa de uma ida ao banco por linha. Cada
+-- sequência começa depois do maior id existente e a identidade da
+-- coluna, se houver, é removida. Um trigger que preencha o id também
+-- precisa ser removido antes de subir esta versão.
+-- =====================================================================
+
+DECLARE
+    v_inicio NUMBER;
+BEGIN
+    SELECT NVL(MAX(id), 0) + 1 INTO v_inicio FROM sugestoes;
+    EXECUTE IMMEDIATE 'CREATE SEQUENCE sugestoes_seq START WITH ' || v_inicio ||
+                      ' INCREMENT BY 50 CACHE 20';
+EXCEPTION
+    WHEN OTHERS THEN
+        IF SQLCODE != -955 THEN RAISE; END IF;
+END;
+/
+
+DECLARE
+    v_inicio NUMBER;
+BEGIN
+    SELECT NVL(MAX(id), 0) + 1 INTO v_inicio FROM sintomas;
+    EXECUTE IMMEDIATE 'CREATE SEQUENCE sintomas_seq START WITH ' || v_inicio ||
+                      ' INCREMENT BY 50 CACHE 20';
+EXCEPTION
+    WHEN OTHERS THEN
+        IF SQLCODE != -955 THEN RAISE; END IF;
+END;
+/
+
+BEGIN
+    FOR tabela IN (SELECT table_name FROM user_tab_identity_cols
+                    WHERE table_name IN ('SUGESTOES', 'SINTOMAS') AND column_name = 'ID') LOOP
+        EXECUTE IMMEDIATE 'ALTER TABLE ' || tabela.table_name || ' MODIFY (id DROP IDENTITY)';
+    END LOOP;
+END;
+/
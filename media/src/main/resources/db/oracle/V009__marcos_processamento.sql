@@ -0,0 +1,38 @@
+-- =====================================================================
+-- V009 - Marcos de processamentos de longa duração
+--
+-- Uma linha por processamento (nome), com a marca d'água até onde ele
+-- já foi concluído: o último id lido ou um horário em epoch
+-- milissegundos, conforme o processamento. Usada pelos preenchimentos
+-- feitos na inicialização, que antes deduziam o próprio estado do
+-- conteúdo das tabelas de destino:
+--
+--   estatisticas.backfill  reconstrução inicial de estatisticas_consultas
+--                          e latencias_consultas; a linha só existe
+--                          depois que ela terminou. Em bancos que já
+--                          tinham estatísticas ela roda uma única vez
+--                          após este script.
+--
+--   historico.sintomas.backfill.<tabela>
+--                          maior id de historico_consultas ou de
+--                          historico_consultas_arquivo já examinado pelo
+--                          preenchimento de historico_sintomas; consultas
+--                          sem termo abaixo dele não são relidas.
+--
+-- Sem linha, o processamento correspondente ainda não terminou.
+-- =====================================================================
+
+BEGIN
+    EXECUTE IMMEDIATE q'[
+        CREATE TABLE marcos_processamento (
+            nome           VARCHAR2(100)  NOT NULL,
+            valor          NUMBER(19)     NOT NULL,
+            atualizado_em  TIMESTAMP      NOT NULL,
+            CONSTRAINT pk_marcos_processamento PRIMARY KEY (nome)
+        )
+    ]';
+EXCEPTION
+    WHEN OTHERS THEN
+        IF SQLCODE != -955 THEN RAISE; END IF;
+END;
+/
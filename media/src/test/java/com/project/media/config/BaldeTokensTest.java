@@ -0,0 +1,68 @@
+package com.project.media.config;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class BaldeTokensTest {
+
+    private static final long SEGUNDO = 1_000_000_000L;
+
+    @Test
+    void aceitaARajadaEDepoisUmTokenPorIntervalo() {
+        BaldeTokens.Limite limite = BaldeTokens.Limite.porMinuto(60, 5);
+        BaldeTokens balde = new BaldeTokens(0);
+
+        for (int i = 0; i < 5; i++) {
+            assertThat(balde.consumir(limite, 0)).isZero();
+        }
+        assertThat(balde.consumir(limite, 0)).isEqualTo(SEGUNDO);
+        assertThat(balde.consumir(limite, SEGUNDO / 2)).isEqualTo(SEGUNDO / 2);
+        assertThat(balde.consumir(limite, SEGUNDO)).isZero();
+        assertThat(balde.consumir(limite, SEGUNDO)).isPositive();
+
+        assertThat(balde.consumir(limite, 60 * SEGUNDO)).isZero();
+        assertThat(BaldeTokens.Limite.porMinuto(0, 10)).isNull();
+    }
+
+    @Test
+    void esperaNaoConsomeEDevolverRecuperaOToken() {
+        BaldeTokens.Limite limite = BaldeTokens.Limite.porMinuto(60, 1);
+        BaldeTokens balde = new BaldeTokens(0);
+
+        assertThat(balde.espera(limite, 0)).isZero();
+        assertThat(balde.espera(limite, 0)).isZero();
+        assertThat(balde.consumir(limite, 0)).isZero();
+        assertThat(balde.espera(limite, 0)).isEqualTo(SEGUNDO);
+
+        balde.devolver(limite);
+        assertThat(balde.consumir(limite, 0)).isZero();
+    }
+
+    @Test
+    void threadsConcorrentesNaoPassamDaRajada() throws InterruptedException {
+        BaldeTokens.Limite limite = BaldeTokens.Limite.porMinuto(1, 100);
+        BaldeTokens balde = new BaldeTokens(0);
+        AtomicInteger aceitas = new AtomicInteger();
+
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        for (int i = 0; i < 8; i++) {
+            executor.submit(() -> {
+                for (int j = 0; j < 1000; j++) {
+                    if (balde.consumir(limite, 0) == 0) {
+                        aceitas.incrementAndGet();
+                    }
+                }
+            });
+        }
+        executor.shutdown();
+        assertThat(executor.awaitTermination(10, TimeUnit.SECONDS)).isTrue();
+
+        assertThat(aceitas.get()).isEqualTo(100);
+    }
+}
@@ -0,0 +1,116 @@
+package com.project.media.config;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.project.media.repository.RoteamentoHistorico;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.security.authentication.AbstractAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.Duration;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DataJpaTest(properties = {
+        "jwt.secret=" + CacheTokensTest.SEGREDO,
+        "jwt.expiration=60000"
+})
+@Import({RoteamentoHistorico.class, JwtUtil.class, RevogacaoTokens.class, SimpleMeterRegistry.class})
+class CacheTokensTest {
+
+    static final String SEGREDO = "segredo-de-teste-com-pelo-menos-32-bytes-para-hs256";
+
+    @Autowired
+    private JwtUtil jwtUtil;
+
+    @Autowired
+    private RevogacaoTokens revogacaoTokens;
+
+    private SimpleMeterRegistry meterRegistry;
+
+    private CacheTokens criar(Duration ttl) {
+        meterRegistry = new SimpleMeterRegistry();
+        CacheTokens cacheTokens = new CacheTokens();
+        ReflectionTestUtils.setField(cacheTokens, "jwtUtil", jwtUtil);
+        ReflectionTestUtils.setField(cacheTokens, "revogacaoTokens", revogacaoTokens);
+        ReflectionTestUtils.setField(cacheTokens, "meterRegistry", meterRegistry);
+        ReflectionTestUtils.setField(cacheTokens, "tamanhoMaximo", 100L);
+        ReflectionTestUtils.setField(cacheTokens, "ttl", ttl);
+        cacheTokens.inicializar();
+        return cacheTokens;
+    }
+
+    /** Emissor com a mesma chave do {@link JwtUtil} do contexto e outra validade. */
+    private static JwtUtil emissor(long expiracaoMs) {
+        JwtUtil util = new JwtUtil();
+        ReflectionTestUtils.setField(util, "secret", SEGREDO);
+        ReflectionTestUtils.setField(util, "expiration", expiracaoMs);
+        util.iniciar();
+        return util;
+    }
+
+    @SuppressWarnings("unchecked")
+    private static Cache<String, VerifiedToken> cache(CacheTokens cacheTokens) {
+        return (Cache<String, VerifiedToken>) ReflectionTestUtils.getField(cacheTokens, "cache");
+    }
+
+    private static Duration validadeDaEntrada(CacheTokens cacheTokens) {
+        Cache<String, VerifiedToken> cache = cache(cacheTokens);
+        assertThat(cache.asMap()).hasSize(1);
+        String chave = cache.asMap().keySet().iterator().next();
+        return cache.policy().expireVariably().orElseThrow().getExpiresAfter(chave).orElseThrow();
+    }
+
+    private double acertos() {
+        return meterRegistry.get("cache.gets").tag("cache", "tokens").tag("result", "hit")
+                .functionCounter().count();
+    }
+
+    @Test
+    void cadaRequisicaoRecebeUmaAutenticacaoNova() {
+        CacheTokens cacheTokens = criar(Duration.ofMinutes(30));
+        String token = jwtUtil.generateToken("medico");
+
+        Authentication primeira = cacheTokens.autenticar(token);
+        ((AbstractAuthenticationToken) primeira).setDetails("detalhes da primeira requisição");
+        Authentication segunda = cacheTokens.autenticar(token);
+
+        assertThat(acertos()).isEqualTo(1);
+        assertThat(segunda).isNotSameAs(primeira);
+        assertThat(segunda.getDetails()).isNull();
+        assertThat(segunda.getName()).isEqualTo("medico");
+        assertThat(segunda.getAuthorities()).extracting(GrantedAuthority::getAuthority)
+                .containsExactly("ROLE_MEDICO", "ROLE_USER");
+        assertThat(segunda.isAuthenticated()).isTrue();
+    }
+
+    @Test
+    void entradaNaoDuraMaisQueOToken() {
+        CacheTokens ttlLongo = criar(Duration.ofMinutes(30));
+        ttlLongo.autenticar(emissor(2_000L).generateToken("medico"));
+        assertThat(validadeDaEntrada(ttlLongo)).isPositive().isLessThanOrEqualTo(Duration.ofSeconds(2));
+
+        CacheTokens ttlCurto = criar(Duration.ofMillis(100));
+        ttlCurto.autenticar(jwtUtil.generateToken("medico"));
+        assertThat(validadeDaEntrada(ttlCurto)).isPositive().isLessThanOrEqualTo(Duration.ofMillis(100));
+    }
+
+    @Test
+    void tokensInvalidosNaoSaoGuardados() {
+        CacheTokens cacheTokens = criar(Duration.ofMinutes(30));
+        String token = jwtUtil.generateToken("admin");
+        String alterado = token.substring(0, token.length() - 2) + (token.endsWith("AA") ? "BB" : "AA");
+
+        assertThat(cacheTokens.autenticar(alterado)).isNull();
+        assertThat(cacheTokens.autenticar("nao-e-um-jwt")).isNull();
+        assertThat(cacheTokens.autenticar(emissor(-1_000L).generateToken("admin"))).isNull();
+        assertThat(cacheTokens.autenticar(emissor(60_000L).generateToken("admin"))).isNotNull();
+
+        assertThat(cache(cacheTokens).asMap()).hasSize(1);
+    }
+}
@@ -0,0 +1,138 @@
+package com.project.media.config;
+
+import com.project.media.entity.HistoricoConsulta;
+import com.project.media.entity.Sintoma;
+import com.project.media.entity.Sugestao;
+import com.project.media.repository.HistoricoConsultaRepository;
+import com.project.media.repository.RoteamentoHistorico;
+import com.project.media.repository.SintomaRepository;
+import com.project.media.repository.SugestaoRepository;
+import com.project.media.service.CatalogoVersao;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.HashSet;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/** Sem transação de teste: a versão só muda depois do commit. */
+@DataJpaTest
+@Import({RoteamentoHistorico.class, CatalogoAlteracaoListener.class, CatalogoVersao.class})
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class CatalogoAlteracaoListenerTest {
+
+    @Autowired
+    private CatalogoVersao catalogoVersao;
+
+    @Autowired
+    private SintomaRepository sintomaRepository;
+
+    @Autowired
+    private SugestaoRepository sugestaoRepository;
+
+    @Autowired
+    private HistoricoConsultaRepository historicoRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    private TransactionTemplate transacao;
+
+    @BeforeEach
+    void configurar() {
+        transacao = new TransactionTemplate(transactionManager);
+    }
+
+    @AfterEach
+    void limpar() {
+        jdbcTemplate.update("DELETE FROM historico_consultas");
+        jdbcTemplate.update("DELETE FROM sugestao_sintoma");
+        jdbcTemplate.update("DELETE FROM sugestoes");
+        jdbcTemplate.update("DELETE FROM sintomas");
+    }
+
+    private Sugestao sugestao(String titulo, Sintoma... sintomas) {
+        Sugestao sugestao = new Sugestao(titulo, "Descrição de " + titulo, "CONSULTA", 3);
+        sugestao.setSintomas(new HashSet<>(List.of(sintomas)));
+        return sugestao;
+    }
+
+    @Test
+    void variasAlteracoesNaMesmaTransacaoGeramUmaVersaoAposOCommit() {
+        long antes = catalogoVersao.atual();
+
+        transacao.executeWithoutResult(status -> {
+            Sintoma febre = sintomaRepository.save(new Sintoma("Febre", "Acima de 38 graus", "GERAL"));
+            sugestaoRepository.save(sugestao("Consulta", febre));
+            sugestaoRepository.flush();
+            assertThat(catalogoVersao.atual()).isEqualTo(antes);
+        });
+
+        assertThat(catalogoVersao.atual()).isEqualTo(antes + 1);
+    }
+
+    @Test
+    void rollbackNaoGeraVersao() {
+        long antes = catalogoVersao.atual();
+
+        transacao.executeWithoutResult(status -> {
+            sintomaRepository.saveAndFlush(new Sintoma("Febre", "Acima de 38 graus", "GERAL"));
+            status.setRollbackOnly();
+        });
+
+        assertThat(catalogoVersao.atual()).isEqualTo(antes);
+    }
+
+    @Test
+    void alteracaoDaColecaoDeSintomasGeraVersao() {
+        Sintoma febre = sintomaRepository.save(new Sintoma("Febre", "Acima de 38 graus", "GERAL"));
+        Sintoma tosse = sintomaRepository.save(new Sintoma("Tosse", "Tosse seca", "RESPIRATORIO"));
+        Long id = sugestaoRepository.save(sugestao("Consulta", febre)).getId();
+        long antes = catalogoVersao.atual();
+
+        transacao.executeWithoutResult(status ->
+                sugestaoRepository.findById(id).orElseThrow().getSintomas().add(tosse));
+
+        assertThat(catalogoVersao.atual()).isEqualTo(antes + 1);
+        assertThat(jdbcTemplate.queryForObject("SELECT COUNT(*) FROM sugestao_sintoma WHERE sugestao_id = ?",
+                Integer.class, id)).isEqualTo(2);
+    }
+
+    @Test
+    void exclusaoGeraVersao() {
+        Sintoma febre = sintomaRepository.save(new Sintoma("Febre", "Acima de 38 graus", "GERAL"));
+        long antes = catalogoVersao.atual();
+
+        sintomaRepository.deleteById(febre.getId());
+
+        assertThat(catalogoVersao.atual()).isEqualTo(antes + 1);
+    }
+
+    @Test
+    void entidadesForaDoCatalogoNaoGeramVersao() {
+        Sugestao consulta = sugestaoRepository.save(sugestao("Consulta"));
+        long antes = catalogoVersao.atual();
+
+        HistoricoConsulta historico = new HistoricoConsulta();
+        historico.setSintomasInformados("febre alta");
+        historico.setSugestao(consulta);
+        historico.setDataConsulta(LocalDateTime.now());
+        historicoRepository.save(historico);
+
+        assertThat(catalogoVersao.atual()).isEqualTo(antes);
+    }
+}
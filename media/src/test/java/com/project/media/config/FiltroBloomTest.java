@@ -0,0 +1,27 @@
+package com.project.media.config;
+
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class FiltroBloomTest {
+
+    @Test
+    void semFalsosNegativosEFalsosPositivosPertoDoEsperado() {
+        FiltroBloom filtro = new FiltroBloom(10_000, 0.01);
+        for (int i = 0; i < 10_000; i++) {
+            filtro.adicionar("j:" + i);
+        }
+        for (int i = 0; i < 10_000; i++) {
+            assertThat(filtro.talvezContenha("j:" + i)).isTrue();
+        }
+
+        int falsosPositivos = 0;
+        for (int i = 10_000; i < 110_000; i++) {
+            if (filtro.talvezContenha("j:" + i)) {
+                falsosPositivos++;
+            }
+        }
+        assertThat(falsosPositivos).isLessThan(2_000);
+    }
+}
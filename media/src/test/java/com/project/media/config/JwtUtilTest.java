@@ -0,0 +1,84 @@
+package com.project.media.config;
+
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.security.Keys;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.springframework.boot.test.system.CapturedOutput;
+import org.springframework.boot.test.system.OutputCaptureExtension;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import javax.crypto.SecretKey;
+import java.time.Instant;
+import java.util.Date;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@ExtendWith(OutputCaptureExtension.class)
+class JwtUtilTest {
+
+    private static final String SEGREDO = "segredo-de-teste-com-pelo-menos-32-bytes-para-hs256";
+
+    private JwtUtil jwtUtil;
+
+    @BeforeEach
+    void configurar() {
+        jwtUtil = criar(60_000L);
+    }
+
+    @Test
+    void verificaUmaVezEDevolvePapeis() {
+        VerifiedToken medico = jwtUtil.verifyToken(jwtUtil.generateToken("medico"));
+        assertThat(medico.getSubject()).isEqualTo("medico");
+        assertThat(medico.getRoles()).containsExactly("ROLE_MEDICO", "ROLE_USER");
+        assertThat(medico.getExpiration()).isAfter(Instant.now());
+
+        VerifiedToken usuario = jwtUtil.verifyToken(jwtUtil.generateToken("Maria|12345678901"));
+        assertThat(usuario.getRoles()).containsExactly("ROLE_USER");
+    }
+
+    @Test
+    void rejeitaTokenAlteradoOuExpirado() {
+        String token = jwtUtil.generateToken("admin");
+        String alterado = token.substring(0, token.length() - 2) + (token.endsWith("AA") ? "BB" : "AA");
+
+        assertThat(jwtUtil.verifyToken(alterado)).isNull();
+        assertThat(jwtUtil.verifyToken("nao-e-um-jwt")).isNull();
+        assertThat(jwtUtil.verifyToken(criar(-1_000L).generateToken("admin"))).isNull();
+        assertThat(jwtUtil.validateToken(token)).isTrue();
+    }
+
+    @Test
+    void rejeitaTokenSemExpiracaoOuSemSubject() {
+        SecretKey chave = Keys.hmacShaKeyFor(SEGREDO.getBytes());
+        String semExpiracao = Jwts.builder().subject("admin").issuedAt(new Date()).signWith(chave).compact();
+        String semSubject = Jwts.builder().expiration(new Date(System.currentTimeMillis() + 60_000L))
+                .signWith(chave).compact();
+
+        assertThat(jwtUtil.verifyToken(semExpiracao)).isNull();
+        assertThat(jwtUtil.verifyToken(semSubject)).isNull();
+    }
+
+    @Test
+    void cadaRecusaGeraUmaLinhaDeLogComOTipoDaFalha(CapturedOutput saida) {
+        String outraChave = Jwts.builder().subject("admin").expiration(new Date(System.currentTimeMillis() + 60_000L))
+                .signWith(Keys.hmacShaKeyFor("outro-segredo-com-pelo-menos-32-bytes-para-hs256".getBytes()))
+                .compact();
+
+        int antes = saida.getOut().length();
+        assertThat(jwtUtil.verifyToken(outraChave)).isNull();
+        String log = saida.getOut().substring(antes);
+
+        assertThat(log.split("Token JWT", -1)).hasSize(2);
+        assertThat(log).contains("WARN").contains("SignatureException").doesNotContain("ERROR");
+    }
+
+    private JwtUtil criar(long expiracao) {
+        JwtUtil util = new JwtUtil();
+        ReflectionTestUtils.setField(util, "secret", SEGREDO);
+        ReflectionTestUtils.setField(util, "expiration", expiracao);
+        util.iniciar();
+        return util;
+    }
+}
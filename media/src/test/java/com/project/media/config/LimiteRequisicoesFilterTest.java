@@ -0,0 +1,122 @@
+package com.project.media.config;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.authority.AuthorityUtils;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.Duration;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class LimiteRequisicoesFilterTest {
+
+    private SimpleMeterRegistry meterRegistry;
+    private LimiteRequisicoesFilter filtro;
+
+    @BeforeEach
+    void configurar() {
+        meterRegistry = new SimpleMeterRegistry();
+        filtro = new LimiteRequisicoesFilter();
+        ReflectionTestUtils.setField(filtro, "meterRegistry", meterRegistry);
+        ReflectionTestUtils.setField(filtro, "habilitado", true);
+        ReflectionTestUtils.setField(filtro, "ipPorMinuto", 1);
+        ReflectionTestUtils.setField(filtro, "ipRajada", 5);
+        ReflectionTestUtils.setField(filtro, "usuarioPorMinuto", 1);
+        ReflectionTestUtils.setField(filtro, "usuarioRajada", 2);
+        ReflectionTestUtils.setField(filtro, "medicoPorMinuto", 1);
+        ReflectionTestUtils.setField(filtro, "medicoRajada", 4);
+        ReflectionTestUtils.setField(filtro, "adminPorMinuto", 0);
+        ReflectionTestUtils.setField(filtro, "adminRajada", 0);
+        ReflectionTestUtils.setField(filtro, "ociosidade", Duration.ofMinutes(10));
+        ReflectionTestUtils.setField(filtro, "maxChaves", 1000L);
+        filtro.iniciar();
+    }
+
+    @AfterEach
+    void limparContexto() {
+        SecurityContextHolder.clearContext();
+    }
+
+    private MockHttpServletResponse requisitar(String ip, String xForwardedFor) throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/sugestoes/history");
+        request.setRemoteAddr(ip);
+        if (xForwardedFor != null) {
+            request.addHeader("X-Forwarded-For", xForwardedFor);
+        }
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        filtro.doFilter(request, response, new MockFilterChain());
+        return response;
+    }
+
+    private void autenticar(String usuario, String... papeis) {
+        SecurityContextHolder.getContext().setAuthentication(new UsernamePasswordAuthenticationToken(
+                usuario, null, AuthorityUtils.createAuthorityList(papeis)));
+    }
+
+    private int aceitas(String ip, int tentativas) throws Exception {
+        int aceitas = 0;
+        for (int i = 0; i < tentativas; i++) {
+            if (requisitar(ip, null).getStatus() == 200) {
+                aceitas++;
+            }
+        }
+        return aceitas;
+    }
+
+    @Test
+    void acimaDoLimiteResponde429ComRetryAfter() throws Exception {
+        for (int i = 0; i < 5; i++) {
+            assertThat(requisitar("10.0.0.1", null).getStatus()).isEqualTo(200);
+        }
+
+        MockHttpServletResponse recusada = requisitar("10.0.0.1", null);
+
+        assertThat(recusada.getStatus()).isEqualTo(429);
+        assertThat(recusada.getHeader(HttpHeaders.RETRY_AFTER)).isEqualTo("60");
+        assertThat(recusada.getContentType()).startsWith("application/json");
+        assertThat(recusada.getContentAsString()).contains("\"erro\"");
+        assertThat(requisitar("10.0.0.2", null).getStatus()).isEqualTo(200);
+        assertThat(meterRegistry.counter("limite.requisicoes.recusadas", "chave", "ip").count()).isEqualTo(1);
+    }
+
+    @Test
+    void xForwardedForDoClienteNaoTrocaOBalde() throws Exception {
+        for (int i = 0; i < 5; i++) {
+            assertThat(requisitar("10.0.0.1", "203.0.113." + i).getStatus()).isEqualTo(200);
+        }
+
+        assertThat(requisitar("10.0.0.1", "203.0.113.99").getStatus()).isEqualTo(429);
+    }
+
+    @Test
+    void limiteDoUsuarioDependeDoPapel() throws Exception {
+        autenticar("Maria|12345678901", "ROLE_USER");
+        assertThat(aceitas("10.0.0.1", 5)).isEqualTo(2);
+
+        autenticar("medico", "ROLE_MEDICO", "ROLE_USER");
+        assertThat(aceitas("10.0.0.2", 5)).isEqualTo(4);
+
+        autenticar("admin", "ROLE_ADMIN", "ROLE_USER");
+        assertThat(aceitas("10.0.0.3", 5)).isEqualTo(5);
+
+        assertThat(meterRegistry.counter("limite.requisicoes.recusadas", "chave", "usuario").count()).isEqualTo(4);
+    }
+
+    @Test
+    void recusaPeloUsuarioNaoGastaTokenDoIp() throws Exception {
+        autenticar("Maria|12345678901", "ROLE_USER");
+        assertThat(aceitas("10.0.0.1", 5)).isEqualTo(2);
+
+        SecurityContextHolder.clearContext();
+        assertThat(aceitas("10.0.0.1", 5)).isEqualTo(3);
+    }
+}
@@ -0,0 +1,133 @@
+package com.project.media.config;
+
+import com.project.media.repository.RoteamentoHistorico;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DataJpaTest
+@Import(RoteamentoHistorico.class)
+class RevogacaoTokensTest {
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    private SimpleMeterRegistry meterRegistry;
+
+    private RevogacaoTokens criar(long expiracaoMs, long capacidade) {
+        meterRegistry = new SimpleMeterRegistry();
+        RevogacaoTokens revogacao = new RevogacaoTokens();
+        ReflectionTestUtils.setField(revogacao, "jdbcTemplate", jdbcTemplate);
+        ReflectionTestUtils.setField(revogacao, "transactionManager", transactionManager);
+        ReflectionTestUtils.setField(revogacao, "meterRegistry", meterRegistry);
+        ReflectionTestUtils.setField(revogacao, "expiracaoMs", expiracaoMs);
+        ReflectionTestUtils.setField(revogacao, "capacidade", capacidade);
+        revogacao.iniciar();
+        return revogacao;
+    }
+
+    private static VerifiedToken token(String jti, String subject, Instant emitidoEm) {
+        return new VerifiedToken(jti, subject, emitidoEm, Instant.now().plus(1, ChronoUnit.DAYS), List.of());
+    }
+
+    private Instant revogadoEm(String valor) {
+        return jdbcTemplate.queryForObject("SELECT revogado_em FROM tokens_revogados WHERE valor = ?",
+                Timestamp.class, valor).toInstant();
+    }
+
+    private Object estado(RevogacaoTokens revogacao) {
+        return ReflectionTestUtils.getField(revogacao, "estado");
+    }
+
+    @SuppressWarnings("unchecked")
+    private Map<String, Instant> jtis(RevogacaoTokens revogacao) {
+        return (Map<String, Instant>) ReflectionTestUtils.getField(estado(revogacao), "jtis");
+    }
+
+    @Test
+    void revogaSoOJtiInformado() {
+        RevogacaoTokens revogacao = criar(60_000L, 1000);
+        Instant agora = Instant.now();
+
+        assertThat(revogacao.revogarJtis(List.of("jti-1", " jti-1 ", ""))).isEqualTo(1);
+
+        assertThat(revogacao.revogado(token("jti-1", "medico", agora))).isTrue();
+        assertThat(revogacao.revogado(token("jti-2", "medico", agora))).isFalse();
+        assertThat(revogacao.revogado(token(null, "medico", agora))).isFalse();
+        assertThat(meterRegistry.counter("jwt.revogacao.rejeitados").count()).isEqualTo(1);
+    }
+
+    @Test
+    void corteDoUsuarioValeParaTokensDoMesmoSegundo() {
+        RevogacaoTokens revogacao = criar(60_000L, 1000);
+
+        revogacao.revogarSujeitos(List.of("12345678901"));
+        Instant segundoDoCorte = revogadoEm("12345678901").truncatedTo(ChronoUnit.SECONDS);
+
+        // iat do JWT não tem fração de segundo: emitido no mesmo segundo, depois do corte, ainda é recusado
+        assertThat(revogacao.revogado(token("a", "Maria|12345678901", segundoDoCorte))).isTrue();
+        assertThat(revogacao.revogado(token("b", "Maria|12345678901", segundoDoCorte.minusSeconds(60)))).isTrue();
+        assertThat(revogacao.revogado(token("c", "Maria|12345678901", null))).isTrue();
+        assertThat(revogacao.revogado(token("d", "Maria|12345678901", segundoDoCorte.plusSeconds(1)))).isFalse();
+        assertThat(revogacao.revogado(token("e", "Joao|98765432100", segundoDoCorte))).isFalse();
+    }
+
+    @Test
+    void outraInstanciaRecebeARevogacaoNaSincronizacao() {
+        RevogacaoTokens origem = criar(60_000L, 1000);
+        RevogacaoTokens outra = criar(60_000L, 1000);
+
+        origem.revogarJtis(List.of("jti-1"));
+        assertThat(outra.revogado(token("jti-1", "medico", Instant.now()))).isFalse();
+
+        outra.sincronizar();
+        assertThat(outra.revogado(token("jti-1", "medico", Instant.now()))).isTrue();
+    }
+
+    @Test
+    void revogacoesVencidasSaemDoBancoEDoEstado() throws InterruptedException {
+        RevogacaoTokens revogacao = criar(300L, 1000);
+        revogacao.revogarJtis(List.of("jti-1"));
+        Object antes = estado(revogacao);
+
+        Thread.sleep(400);
+        revogacao.sincronizar();
+
+        assertThat(estado(revogacao)).isNotSameAs(antes);
+        assertThat(jtis(revogacao)).isEmpty();
+        assertThat(revogacao.revogado(token("jti-1", "medico", Instant.now()))).isFalse();
+        assertThat(jdbcTemplate.queryForObject("SELECT COUNT(*) FROM tokens_revogados", Integer.class)).isZero();
+    }
+
+    @Test
+    void filtroCheioERemontadoComCapacidadeMaior() {
+        RevogacaoTokens revogacao = criar(60_000L, 2);
+        revogacao.revogarJtis(List.of("jti-1", "jti-2", "jti-3"));
+        Object antes = estado(revogacao);
+
+        revogacao.sincronizar();
+
+        assertThat(estado(revogacao)).isNotSameAs(antes);
+        assertThat((Long) ReflectionTestUtils.getField(estado(revogacao), "capacidade")).isEqualTo(6);
+        assertThat(jtis(revogacao)).containsOnlyKeys("jti-1", "jti-2", "jti-3");
+        for (String jti : List.of("jti-1", "jti-2", "jti-3")) {
+            assertThat(revogacao.revogado(token(jti, "medico", Instant.now()))).isTrue();
+        }
+    }
+}
@@ -0,0 +1,144 @@
+package com.project.media.config;
+
+import com.project.media.dto.SugestaoResponseDto;
+import com.project.media.repository.RoteamentoHistorico;
+import com.project.media.service.CacheSugestoes;
+import com.project.media.service.CatalogoVersao;
+import com.project.media.service.ImportadorCatalogo;
+import com.project.media.service.ImportadorCatalogo.Formato;
+import com.project.media.service.IndiceSugestoes;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.ImportAutoConfiguration;
+import org.springframework.boot.autoconfigure.jackson.JacksonAutoConfiguration;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Import;
+import org.springframework.context.annotation.Primary;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.sql.DataSource;
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Réplica atrasada: cópia do principal tirada antes da última importação, com
+ * sinal de replicação dentro do atraso máximo. Sem transação de teste: a
+ * importação precisa de commit para gerar nova versão do catálogo.
+ */
+@DataJpaTest
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Import({RoteamentoHistorico.class, ImportadorCatalogo.class, CatalogoVersao.class, IndiceSugestoes.class,
+        CacheSugestoes.class, SimpleMeterRegistry.class})
+@ImportAutoConfiguration(JacksonAutoConfiguration.class)
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class RoteamentoLeituraCatalogoTest {
+
+    private static final String URL_PRINCIPAL = "jdbc:h2:mem:roteamento-catalogo-principal;DB_CLOSE_DELAY=-1";
+    private static final String URL_REPLICA = "jdbc:h2:mem:roteamento-catalogo-replica;DB_CLOSE_DELAY=-1";
+
+    private static final String CSV = """
+            formato,1
+            sintoma,Febre,Temperatura elevada,GERAL
+            sugestao,Consulta clínica,Avaliação geral,CONSULTA,3,Repouso
+            associacao,Consulta clínica,Febre
+            """;
+
+    private static final String CSV_NOVA_SUGESTAO = CSV + """
+            sugestao,Pronto atendimento,Avaliação imediata,URGENCIA,5,Procure atendimento
+            associacao,Pronto atendimento,Febre
+            """;
+
+    @TestConfiguration
+    static class Bancos {
+
+        @Bean
+        RoteamentoLeituraDataSource roteamento() {
+            return new RoteamentoLeituraDataSource(new DriverManagerDataSource(URL_PRINCIPAL),
+                    new DriverManagerDataSource(URL_REPLICA), Duration.ofHours(1), new SimpleMeterRegistry());
+        }
+
+        @Bean
+        @Primary
+        DataSource dataSource(RoteamentoLeituraDataSource roteamento) {
+            return new LazyConnectionDataSourceProxy(roteamento);
+        }
+    }
+
+    @TempDir
+    private Path diretorio;
+
+    @Autowired
+    private RoteamentoLeituraDataSource roteamento;
+
+    @Autowired
+    private ImportadorCatalogo importador;
+
+    @Autowired
+    private IndiceSugestoes indiceSugestoes;
+
+    @Autowired
+    private CacheSugestoes cacheSugestoes;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private DataSource dataSource;
+
+    private void importar(String conteudo) {
+        importador.importar(new ByteArrayInputStream(conteudo.getBytes(StandardCharsets.UTF_8)), Formato.CSV);
+    }
+
+    private void replicar() {
+        String arquivo = diretorio.resolve("replica.sql").toString().replace('\\', '/');
+        new JdbcTemplate(new DriverManagerDataSource(URL_PRINCIPAL)).execute("SCRIPT TO '" + arquivo + "'");
+        JdbcTemplate replica = new JdbcTemplate(new DriverManagerDataSource(URL_REPLICA));
+        replica.execute("DROP ALL OBJECTS");
+        replica.execute("RUNSCRIPT FROM '" + arquivo + "'");
+    }
+
+    private List<String> buscar(TransactionTemplate leitura, String sintoma) {
+        IndiceSugestoes.Ranking ranking = leitura.execute(status -> cacheSugestoes.obter(List.of(sintoma), 5,
+                () -> indiceSugestoes.ranquear(List.of(sintoma), 5)));
+        return ranking.getSugestoes().stream().map(SugestaoResponseDto::getTitulo).toList();
+    }
+
+    @Test
+    void alteracaoDoCatalogoApareceNaBuscaMesmoComReplicaAtrasada() {
+        TransactionTemplate leitura = new TransactionTemplate(transactionManager);
+        leitura.setReadOnly(true);
+        JdbcTemplate roteado = new JdbcTemplate(dataSource);
+
+        importar(CSV);
+        roteamento.verificarAtraso();
+        replicar();
+        roteamento.verificarAtraso();
+        assertThat(roteamento.isReplicaDisponivel()).isTrue();
+        assertThat(buscar(leitura, "febre")).containsExactly("Consulta clínica");
+
+        importar(CSV_NOVA_SUGESTAO);
+
+        Integer sugestoesNaReplica = leitura.execute(status ->
+                roteado.queryForObject("SELECT COUNT(*) FROM sugestoes", Integer.class));
+        assertThat(sugestoesNaReplica)
+                .as("leituras readOnly ainda vão para a réplica atrasada")
+                .isEqualTo(1);
+        assertThat(buscar(leitura, "febre")).containsExactly("Pronto atendimento", "Consulta clínica");
+    }
+}
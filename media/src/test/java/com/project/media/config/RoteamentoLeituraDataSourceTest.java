@@ -0,0 +1,95 @@
+package com.project.media.config;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.h2.jdbcx.JdbcDataSource;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class RoteamentoLeituraDataSourceTest {
+
+    private JdbcTemplate principal;
+    private JdbcTemplate replica;
+    private RoteamentoLeituraDataSource roteamento;
+    private JdbcTemplate jdbcTemplate;
+    private TransactionTemplate escrita;
+    private TransactionTemplate leitura;
+
+    @BeforeEach
+    void criarBancos() {
+        JdbcDataSource bancoPrincipal = banco();
+        JdbcDataSource bancoReplica = banco();
+        principal = new JdbcTemplate(bancoPrincipal);
+        replica = new JdbcTemplate(bancoReplica);
+        for (JdbcTemplate banco : new JdbcTemplate[] {principal, replica}) {
+            banco.execute("CREATE TABLE sinal_replicacao (id INT PRIMARY KEY, gravado_em BIGINT NOT NULL)");
+            banco.execute("CREATE TABLE origem (nome VARCHAR(20))");
+        }
+        principal.update("INSERT INTO origem VALUES ('principal')");
+        replica.update("INSERT INTO origem VALUES ('replica')");
+
+        roteamento = new RoteamentoLeituraDataSource(bancoPrincipal, bancoReplica, Duration.ofSeconds(5),
+                new SimpleMeterRegistry());
+        LazyConnectionDataSourceProxy dataSource = new LazyConnectionDataSourceProxy(roteamento);
+        jdbcTemplate = new JdbcTemplate(dataSource);
+        DataSourceTransactionManager transactionManager = new DataSourceTransactionManager(dataSource);
+        escrita = new TransactionTemplate(transactionManager);
+        leitura = new TransactionTemplate(transactionManager);
+        leitura.setReadOnly(true);
+    }
+
+    private static JdbcDataSource banco() {
+        JdbcDataSource dataSource = new JdbcDataSource();
+        dataSource.setURL("jdbc:h2:mem:" + UUID.randomUUID() + ";DB_CLOSE_DELAY=-1");
+        return dataSource;
+    }
+
+    private String origem(TransactionTemplate transacao) {
+        return transacao.execute(status -> jdbcTemplate.queryForObject("SELECT nome FROM origem", String.class));
+    }
+
+    private void replicarSinal() {
+        Long gravadoEm = principal.queryForObject("SELECT gravado_em FROM sinal_replicacao WHERE id = 1", Long.class);
+        replica.update("MERGE INTO sinal_replicacao KEY (id) VALUES (1, ?)", gravadoEm);
+    }
+
+    @Test
+    void leiturasVaoParaReplicaSoQuandoElaAcompanhaOPrincipal() {
+        roteamento.verificarAtraso();
+        assertThat(roteamento.isReplicaDisponivel()).isFalse();
+        assertThat(origem(leitura)).isEqualTo("principal");
+
+        replicarSinal();
+        roteamento.verificarAtraso();
+        assertThat(roteamento.isReplicaDisponivel()).isTrue();
+        assertThat(origem(leitura)).isEqualTo("replica");
+        assertThat(origem(escrita)).isEqualTo("principal");
+        assertThat(jdbcTemplate.queryForObject("SELECT nome FROM origem", String.class)).isEqualTo("principal");
+
+        replica.update("UPDATE sinal_replicacao SET gravado_em = ?", System.currentTimeMillis() - 10_000);
+        roteamento.verificarAtraso();
+        assertThat(roteamento.isReplicaDisponivel()).isFalse();
+        assertThat(origem(leitura)).isEqualTo("principal");
+    }
+
+    @Test
+    void escritasVaoParaOPrincipalComAReplicaDisponivel() {
+        roteamento.verificarAtraso();
+        replicarSinal();
+        roteamento.verificarAtraso();
+        assertThat(roteamento.isReplicaDisponivel()).isTrue();
+
+        escrita.executeWithoutResult(status -> jdbcTemplate.update("INSERT INTO origem VALUES ('nova')"));
+
+        assertThat(principal.queryForObject("SELECT COUNT(*) FROM origem", Integer.class)).isEqualTo(2);
+        assertThat(replica.queryForObject("SELECT COUNT(*) FROM origem", Integer.class)).isEqualTo(1);
+    }
+}
@@ -0,0 +1,117 @@
+package com.project.media.config;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.authentication.AuthenticationManager;
+import org.springframework.security.authentication.BadCredentialsException;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.authority.AuthorityUtils;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class VerificacaoSenhasTest {
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final CountDownLatch liberar = new CountDownLatch(1);
+    private final AtomicInteger verificacoes = new AtomicInteger();
+    private VerificacaoSenhas verificacaoSenhas;
+
+    /** Só "medico"/"medico123" autentica; "lento" segura a thread até o latch ser liberado. */
+    private final AuthenticationManager authenticationManager = autenticacao -> {
+        verificacoes.incrementAndGet();
+        if ("lento".equals(autenticacao.getName())) {
+            try {
+                liberar.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+        if ("medico".equals(autenticacao.getName()) && "medico123".equals(autenticacao.getCredentials())) {
+            return new UsernamePasswordAuthenticationToken("medico", null,
+                    AuthorityUtils.createAuthorityList("ROLE_MEDICO"));
+        }
+        throw new BadCredentialsException("Credenciais inválidas");
+    };
+
+    private VerificacaoSenhas criar(int capacidadeFila, Duration timeout) {
+        VerificacaoSenhas verificacao = new VerificacaoSenhas();
+        ReflectionTestUtils.setField(verificacao, "authenticationManager", authenticationManager);
+        ReflectionTestUtils.setField(verificacao, "meterRegistry", meterRegistry);
+        ReflectionTestUtils.setField(verificacao, "threads", 1);
+        ReflectionTestUtils.setField(verificacao, "capacidadeFila", capacidadeFila);
+        ReflectionTestUtils.setField(verificacao, "timeout", timeout);
+        verificacao.iniciar();
+        return verificacao;
+    }
+
+    @AfterEach
+    void encerrar() {
+        liberar.countDown();
+        verificacaoSenhas.encerrar();
+    }
+
+    private double rejeitadas() {
+        return meterRegistry.counter("auth.senhas.rejeitadas").count();
+    }
+
+    @Test
+    void autenticaForaDaThreadChamadoraEMedeAVerificacao() {
+        verificacaoSenhas = criar(5, Duration.ofSeconds(5));
+
+        Authentication autenticado = verificacaoSenhas.autenticar("medico", "medico123").join();
+        CompletableFuture<Authentication> recusado = verificacaoSenhas.autenticar("medico", "errada");
+
+        assertThat(autenticado.getName()).isEqualTo("medico");
+        assertThatThrownBy(recusado::join).isInstanceOf(CompletionException.class)
+                .hasCauseInstanceOf(BadCredentialsException.class);
+        assertThat(meterRegistry.timer("auth.senhas.verificacao").count()).isEqualTo(2);
+        assertThat(meterRegistry.timer("auth.senhas.espera").count()).isEqualTo(2);
+        assertThat(rejeitadas()).isZero();
+    }
+
+    @Test
+    void filaCheiaRecusaSemVerificar() {
+        verificacaoSenhas = criar(1, Duration.ofSeconds(5));
+
+        CompletableFuture<Authentication> ocupando = verificacaoSenhas.autenticar("lento", "x");
+        CompletableFuture<Authentication> enfileirada = verificacaoSenhas.autenticar("medico", "medico123");
+
+        assertThatThrownBy(() -> verificacaoSenhas.autenticar("medico", "medico123"))
+                .isInstanceOf(RejectedExecutionException.class);
+        assertThat(rejeitadas()).isEqualTo(1);
+        assertThat(meterRegistry.get("auth.senhas.fila").gauge().value()).isEqualTo(1);
+
+        liberar.countDown();
+        assertThat(enfileirada.join().getName()).isEqualTo("medico");
+        assertThatThrownBy(ocupando::join).hasCauseInstanceOf(BadCredentialsException.class);
+        assertThat(verificacoes).hasValue(2);
+    }
+
+    @Test
+    void esperaAcimaDoTimeoutRecusaSemVerificar() throws InterruptedException {
+        verificacaoSenhas = criar(5, Duration.ofMillis(100));
+
+        CompletableFuture<Authentication> ocupando = verificacaoSenhas.autenticar("lento", "x");
+        CompletableFuture<Authentication> atrasada = verificacaoSenhas.autenticar("medico", "medico123");
+        Thread.sleep(200);
+        liberar.countDown();
+
+        assertThatThrownBy(atrasada::join).isInstanceOf(CompletionException.class)
+                .hasCauseInstanceOf(RejectedExecutionException.class);
+        assertThatThrownBy(ocupando::join).hasCauseInstanceOf(BadCredentialsException.class);
+        assertThat(verificacoes).hasValue(1);
+        assertThat(rejeitadas()).isEqualTo(1);
+        assertThat(verificacaoSenhas.getRetryAfterSegundos()).isEqualTo(1);
+    }
+}
@@ -0,0 +1,116 @@
+package com.project.media.controller;
+
+import com.project.media.config.VerificacaoSenhas;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.security.web.FilterChainProxy;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.ResultActions;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+import org.springframework.web.context.WebApplicationContext;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ThreadPoolExecutor;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/** Um único thread de verificação e fila de uma posição, para saturar o pool com poucos logins. */
+@SpringBootTest(properties = {
+        "media.auth.senhas.threads=1",
+        "media.auth.senhas.fila=1",
+        "media.auth.senhas.timeout=1s"
+})
+class AuthControllerTest {
+
+    @Autowired
+    private WebApplicationContext context;
+
+    @Autowired
+    private FilterChainProxy springSecurityFilterChain;
+
+    @Autowired
+    private VerificacaoSenhas verificacaoSenhas;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    private MockMvc mockMvc;
+
+    @BeforeEach
+    void configurar() {
+        mockMvc = MockMvcBuilders.webAppContextSetup(context).addFilters(springSecurityFilterChain).build();
+    }
+
+    private MvcResult iniciarLogin(String usuario, String senha) throws Exception {
+        return mockMvc.perform(post("/api/auth/login-profissional")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"username\":\"" + usuario + "\",\"password\":\"" + senha + "\"}"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+    }
+
+    private ResultActions concluir(MvcResult inicio) throws Exception {
+        return mockMvc.perform(asyncDispatch(inicio));
+    }
+
+    /** Ocupa o único thread do pool até o latch devolvido ser liberado. */
+    private CountDownLatch ocuparPool() throws InterruptedException {
+        ThreadPoolExecutor executor = (ThreadPoolExecutor) ReflectionTestUtils.getField(verificacaoSenhas, "executor");
+        CountDownLatch ocupado = new CountDownLatch(1);
+        CountDownLatch liberar = new CountDownLatch(1);
+        executor.execute(() -> {
+            ocupado.countDown();
+            try {
+                liberar.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        });
+        ocupado.await();
+        return liberar;
+    }
+
+    @Test
+    void loginValidoEInvalidoPassamPeloPool() throws Exception {
+        concluir(iniciarLogin("medico", "medico123"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.token").isNotEmpty())
+                .andExpect(jsonPath("$.username").value("medico"));
+
+        concluir(iniciarLogin("medico", "errada"))
+                .andExpect(status().isUnauthorized())
+                .andExpect(jsonPath("$.error").value("Usuário ou senha inválidos"));
+    }
+
+    @Test
+    void poolSaturadoResponde503ComRetryAfter() throws Exception {
+        double rejeitadasAntes = meterRegistry.counter("auth.senhas.rejeitadas").count();
+        CountDownLatch liberar = ocuparPool();
+
+        MvcResult enfileirado = iniciarLogin("medico", "medico123");
+        concluir(iniciarLogin("medico", "medico123"))
+                .andExpect(status().isServiceUnavailable())
+                .andExpect(header().string(HttpHeaders.RETRY_AFTER, "1"));
+
+        Thread.sleep(1_100);
+        liberar.countDown();
+        concluir(enfileirado)
+                .andExpect(status().isServiceUnavailable())
+                .andExpect(header().string(HttpHeaders.RETRY_AFTER, "1"));
+
+        assertThat(meterRegistry.counter("auth.senhas.rejeitadas").count() - rejeitadasAntes).isEqualTo(2);
+    }
+}
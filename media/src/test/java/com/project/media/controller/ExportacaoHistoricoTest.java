@@ -0,0 +1,117 @@
+package com.project.media.controller;
+
+import com.project.media.config.JwtUtil;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.security.web.FilterChainProxy;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+import org.springframework.web.context.WebApplicationContext;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * MockMvc só com a cadeia de filtros real: o suporte de teste do Spring
+ * Security reaproveitaria o contexto do primeiro dispatch no assíncrono e
+ * esconderia uma autenticação perdida.
+ */
+@SpringBootTest
+class ExportacaoHistoricoTest {
+
+    private static final String CPF = "98765432100";
+
+    @Autowired
+    private WebApplicationContext context;
+
+    @Autowired
+    private FilterChainProxy springSecurityFilterChain;
+
+    private MockMvc mockMvc;
+
+    @Autowired
+    private JwtUtil jwtUtil;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @BeforeEach
+    void popular() {
+        mockMvc = MockMvcBuilders.webAppContextSetup(context).addFilters(springSecurityFilterChain).build();
+        jdbcTemplate.update("DELETE FROM historico_consultas WHERE cpf_paciente = ?", CPF);
+        jdbcTemplate.update(
+                "INSERT INTO historico_consultas (id, sintomas_informados, cpf_paciente, nome_paciente, sugestao_id, " +
+                "data_consulta, observacoes) " +
+                "SELECT 900000 + x, CASE WHEN x = 1 THEN '=HYPERLINK(\"http://x\")' ELSE 'febre, tosse' END, ?, " +
+                "CASE WHEN x = 2 THEN '@SUM(A1:A2)' ELSE 'Maria' END, (SELECT MIN(id) FROM sugestoes), " +
+                "DATEADD('MINUTE', x, TIMESTAMP '2025-01-01 00:00:00'), '-2+3' " +
+                "FROM SYSTEM_RANGE(1, 3)", CPF);
+    }
+
+    private String bearer(String usuario) {
+        return "Bearer " + jwtUtil.generateToken(usuario);
+    }
+
+    @Test
+    void csvPassaPelasRegrasDeAcessoTambemNoDispatchAssincrono() throws Exception {
+        MvcResult inicio = mockMvc.perform(get("/api/sugestoes/history/export")
+                        .param("formato", "csv")
+                        .param("cpfPaciente", CPF)
+                        .header("Authorization", bearer("medico")))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        MvcResult resultado = mockMvc.perform(asyncDispatch(inicio))
+                .andExpect(status().isOk())
+                .andExpect(header().string("Content-Disposition", "attachment; filename=\"historico-consultas.csv\""))
+                .andReturn();
+
+        assertThat(resultado.getResponse().getContentType()).startsWith("text/csv");
+        String[] linhas = resultado.getResponse().getContentAsString().split("\r\n");
+        assertThat(linhas).hasSize(4);
+        assertThat(linhas[0]).startsWith("id,dataConsulta,cpfPaciente");
+        assertThat(linhas[3]).contains("\"'=HYPERLINK(\"\"http://x\"\")\"").endsWith(",'-2+3");
+        assertThat(linhas[2]).contains(",'@SUM(A1:A2),");
+        assertThat(linhas[1]).contains(",Maria,\"febre, tosse\",");
+    }
+
+    @Test
+    void ndjsonTrazUmObjetoPorLinha() throws Exception {
+        MvcResult inicio = mockMvc.perform(get("/api/sugestoes/history/export")
+                        .param("cpfPaciente", CPF)
+                        .header("Authorization", bearer("admin")))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        String corpo = mockMvc.perform(asyncDispatch(inicio))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString();
+
+        assertThat(corpo.split("\n")).hasSize(3)
+                .allSatisfy(linha -> assertThat(linha).startsWith("{").contains("\"cpfPaciente\":\"" + CPF + "\""));
+    }
+
+    @Test
+    void pacienteSemTokenOuFormatoInvalidoNaoExportam() throws Exception {
+        mockMvc.perform(get("/api/sugestoes/history/export"))
+                .andExpect(status().isForbidden())
+                .andExpect(request().asyncNotStarted());
+        mockMvc.perform(get("/api/sugestoes/history/export")
+                        .header("Authorization", bearer("Maria|" + CPF)))
+                .andExpect(status().isForbidden())
+                .andExpect(request().asyncNotStarted());
+        mockMvc.perform(get("/api/sugestoes/history/export")
+                        .param("formato", "xlsx")
+                        .header("Authorization", bearer("medico")))
+                .andExpect(status().isBadRequest())
+                .andExpect(request().asyncNotStarted());
+    }
+}
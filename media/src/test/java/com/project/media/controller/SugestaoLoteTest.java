@@ -0,0 +1,125 @@
+package com.project.media.controller;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.project.media.config.JwtUtil;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.security.web.FilterChainProxy;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.ResultActions;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+import org.springframework.web.context.WebApplicationContext;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest(properties = "media.sugestoes.lote.tamanho-maximo=5")
+class SugestaoLoteTest {
+
+    @Autowired
+    private WebApplicationContext context;
+
+    @Autowired
+    private FilterChainProxy springSecurityFilterChain;
+
+    @Autowired
+    private JwtUtil jwtUtil;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    private MockMvc mockMvc;
+
+    @BeforeEach
+    void configurar() {
+        mockMvc = MockMvcBuilders.webAppContextSetup(context).addFilters(springSecurityFilterChain).build();
+    }
+
+    private ResultActions enviar(List<?> itens) throws Exception {
+        return mockMvc.perform(post("/api/sugestoes/batch")
+                .header("Authorization", "Bearer " + jwtUtil.generateToken("admin"))
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(itens)));
+    }
+
+    private double consultasAoCache() {
+        return meterRegistry.find("cache.gets").tag("cache", "sugestoes").functionCounters().stream()
+                .mapToDouble(FunctionCounter::count)
+                .sum();
+    }
+
+    private List<String> titulos(JsonNode resultado) {
+        List<String> titulos = new ArrayList<>();
+        resultado.get("sugestoes").forEach(sugestao -> titulos.add(sugestao.get("titulo").asText()));
+        return titulos;
+    }
+
+    @Test
+    void conjuntosRepetidosSaoRanqueadosUmaVez() throws Exception {
+        double antes = consultasAoCache();
+
+        String corpo = enviar(List.of(
+                Map.of("sintomas", List.of("Febre", "tosse")),
+                Map.of("sintomas", List.of("tosse ", "febre", "FEBRE")),
+                Map.of("sintomas", List.of("febre", "tosse"), "topK", 1),
+                Map.of("sintomas", List.of("febre", "tosse"))))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString();
+
+        JsonNode resultados = objectMapper.readTree(corpo);
+        assertThat(resultados).hasSize(4);
+        for (int i = 0; i < 4; i++) {
+            assertThat(resultados.get(i).get("indice").asInt()).isEqualTo(i);
+            assertThat(resultados.get(i).get("erro").isNull()).isTrue();
+        }
+        assertThat(titulos(resultados.get(0))).isNotEmpty()
+                .isEqualTo(titulos(resultados.get(1)))
+                .isEqualTo(titulos(resultados.get(3)));
+        assertThat(resultados.get(2).get("sugestoes")).hasSize(1);
+        assertThat(consultasAoCache() - antes).isEqualTo(2);
+    }
+
+    @Test
+    void itensInvalidosFalhamSemDerrubarOLote() throws Exception {
+        List<Object> itens = new ArrayList<>();
+        itens.add(Map.of("sintomas", List.of("febre")));
+        itens.add(null);
+        itens.add(Map.of("sintomas", List.of()));
+        itens.add(Map.of("sintomas", List.of("febre"), "topK", 50));
+        itens.add(Map.of("sintomas", Arrays.asList(" ", null)));
+
+        String corpo = enviar(itens)
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString();
+
+        JsonNode resultados = objectMapper.readTree(corpo);
+        assertThat(resultados.get(0).get("sugestoes")).isNotEmpty();
+        assertThat(resultados.get(1).get("erro").asText()).isEqualTo("Requisição vazia");
+        assertThat(resultados.get(2).get("erro").asText()).contains("não pode estar vazia");
+        assertThat(resultados.get(3).get("erro").asText()).isEqualTo("topK deve ser no máximo 20");
+        assertThat(resultados.get(4).get("erro").asText()).isEqualTo("Lista de sintomas não pode estar vazia");
+    }
+
+    @Test
+    void loteVazioOuAcimaDoLimiteERecusado() throws Exception {
+        enviar(List.of()).andExpect(status().isBadRequest());
+        enviar(Collections.nCopies(6, Map.of("sintomas", List.of("febre")))).andExpect(status().isBadRequest());
+        enviar(Collections.nCopies(5, Map.of("sintomas", List.of("febre")))).andExpect(status().isOk());
+    }
+}
@@ -0,0 +1,74 @@
+package com.project.media.controller;
+
+import com.project.media.config.JwtUtil;
+import com.project.media.config.VerifiedToken;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.security.web.FilterChainProxy;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.ResultActions;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+import org.springframework.web.context.WebApplicationContext;
+
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest
+class TokenControllerTest {
+
+    @Autowired
+    private WebApplicationContext context;
+
+    @Autowired
+    private FilterChainProxy springSecurityFilterChain;
+
+    @Autowired
+    private JwtUtil jwtUtil;
+
+    private MockMvc mockMvc;
+
+    @BeforeEach
+    void configurar() {
+        mockMvc = MockMvcBuilders.webAppContextSetup(context).addFilters(springSecurityFilterChain).build();
+    }
+
+    private ResultActions revogar(String token, String corpo) throws Exception {
+        var requisicao = post("/api/tokens/revogacoes").contentType(MediaType.APPLICATION_JSON).content(corpo);
+        if (token != null) {
+            requisicao.header(HttpHeaders.AUTHORIZATION, "Bearer " + token);
+        }
+        return mockMvc.perform(requisicao);
+    }
+
+    @Test
+    void apenasAdminRevoga() throws Exception {
+        String corpo = "{\"jtis\": [\"jti-qualquer\"]}";
+
+        revogar(null, corpo).andExpect(status().isForbidden());
+        revogar(jwtUtil.generateToken("medico"), corpo).andExpect(status().isForbidden());
+        revogar(jwtUtil.generateToken("Maria|12345678901"), corpo).andExpect(status().isForbidden());
+        revogar(jwtUtil.generateToken("admin"), "{}").andExpect(status().isBadRequest());
+    }
+
+    @Test
+    void tokenRevogadoPeloJtiDeixaDeSerAceito() throws Exception {
+        String admin = jwtUtil.generateToken("admin");
+        String alvo = jwtUtil.generateToken("admin");
+        VerifiedToken verificado = jwtUtil.verifyToken(alvo);
+
+        revogar(alvo, "{}").andExpect(status().isBadRequest());
+
+        revogar(admin, "{\"jtis\": [\"" + verificado.getId() + "\"], \"sujeitos\": []}")
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.jtisRevogados").value(1))
+                .andExpect(jsonPath("$.sujeitosRevogados").value(0));
+
+        revogar(alvo, "{}").andExpect(status().isForbidden());
+        revogar(admin, "{}").andExpect(status().isBadRequest());
+    }
+}
@@ -0,0 +1,68 @@
+package com.project.media.repository;
+
+import com.project.media.config.JpaConfig;
+import com.project.media.entity.Sintoma;
+import com.project.media.entity.Sugestao;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DataJpaTest(properties = "spring.jpa.properties.hibernate.generate_statistics=true")
+@Import({RoteamentoHistorico.class, JpaConfig.class})
+class CatalogoLoteTest {
+
+    @Autowired
+    private SintomaRepository sintomaRepository;
+
+    @Autowired
+    private SugestaoRepository sugestaoRepository;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    private Statistics estatisticas;
+
+    @BeforeEach
+    void limparEstatisticas() {
+        estatisticas = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        estatisticas.clear();
+    }
+
+    @Test
+    void catalogoEGravadoEmLotesComIdsDaSequencia() {
+        List<Sintoma> sintomas = new ArrayList<>();
+        for (int i = 0; i < 120; i++) {
+            sintomas.add(new Sintoma("sintoma " + i, "Sintoma do teste", "TESTE"));
+        }
+        sintomas = sintomaRepository.saveAll(sintomas);
+
+        List<Sugestao> sugestoes = new ArrayList<>();
+        for (int i = 0; i < 120; i++) {
+            Sugestao sugestao = new Sugestao("Sugestão " + i, "Descrição da sugestão " + i, "CONSULTA", 3);
+            sugestao.setSintomas(new HashSet<>(List.of(sintomas.get(i), sintomas.get((i + 1) % sintomas.size()))));
+            sugestoes.add(sugestao);
+        }
+        sugestaoRepository.saveAll(sugestoes);
+        entityManager.flush();
+
+        assertThat(estatisticas.getEntityInsertCount()).isEqualTo(240);
+        // 3 blocos de 50 ids por sequência e um statement em lote por tabela; com IDENTITY seria um por linha
+        assertThat(estatisticas.getPrepareStatementCount()).isLessThanOrEqualTo(3 + 3 + 3);
+        assertThat(sintomas).extracting(Sintoma::getId).doesNotHaveDuplicates().doesNotContainNull();
+    }
+}
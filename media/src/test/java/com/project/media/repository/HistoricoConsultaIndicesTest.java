@@ -0,0 +1,134 @@
+package com.project.media.repository;
+
+import jakarta.persistence.EntityManager;
+import org.hibernate.Session;
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+
+import java.sql.ResultSet;
+import java.sql.Statement;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Explica o SQL que o Hibernate gera para as consultas do repositório, capturado
+ * por um {@link StatementInspector}, e não uma versão escrita à mão: o plano
+ * precisa valer para o que de fato chega ao banco.
+ */
+@DataJpaTest(properties = "spring.jpa.properties.hibernate.session_factory.statement_inspector=" +
+        "com.project.media.repository.HistoricoConsultaIndicesTest$CapturaSql")
+@Import(RoteamentoHistorico.class)
+class HistoricoConsultaIndicesTest {
+
+    private static final LocalDateTime INICIO = LocalDateTime.of(2025, 1, 1, 0, 0);
+    private static final Sort RECENTES = Sort.by(Sort.Direction.DESC, "dataConsulta");
+
+    public static class CapturaSql implements StatementInspector {
+
+        static final List<String> CAPTURADOS = new CopyOnWriteArrayList<>();
+
+        @Override
+        public String inspect(String sql) {
+            CAPTURADOS.add(sql);
+            return sql;
+        }
+    }
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @Autowired
+    private HistoricoConsultaRepository historicoRepository;
+
+    @Autowired
+    private RoteamentoHistorico roteamento;
+
+    /** O ANALYZE confirma a transação, então os dados ficam para os testes seguintes. */
+    @BeforeEach
+    void popular() {
+        if (historicoRepository.count() > 0) {
+            CapturaSql.CAPTURADOS.clear();
+            return;
+        }
+        entityManager.createNativeQuery(
+                "MERGE INTO sugestoes (id, titulo, descricao, tipo_atendimento, prioridade, ativo) KEY (id) " +
+                "SELECT x, 'Sugestão ' || x, 'Descrição da sugestão ' || x, 'CONSULTA', 3, TRUE " +
+                "FROM SYSTEM_RANGE(1, 20)").executeUpdate();
+        entityManager.createNativeQuery(
+                "INSERT INTO historico_consultas (id, sintomas_informados, cpf_paciente, sugestao_id, data_consulta) " +
+                "SELECT x, 'febre, tosse', LPAD(MOD(x, 500), 11, '0'), " +
+                "MOD(x, 20) + 1, " +
+                "DATEADD('MINUTE', x, TIMESTAMP '2025-01-01 00:00:00') " +
+                "FROM SYSTEM_RANGE(1, 5000)").executeUpdate();
+        entityManager.createNativeQuery(
+                "INSERT INTO historico_sintomas (historico_id, termo, data_consulta) " +
+                "SELECT id, CASE WHEN MOD(id, 50) = 0 THEN 'falta de ar' ELSE 'febre' END, data_consulta " +
+                "FROM historico_consultas").executeUpdate();
+        entityManager.createNativeQuery("ANALYZE").executeUpdate();
+        roteamento.recalcular();
+        CapturaSql.CAPTURADOS.clear();
+    }
+
+    /** Plano de cada SELECT emitido desde o início do teste. */
+    private List<String> planos() {
+        List<String> selects = CapturaSql.CAPTURADOS.stream()
+                .filter(sql -> sql.stripLeading().regionMatches(true, 0, "select", 0, 6))
+                .toList();
+        assertThat(selects).isNotEmpty();
+        return selects.stream()
+                .map(this::explicar)
+                .toList();
+    }
+
+    /** Pela conexão JDBC: o SQL gerado tem parâmetros {@code ?}, que o H2 explica sem valores. */
+    private String explicar(String sql) {
+        return entityManager.unwrap(Session.class).doReturningWork(conexao -> {
+            try (Statement statement = conexao.createStatement();
+                 ResultSet plano = statement.executeQuery("EXPLAIN " + sql)) {
+                plano.next();
+                return plano.getString(1);
+            }
+        });
+    }
+
+    @Test
+    void filtroPorCpfEPeriodoUsaIndiceComposto() {
+        historicoRepository.findDtoComFiltros("00000000042", INICIO.plusDays(1), null,
+                PageRequest.of(0, 5, RECENTES));
+
+        // página e contagem
+        assertThat(planos()).hasSize(2)
+                .allSatisfy(plano -> assertThat(plano).containsIgnoringCase("IDX_HISTORICO_CPF_DATA"));
+    }
+
+    @Test
+    void filtroPorPeriodoUsaIndiceDeData() {
+        historicoRepository.findDtoSliceComFiltros(null, INICIO.plusDays(2), INICIO.plusDays(2).plusHours(12),
+                PageRequest.of(0, 20, RECENTES));
+
+        assertThat(planos()).singleElement().asString().containsIgnoringCase("IDX_HISTORICO_DATA");
+    }
+
+    @Test
+    void paginaPorCursorUsaIndiceDeData() {
+        historicoRepository.findDtoKeyset(null, null, null, null, INICIO.plusDays(1), 1000L, 11);
+
+        assertThat(planos()).singleElement().asString().containsIgnoringCase("IDX_HISTORICO_DATA");
+    }
+
+    @Test
+    void filtroPorSintomaLeOIndiceDeTermos() {
+        historicoRepository.findDtoKeyset(null, INICIO.plusDays(1), null, "falta de ar", null, null, 11);
+
+        assertThat(planos()).singleElement().asString().containsIgnoringCase("IDX_HISTORICO_SINTOMAS_TERMO");
+    }
+}
@@ -0,0 +1,118 @@
+package com.project.media.repository;
+
+import com.project.media.dto.HistoricoConsultaDto;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.Sort;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DataJpaTest(properties = "spring.jpa.properties.hibernate.generate_statistics=true")
+@Import(RoteamentoHistorico.class)
+class HistoricoConsultaProjecaoTest {
+
+    @Autowired
+    private HistoricoConsultaRepository historicoRepository;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private RoteamentoHistorico roteamento;
+
+    private Statistics estatisticas;
+
+    @BeforeEach
+    void popular() {
+        entityManager.createNativeQuery(
+                "INSERT INTO sugestoes (id, titulo, descricao, tipo_atendimento, prioridade, ativo) " +
+                "SELECT x, 'Sugestão ' || x, 'Descrição da sugestão ' || x, 'CONSULTA', MOD(x, 5) + 1, TRUE " +
+                "FROM SYSTEM_RANGE(1, 20)").executeUpdate();
+        entityManager.createNativeQuery(
+                "INSERT INTO historico_consultas (id, sintomas_informados, cpf_paciente, sugestao_id, data_consulta) " +
+                "SELECT x, 'febre, tosse', LPAD(MOD(x, 300), 11, '0'), " +
+                "MOD(x, 20) + 1, " +
+                "DATEADD('MINUTE', x, TIMESTAMP '2025-01-01 00:00:00') " +
+                "FROM SYSTEM_RANGE(1, 600)").executeUpdate();
+        entityManager.clear();
+        roteamento.recalcular();
+
+        estatisticas = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        estatisticas.clear();
+    }
+
+    @Test
+    void semCacheDeSegundoNivelForaDoCatalogo() {
+        assertThat(entityManagerFactory.unwrap(SessionFactory.class).getSessionFactoryOptions()
+                .isSecondLevelCacheEnabled()).isFalse();
+    }
+
+    @Test
+    void paginaCompletaUsaConsultaEContagem() {
+        Page<HistoricoConsultaDto> pagina = historicoRepository.findDtoComFiltros(null, null, null,
+                PageRequest.of(1, 50, Sort.by(Sort.Direction.DESC, "dataConsulta")));
+
+        assertThat(pagina.getContent()).hasSize(50)
+                .allSatisfy(dto -> assertThat(dto.getTituloSugestao()).startsWith("Sugestão"));
+        assertThat(pagina.getTotalElements()).isEqualTo(600);
+        assertThat(estatisticas.getPrepareStatementCount()).isEqualTo(2);
+        assertThat(estatisticas.getEntityLoadCount()).isZero();
+    }
+
+    @Test
+    void paginaIncompletaDispensaContagem() {
+        Page<HistoricoConsultaDto> pagina = historicoRepository.findDtoComFiltros("00000000042", null, null,
+                PageRequest.of(0, 50, Sort.by(Sort.Direction.DESC, "dataConsulta")));
+
+        assertThat(pagina.getContent()).hasSize(2);
+        assertThat(estatisticas.getPrepareStatementCount()).isEqualTo(1);
+    }
+
+    @Test
+    void sliceNaoExecutaContagem() {
+        Slice<HistoricoConsultaDto> fatia = historicoRepository.findDtoSliceComFiltros(null, null, null,
+                PageRequest.of(1, 50, Sort.by(Sort.Direction.DESC, "dataConsulta")));
+
+        assertThat(fatia.getContent()).hasSize(50);
+        assertThat(fatia.hasNext()).isTrue();
+        assertThat(estatisticas.getPrepareStatementCount()).isEqualTo(1);
+    }
+
+    @Test
+    void ordenacaoPorCampoDaSugestaoNaoCarregaEntidades() {
+        Page<HistoricoConsultaDto> pagina = historicoRepository.findDtoComFiltros(null, null, null,
+                PageRequest.of(0, 50, Sort.by(Sort.Direction.DESC, "prioridade")));
+
+        assertThat(pagina.getContent()).extracting(HistoricoConsultaDto::getPrioridade).containsOnly(5);
+        assertThat(estatisticas.getPrepareStatementCount()).isEqualTo(2);
+        assertThat(estatisticas.getEntityLoadCount()).isZero();
+    }
+
+    @Test
+    void paginasPorCursorUsamUmaConsultaCada() {
+        List<HistoricoConsultaDto> primeira = historicoRepository.findDtoKeyset(null, null, null, null, null, null, 51);
+        HistoricoConsultaDto ultimo = primeira.get(49);
+        List<HistoricoConsultaDto> segunda = historicoRepository.findDtoKeyset(null, null, null, null,
+                ultimo.getDataConsulta(), ultimo.getId(), 51);
+
+        assertThat(primeira).hasSize(51);
+        assertThat(segunda.get(0).getDataConsulta()).isBefore(ultimo.getDataConsulta());
+        assertThat(estatisticas.getPrepareStatementCount()).isEqualTo(2);
+        assertThat(estatisticas.getEntityLoadCount()).isZero();
+    }
+}
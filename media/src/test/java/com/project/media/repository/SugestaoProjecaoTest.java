@@ -0,0 +1,114 @@
+package com.project.media.repository;
+
+import com.project.media.config.JpaConfig;
+import com.project.media.dto.SugestaoCorrespondenciaProjecao;
+import com.project.media.entity.Sintoma;
+import com.project.media.entity.Sugestao;
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DataJpaTest
+@Import({RoteamentoHistorico.class, JpaConfig.class})
+class SugestaoProjecaoTest {
+
+    private static final List<String> INFORMADOS = List.of("dor | pontada", "febre, alta", "tosse");
+
+    @Autowired
+    private SintomaRepository sintomaRepository;
+
+    @Autowired
+    private SugestaoRepository sugestaoRepository;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    private Sugestao urgente;
+    private Sugestao consulta;
+    private Sugestao orientacao;
+
+    @BeforeEach
+    void popular() {
+        Sintoma dor = sintomaRepository.save(new Sintoma("Dor | pontada", "Dor aguda", "DOR"));
+        Sintoma febre = sintomaRepository.save(new Sintoma("Febre, alta", "Acima de 39 graus", "GERAL"));
+        Sintoma tosse = sintomaRepository.save(new Sintoma("Tosse", "Tosse seca", "RESPIRATORIO"));
+        Sintoma inativo = new Sintoma("tosse", "Duplicado desativado", "RESPIRATORIO");
+        inativo.setAtivo(false);
+        sintomaRepository.save(inativo);
+
+        urgente = salvar("Urgente", 5, dor, febre);
+        consulta = salvar("Consulta", 3, dor, febre, tosse, inativo);
+        orientacao = salvar("Orientação", 1, tosse);
+        Sugestao desativada = salvar("Desativada", 5, dor, febre, tosse);
+        desativada.setAtivo(false);
+        entityManager.flush();
+        entityManager.clear();
+    }
+
+    private Sugestao salvar(String titulo, int prioridade, Sintoma... sintomas) {
+        Sugestao sugestao = new Sugestao(titulo, "Descrição de " + titulo, "CONSULTA", prioridade);
+        sugestao.setSintomas(new HashSet<>(List.of(sintomas)));
+        return sugestaoRepository.save(sugestao);
+    }
+
+    private Map<Long, List<String>> sintomasPorSugestao(List<SugestaoCorrespondenciaProjecao> linhas) {
+        return linhas.stream().collect(Collectors.groupingBy(SugestaoCorrespondenciaProjecao::getId,
+                LinkedHashMap::new, Collectors.mapping(SugestaoCorrespondenciaProjecao::getSintoma, Collectors.toList())));
+    }
+
+    @Test
+    void rankingOrdenaPorCorrespondenciasEPrioridadeELimitaOTopK() {
+        Map<Long, List<String>> todas = sintomasPorSugestao(
+                sugestaoRepository.findMelhoresSugestoesPorSintomas(INFORMADOS, 10));
+        Map<Long, List<String>> duas = sintomasPorSugestao(
+                sugestaoRepository.findMelhoresSugestoesPorSintomas(INFORMADOS, 2));
+
+        assertThat(todas.keySet()).containsExactly(consulta.getId(), urgente.getId(), orientacao.getId());
+        assertThat(duas.keySet()).containsExactly(consulta.getId(), urgente.getId());
+    }
+
+    @Test
+    void umaLinhaPorSintomaComNomesInteirosEContagemDoCatalogo() {
+        List<SugestaoCorrespondenciaProjecao> linhas = sugestaoRepository.findMelhoresSugestoesPorSintomas(
+                INFORMADOS, 10);
+
+        Map<Long, List<String>> porSugestao = sintomasPorSugestao(linhas);
+        assertThat(porSugestao.get(consulta.getId())).containsExactly("Dor | pontada", "Febre, alta", "Tosse");
+        assertThat(porSugestao.get(urgente.getId())).containsExactly("Dor | pontada", "Febre, alta");
+        assertThat(porSugestao.get(orientacao.getId())).containsExactly("Tosse");
+        assertThat(linhas).extracting(SugestaoCorrespondenciaProjecao::getPosicao).containsExactly(1, 1, 1, 2, 2, 3);
+        assertThat(linhas).extracting(SugestaoCorrespondenciaProjecao::getTitulo)
+                .startsWith("Consulta", "Consulta", "Consulta", "Urgente");
+        assertThat(linhas).extracting(SugestaoCorrespondenciaProjecao::getSintomasEncontrados).containsOnly(3);
+    }
+
+    @Test
+    void sintomaSemSugestaoAtivaVoltaSoAContagem() {
+        sintomaRepository.save(new Sintoma("Coceira", "Sem sugestão ligada", "PELE"));
+
+        List<SugestaoCorrespondenciaProjecao> conhecido = sugestaoRepository.findMelhoresSugestoesPorSintomas(
+                List.of("coceira"), 5);
+        List<SugestaoCorrespondenciaProjecao> desconhecido = sugestaoRepository.findMelhoresSugestoesPorSintomas(
+                List.of("soluço"), 5);
+
+        assertThat(conhecido).singleElement().satisfies(linha -> {
+            assertThat(linha.getSintomasEncontrados()).isEqualTo(1);
+            assertThat(linha.getId()).isNull();
+        });
+        assertThat(desconhecido).singleElement().satisfies(linha -> {
+            assertThat(linha.getSintomasEncontrados()).isZero();
+            assertThat(linha.getId()).isNull();
+        });
+    }
+}
@@ -0,0 +1,109 @@
+package com.project.media.service;
+
+import com.project.media.dto.HistoricoConsultaDto;
+import com.project.media.repository.HistoricoConsultaRepository;
+import com.project.media.repository.RoteamentoHistorico;
+import com.project.media.repository.RoteamentoHistorico.Destino;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DataJpaTest(properties = "media.historico.arquivamento.lote=100")
+@Import({RoteamentoHistorico.class, ArquivamentoHistorico.class, SimpleMeterRegistry.class})
+class ArquivamentoHistoricoTest {
+
+    private static final LocalDateTime CORTE = LocalDateTime.of(2025, 1, 1, 5, 0);
+
+    @Autowired
+    private ArquivamentoHistorico arquivamento;
+
+    @Autowired
+    private RoteamentoHistorico roteamento;
+
+    @Autowired
+    private HistoricoConsultaRepository historicoRepository;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @BeforeEach
+    void popular() {
+        entityManager.createNativeQuery(
+                "INSERT INTO sugestoes (id, titulo, descricao, tipo_atendimento, prioridade, ativo) " +
+                "SELECT x, 'Sugestão ' || x, 'Descrição da sugestão ' || x, 'CONSULTA', MOD(x, 5) + 1, TRUE " +
+                "FROM SYSTEM_RANGE(1, 20)").executeUpdate();
+        entityManager.createNativeQuery(
+                "INSERT INTO historico_consultas (id, sintomas_informados, cpf_paciente, sugestao_id, data_consulta) " +
+                "SELECT x, 'febre, tosse', LPAD(MOD(x, 300), 11, '0'), " +
+                "MOD(x, 20) + 1, " +
+                "DATEADD('MINUTE', x, TIMESTAMP '2025-01-01 00:00:00') " +
+                "FROM SYSTEM_RANGE(1, 600)").executeUpdate();
+        roteamento.recalcular();
+    }
+
+    @Test
+    void semArquivoTudoVaiParaTabelaRecente() {
+        assertThat(roteamento.destino(null, null)).isEqualTo(Destino.RECENTE);
+        assertThat(contarTabela("historico_consultas_arquivo")).isZero();
+    }
+
+    @Test
+    void moveMesesFechadosEmLotes() {
+        long movidas = arquivamento.arquivarAntesDe(CORTE);
+
+        assertThat(movidas).isEqualTo(299);
+        assertThat(contarTabela("historico_consultas")).isEqualTo(301);
+        assertThat(contarTabela("historico_consultas_arquivo")).isEqualTo(299);
+        assertThat(arquivamento.arquivarAntesDe(CORTE)).isZero();
+    }
+
+    @Test
+    void roteiaFiltrosPeloLimiteDoArquivo() {
+        arquivamento.arquivarAntesDe(CORTE);
+
+        assertThat(roteamento.destino(CORTE, null)).isEqualTo(Destino.RECENTE);
+        assertThat(roteamento.destino(null, CORTE.minusHours(1))).isEqualTo(Destino.ARQUIVO);
+        assertThat(roteamento.destino(CORTE.minusHours(1), null)).isEqualTo(Destino.COMPLETO);
+        assertThat(roteamento.destino(null, null)).isEqualTo(Destino.COMPLETO);
+
+        assertThat(historicoRepository.findDtoComFiltros(null, CORTE, null, PageRequest.of(0, 10))
+                .getTotalElements()).isEqualTo(301);
+        assertThat(historicoRepository.findDtoComFiltros(null, null, CORTE.minusHours(1), PageRequest.of(0, 10))
+                .getTotalElements()).isEqualTo(240);
+    }
+
+    @Test
+    void periodoQueCruzaOLimiteLeAsDuasTabelas() {
+        arquivamento.arquivarAntesDe(CORTE);
+
+        Page<HistoricoConsultaDto> pagina = historicoRepository.findDtoComFiltros(null,
+                CORTE.minusMinutes(30), CORTE.plusMinutes(29),
+                PageRequest.of(0, 100, Sort.by(Sort.Direction.DESC, "dataConsulta")));
+        assertThat(pagina.getTotalElements()).isEqualTo(60);
+        assertThat(pagina.getContent()).allSatisfy(dto -> assertThat(dto.getTituloSugestao()).startsWith("Sugestão"));
+
+        List<HistoricoConsultaDto> primeira = historicoRepository.findDtoKeyset(null, null, null, null, null, null, 400);
+        HistoricoConsultaDto ultima = primeira.get(primeira.size() - 1);
+        List<HistoricoConsultaDto> segunda = historicoRepository.findDtoKeyset(null, null, null, null,
+                ultima.getDataConsulta(), ultima.getId(), 400);
+        assertThat(primeira.size() + segunda.size()).isEqualTo(600);
+        assertThat(segunda.get(0).getDataConsulta()).isBefore(ultima.getDataConsulta());
+    }
+
+    private long contarTabela(String tabela) {
+        return ((Number) entityManager.createNativeQuery("SELECT COUNT(*) FROM " + tabela)
+                .getSingleResult()).longValue();
+    }
+}
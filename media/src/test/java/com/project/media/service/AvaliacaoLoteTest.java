@@ -0,0 +1,104 @@
+package com.project.media.service;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class AvaliacaoLoteTest {
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private AvaliacaoLote avaliacaoLote;
+
+    private AvaliacaoLote criar(int threads, int capacidadeFila, Duration timeout) {
+        AvaliacaoLote avaliacao = new AvaliacaoLote();
+        ReflectionTestUtils.setField(avaliacao, "meterRegistry", meterRegistry);
+        ReflectionTestUtils.setField(avaliacao, "threads", threads);
+        ReflectionTestUtils.setField(avaliacao, "capacidadeFila", capacidadeFila);
+        ReflectionTestUtils.setField(avaliacao, "timeout", timeout);
+        avaliacao.iniciar();
+        return avaliacao;
+    }
+
+    @AfterEach
+    void encerrar() {
+        avaliacaoLote.encerrar();
+    }
+
+    @Test
+    void avaliaEmParaleloForaDaThreadChamadoraEMantemAOrdem() {
+        avaliacaoLote = criar(3, 10, Duration.ofSeconds(5));
+        CountDownLatch todasIniciadas = new CountDownLatch(3);
+        Set<String> threadsUsadas = ConcurrentHashMap.newKeySet();
+
+        List<Callable<Integer>> tarefas = new ArrayList<>();
+        for (int i = 0; i < 3; i++) {
+            int valor = i;
+            tarefas.add(() -> {
+                threadsUsadas.add(Thread.currentThread().getName());
+                todasIniciadas.countDown();
+                // só termina se as três estiverem rodando ao mesmo tempo
+                assertThat(todasIniciadas.await(5, TimeUnit.SECONDS)).isTrue();
+                return valor * 10;
+            });
+        }
+
+        assertThat(avaliacaoLote.avaliar(tarefas)).containsExactly(0, 10, 20);
+        assertThat(threadsUsadas).hasSize(3).allMatch(nome -> nome.startsWith("sugestoes-lote-"));
+    }
+
+    @Test
+    void falhaETimeoutViramNuloSemAfetarAsDemais() {
+        avaliacaoLote = criar(2, 10, Duration.ofMillis(300));
+        CountDownLatch nuncaLiberado = new CountDownLatch(1);
+
+        List<Callable<String>> tarefas = List.of(
+                () -> "ok",
+                () -> {
+                    throw new IllegalStateException("falhou");
+                },
+                () -> {
+                    nuncaLiberado.await();
+                    return "tarde demais";
+                });
+
+        long inicio = System.nanoTime();
+        assertThat(avaliacaoLote.avaliar(tarefas)).containsExactly("ok", null, null);
+        assertThat(Duration.ofNanos(System.nanoTime() - inicio)).isLessThan(Duration.ofSeconds(3));
+        assertThat(meterRegistry.counter("sugestoes.lote.expiradas").count()).isEqualTo(1);
+    }
+
+    @Test
+    void filaCheiaRodaNaThreadChamadora() {
+        avaliacaoLote = criar(1, 1, Duration.ofSeconds(5));
+        CountDownLatch liberar = new CountDownLatch(1);
+        String chamadora = Thread.currentThread().getName();
+
+        List<Callable<String>> tarefas = List.of(
+                () -> {
+                    liberar.await();
+                    return Thread.currentThread().getName();
+                },
+                () -> Thread.currentThread().getName(),
+                () -> {
+                    liberar.countDown();
+                    return Thread.currentThread().getName();
+                });
+
+        List<String> resultados = avaliacaoLote.avaliar(tarefas);
+        assertThat(resultados.get(0)).startsWith("sugestoes-lote-");
+        assertThat(resultados.get(1)).startsWith("sugestoes-lote-");
+        assertThat(resultados.get(2)).isEqualTo(chamadora);
+    }
+}
@@ -0,0 +1,84 @@
+package com.project.media.service;
+
+import com.project.media.config.CacheCatalogoConfig;
+import com.project.media.entity.Sintoma;
+import com.project.media.repository.RoteamentoHistorico;
+import com.project.media.repository.SintomaRepository;
+import com.project.media.service.ImportadorCatalogo.Formato;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.ImportAutoConfiguration;
+import org.springframework.boot.autoconfigure.jackson.JacksonAutoConfiguration;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/** Sem transação de teste: a importação precisa de commit para gerar nova versão do catálogo. */
+@DataJpaTest(properties = "spring.jpa.properties.hibernate.generate_statistics=true")
+@Import({RoteamentoHistorico.class, CacheCatalogoConfig.class, CacheCatalogo.class, ImportadorCatalogo.class,
+        CatalogoVersao.class, SimpleMeterRegistry.class})
+@ImportAutoConfiguration(JacksonAutoConfiguration.class)
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class CacheCatalogoTest {
+
+    private static final String CSV = """
+            formato,1
+            sintoma,Febre,Temperatura elevada,GERAL
+            sintoma,Tosse,Tosse seca,RESPIRATORIO
+            """;
+
+    @Autowired
+    private ImportadorCatalogo importador;
+
+    @Autowired
+    private SintomaRepository sintomaRepository;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    private void importar(String conteudo) {
+        importador.importar(new ByteArrayInputStream(conteudo.getBytes(StandardCharsets.UTF_8)), Formato.CSV);
+    }
+
+    private Sintoma febre() {
+        List<Sintoma> sintomas = sintomaRepository.findByNomesContaining(List.of("febre"));
+        assertThat(sintomas).hasSize(1);
+        return sintomas.get(0);
+    }
+
+    @Test
+    void consultaSaiDoCacheAteAImportacaoAlterarOCatalogo() {
+        Statistics estatisticas = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        importar(CSV);
+
+        Long id = febre().getId();
+        estatisticas.clear();
+        assertThat(febre().getDescricao()).isEqualTo("Temperatura elevada");
+        assertThat(sintomaRepository.findById(id)).isPresent();
+        assertThat(estatisticas.getQueryCacheHitCount()).isEqualTo(1);
+        assertThat(estatisticas.getSecondLevelCacheHitCount()).isEqualTo(1);
+        assertThat(estatisticas.getPrepareStatementCount()).isZero();
+
+        importar(CSV.replace("Temperatura elevada", "Acima de 38 graus"));
+
+        assertThat(febre().getDescricao()).isEqualTo("Acima de 38 graus");
+        assertThat(sintomaRepository.findById(id).orElseThrow().getDescricao()).isEqualTo("Acima de 38 graus");
+        assertThat(meterRegistry.find("cache.gets").tag("cache", CacheCatalogoConfig.REGIAO_SINTOMAS).meters())
+                .isNotEmpty();
+    }
+}
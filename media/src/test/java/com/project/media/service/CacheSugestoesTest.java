@@ -0,0 +1,76 @@
+package com.project.media.service;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class CacheSugestoesTest {
+
+    private final AtomicInteger calculos = new AtomicInteger();
+    private CatalogoVersao catalogoVersao;
+    private CacheSugestoes cache;
+
+    /** Os eventos de alteração não são entregues ao cache: só a versão na chave o protege. */
+    @BeforeEach
+    void configurar() {
+        ApplicationEventPublisher semOuvintes = evento -> { };
+        catalogoVersao = new CatalogoVersao();
+        ReflectionTestUtils.setField(catalogoVersao, "eventPublisher", semOuvintes);
+
+        cache = new CacheSugestoes();
+        ReflectionTestUtils.setField(cache, "catalogoVersao", catalogoVersao);
+        ReflectionTestUtils.setField(cache, "meterRegistry", new SimpleMeterRegistry());
+        ReflectionTestUtils.setField(cache, "tamanhoMaximo", 100L);
+        ReflectionTestUtils.setField(cache, "ttl", Duration.ofMinutes(10));
+        cache.inicializar();
+    }
+
+    private IndiceSugestoes.Ranking obter(List<String> sintomas, int topK) {
+        return cache.obter(sintomas, topK, () -> {
+            calculos.incrementAndGet();
+            return new IndiceSugestoes.Ranking(sintomas.size(), List.of());
+        });
+    }
+
+    @Test
+    void mesmoConjuntoDeSintomasReaproveitaOResultado() {
+        IndiceSugestoes.Ranking primeiro = obter(List.of("febre", "tosse"), 5);
+
+        assertThat(obter(List.of("tosse", "febre", "tosse"), 5)).isSameAs(primeiro);
+        assertThat(calculos).hasValue(1);
+
+        obter(List.of("febre", "tosse"), 3);
+        obter(List.of("febre"), 5);
+        assertThat(calculos).hasValue(3);
+    }
+
+    @Test
+    void novaVersaoDoCatalogoNaoServeResultadoAntigo() {
+        IndiceSugestoes.Ranking antes = obter(List.of("febre"), 5);
+
+        catalogoVersao.incrementar();
+
+        IndiceSugestoes.Ranking depois = obter(List.of("febre"), 5);
+        assertThat(depois).isNotSameAs(antes);
+        assertThat(obter(List.of("febre"), 5)).isSameAs(depois);
+        assertThat(calculos).hasValue(2);
+    }
+
+    @Test
+    void eventoDeAlteracaoEsvaziaOCache() {
+        obter(List.of("febre"), 5);
+
+        cache.onCatalogoAlterado(new CatalogoAlteradoEvent(catalogoVersao.atual()));
+
+        obter(List.of("febre"), 5);
+        assertThat(calculos).hasValue(2);
+    }
+}
@@ -0,0 +1,107 @@
+package com.project.media.service;
+
+import com.project.media.repository.RoteamentoHistorico;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DataJpaTest(properties = "media.estatisticas.backfill-inicial=false")
+@Import({RoteamentoHistorico.class, EstatisticaService.class, MarcosProcessamento.class})
+class EstatisticaServiceTest {
+
+    private static final LocalDateTime HORA = LocalDateTime.of(2025, 3, 10, 14, 0);
+
+    @Autowired
+    private EstatisticaService estatisticaService;
+
+    @Autowired
+    private MarcosProcessamento marcos;
+
+    @Autowired
+    private RoteamentoHistorico roteamento;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @BeforeEach
+    void popular() {
+        jdbcTemplate.update("INSERT INTO sugestoes (id, titulo, descricao, tipo_atendimento, prioridade, ativo) " +
+                "SELECT x, 'Sugestão ' || x, 'Descrição da sugestão', 'CONSULTA', 3, TRUE FROM SYSTEM_RANGE(1, 2)");
+    }
+
+    private EventoHistorico evento(long sugestaoId, LocalDateTime data, Long tempoRespostaMs) {
+        return new EventoHistorico("febre", List.of("febre"), "12345678901", "Maria", sugestaoId, null, null,
+                data, tempoRespostaMs, "CONSULTA");
+    }
+
+    private Map<String, Object> linha(String granularidade, LocalDateTime inicio, long sugestaoId) {
+        return jdbcTemplate.queryForMap("SELECT total_consultas, soma_tempo_resposta_ms, consultas_com_tempo " +
+                        "FROM estatisticas_consultas WHERE granularidade = ? AND inicio_periodo = ? AND sugestao_id = ?",
+                granularidade, Timestamp.valueOf(inicio), sugestaoId);
+    }
+
+    private long total(String granularidade, LocalDateTime inicio, long sugestaoId) {
+        return ((Number) linha(granularidade, inicio, sugestaoId).get("total_consultas")).longValue();
+    }
+
+    @Test
+    void acumularSomaNasLinhasExistentesEInsereAsNovas() {
+        estatisticaService.acumular(List.of(
+                evento(1, HORA.plusMinutes(5), 100L),
+                evento(1, HORA.plusMinutes(10), null)));
+        estatisticaService.acumular(List.of(
+                evento(1, HORA.plusMinutes(20), 300L),
+                evento(2, HORA.plusMinutes(30), 50L),
+                evento(1, HORA.plusHours(2), 40L)));
+
+        Map<String, Object> hora = linha("HORA", HORA, 1);
+        assertThat(((Number) hora.get("total_consultas")).longValue()).isEqualTo(3);
+        assertThat(((Number) hora.get("soma_tempo_resposta_ms")).longValue()).isEqualTo(400);
+        assertThat(((Number) hora.get("consultas_com_tempo")).longValue()).isEqualTo(2);
+        assertThat(total("HORA", HORA.plusHours(2), 1)).isEqualTo(1);
+        assertThat(total("HORA", HORA, 2)).isEqualTo(1);
+        assertThat(total("DIA", HORA.toLocalDate().atStartOfDay(), 1)).isEqualTo(4);
+        assertThat(jdbcTemplate.queryForObject("SELECT COUNT(*) FROM estatisticas_consultas", Integer.class))
+                .isEqualTo(5);
+
+        assertThat(jdbcTemplate.queryForObject("SELECT SUM(quantidade) FROM latencias_consultas " +
+                "WHERE granularidade = 'HORA' AND inicio_periodo = ? AND sugestao_id = 1",
+                Long.class, Timestamp.valueOf(HORA))).isEqualTo(2);
+        assertThat(jdbcTemplate.queryForObject("SELECT MAX(maximo_ms) FROM latencias_consultas " +
+                "WHERE granularidade = 'DIA' AND sugestao_id = 1", Long.class)).isEqualTo(300);
+    }
+
+    @Test
+    void preenchimentoInicialRodaUmaVezMesmoComLinhasDosLotes() {
+        jdbcTemplate.update(
+                "INSERT INTO historico_consultas (id, sintomas_informados, cpf_paciente, sugestao_id, " +
+                "data_consulta, tempo_resposta_ms) " +
+                "SELECT x, 'febre', '12345678901', 1, DATEADD('MINUTE', x, TIMESTAMP '2025-03-10 14:00:00'), 10 " +
+                "FROM SYSTEM_RANGE(1, 4)");
+        roteamento.recalcular();
+        // Lote gravado depois da subida, antes de o preenchimento rodar
+        estatisticaService.acumular(List.of(evento(1, HORA.plusMinutes(4), 10L)));
+        assertThat(total("DIA", HORA.toLocalDate().atStartOfDay(), 1)).isEqualTo(1);
+
+        assertThat(estatisticaService.preencherHistoricoAnterior()).isEqualTo(1);
+
+        assertThat(total("DIA", HORA.toLocalDate().atStartOfDay(), 1)).isEqualTo(4);
+        assertThat(marcos.ler(EstatisticaService.MARCO_BACKFILL))
+                .isEqualTo(Timestamp.valueOf(HORA.plusMinutes(4)).getTime());
+
+        jdbcTemplate.update("DELETE FROM estatisticas_consultas");
+        assertThat(estatisticaService.preencherHistoricoAnterior()).isZero();
+        assertThat(jdbcTemplate.queryForObject("SELECT COUNT(*) FROM estatisticas_consultas", Integer.class))
+                .isZero();
+    }
+}
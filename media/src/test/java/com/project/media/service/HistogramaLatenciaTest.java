@@ -0,0 +1,72 @@
+package com.project.media.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.Random;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class HistogramaLatenciaTest {
+
+    @Test
+    void cadaValorCaiNaFaixaQueOContem() {
+        for (long valor = 0; valor <= 200_000; valor++) {
+            int faixa = HistogramaLatencia.faixa(valor);
+            assertThat(HistogramaLatencia.limiteSuperior(faixa)).isGreaterThanOrEqualTo(valor);
+            if (faixa > 0) {
+                assertThat(HistogramaLatencia.limiteSuperior(faixa - 1)).isLessThan(valor);
+            }
+        }
+        assertThat(HistogramaLatencia.faixa(Long.MAX_VALUE)).isEqualTo(HistogramaLatencia.TOTAL_FAIXAS - 1);
+        assertThat(HistogramaLatencia.limiteSuperior(HistogramaLatencia.TOTAL_FAIXAS - 1))
+                .isEqualTo(HistogramaLatencia.LIMITE_MS);
+    }
+
+    @Test
+    void percentisFicamDentroDoErroDaFaixa() {
+        Random random = new Random(7);
+        long[] valores = new long[50_000];
+        HistogramaLatencia histograma = new HistogramaLatencia();
+        for (int i = 0; i < valores.length; i++) {
+            valores[i] = (long) Math.exp(random.nextGaussian() * 1.2 + 5);
+            histograma.registrar(valores[i]);
+        }
+        Arrays.sort(valores);
+
+        for (double p : new double[] {50, 95, 99}) {
+            long exato = valores[(int) Math.ceil(p * valores.length / 100.0) - 1];
+            assertThat(histograma.percentil(p)).isBetween(exato, exato + exato / 16);
+        }
+        assertThat(histograma.getMaximo()).isEqualTo(valores[valores.length - 1]);
+        assertThat(histograma.getTotal()).isEqualTo(valores.length);
+    }
+
+    @Test
+    void linhasDeFaixaSomadasEquivalemAoHistogramaUnico() {
+        HistogramaLatencia dia = new HistogramaLatencia();
+        HistogramaLatencia somado = new HistogramaLatencia();
+        for (int hora = 0; hora < 24; hora++) {
+            long[] quantidades = new long[HistogramaLatencia.TOTAL_FAIXAS];
+            long[] maximos = new long[HistogramaLatencia.TOTAL_FAIXAS];
+            for (long valor = 1; valor <= 500; valor++) {
+                long tempo = valor * (hora + 1);
+                dia.registrar(tempo);
+                int faixa = HistogramaLatencia.faixa(tempo);
+                quantidades[faixa]++;
+                maximos[faixa] = Math.max(maximos[faixa], tempo);
+            }
+            for (int faixa = 0; faixa < quantidades.length; faixa++) {
+                if (quantidades[faixa] > 0) {
+                    somado.somar(faixa, quantidades[faixa], maximos[faixa]);
+                }
+            }
+        }
+
+        for (double p : new double[] {50, 95, 99, 100}) {
+            assertThat(somado.percentil(p)).isEqualTo(dia.percentil(p));
+        }
+        assertThat(somado.getMaximo()).isEqualTo(500L * 24);
+        assertThat(new HistogramaLatencia().percentil(50)).isNull();
+    }
+}
@@ -0,0 +1,107 @@
+package com.project.media.service;
+
+import com.project.media.dto.ImportacaoCatalogoDto;
+import com.project.media.repository.RoteamentoHistorico;
+import com.project.media.service.ImportadorCatalogo.Formato;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.ImportAutoConfiguration;
+import org.springframework.boot.autoconfigure.jackson.JacksonAutoConfiguration;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+@DataJpaTest(properties = "media.catalogo.lote=7")
+@Import({RoteamentoHistorico.class, ImportadorCatalogo.class, CatalogoVersao.class})
+@ImportAutoConfiguration(JacksonAutoConfiguration.class)
+class ImportadorCatalogoTest {
+
+    private static final String CSV = """
+            # catálogo de teste
+            formato,1
+            sintoma,Febre,Temperatura elevada,GERAL
+            sintoma,Tosse,"Tosse seca, persistente",RESPIRATORIO
+            sugestao,Consulta clínica,"Avaliação ""geral""\",CONSULTA,3,Repouso
+            associacao,Consulta clínica,febre
+            associacao,Consulta clínica,Tosse
+            """;
+
+    @Autowired
+    private ImportadorCatalogo importador;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private ImportacaoCatalogoDto importar(String conteudo, Formato formato) {
+        return importador.importar(new ByteArrayInputStream(conteudo.getBytes(StandardCharsets.UTF_8)), formato);
+    }
+
+    private int contar(String tabela) {
+        return jdbcTemplate.queryForObject("SELECT COUNT(*) FROM " + tabela, Integer.class);
+    }
+
+    @Test
+    void catalogoPadraoEImportadoUmaVezSo() throws Exception {
+        ImportacaoCatalogoDto primeira = importador.importar(new ClassPathResource("catalogo/catalogo-v1.json"));
+
+        assertThat(primeira.getSintomasInseridos()).isEqualTo(contar("sintomas")).isGreaterThan(50);
+        assertThat(primeira.getSugestoesInseridas()).isEqualTo(contar("sugestoes"));
+        assertThat(primeira.getAssociacoesInseridas()).isEqualTo(contar("sugestao_sintoma"));
+
+        ImportacaoCatalogoDto segunda = importador.importar(new ClassPathResource("catalogo/catalogo-v1.json"));
+
+        assertThat(segunda.getSintomasInseridos() + segunda.getSintomasAtualizados()).isZero();
+        assertThat(segunda.getSugestoesInseridas() + segunda.getSugestoesAtualizadas()).isZero();
+        assertThat(segunda.getAssociacoesInseridas()).isZero();
+    }
+
+    @Test
+    void csvAtualizaSoOQueMudou() {
+        ImportacaoCatalogoDto primeira = importar(CSV, Formato.CSV);
+        assertThat(primeira.getSintomasInseridos()).isEqualTo(2);
+        assertThat(primeira.getSugestoesInseridas()).isEqualTo(1);
+        assertThat(primeira.getAssociacoesInseridas()).isEqualTo(2);
+        assertThat(jdbcTemplate.queryForObject("SELECT descricao FROM sugestoes", String.class))
+                .isEqualTo("Avaliação \"geral\"");
+
+        ImportacaoCatalogoDto segunda = importar(CSV.replace("Temperatura elevada", "Acima de 37,8 °C"), Formato.CSV);
+        assertThat(segunda.getSintomasInseridos()).isZero();
+        assertThat(segunda.getSintomasAtualizados()).isEqualTo(1);
+        assertThat(segunda.getSugestoesAtualizadas()).isZero();
+        assertThat(segunda.getAssociacoesInseridas()).isZero();
+        assertThat(contar("sintomas")).isEqualTo(2);
+    }
+
+    @Test
+    void jsonComSintomasEmbutidosNaSugestao() {
+        String json = """
+                {"formato": 1,
+                 "sintomas": [{"nome": "Febre", "descricao": "Temperatura elevada", "categoria": "GERAL"}],
+                 "sugestoes": [{"titulo": "Consulta clínica", "descricao": "Avaliação", "tipoAtendimento": "CONSULTA",
+                                "prioridade": 3, "sintomas": ["Febre"]}]}
+                """;
+
+        ImportacaoCatalogoDto resultado = importar(json, Formato.JSON);
+
+        assertThat(resultado.getFormato()).isEqualTo(1);
+        assertThat(resultado.getAssociacoesInseridas()).isEqualTo(1);
+    }
+
+    @Test
+    void referenciasDesconhecidasEFormatoAusenteSaoRejeitados() {
+        assertThatThrownBy(() -> importar("formato,1\nassociacao,Inexistente,Febre\n", Formato.CSV))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessageStartingWith("Linha 2");
+        assertThatThrownBy(() -> importar("sintoma,Febre,Temperatura elevada,GERAL\n", Formato.CSV))
+                .isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> importar("{\"formato\": 1, \"sintomas\": [", Formato.JSON))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+}
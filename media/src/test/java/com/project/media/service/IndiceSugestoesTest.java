@@ -0,0 +1,116 @@
+package com.project.media.service;
+
+import com.project.media.dto.SugestaoResponseDto;
+import com.project.media.entity.Sintoma;
+import com.project.media.entity.Sugestao;
+import com.project.media.repository.RoteamentoHistorico;
+import com.project.media.repository.SintomaRepository;
+import com.project.media.repository.SugestaoRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.HashSet;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/** Sem transação de teste: o índice é construído numa transação própria e só enxerga dados confirmados. */
+@DataJpaTest
+@Import({RoteamentoHistorico.class, IndiceSugestoes.class, CatalogoVersao.class})
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class IndiceSugestoesTest {
+
+    private static final LocalDateTime CRIACAO = LocalDateTime.of(2025, 1, 1, 8, 0);
+    private static final List<String> INFORMADOS = List.of("dor", "febre", "tosse");
+
+    @Autowired
+    private IndiceSugestoes indice;
+
+    @Autowired
+    private SintomaRepository sintomaRepository;
+
+    @Autowired
+    private SugestaoRepository sugestaoRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @BeforeEach
+    void popular() {
+        Sintoma dor = sintomaRepository.save(new Sintoma("Dor", "Dor aguda", "DOR"));
+        Sintoma febre = sintomaRepository.save(new Sintoma("Febre", "Acima de 38 graus", "GERAL"));
+        Sintoma tosse = sintomaRepository.save(new Sintoma("Tosse", "Tosse seca", "RESPIRATORIO"));
+        Sintoma tontura = sintomaRepository.save(new Sintoma("Tontura", "Sem sugestão ativa", "GERAL"));
+
+        salvar("Três sintomas", 1, CRIACAO, dor, febre, tosse);
+        salvar("Prioridade alta", 5, CRIACAO, dor, febre);
+        salvar("Mais recente", 3, CRIACAO.plusDays(1), dor, febre);
+        salvar("Mais antiga", 3, CRIACAO, dor, febre);
+        salvar("Mesma data", 3, CRIACAO, dor, febre);
+        salvar("Um sintoma", 5, CRIACAO, tosse);
+        Sugestao inativa = salvar("Inativa", 5, CRIACAO, tontura, dor, febre, tosse);
+        inativa.setAtivo(false);
+        sugestaoRepository.save(inativa);
+
+        indice.invalidar();
+    }
+
+    @AfterEach
+    void limpar() {
+        jdbcTemplate.update("DELETE FROM sugestao_sintoma");
+        jdbcTemplate.update("DELETE FROM sugestoes");
+        jdbcTemplate.update("DELETE FROM sintomas");
+    }
+
+    private Sugestao salvar(String titulo, int prioridade, LocalDateTime criacao, Sintoma... sintomas) {
+        Sugestao sugestao = new Sugestao(titulo, "Descrição de " + titulo, "CONSULTA", prioridade);
+        sugestao.setSintomas(new HashSet<>(List.of(sintomas)));
+        sugestao = sugestaoRepository.save(sugestao);
+        jdbcTemplate.update("UPDATE sugestoes SET data_criacao = ? WHERE id = ?",
+                Timestamp.valueOf(criacao), sugestao.getId());
+        return sugestao;
+    }
+
+    private List<String> titulos(IndiceSugestoes.Ranking ranking) {
+        return ranking.getSugestoes().stream().map(SugestaoResponseDto::getTitulo).toList();
+    }
+
+    @Test
+    void ordenaPorCorrespondenciasPrioridadeDataEId() {
+        IndiceSugestoes.Ranking ranking = indice.ranquear(INFORMADOS, 10);
+
+        assertThat(ranking.getSintomasEncontrados()).isEqualTo(3);
+        assertThat(titulos(ranking)).containsExactly(
+                "Três sintomas", "Prioridade alta", "Mais recente", "Mais antiga", "Mesma data", "Um sintoma");
+        assertThat(ranking.getSugestoes().get(0).getSintomasCorrespondentes())
+                .containsExactlyInAnyOrder("Dor", "Febre", "Tosse");
+    }
+
+    @Test
+    void topKDevolveApenasAsMelhores() {
+        assertThat(titulos(indice.ranquear(INFORMADOS, 3)))
+                .containsExactly("Três sintomas", "Prioridade alta", "Mais recente");
+        assertThat(titulos(indice.ranquear(INFORMADOS, 1))).containsExactly("Três sintomas");
+        assertThat(titulos(indice.ranquear(INFORMADOS, 0))).isEmpty();
+        assertThat(titulos(indice.ranquear(List.of("tosse"), 10))).containsExactly("Um sintoma", "Três sintomas");
+    }
+
+    @Test
+    void sintomaDoCatalogoSemSugestaoAtivaNaoViraGenerico() {
+        IndiceSugestoes.Ranking conhecido = indice.ranquear(List.of("tontura"), 5);
+        IndiceSugestoes.Ranking desconhecido = indice.ranquear(List.of("espirro"), 5);
+
+        assertThat(conhecido.getSintomasEncontrados()).isEqualTo(1);
+        assertThat(conhecido.getSugestoes()).isEmpty();
+        assertThat(desconhecido.getSintomasEncontrados()).isZero();
+    }
+}
@@ -0,0 +1,222 @@
+package com.project.media.service;
+
+import com.project.media.repository.RoteamentoHistorico;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.persistence.EntityManagerFactory;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.function.BooleanSupplier;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Cada teste monta o próprio registrador, com fila e lote pequenos; a thread
+ * de gravação é travada segurando o bloqueio do {@link EstatisticaService}.
+ * Sem transação de teste: os lotes são gravados e confirmados pela thread de
+ * gravação.
+ */
+@DataJpaTest(properties = "media.historico.sintomas.backfill-inicial=false")
+@Import({RoteamentoHistorico.class, EstatisticaService.class, SintomasHistoricoService.class,
+        MarcosProcessamento.class, CatalogoVersao.class})
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class RegistradorHistoricoTest {
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private EstatisticaService estatisticaService;
+
+    @Autowired
+    private SintomasHistoricoService sintomasHistoricoService;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    private SimpleMeterRegistry meterRegistry;
+    private final List<RegistradorHistorico> registradores = new ArrayList<>();
+
+    @BeforeEach
+    void popular() {
+        jdbcTemplate.update("MERGE INTO sugestoes (id, titulo, descricao, tipo_atendimento, prioridade, ativo) " +
+                "KEY (id) VALUES (1, 'Sugestão', 'Descrição da sugestão', 'CONSULTA', 3, TRUE)");
+    }
+
+    @AfterEach
+    void encerrar() throws InterruptedException {
+        for (RegistradorHistorico registrador : registradores) {
+            registrador.encerrar();
+        }
+    }
+
+    private RegistradorHistorico criar(int capacidade, int tamanhoLote, Duration intervalo) {
+        meterRegistry = new SimpleMeterRegistry();
+        RegistradorHistorico registrador = new RegistradorHistorico();
+        ReflectionTestUtils.setField(registrador, "jdbcTemplate", jdbcTemplate);
+        ReflectionTestUtils.setField(registrador, "transactionManager", transactionManager);
+        ReflectionTestUtils.setField(registrador, "meterRegistry", meterRegistry);
+        ReflectionTestUtils.setField(registrador, "estatisticaService", estatisticaService);
+        ReflectionTestUtils.setField(registrador, "sintomasHistoricoService", sintomasHistoricoService);
+        ReflectionTestUtils.setField(registrador, "entityManagerFactory", entityManagerFactory);
+        ReflectionTestUtils.setField(registrador, "capacidadeFila", capacidade);
+        ReflectionTestUtils.setField(registrador, "tamanhoLote", tamanhoLote);
+        ReflectionTestUtils.setField(registrador, "intervaloLote", intervalo);
+        ReflectionTestUtils.setField(registrador, "timeoutLote", Duration.ofSeconds(5));
+        ReflectionTestUtils.setField(registrador, "timeoutDesligamento", Duration.ofSeconds(10));
+        registrador.iniciar();
+        registradores.add(registrador);
+        return registrador;
+    }
+
+    private EventoHistorico evento(String cpf) {
+        return evento(cpf, 1L);
+    }
+
+    private EventoHistorico evento(String cpf, Long sugestaoId) {
+        return new EventoHistorico("febre", List.of("febre"), cpf, "Maria", sugestaoId, "10.0.0.1", "JUnit",
+                LocalDateTime.now(), 10L, "CONSULTA");
+    }
+
+    private double eventos(String resultado) {
+        return meterRegistry.counter("historico.eventos", "resultado", resultado).count();
+    }
+
+    private double tamanhoFila() {
+        return meterRegistry.get("historico.fila.tamanho").gauge().value();
+    }
+
+    private int gravadosNoBanco(String cpf) {
+        return jdbcTemplate.queryForObject("SELECT COUNT(*) FROM historico_consultas WHERE cpf_paciente = ?",
+                Integer.class, cpf);
+    }
+
+    private static void aguardar(BooleanSupplier condicao) throws InterruptedException {
+        long limite = System.nanoTime() + Duration.ofSeconds(5).toNanos();
+        while (!condicao.getAsBoolean()) {
+            assertThat(System.nanoTime()).as("condição não atingida em 5s").isLessThan(limite);
+            Thread.sleep(10);
+        }
+    }
+
+    /** Segura o bloqueio da gravação até o latch devolvido ser liberado. */
+    private CountDownLatch travarGravacao() throws InterruptedException {
+        CountDownLatch travado = new CountDownLatch(1);
+        CountDownLatch liberar = new CountDownLatch(1);
+        Thread trava = new Thread(() -> estatisticaService.executarSincronizado(() -> {
+            travado.countDown();
+            try {
+                liberar.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }));
+        trava.setDaemon(true);
+        trava.start();
+        travado.await();
+        return liberar;
+    }
+
+    @Test
+    void loteCompletoEGravadoSemEsperarOIntervalo() throws InterruptedException {
+        RegistradorHistorico registrador = criar(100, 3, Duration.ofHours(1));
+
+        assertThat(registrador.registrarTodos(Collections.nCopies(4, evento("10000000001")))).isEqualTo(4);
+
+        aguardar(() -> eventos("gravado") == 3);
+        Thread.sleep(200);
+        assertThat(eventos("gravado")).isEqualTo(3);
+        assertThat(gravadosNoBanco("10000000001")).isEqualTo(3);
+    }
+
+    @Test
+    void loteIncompletoEGravadoAoFimDoIntervalo() throws InterruptedException {
+        RegistradorHistorico registrador = criar(100, 100, Duration.ofMillis(100));
+
+        assertThat(registrador.registrarTodos(Collections.nCopies(2, evento("10000000002")))).isEqualTo(2);
+
+        aguardar(() -> eventos("gravado") == 2);
+        assertThat(gravadosNoBanco("10000000002")).isEqualTo(2);
+    }
+
+    @Test
+    void filaCheiaDescartaEContabiliza() throws InterruptedException {
+        RegistradorHistorico registrador = criar(2, 1, Duration.ofHours(1));
+        CountDownLatch liberar = travarGravacao();
+
+        assertThat(registrador.registrar(evento("10000000003"))).isTrue();
+        aguardar(() -> tamanhoFila() == 0);
+        assertThat(registrador.registrarTodos(Collections.nCopies(3, evento("10000000003")))).isEqualTo(2);
+
+        assertThat(eventos("enfileirado")).isEqualTo(3);
+        assertThat(eventos("descartado")).isEqualTo(1);
+
+        liberar.countDown();
+        aguardar(() -> eventos("gravado") == 3);
+        assertThat(gravadosNoBanco("10000000003")).isEqualTo(3);
+    }
+
+    @Test
+    void desligamentoGravaOQueFicouNaFila() throws Exception {
+        RegistradorHistorico registrador = criar(100, 2, Duration.ofHours(1));
+        CountDownLatch liberar = travarGravacao();
+
+        assertThat(registrador.registrar(evento("10000000004"))).isTrue();
+        aguardar(() -> tamanhoFila() == 0);
+        assertThat(registrador.registrarTodos(Collections.nCopies(4, evento("10000000004")))).isEqualTo(4);
+
+        Thread encerramento = new Thread(() -> {
+            try {
+                registrador.encerrar();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        });
+        encerramento.start();
+        aguardar(() -> !(Boolean) ReflectionTestUtils.getField(registrador, "ativo"));
+        assertThat(registrador.registrar(evento("10000000004"))).isFalse();
+
+        liberar.countDown();
+        encerramento.join();
+
+        assertThat(eventos("gravado")).isEqualTo(5);
+        assertThat(eventos("descartado")).isEqualTo(1);
+        assertThat(tamanhoFila()).isZero();
+        assertThat(gravadosNoBanco("10000000004")).isEqualTo(5);
+    }
+
+    @Test
+    void registroRecusadoNaoDerrubaOLote() throws InterruptedException {
+        RegistradorHistorico registrador = criar(100, 5, Duration.ofHours(1));
+        List<EventoHistorico> lote = new ArrayList<>(Collections.nCopies(4, evento("10000000005")));
+        lote.add(2, evento("10000000005", 999L));
+
+        assertThat(registrador.registrarTodos(lote)).isEqualTo(5);
+
+        aguardar(() -> eventos("gravado") + eventos("falha") == 5);
+        assertThat(eventos("gravado")).isEqualTo(4);
+        assertThat(eventos("falha")).isEqualTo(1);
+        assertThat(gravadosNoBanco("10000000005")).isEqualTo(4);
+        assertThat(jdbcTemplate.queryForObject("SELECT COUNT(*) FROM historico_consultas h " +
+                "WHERE h.cpf_paciente = '10000000005' AND NOT EXISTS " +
+                "(SELECT 1 FROM historico_sintomas s WHERE s.historico_id = h.id)", Integer.class)).isZero();
+    }
+}
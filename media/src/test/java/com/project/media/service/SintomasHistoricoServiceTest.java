@@ -0,0 +1,158 @@
+package com.project.media.service;
+
+import com.project.media.dto.FrequenciaSintomaDto;
+import com.project.media.dto.HistoricoConsultaDto;
+import com.project.media.repository.HistoricoConsultaRepository;
+import com.project.media.repository.RoteamentoHistorico;
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DataJpaTest(properties = {
+        "media.historico.sintomas.backfill-inicial=false",
+        "media.historico.sintomas.backfill-lote=100"
+})
+@Import({RoteamentoHistorico.class, SintomasHistoricoService.class, CatalogoVersao.class, MarcosProcessamento.class})
+class SintomasHistoricoServiceTest {
+
+    private static final LocalDateTime INICIO = LocalDateTime.of(2025, 1, 1, 0, 0);
+
+    @Autowired
+    private SintomasHistoricoService sintomasHistoricoService;
+
+    @Autowired
+    private RoteamentoHistorico roteamento;
+
+    @Autowired
+    private HistoricoConsultaRepository historicoRepository;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @Autowired
+    private CatalogoVersao catalogoVersao;
+
+    @Autowired
+    private MarcosProcessamento marcos;
+
+    @BeforeEach
+    void popular() {
+        entityManager.createNativeQuery(
+                "INSERT INTO sintomas (id, nome, categoria) VALUES (1, 'Falta de ar', 'RESPIRATORIO')").executeUpdate();
+        entityManager.createNativeQuery(
+                "INSERT INTO sugestoes (id, titulo, descricao, tipo_atendimento, prioridade, ativo) " +
+                "VALUES (1, 'Sugestão', 'Descrição da sugestão', 'CONSULTA', 3, TRUE)").executeUpdate();
+        entityManager.createNativeQuery(
+                "INSERT INTO historico_consultas (id, sintomas_informados, cpf_paciente, sugestao_id, data_consulta) " +
+                "SELECT x, CASE WHEN MOD(x, 3) = 0 THEN 'Febre, falta de ar ,febre' ELSE 'febre, tosse' END, " +
+                "LPAD(MOD(x, 50), 11, '0'), 1, " +
+                "DATEADD('MINUTE', x, TIMESTAMP '2025-01-01 00:00:00') " +
+                "FROM SYSTEM_RANGE(1, 300)").executeUpdate();
+        roteamento.recalcular();
+        // catálogo alterado direto no banco: a nova versão descarta o mapa de nomes do teste anterior
+        catalogoVersao.incrementar();
+    }
+
+    private void inserirConsulta(long id, String sintomasInformados) {
+        entityManager.createNativeQuery(
+                "INSERT INTO historico_consultas (id, sintomas_informados, sugestao_id, data_consulta) " +
+                "VALUES (?1, ?2, 1, TIMESTAMP '2025-01-02 00:00:00')")
+                .setParameter(1, id)
+                .setParameter(2, sintomasInformados)
+                .executeUpdate();
+    }
+
+    private Long sintomaDoTermo(long historicoId, String termo) {
+        return ((Number) entityManager.createNativeQuery(
+                "SELECT COALESCE(sintoma_id, -1) FROM historico_sintomas WHERE historico_id = ?1 AND termo = ?2")
+                .setParameter(1, historicoId)
+                .setParameter(2, termo)
+                .getSingleResult()).longValue();
+    }
+
+    @Test
+    void preencheTermosNormalizadosUmaVez() {
+        assertThat(sintomasHistoricoService.reconstruir()).isEqualTo(300);
+        assertThat(sintomasHistoricoService.reconstruir()).isZero();
+
+        List<FrequenciaSintomaDto> frequencias = sintomasHistoricoService.buscarFrequencias(
+                INICIO, INICIO.plusDays(1), null, 10);
+        assertThat(frequencias).extracting(FrequenciaSintomaDto::getTermo)
+                .containsExactly("febre", "tosse", "falta de ar");
+        assertThat(frequencias).extracting(FrequenciaSintomaDto::getTotalConsultas)
+                .containsExactly(300L, 200L, 100L);
+        assertThat(frequencias.get(2).getSintomaId()).isNotNull();
+        assertThat(frequencias.get(1).getSintomaId()).isNull();
+    }
+
+    @Test
+    void filtraHistoricoPorSintomaEPeriodo() {
+        sintomasHistoricoService.reconstruir();
+
+        List<HistoricoConsultaDto> consultas = historicoRepository.findDtoKeyset(null,
+                INICIO.plusMinutes(31), INICIO.plusMinutes(120), "falta de ar", null, null, 50);
+        assertThat(consultas).hasSize(30);
+        assertThat(consultas).allSatisfy(dto -> assertThat(dto.getSintomasInformados()).contains("falta de ar"));
+        assertThat(sintomasHistoricoService.buscarFrequencias(INICIO, INICIO.plusMinutes(90), "falta de ar", 10))
+                .singleElement()
+                .extracting(FrequenciaSintomaDto::getTotalConsultas).isEqualTo(30L);
+    }
+
+    @Test
+    void consultasSemTermoNaoSaoRelidasNaProximaSubida() {
+        inserirConsulta(301, " , ");
+
+        assertThat(sintomasHistoricoService.reconstruir()).isEqualTo(301);
+        assertThat(marcos.ler(SintomasHistoricoService.MARCO_BACKFILL + "historico_consultas")).isEqualTo(301);
+        assertThat(sintomasHistoricoService.reconstruir()).isZero();
+
+        inserirConsulta(302, ",");
+        inserirConsulta(303, "Tosse");
+        assertThat(sintomasHistoricoService.reconstruir()).isEqualTo(2);
+        assertThat(marcos.ler(SintomasHistoricoService.MARCO_BACKFILL + "historico_consultas")).isEqualTo(303);
+        assertThat(sintomaDoTermo(303, "tosse")).isEqualTo(-1);
+    }
+
+    @Test
+    void sintomaDoTermoEOMenorIdDoCatalogoComOMesmoNome() {
+        entityManager.createNativeQuery(
+                "INSERT INTO sintomas (id, nome, categoria, ativo) VALUES " +
+                "(2, 'FALTA DE AR', 'RESPIRATORIO', TRUE), (3, 'Tosse', 'RESPIRATORIO', FALSE)").executeUpdate();
+        catalogoVersao.incrementar();
+
+        sintomasHistoricoService.reconstruir();
+
+        assertThat(sintomaDoTermo(3, "falta de ar")).isEqualTo(1);
+        assertThat(sintomaDoTermo(1, "tosse")).isEqualTo(3);
+        assertThat(sintomaDoTermo(1, "febre")).isEqualTo(-1);
+    }
+
+    @Test
+    void termoLongoEAcentuadoCabeEm100Bytes() {
+        String longo = "dor intensa no tórax com irradiação para o braço esquerdo e náusea súbita após "
+                + "esforço físico";
+        String termo = SintomasHistoricoService.termos(List.of(longo)).get(0);
+        assertThat(longo.length()).isLessThanOrEqualTo(SintomasHistoricoService.TAMANHO_TERMO);
+        assertThat(longo.getBytes(StandardCharsets.UTF_8).length)
+                .isGreaterThan(SintomasHistoricoService.TAMANHO_TERMO);
+        assertThat(termo.getBytes(StandardCharsets.UTF_8).length)
+                .isLessThanOrEqualTo(SintomasHistoricoService.TAMANHO_TERMO);
+        assertThat(longo).startsWith(termo);
+
+        String comEmoji = "a".repeat(98) + "\uD83D\uDE37";
+        assertThat(SintomasHistoricoService.termos(List.of(comEmoji))).containsExactly("a".repeat(98));
+
+        inserirConsulta(301, longo + ", febre");
+        sintomasHistoricoService.reconstruir();
+        assertThat(sintomaDoTermo(301, termo)).isEqualTo(-1);
+    }
+}